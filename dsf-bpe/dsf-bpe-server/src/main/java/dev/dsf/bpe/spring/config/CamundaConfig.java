@@ -1,6 +1,7 @@
 package dev.dsf.bpe.spring.config;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 
 import org.apache.commons.dbcp2.BasicDataSource;
@@ -29,10 +30,13 @@ import dev.dsf.bpe.listener.DefaultBpmnParseListener;
 import dev.dsf.bpe.listener.EndListener;
 import dev.dsf.bpe.listener.StartListener;
 import dev.dsf.bpe.variables.VariablesImpl;
+import dev.dsf.common.db.BasicDataSourceWithStatistics;
 
 @Configuration
 public class CamundaConfig
 {
+	private static final Duration POOL_EVICTION_INTERVAL = Duration.ofSeconds(30);
+
 	@Autowired
 	private PropertiesConfig propertiesConfig;
 
@@ -60,17 +64,35 @@ public class CamundaConfig
 	@Bean
 	public BasicDataSource camundaDataSource()
 	{
-		BasicDataSource dataSource = new BasicDataSource();
+		BasicDataSource dataSource = new BasicDataSourceWithStatistics();
 		dataSource.setDriverClassName(Driver.class.getName());
 		dataSource.setUrl(propertiesConfig.getDbUrl());
 		dataSource.setUsername(propertiesConfig.getDbCamundaUsername());
 		dataSource.setPassword(toString(propertiesConfig.getDbCamundaPassword()));
 
-		dataSource.setTestOnBorrow(true);
-		dataSource.setValidationQuery("SELECT 1");
+		configurePool(dataSource);
+
 		return dataSource;
 	}
 
+	private void configurePool(BasicDataSource dataSource)
+	{
+		dataSource.setMaxTotal(propertiesConfig.getDbPoolMaxTotal());
+		dataSource.setMaxIdle(propertiesConfig.getDbPoolMaxTotal());
+		dataSource.setMinIdle(propertiesConfig.getDbPoolMinIdle());
+		dataSource.setMaxWait(Duration.ofMillis(propertiesConfig.getDbPoolMaxWaitMillis()));
+
+		dataSource.setPoolPreparedStatements(propertiesConfig.getDbPoolStatementCacheSize() > 0);
+		dataSource.setMaxOpenPreparedStatements(propertiesConfig.getDbPoolStatementCacheSize());
+
+		// no validation query on borrow, idle connections validated via Connection.isValid by the evictor,
+		// connections with fatal errors not returned to the pool
+		dataSource.setTestOnBorrow(false);
+		dataSource.setTestWhileIdle(true);
+		dataSource.setDurationBetweenEvictionRuns(POOL_EVICTION_INTERVAL);
+		dataSource.setFastFailValidation(true);
+	}
+
 	private String toString(char[] password)
 	{
 		return password == null ? null : String.valueOf(password);
@@ -1,5 +1,9 @@
 package dev.dsf.bpe.spring.config;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import javax.sql.DataSource;
 
 import org.apache.commons.dbcp2.BasicDataSource;
@@ -14,30 +18,64 @@ import dev.dsf.bpe.dao.ProcessPluginResourcesDao;
 import dev.dsf.bpe.dao.ProcessPluginResourcesDaoJdbc;
 import dev.dsf.bpe.dao.ProcessStateDao;
 import dev.dsf.bpe.dao.ProcessStateDaoJdbc;
+import dev.dsf.common.db.BasicDataSourceWithStatistics;
+import dev.dsf.common.db.DataSourceMetrics;
 import dev.dsf.common.db.DataSourceWithLogger;
 
 @Configuration
 public class DaoConfig
 {
+	private static final Duration POOL_EVICTION_INTERVAL = Duration.ofSeconds(30);
+
 	@Autowired
 	private PropertiesConfig propertiesConfig;
 
+	@Autowired
+	private CamundaConfig camundaConfig;
+
 	@Bean
 	public DataSource dataSource()
 	{
-		BasicDataSource dataSource = new BasicDataSource();
+		BasicDataSource dataSource = new BasicDataSourceWithStatistics();
 		dataSource.setDriverClassName(Driver.class.getName());
 		dataSource.setUrl(propertiesConfig.getDbUrl());
 		dataSource.setUsername(propertiesConfig.getDbUsername());
 		dataSource.setPassword(toString(propertiesConfig.getDbPassword()));
 		dataSource.setDefaultReadOnly(true);
 
-		dataSource.setTestOnBorrow(true);
-		dataSource.setValidationQuery("SELECT 1");
+		configurePool(dataSource);
 
 		return new DataSourceWithLogger(propertiesConfig.getDebugLogMessageDbStatement(), dataSource);
 	}
 
+	@Bean
+	public DataSourceMetrics dataSourceMetrics()
+	{
+		Map<String, DataSource> dataSourcesByPool = new LinkedHashMap<>();
+		dataSourcesByPool.put("bpe", dataSource());
+		dataSourcesByPool.put("camunda", camundaConfig.camundaDataSource());
+
+		return new DataSourceMetrics(dataSourcesByPool);
+	}
+
+	private void configurePool(BasicDataSource dataSource)
+	{
+		dataSource.setMaxTotal(propertiesConfig.getDbPoolMaxTotal());
+		dataSource.setMaxIdle(propertiesConfig.getDbPoolMaxTotal());
+		dataSource.setMinIdle(propertiesConfig.getDbPoolMinIdle());
+		dataSource.setMaxWait(Duration.ofMillis(propertiesConfig.getDbPoolMaxWaitMillis()));
+
+		dataSource.setPoolPreparedStatements(propertiesConfig.getDbPoolStatementCacheSize() > 0);
+		dataSource.setMaxOpenPreparedStatements(propertiesConfig.getDbPoolStatementCacheSize());
+
+		// no validation query on borrow, idle connections validated via Connection.isValid by the evictor,
+		// connections with fatal errors not returned to the pool
+		dataSource.setTestOnBorrow(false);
+		dataSource.setTestWhileIdle(true);
+		dataSource.setDurationBetweenEvictionRuns(POOL_EVICTION_INTERVAL);
+		dataSource.setFastFailValidation(true);
+	}
+
 	private String toString(char[] password)
 	{
 		return password == null ? null : String.valueOf(password);
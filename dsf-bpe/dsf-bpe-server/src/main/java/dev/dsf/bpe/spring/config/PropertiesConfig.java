@@ -49,6 +49,22 @@ public class PropertiesConfig implements InitializingBean
 	@Value("${dev.dsf.bpe.db.user.camunda.password}")
 	private char[] dbCamundaPassword;
 
+	@Documentation(description = "Max number of database connections of the DSF BPE server, applies separately to the connection pools of both database users", recommendation = "Increase if the process engine job executor max pool size or the number of process start/continue threads is increased")
+	@Value("${dev.dsf.bpe.db.pool.max.total:20}")
+	private int dbPoolMaxTotal;
+
+	@Documentation(description = "Min number of idle database connections kept open by the DSF BPE server")
+	@Value("${dev.dsf.bpe.db.pool.min.idle:2}")
+	private int dbPoolMinIdle;
+
+	@Documentation(description = "Max time in milliseconds to wait for a free database connection if all connections are in use, requests fail after waiting; a negative value means waiting indefinitely")
+	@Value("${dev.dsf.bpe.db.pool.max.wait:30000}")
+	private long dbPoolMaxWaitMillis;
+
+	@Documentation(description = "Max number of prepared statements cached per database connection; `0` disables the statement cache")
+	@Value("${dev.dsf.bpe.db.pool.statement.cache.size:200}")
+	private int dbPoolStatementCacheSize;
+
 	@Documentation(description = "UI theme parameter, adds a color indicator to the ui to distinguish `dev`, `test` and `prod` environments im configured; supported values: `dev`, `test` and `prod`")
 	@Value("${dev.dsf.bpe.server.ui.theme:}")
 	private String uiTheme;
@@ -141,6 +157,14 @@ public class PropertiesConfig implements InitializingBean
 	@Value("${dev.dsf.bpe.process.threads:-1}")
 	private int processStartOrContinueThreads;
 
+	@Documentation(description = "Max number of Task / QuestionnaireResponse resources queued for the process threads; if the queue is full, receiving resources via websocket is paused until queued resources are handled")
+	@Value("${dev.dsf.bpe.process.queue.size:1000}")
+	private int processStartOrContinueQueueSize;
+
+	@Documentation(description = "Page size for reading Task / QuestionnaireResponse resources created while the websocket connection was not established, resources of a page are handled by the process threads in parallel")
+	@Value("${dev.dsf.bpe.process.replay.page.size:100}")
+	private int processReplayPageSize;
+
 	@Documentation(description = "Process engine job executor core pool size")
 	@Value("${dev.dsf.bpe.process.engine.corePoolSize:4}")
 	private int processEngineJobExecutorCorePoolSize;
@@ -319,9 +343,10 @@ public class PropertiesConfig implements InitializingBean
 					fhirServerBaseUrl);
 
 		logger.info(
-				"Concurrency config: {process-threads: {}, engine-core-pool: {}, engine-queue: {}, engine-max-pool: {}}",
-				getProcessStartOrContinueThreads(), processEngineJobExecutorCorePoolSize,
-				processEngineJobExecutorQueueSize, processEngineJobExecutorMaxPoolSize);
+				"Concurrency config: {process-threads: {}, process-queue: {}, process-replay-page: {}, engine-core-pool: {}, engine-queue: {}, engine-max-pool: {}}",
+				getProcessStartOrContinueThreads(), processStartOrContinueQueueSize, processReplayPageSize,
+				processEngineJobExecutorCorePoolSize, processEngineJobExecutorQueueSize,
+				processEngineJobExecutorMaxPoolSize);
 	}
 
 	public String getDbUrl()
@@ -349,6 +374,26 @@ public class PropertiesConfig implements InitializingBean
 		return dbCamundaPassword;
 	}
 
+	public int getDbPoolMaxTotal()
+	{
+		return dbPoolMaxTotal;
+	}
+
+	public int getDbPoolMinIdle()
+	{
+		return dbPoolMinIdle;
+	}
+
+	public long getDbPoolMaxWaitMillis()
+	{
+		return dbPoolMaxWaitMillis;
+	}
+
+	public int getDbPoolStatementCacheSize()
+	{
+		return dbPoolStatementCacheSize;
+	}
+
 	public Theme getUiTheme()
 	{
 		return Theme.fromString(uiTheme);
@@ -471,6 +516,16 @@ public class PropertiesConfig implements InitializingBean
 			return processStartOrContinueThreads;
 	}
 
+	public int getProcessStartOrContinueQueueSize()
+	{
+		return processStartOrContinueQueueSize;
+	}
+
+	public int getProcessReplayPageSize()
+	{
+		return processReplayPageSize;
+	}
+
 	public int getProcessEngineJobExecutorCorePoolSize()
 	{
 		return processEngineJobExecutorCorePoolSize;
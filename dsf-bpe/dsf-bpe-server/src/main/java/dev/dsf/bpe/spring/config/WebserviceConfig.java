@@ -2,6 +2,7 @@ package dev.dsf.bpe.spring.config;
 
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.List;
 
 import org.camunda.bpm.engine.ProcessEngine;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +14,7 @@ import dev.dsf.bpe.ui.ThymeleafTemplateServiceImpl;
 import dev.dsf.bpe.webservice.ProcessService;
 import dev.dsf.bpe.webservice.RootService;
 import dev.dsf.common.auth.logout.LogoutService;
+import dev.dsf.common.status.webservice.MetricsService;
 import dev.dsf.common.status.webservice.StatusService;
 import dev.dsf.common.ui.webservice.StaticResourcesService;
 
@@ -28,6 +30,9 @@ public class WebserviceConfig
 	@Autowired
 	private PropertiesConfig propertiesConfig;
 
+	@Autowired
+	private WebsocketConfig websocketConfig;
+
 	@Bean
 	public ThymeleafTemplateService thymeleafTemplateService()
 	{
@@ -70,4 +75,13 @@ public class WebserviceConfig
 	{
 		return new StatusService(daoConfig.dataSource(), propertiesConfig.getJettyStatusConnectorPort());
 	}
+
+	@Bean
+	public MetricsService metricsService()
+	{
+		return new MetricsService(propertiesConfig.getJettyStatusConnectorPort(),
+				List.of(websocketConfig.taskSubscriptionHandlerFactory(),
+						websocketConfig.questionnaireResponseSubscriptionHandlerFactory(),
+						daoConfig.dataSourceMetrics()));
+	}
 }
@@ -1,5 +1,8 @@
 package dev.dsf.bpe.spring.config;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.hl7.fhir.r4.model.QuestionnaireResponse;
 import org.hl7.fhir.r4.model.Task;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,7 +15,6 @@ import dev.dsf.bpe.subscription.FhirConnectorImpl;
 import dev.dsf.bpe.subscription.QuestionnaireResponseHandler;
 import dev.dsf.bpe.subscription.QuestionnaireResponseSubscriptionHandlerFactory;
 import dev.dsf.bpe.subscription.ResourceHandler;
-import dev.dsf.bpe.subscription.SubscriptionHandlerFactory;
 import dev.dsf.bpe.subscription.TaskHandler;
 import dev.dsf.bpe.subscription.TaskSubscriptionHandlerFactory;
 
@@ -43,10 +45,19 @@ public class WebsocketConfig
 	}
 
 	@Bean
-	public SubscriptionHandlerFactory<Task> taskSubscriptionHandlerFactory()
+	public ExecutorService replayExecutor()
+	{
+		// not using the subscription handler factory threads, handlers are waiting for replayed resources
+		return Executors.newFixedThreadPool(propertiesConfig.getProcessStartOrContinueThreads());
+	}
+
+	@Bean
+	public ConcurrentSubscriptionHandlerFactory<Task> taskSubscriptionHandlerFactory()
 	{
 		return new ConcurrentSubscriptionHandlerFactory<>(propertiesConfig.getProcessStartOrContinueThreads(),
-				new TaskSubscriptionHandlerFactory(taskHandler(), daoConfig.lastEventTimeDaoTask()));
+				propertiesConfig.getProcessStartOrContinueQueueSize(), "Task", Task::getInstantiatesCanonical,
+				new TaskSubscriptionHandlerFactory(taskHandler(), daoConfig.lastEventTimeDaoTask(),
+						propertiesConfig.getProcessReplayPageSize(), replayExecutor()));
 	}
 
 	@Bean
@@ -64,11 +75,14 @@ public class WebsocketConfig
 	}
 
 	@Bean
-	public SubscriptionHandlerFactory<QuestionnaireResponse> questionnaireResponseSubscriptionHandlerFactory()
+	public ConcurrentSubscriptionHandlerFactory<QuestionnaireResponse> questionnaireResponseSubscriptionHandlerFactory()
 	{
 		return new ConcurrentSubscriptionHandlerFactory<>(propertiesConfig.getProcessStartOrContinueThreads(),
+				propertiesConfig.getProcessStartOrContinueQueueSize(), "QuestionnaireResponse",
+				QuestionnaireResponse::getQuestionnaire,
 				new QuestionnaireResponseSubscriptionHandlerFactory(questionnaireResponseHandler(),
-						daoConfig.lastEventTimeDaoQuestionnaireResponse()));
+						daoConfig.lastEventTimeDaoQuestionnaireResponse(), propertiesConfig.getProcessReplayPageSize(),
+						replayExecutor()));
 	}
 
 	@Bean
@@ -1,52 +1,76 @@
 package dev.dsf.bpe.subscription;
 
 import java.util.Objects;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import org.hl7.fhir.r4.model.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 
+import dev.dsf.common.status.metrics.MetricsCollector;
+import dev.dsf.common.status.metrics.MetricsSource;
 import dev.dsf.fhir.client.FhirWebserviceClient;
 
+/**
+ * Resources are handled by a {@link FairQueueExecutor}, queued per process. If the queue is full, the websocket thread
+ * calling the event handler blocks until tasks are completed.
+ */
 public class ConcurrentSubscriptionHandlerFactory<R extends Resource>
-		implements SubscriptionHandlerFactory<R>, InitializingBean
+		implements SubscriptionHandlerFactory<R>, MetricsSource, InitializingBean, DisposableBean
 {
 	private static final Logger logger = LoggerFactory.getLogger(ConcurrentSubscriptionHandlerFactory.class);
 
+	private static final String PING_KEY = "ping";
+	private static final String UNKNOWN_KEY = "unknown";
+
 	private final SubscriptionHandlerFactory<R> delegate;
+	private final Function<R, String> processKey;
 
-	private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
-	private final ThreadPoolExecutor executor;
+	private final FairQueueExecutor executor;
 
 	/**
-	 * @param corePoolSize
+	 * @param threads
+	 *            <code>&gt; 0</code>
+	 * @param queueCapacity
 	 *            <code>&gt; 0</code>
+	 * @param resourceTypeName
+	 *            not <code>null</code>, used for thread and metric names
+	 * @param processKey
+	 *            not <code>null</code>, key to queue resources by, e.g. the instantiated process
 	 * @param delegate
 	 *            not <code>null</code>
 	 */
-	public ConcurrentSubscriptionHandlerFactory(int corePoolSize, SubscriptionHandlerFactory<R> delegate)
+	public ConcurrentSubscriptionHandlerFactory(int threads, int queueCapacity, String resourceTypeName,
+			Function<R, String> processKey, SubscriptionHandlerFactory<R> delegate)
 	{
-		if (corePoolSize <= 0)
-			throw new IllegalArgumentException("corePoolSize <= 0");
-
-		executor = new ThreadPoolExecutor(corePoolSize, corePoolSize, 30, TimeUnit.MINUTES, queue,
-				(r, executor) -> logger.error("Unable to handle Task - execution rejected"));
-		executor.allowCoreThreadTimeOut(true);
+		executor = new FairQueueExecutor(threads, queueCapacity, resourceTypeName + "-handler",
+				"dsf_bpe_" + toSnakeCase(resourceTypeName) + "_handler");
 
+		this.processKey = processKey;
 		this.delegate = delegate;
 	}
 
+	private static String toSnakeCase(String resourceTypeName)
+	{
+		return resourceTypeName.replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase();
+	}
+
 	@Override
 	public void afterPropertiesSet() throws Exception
 	{
+		Objects.requireNonNull(processKey, "processKey");
 		Objects.requireNonNull(delegate, "delegate");
 	}
 
+	@Override
+	public void destroy() throws Exception
+	{
+		executor.shutdown(60, TimeUnit.SECONDS);
+	}
+
 	@Override
 	public ExistingResourceLoader<R> createExistingResourceLoader(FhirWebserviceClient client)
 	{
@@ -57,7 +81,7 @@ public class ConcurrentSubscriptionHandlerFactory<R extends Resource>
 	public EventResourceHandler<R> createEventResourceHandler()
 	{
 		final EventResourceHandler<R> delegateHandler = delegate.createEventResourceHandler();
-		return resource -> executor.submit(() ->
+		return resource -> execute(Objects.requireNonNullElse(processKey.apply(resource), UNKNOWN_KEY), () ->
 		{
 			logger.debug("executing onResource for {} with id: {}", resource.getResourceType().name(),
 					resource.getIdElement().getValue());
@@ -70,7 +94,30 @@ public class ConcurrentSubscriptionHandlerFactory<R extends Resource>
 	{
 		final PingEventResourceHandler<R> delegateHandler = delegate
 				.createPingEventResourceHandler(existingResourceLoader);
-		return (ping, subscriptionIdPart, searchCriteriaQueryParameters) -> executor
-				.submit(() -> delegateHandler.onPing(ping, subscriptionIdPart, searchCriteriaQueryParameters));
+		return (ping, subscriptionIdPart, searchCriteriaQueryParameters) -> execute(PING_KEY,
+				() -> delegateHandler.onPing(ping, subscriptionIdPart, searchCriteriaQueryParameters));
+	}
+
+	private void execute(String key, Runnable task)
+	{
+		try
+		{
+			executor.execute(key, task);
+		}
+		catch (InterruptedException e)
+		{
+			logger.error("Unable to handle resource for {} - interrupted", key);
+			Thread.currentThread().interrupt();
+		}
+		catch (IllegalStateException e)
+		{
+			logger.error("Unable to handle resource for {} - execution rejected", key);
+		}
+	}
+
+	@Override
+	public void collectMetrics(MetricsCollector collector)
+	{
+		executor.collectMetrics(collector);
 	}
 }
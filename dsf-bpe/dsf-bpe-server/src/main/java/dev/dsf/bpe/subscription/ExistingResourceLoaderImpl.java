@@ -1,26 +1,42 @@
 package dev.dsf.bpe.subscription;
 
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.Bundle.BundleEntryComponent;
+import org.hl7.fhir.r4.model.Bundle.BundleLinkComponent;
 import org.hl7.fhir.r4.model.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import ca.uhn.fhir.model.api.annotation.ResourceDef;
 import dev.dsf.bpe.dao.LastEventTimeDao;
 import dev.dsf.fhir.client.FhirWebserviceClient;
 import jakarta.ws.rs.core.UriBuilder;
 
+/**
+ * Resources are read in pages sorted by <i>_lastUpdated</i> and id. Next pages are requested with the <i>_cursor</i> of
+ * the next link, resources with equal <i>_lastUpdated</i> values are neither skipped nor repeated while paging, even if
+ * handled resources no longer match the search criteria. Resources of a page are handled in parallel if an executor is
+ * configured, the last event time is written once per page.
+ */
 public class ExistingResourceLoaderImpl<R extends Resource> implements ExistingResourceLoader<R>
 {
 	private static final Logger logger = LoggerFactory.getLogger(ExistingResourceLoaderImpl.class);
@@ -29,22 +45,54 @@ public class ExistingResourceLoaderImpl<R extends Resource> implements ExistingR
 	private static final String PARAM_COUNT = "_count";
 	private static final String PARAM_PAGE = "_page";
 	private static final String PARAM_SORT = "_sort";
-	private static final int RESULT_PAGE_COUNT = 20;
+	private static final String PARAM_CURSOR = "_cursor";
+
+	public static final int DEFAULT_PAGE_SIZE = 20;
 
 	private final LastEventTimeDao lastEventTimeDao;
 	private final FhirWebserviceClient webserviceClient;
 	private final ResourceHandler<R> handler;
 	private final String resourceName;
 	private final Class<R> resourceClass;
+	private final int pageSize;
+	private final ExecutorService executor;
 
 	public ExistingResourceLoaderImpl(LastEventTimeDao lastEventTimeDao, ResourceHandler<R> handler,
 			FhirWebserviceClient webserviceClient, String resourceName, Class<R> resourceClass)
 	{
+		this(lastEventTimeDao, handler, webserviceClient, resourceName, resourceClass, DEFAULT_PAGE_SIZE, null);
+	}
+
+	/**
+	 * @param lastEventTimeDao
+	 *            not <code>null</code>
+	 * @param handler
+	 *            not <code>null</code>
+	 * @param webserviceClient
+	 *            not <code>null</code>
+	 * @param resourceName
+	 *            not <code>null</code>
+	 * @param resourceClass
+	 *            not <code>null</code>
+	 * @param pageSize
+	 *            <code>&gt; 0</code>
+	 * @param executor
+	 *            may be <code>null</code>, resources are handled sequentially if <code>null</code>
+	 */
+	public ExistingResourceLoaderImpl(LastEventTimeDao lastEventTimeDao, ResourceHandler<R> handler,
+			FhirWebserviceClient webserviceClient, String resourceName, Class<R> resourceClass, int pageSize,
+			ExecutorService executor)
+	{
+		if (pageSize <= 0)
+			throw new IllegalArgumentException("pageSize <= 0");
+
 		this.lastEventTimeDao = lastEventTimeDao;
 		this.handler = handler;
 		this.webserviceClient = webserviceClient;
 		this.resourceName = resourceName;
 		this.resourceClass = resourceClass;
+		this.pageSize = pageSize;
+		this.executor = executor;
 	}
 
 	@Override
@@ -63,33 +111,48 @@ public class ExistingResourceLoaderImpl<R extends Resource> implements ExistingR
 		readLastEventTime.ifPresent(lastEventTime -> queryParams.put(PARAM_LAST_UPDATED,
 				Collections.singletonList("gt" + lastEventTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))));
 
-		queryParams.put(PARAM_COUNT, Collections.singletonList(String.valueOf(RESULT_PAGE_COUNT)));
+		queryParams.put(PARAM_COUNT, Collections.singletonList(String.valueOf(pageSize)));
 		queryParams.put(PARAM_PAGE, Collections.singletonList("1"));
 		queryParams.put(PARAM_SORT, Collections.singletonList(PARAM_LAST_UPDATED));
 
-		UriBuilder builder = UriBuilder.fromPath(resourceName);
-		queryParams.forEach((k, v) -> builder.replaceQueryParam(k, v.toArray()));
+		boolean found = false;
+		while (true)
+		{
+			UriBuilder builder = UriBuilder.fromPath(resourceName);
+			queryParams.forEach((k, v) -> builder.replaceQueryParam(k, v.toArray()));
 
-		logger.debug("Executing search {}", builder.toString());
-		Bundle bundle = webserviceClient.searchWithStrictHandling(resourceClass, queryParams);
+			logger.debug("Executing search {}", builder.toString());
+			Bundle bundle = webserviceClient.searchWithStrictHandling(resourceClass, queryParams);
 
-		if (bundle.getTotal() <= 0)
-		{
-			logger.debug("Result bundle.total <= 0");
-			return false;
+			List<R> resources = getResources(bundle);
+			if (resources.isEmpty())
+			{
+				logger.debug("Result bundle contains no {} resources", resourceName);
+				return found;
+			}
+
+			found = true;
+			handle(resources);
+
+			// without cursor support, next pages would skip resources no longer matching, restarting from last event
+			Optional<Map<String, List<String>>> nextPageParams = getNextPageCursorParameters(bundle);
+			if (nextPageParams.isEmpty())
+				return true;
+
+			queryParams.putAll(nextPageParams.get());
 		}
+	}
+
+	private List<R> getResources(Bundle bundle)
+	{
+		List<R> resources = new ArrayList<>();
 
 		for (BundleEntryComponent entry : bundle.getEntry())
 		{
 			if (entry.hasResource())
 			{
 				if (resourceClass.isInstance(entry.getResource()))
-				{
-					@SuppressWarnings("unchecked")
-					R resource = (R) entry.getResource();
-					handler.onResource(resource);
-					writeLastEventTime(resource.getMeta().getLastUpdated());
-				}
+					resources.add(resourceClass.cast(entry.getResource()));
 				else
 				{
 					logger.warn("Ignoring resource of type {}",
@@ -102,7 +165,89 @@ public class ExistingResourceLoaderImpl<R extends Resource> implements ExistingR
 			}
 		}
 
-		return true;
+		return resources;
+	}
+
+	private Optional<Map<String, List<String>>> getNextPageCursorParameters(Bundle bundle)
+	{
+		BundleLinkComponent next = bundle.getLink(Bundle.LINK_NEXT);
+		if (next == null || !next.hasUrl())
+			return Optional.empty();
+
+		MultiValueMap<String, String> nextParams = UriComponentsBuilder.fromUriString(next.getUrl()).build()
+				.getQueryParams();
+
+		if (!nextParams.containsKey(PARAM_CURSOR))
+			return Optional.empty();
+
+		Map<String, List<String>> params = new HashMap<>();
+		params.put(PARAM_CURSOR, decode(nextParams.get(PARAM_CURSOR)));
+		if (nextParams.containsKey(PARAM_PAGE))
+			params.put(PARAM_PAGE, decode(nextParams.get(PARAM_PAGE)));
+
+		return Optional.of(params);
+	}
+
+	private List<String> decode(List<String> values)
+	{
+		return values.stream().map(v -> URLDecoder.decode(v, StandardCharsets.UTF_8)).toList();
+	}
+
+	/**
+	 * Handles the given resources and writes the last event time once. If a resource could not be handled, the last
+	 * event time of the resource before is written and the error is thrown after all resources are handled.
+	 *
+	 * @param resources
+	 *            sorted by last updated
+	 */
+	private void handle(List<R> resources)
+	{
+		List<Future<?>> futures = resources.stream().map(this::submit).toList();
+
+		Date lastEventTime = null;
+		RuntimeException error = null;
+		for (int i = 0; i < resources.size(); i++)
+		{
+			try
+			{
+				futures.get(i).get();
+
+				if (error == null)
+					lastEventTime = resources.get(i).getMeta().getLastUpdated();
+			}
+			catch (ExecutionException e)
+			{
+				if (error == null)
+					error = e.getCause() instanceof RuntimeException r ? r : new RuntimeException(e.getCause());
+			}
+			catch (InterruptedException e)
+			{
+				futures.forEach(f -> f.cancel(true));
+				Thread.currentThread().interrupt();
+
+				if (error == null)
+					error = new RuntimeException(e);
+				break;
+			}
+		}
+
+		if (lastEventTime != null)
+			writeLastEventTime(lastEventTime);
+
+		if (error != null)
+			throw error;
+	}
+
+	private Future<?> submit(R resource)
+	{
+		if (executor != null)
+			return executor.submit(() -> handler.onResource(resource));
+		else
+		{
+			FutureTask<?> task = new FutureTask<>(() -> handler.onResource(resource), null);
+			task.run();
+			return task;
+		}
 	}
 
 	private Optional<LocalDateTime> readLastEventTime()
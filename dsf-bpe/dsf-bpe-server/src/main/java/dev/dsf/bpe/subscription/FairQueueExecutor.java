@@ -0,0 +1,315 @@
+package dev.dsf.bpe.subscription;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import dev.dsf.common.status.metrics.MetricsCollector;
+import dev.dsf.common.status.metrics.MetricsSource;
+
+/**
+ * Executes tasks with a fixed number of threads. Tasks are queued per key and taken from the keys with queued tasks in
+ * round-robin order, a flood of tasks for one key does not delay tasks for other keys by more than one task per key.
+ * <p>
+ * The number of queued tasks is limited, {@link #execute(String, Runnable)} blocks the calling thread if the limit is
+ * reached.
+ */
+public class FairQueueExecutor implements MetricsSource
+{
+	private static final Logger logger = LoggerFactory.getLogger(FairQueueExecutor.class);
+
+	private static record Job(String key, Runnable task, long queuedNanos)
+	{
+	}
+
+	private static final class KeyStatistics
+	{
+		final LongAdder completed = new LongAdder();
+		final LongAdder failed = new LongAdder();
+		final LongAdder waitTimeNanos = new LongAdder();
+		final LongAdder executionTimeNanos = new LongAdder();
+		final AtomicLong maxExecutionTimeNanos = new AtomicLong();
+	}
+
+	private final String metricsPrefix;
+	private final int queueCapacity;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
+	private final Condition notFull = lock.newCondition();
+
+	// guarded by lock
+	private final Map<String, ArrayDeque<Job>> queuesByKey = new HashMap<>();
+	private final ArrayDeque<String> keysWithJobs = new ArrayDeque<>();
+	private int queued;
+	private boolean shutdown;
+
+	private final ConcurrentMap<String, KeyStatistics> statisticsByKey = new ConcurrentHashMap<>();
+	private final LongAdder blockedSubmits = new LongAdder();
+
+	private final List<Thread> workers = new ArrayList<>();
+
+	/**
+	 * @param threads
+	 *            <code>&gt; 0</code>
+	 * @param queueCapacity
+	 *            <code>&gt; 0</code>, max number of queued tasks for all keys
+	 * @param threadNamePrefix
+	 *            not <code>null</code>
+	 * @param metricsPrefix
+	 *            not <code>null</code>, e.g. <code>dsf_bpe_task_handler</code>
+	 */
+	public FairQueueExecutor(int threads, int queueCapacity, String threadNamePrefix, String metricsPrefix)
+	{
+		if (threads <= 0)
+			throw new IllegalArgumentException("threads <= 0");
+		if (queueCapacity <= 0)
+			throw new IllegalArgumentException("queueCapacity <= 0");
+
+		Objects.requireNonNull(threadNamePrefix, "threadNamePrefix");
+		this.metricsPrefix = Objects.requireNonNull(metricsPrefix, "metricsPrefix");
+		this.queueCapacity = queueCapacity;
+
+		for (int i = 0; i < threads; i++)
+		{
+			Thread worker = new Thread(this::work, threadNamePrefix + "-" + i);
+			worker.setDaemon(true);
+			workers.add(worker);
+			worker.start();
+		}
+	}
+
+	/**
+	 * Blocks until the task could be queued.
+	 *
+	 * @param key
+	 *            not <code>null</code>
+	 * @param task
+	 *            not <code>null</code>
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for free queue capacity
+	 * @throws IllegalStateException
+	 *             if the executor was shut down
+	 */
+	public void execute(String key, Runnable task) throws InterruptedException
+	{
+		Objects.requireNonNull(key, "key");
+		Objects.requireNonNull(task, "task");
+
+		lock.lockInterruptibly();
+		try
+		{
+			if (queued >= queueCapacity && !shutdown)
+			{
+				blockedSubmits.increment();
+				logger.debug("Queue full, waiting to queue task for {}", key);
+
+				while (queued >= queueCapacity && !shutdown)
+					notFull.await();
+			}
+
+			if (shutdown)
+				throw new IllegalStateException("Executor shut down");
+
+			ArrayDeque<Job> queue = queuesByKey.computeIfAbsent(key, k -> new ArrayDeque<>());
+			if (queue.isEmpty())
+				keysWithJobs.addLast(key);
+
+			queue.addLast(new Job(key, task, System.nanoTime()));
+			queued++;
+
+			notEmpty.signal();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	private Job take() throws InterruptedException
+	{
+		lock.lockInterruptibly();
+		try
+		{
+			while (keysWithJobs.isEmpty())
+			{
+				if (shutdown)
+					return null;
+
+				notEmpty.await();
+			}
+
+			String key = keysWithJobs.pollFirst();
+			ArrayDeque<Job> queue = queuesByKey.get(key);
+			Job job = queue.pollFirst();
+
+			if (queue.isEmpty())
+				queuesByKey.remove(key);
+			else
+				keysWithJobs.addLast(key);
+
+			queued--;
+			notFull.signal();
+
+			return job;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	private void work()
+	{
+		try
+		{
+			Job job;
+			while ((job = take()) != null)
+				run(job);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void run(Job job)
+	{
+		KeyStatistics statistics = statisticsByKey.computeIfAbsent(job.key(), k -> new KeyStatistics());
+
+		long start = System.nanoTime();
+		statistics.waitTimeNanos.add(start - job.queuedNanos());
+
+		try
+		{
+			job.task().run();
+			statistics.completed.increment();
+		}
+		catch (Exception e)
+		{
+			statistics.failed.increment();
+
+			logger.debug("Error while executing task for {}", job.key(), e);
+			logger.error("Error while executing task for {}: {} - {}", job.key(), e.getClass().getName(),
+					e.getMessage());
+		}
+		finally
+		{
+			long executionTime = System.nanoTime() - start;
+			statistics.executionTimeNanos.add(executionTime);
+			statistics.maxExecutionTimeNanos.accumulateAndGet(executionTime, Math::max);
+		}
+	}
+
+	/**
+	 * @return number of queued tasks for all keys
+	 */
+	public int getQueued()
+	{
+		lock.lock();
+		try
+		{
+			return queued;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Queued tasks are executed, blocked and new calls to {@link #execute(String, Runnable)} fail.
+	 *
+	 * @param timeout
+	 *            max time to wait for each worker thread
+	 * @param unit
+	 *            not <code>null</code>
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for the worker threads
+	 */
+	public void shutdown(long timeout, TimeUnit unit) throws InterruptedException
+	{
+		lock.lock();
+		try
+		{
+			shutdown = true;
+			notEmpty.signalAll();
+			notFull.signalAll();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+
+		for (Thread worker : workers)
+		{
+			worker.join(unit.toMillis(timeout));
+
+			if (worker.isAlive())
+			{
+				logger.warn("Worker thread {} did not terminate, interrupting", worker.getName());
+				worker.interrupt();
+			}
+		}
+	}
+
+	@Override
+	public void collectMetrics(MetricsCollector collector)
+	{
+		Map<String, Integer> queuedByKey = new HashMap<>();
+		int queuedTotal;
+
+		lock.lock();
+		try
+		{
+			queuesByKey.forEach((k, q) -> queuedByKey.put(k, q.size()));
+			queuedTotal = queued;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+
+		collector.gauge(metricsPrefix + "_queue_capacity", "Max number of queued tasks", queueCapacity);
+		collector.gauge(metricsPrefix + "_queue_depth_total", "Queued tasks", queuedTotal);
+		collector.counter(metricsPrefix + "_blocked_total", "Tasks waiting for free queue capacity",
+				blockedSubmits.sum());
+
+		Map<String, KeyStatistics> statistics = new HashMap<>(statisticsByKey);
+		queuedByKey.keySet().forEach(k -> statistics.putIfAbsent(k, new KeyStatistics()));
+
+		statistics.keySet().stream().sorted().forEach(k -> collector.gauge(metricsPrefix + "_queue_depth",
+				"Queued tasks per process", Map.of("process", k), queuedByKey.getOrDefault(k, 0)));
+		statistics.entrySet().stream().sorted(Map.Entry.comparingByKey())
+				.forEach(e -> collector.counter(metricsPrefix + "_completed_total", "Completed tasks per process",
+						Map.of("process", e.getKey()), e.getValue().completed.sum()));
+		statistics.entrySet().stream().sorted(Map.Entry.comparingByKey())
+				.forEach(e -> collector.counter(metricsPrefix + "_failed_total", "Failed tasks per process",
+						Map.of("process", e.getKey()), e.getValue().failed.sum()));
+		statistics.entrySet().stream().sorted(Map.Entry.comparingByKey())
+				.forEach(e -> collector.counter(metricsPrefix + "_wait_seconds_sum",
+						"Time tasks were queued per process", Map.of("process", e.getKey()),
+						e.getValue().waitTimeNanos.sum() / 1e9));
+		statistics.entrySet().stream().sorted(Map.Entry.comparingByKey())
+				.forEach(e -> collector.counter(metricsPrefix + "_execution_seconds_sum",
+						"Time tasks were executed per process", Map.of("process", e.getKey()),
+						e.getValue().executionTimeNanos.sum() / 1e9));
+		statistics.entrySet().stream().sorted(Map.Entry.comparingByKey())
+				.forEach(e -> collector.gauge(metricsPrefix + "_execution_seconds_max",
+						"Longest task execution time per process", Map.of("process", e.getKey()),
+						e.getValue().maxExecutionTimeNanos.get() / 1e9));
+	}
+}
@@ -1,6 +1,7 @@
 package dev.dsf.bpe.subscription;
 
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
 
 import org.hl7.fhir.r4.model.QuestionnaireResponse;
 import org.springframework.beans.factory.InitializingBean;
@@ -13,12 +14,32 @@ public class QuestionnaireResponseSubscriptionHandlerFactory
 {
 	private final ResourceHandler<QuestionnaireResponse> resourceHandler;
 	private final LastEventTimeDao lastEventTimeDao;
+	private final int replayPageSize;
+	private final ExecutorService replayExecutor;
 
 	public QuestionnaireResponseSubscriptionHandlerFactory(ResourceHandler<QuestionnaireResponse> resourceHandler,
 			LastEventTimeDao lastEventTimeDao)
+	{
+		this(resourceHandler, lastEventTimeDao, ExistingResourceLoaderImpl.DEFAULT_PAGE_SIZE, null);
+	}
+
+	/**
+	 * @param resourceHandler
+	 *            not <code>null</code>
+	 * @param lastEventTimeDao
+	 *            not <code>null</code>
+	 * @param replayPageSize
+	 *            <code>&gt; 0</code>, page size for reading existing resources
+	 * @param replayExecutor
+	 *            may be <code>null</code>, existing resources are handled sequentially if <code>null</code>
+	 */
+	public QuestionnaireResponseSubscriptionHandlerFactory(ResourceHandler<QuestionnaireResponse> resourceHandler,
+			LastEventTimeDao lastEventTimeDao, int replayPageSize, ExecutorService replayExecutor)
 	{
 		this.resourceHandler = resourceHandler;
 		this.lastEventTimeDao = lastEventTimeDao;
+		this.replayPageSize = replayPageSize;
+		this.replayExecutor = replayExecutor;
 	}
 
 	@Override
@@ -32,7 +53,7 @@ public class QuestionnaireResponseSubscriptionHandlerFactory
 	public ExistingResourceLoader<QuestionnaireResponse> createExistingResourceLoader(FhirWebserviceClient client)
 	{
 		return new ExistingResourceLoaderImpl<>(lastEventTimeDao, resourceHandler, client, "QuestionnaireResponse",
-				QuestionnaireResponse.class);
+				QuestionnaireResponse.class, replayPageSize, replayExecutor);
 	}
 
 	@Override
@@ -1,6 +1,7 @@
 package dev.dsf.bpe.subscription;
 
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
 
 import org.hl7.fhir.r4.model.Task;
 import org.springframework.beans.factory.InitializingBean;
@@ -12,11 +13,31 @@ public class TaskSubscriptionHandlerFactory implements SubscriptionHandlerFactor
 {
 	private final ResourceHandler<Task> resourceHandler;
 	private final LastEventTimeDao lastEventTimeDao;
+	private final int replayPageSize;
+	private final ExecutorService replayExecutor;
 
 	public TaskSubscriptionHandlerFactory(ResourceHandler<Task> resourceHandler, LastEventTimeDao lastEventTimeDao)
+	{
+		this(resourceHandler, lastEventTimeDao, ExistingResourceLoaderImpl.DEFAULT_PAGE_SIZE, null);
+	}
+
+	/**
+	 * @param resourceHandler
+	 *            not <code>null</code>
+	 * @param lastEventTimeDao
+	 *            not <code>null</code>
+	 * @param replayPageSize
+	 *            <code>&gt; 0</code>, page size for reading existing resources
+	 * @param replayExecutor
+	 *            may be <code>null</code>, existing resources are handled sequentially if <code>null</code>
+	 */
+	public TaskSubscriptionHandlerFactory(ResourceHandler<Task> resourceHandler, LastEventTimeDao lastEventTimeDao,
+			int replayPageSize, ExecutorService replayExecutor)
 	{
 		this.resourceHandler = resourceHandler;
 		this.lastEventTimeDao = lastEventTimeDao;
+		this.replayPageSize = replayPageSize;
+		this.replayExecutor = replayExecutor;
 	}
 
 	@Override
@@ -29,7 +50,8 @@ public class TaskSubscriptionHandlerFactory implements SubscriptionHandlerFactor
 	@Override
 	public ExistingResourceLoader<Task> createExistingResourceLoader(FhirWebserviceClient client)
 	{
-		return new ExistingResourceLoaderImpl<>(lastEventTimeDao, resourceHandler, client, "Task", Task.class);
+		return new ExistingResourceLoaderImpl<>(lastEventTimeDao, resourceHandler, client, "Task", Task.class,
+				replayPageSize, replayExecutor);
 	}
 
 	@Override
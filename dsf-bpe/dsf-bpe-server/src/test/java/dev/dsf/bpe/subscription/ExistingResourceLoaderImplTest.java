@@ -0,0 +1,122 @@
+package dev.dsf.bpe.subscription;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Task;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import dev.dsf.bpe.dao.LastEventTimeDao;
+import dev.dsf.fhir.client.FhirWebserviceClient;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ExistingResourceLoaderImplTest
+{
+	@Mock
+	private LastEventTimeDao lastEventTimeDao;
+
+	@Mock
+	private FhirWebserviceClient webserviceClient;
+
+	@Mock
+	private ResourceHandler<Task> handler;
+
+	private final List<Map<String, List<String>>> searches = new ArrayList<>();
+
+	private static Task task(String id, long lastUpdated)
+	{
+		Task task = new Task();
+		task.setIdElement(new IdType("Task", id));
+		task.getMeta().setLastUpdated(new Date(lastUpdated));
+		return task;
+	}
+
+	private static Bundle page(String nextUrl, Task... tasks)
+	{
+		Bundle bundle = new Bundle();
+		for (Task task : tasks)
+			bundle.addEntry().setResource(task);
+		if (nextUrl != null)
+			bundle.addLink().setRelation(Bundle.LINK_NEXT).setUrl(nextUrl);
+		return bundle;
+	}
+
+	private void search(Bundle... pages)
+	{
+		Mockito.when(
+				webserviceClient.searchWithStrictHandling(ArgumentMatchers.eq(Task.class), ArgumentMatchers.anyMap()))
+				.thenAnswer(i ->
+				{
+					searches.add(new HashMap<>(i.getArgument(1)));
+					return pages[searches.size() - 1];
+				});
+	}
+
+	@Test
+	public void testCursorPaging() throws Exception
+	{
+		Mockito.when(lastEventTimeDao.readLastEventTime()).thenReturn(Optional.empty());
+
+		Task t1 = task("1", 1000), t2 = task("2", 1000), t3 = task("3", 2000);
+		search(page("https://fhir.test/fhir/Task?_count=2&_page=2&_cursor=abc%3D", t1, t2), page(null, t3), page(null));
+
+		new ExistingResourceLoaderImpl<>(lastEventTimeDao, handler, webserviceClient, "Task", Task.class, 2, null)
+				.readExistingResources(Map.of("status", List.of("requested")));
+
+		Mockito.verify(handler).onResource(t1);
+		Mockito.verify(handler).onResource(t2);
+		Mockito.verify(handler).onResource(t3);
+		Mockito.verify(lastEventTimeDao).writeLastEventTime(new Date(1000));
+		Mockito.verify(lastEventTimeDao).writeLastEventTime(new Date(2000));
+
+		assertEquals(3, searches.size());
+		assertFalse(searches.get(0).containsKey("_cursor"));
+		assertEquals(List.of("1"), searches.get(0).get("_page"));
+		assertEquals(List.of("2"), searches.get(0).get("_count"));
+		assertEquals(List.of("abc="), searches.get(1).get("_cursor"));
+		assertEquals(List.of("2"), searches.get(1).get("_page"));
+		assertEquals(List.of("requested"), searches.get(1).get("status"));
+		assertFalse(searches.get(2).containsKey("_cursor"));
+	}
+
+	@Test
+	public void testFailingHandlerWritesLastEventTimeBeforeFailure() throws Exception
+	{
+		Mockito.when(lastEventTimeDao.readLastEventTime()).thenReturn(Optional.empty());
+
+		Task t1 = task("1", 1000), t2 = task("2", 2000), t3 = task("3", 3000);
+		search(page(null, t1, t2, t3));
+		Mockito.doThrow(new IllegalStateException("test")).when(handler).onResource(t2);
+
+		try
+		{
+			new ExistingResourceLoaderImpl<>(lastEventTimeDao, handler, webserviceClient, "Task", Task.class, 3, null)
+					.readExistingResources(Map.of());
+			fail("IllegalStateException expected");
+		}
+		catch (IllegalStateException e)
+		{
+			assertTrue(e.getMessage().contains("test"));
+		}
+
+		Mockito.verify(handler).onResource(t3);
+		Mockito.verify(lastEventTimeDao).writeLastEventTime(ArgumentMatchers.any(Date.class));
+		Mockito.verify(lastEventTimeDao).writeLastEventTime(new Date(1000));
+	}
+}
@@ -0,0 +1,131 @@
+package dev.dsf.bpe.subscription;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class FairQueueExecutorTest
+{
+	private final CountDownLatch started = new CountDownLatch(1);
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final List<String> executed = new CopyOnWriteArrayList<>();
+
+	private FairQueueExecutor executor;
+
+	@After
+	public void after() throws Exception
+	{
+		release.countDown();
+
+		if (executor != null)
+			executor.shutdown(10, TimeUnit.SECONDS);
+	}
+
+	private Runnable blocking(String name)
+	{
+		return () ->
+		{
+			started.countDown();
+			try
+			{
+				release.await();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+			executed.add(name);
+		};
+	}
+
+	private Runnable recording(String name)
+	{
+		return () -> executed.add(name);
+	}
+
+	@Test
+	public void testRoundRobinPerKey() throws Exception
+	{
+		executor = new FairQueueExecutor(1, 10, "test", "test");
+
+		executor.execute("a", blocking("a0"));
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+
+		executor.execute("a", recording("a1"));
+		executor.execute("a", recording("a2"));
+		executor.execute("a", recording("a3"));
+		executor.execute("b", recording("b1"));
+		assertEquals(4, executor.getQueued());
+
+		release.countDown();
+		executor.shutdown(10, TimeUnit.SECONDS);
+
+		assertEquals(List.of("a0", "a1", "b1", "a2", "a3"), executed);
+	}
+
+	@Test
+	public void testBlocksIfQueueFull() throws Exception
+	{
+		executor = new FairQueueExecutor(1, 1, "test", "test");
+
+		executor.execute("a", blocking("a0"));
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		executor.execute("a", recording("a1"));
+
+		CountDownLatch queued = new CountDownLatch(1);
+		Thread producer = new Thread(() ->
+		{
+			try
+			{
+				executor.execute("b", recording("b1"));
+				queued.countDown();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		});
+		producer.start();
+
+		assertFalse(queued.await(200, TimeUnit.MILLISECONDS));
+
+		release.countDown();
+		assertTrue(queued.await(10, TimeUnit.SECONDS));
+		producer.join(10_000);
+
+		executor.shutdown(10, TimeUnit.SECONDS);
+		assertEquals(List.of("a0", "a1", "b1"), executed);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testExecuteAfterShutdown() throws Exception
+	{
+		executor = new FairQueueExecutor(1, 1, "test", "test");
+		executor.shutdown(10, TimeUnit.SECONDS);
+
+		executor.execute("a", recording("a0"));
+	}
+
+	@Test
+	public void testFailingTask() throws Exception
+	{
+		executor = new FairQueueExecutor(1, 10, "test", "test");
+
+		executor.execute("a", () ->
+		{
+			throw new RuntimeException("test");
+		});
+		executor.execute("a", recording("a1"));
+
+		executor.shutdown(10, TimeUnit.SECONDS);
+		assertEquals(List.of("a1"), executed);
+	}
+}
@@ -0,0 +1,75 @@
+package dev.dsf.common.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+
+/**
+ * {@link BasicDataSource} recording the time callers wait for a connection from the pool and the number of requests
+ * failing because no connection became available within the configured max wait time.
+ */
+public class BasicDataSourceWithStatistics extends BasicDataSource
+{
+	private final LongAdder connectionRequests = new LongAdder();
+	private final LongAdder connectionTimeouts = new LongAdder();
+	private final LongAdder waitTimeNanos = new LongAdder();
+	private final AtomicLong maxWaitTimeNanos = new AtomicLong();
+
+	@Override
+	public Connection getConnection() throws SQLException
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return super.getConnection();
+		}
+		catch (SQLException e)
+		{
+			if (e.getCause() instanceof NoSuchElementException)
+				connectionTimeouts.increment();
+
+			throw e;
+		}
+		finally
+		{
+			long waitTime = System.nanoTime() - start;
+
+			connectionRequests.increment();
+			waitTimeNanos.add(waitTime);
+			maxWaitTimeNanos.accumulateAndGet(waitTime, Math::max);
+		}
+	}
+
+	public long getConnectionRequests()
+	{
+		return connectionRequests.sum();
+	}
+
+	/**
+	 * @return number of connection requests failed after waiting max wait time
+	 */
+	public long getConnectionTimeouts()
+	{
+		return connectionTimeouts.sum();
+	}
+
+	/**
+	 * @return sum of all connection request wait times in nanoseconds, including connection creation
+	 */
+	public long getWaitTimeNanos()
+	{
+		return waitTimeNanos.sum();
+	}
+
+	/**
+	 * @return longest connection request wait time in nanoseconds
+	 */
+	public long getMaxWaitTimeNanos()
+	{
+		return maxWaitTimeNanos.get();
+	}
+}
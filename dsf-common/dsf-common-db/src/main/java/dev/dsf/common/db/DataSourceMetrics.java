@@ -0,0 +1,110 @@
+package dev.dsf.common.db;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import dev.dsf.common.status.metrics.MetricsCollector;
+import dev.dsf.common.status.metrics.MetricsSource;
+
+/**
+ * Connection pool metrics of {@link BasicDataSource}s, labeled with the given pool names. Wait time and timeout metrics
+ * are only available for {@link BasicDataSourceWithStatistics}. Pools not wrapping a {@link BasicDataSource} are
+ * skipped.
+ */
+public class DataSourceMetrics implements MetricsSource
+{
+	private static final Logger logger = LoggerFactory.getLogger(DataSourceMetrics.class);
+
+	private final Map<String, DataSource> dataSourcesByPool = new LinkedHashMap<>();
+
+	/**
+	 * @param dataSourcesByPool
+	 *            not <code>null</code>, data sources must be {@link BasicDataSource}s or wrap a {@link BasicDataSource}
+	 */
+	public DataSourceMetrics(Map<String, ? extends DataSource> dataSourcesByPool)
+	{
+		Objects.requireNonNull(dataSourcesByPool, "dataSourcesByPool");
+		dataSourcesByPool.forEach((k, v) -> this.dataSourcesByPool.put(Objects.requireNonNull(k, "pool"),
+				Objects.requireNonNull(v, "dataSource")));
+	}
+
+	@Override
+	public void collectMetrics(MetricsCollector collector)
+	{
+		Map<String, BasicDataSource> pools = new LinkedHashMap<>();
+		for (Map.Entry<String, DataSource> e : dataSourcesByPool.entrySet())
+		{
+			try
+			{
+				pools.put(e.getKey(), e.getValue().unwrap(BasicDataSource.class));
+			}
+			catch (SQLException ex)
+			{
+				logger.debug("Unable to collect metrics of pool {}", e.getKey(), ex);
+				logger.warn("Unable to collect metrics of pool {}: {} - {}", e.getKey(), ex.getClass().getName(),
+						ex.getMessage());
+			}
+		}
+
+		gauge(collector, pools, "dsf_db_pool_connections_max", "Max number of connections",
+				BasicDataSource::getMaxTotal);
+		gauge(collector, pools, "dsf_db_pool_connections_active", "Connections borrowed from the pool",
+				BasicDataSource::getNumActive);
+		gauge(collector, pools, "dsf_db_pool_connections_idle", "Idle connections in the pool",
+				BasicDataSource::getNumIdle);
+		gauge(collector, pools, "dsf_db_pool_waiting", "Threads waiting for a connection",
+				pool(GenericObjectPool::getNumWaiters));
+		counter(collector, pools, "dsf_db_pool_connections_created_total", "Connections created",
+				pool(GenericObjectPool::getCreatedCount));
+		counter(collector, pools, "dsf_db_pool_connections_destroyed_total", "Connections closed",
+				pool(GenericObjectPool::getDestroyedCount));
+
+		Map<String, BasicDataSourceWithStatistics> withStatistics = new LinkedHashMap<>();
+		pools.forEach((k, v) ->
+		{
+			if (v instanceof BasicDataSourceWithStatistics s)
+				withStatistics.put(k, s);
+		});
+
+		counter(collector, withStatistics, "dsf_db_pool_requests_total", "Connection requests",
+				BasicDataSourceWithStatistics::getConnectionRequests);
+		counter(collector, withStatistics, "dsf_db_pool_timeouts_total",
+				"Connection requests failed after waiting max wait time",
+				BasicDataSourceWithStatistics::getConnectionTimeouts);
+		counter(collector, withStatistics, "dsf_db_pool_wait_seconds_sum", "Time waited for connections",
+				s -> s.getWaitTimeNanos() / 1e9);
+		gauge(collector, withStatistics, "dsf_db_pool_wait_seconds_max", "Longest wait for a connection",
+				s -> s.getMaxWaitTimeNanos() / 1e9);
+	}
+
+	private static ToDoubleFunction<BasicDataSource> pool(ToDoubleFunction<GenericObjectPool<?>> metric)
+	{
+		return dataSource ->
+		{
+			GenericObjectPool<?> pool = dataSource.getConnectionPool();
+			return pool == null ? 0 : metric.applyAsDouble(pool);
+		};
+	}
+
+	private static <D> void gauge(MetricsCollector collector, Map<String, D> pools, String name, String help,
+			ToDoubleFunction<? super D> value)
+	{
+		pools.forEach((k, v) -> collector.gauge(name, help, Map.of("pool", k), value.applyAsDouble(v)));
+	}
+
+	private static <D> void counter(MetricsCollector collector, Map<String, D> pools, String name, String help,
+			ToDoubleFunction<? super D> value)
+	{
+		pools.forEach((k, v) -> collector.counter(name, help, Map.of("pool", k), value.applyAsDouble(v)));
+	}
+}
@@ -0,0 +1,125 @@
+package dev.dsf.common.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class BasicDataSourceWithStatisticsTest
+{
+	private static Object defaultValue(Class<?> type)
+	{
+		if (boolean.class.equals(type))
+			return false;
+		else if (int.class.equals(type))
+			return 0;
+		else
+			return null;
+	}
+
+	private static Connection connection()
+	{
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, (proxy, method, args) -> switch (method.getName())
+				{
+					case "isValid", "getAutoCommit" -> true;
+					case "hashCode" -> System.identityHashCode(proxy);
+					case "equals" -> proxy == args[0];
+					case "toString" -> "test connection";
+					default -> defaultValue(method.getReturnType());
+				});
+	}
+
+	private static Driver driver(boolean fail)
+	{
+		return (Driver) Proxy.newProxyInstance(Driver.class.getClassLoader(), new Class<?>[] { Driver.class },
+				(proxy, method, args) ->
+				{
+					if ("connect".equals(method.getName()) && fail)
+						throw new SQLException("test");
+
+					return switch (method.getName())
+					{
+						case "connect" -> connection();
+						case "acceptsURL" -> true;
+						default -> defaultValue(method.getReturnType());
+					};
+				});
+	}
+
+	private static BasicDataSourceWithStatistics createDataSource(boolean fail)
+	{
+		BasicDataSourceWithStatistics dataSource = new BasicDataSourceWithStatistics();
+		dataSource.setDriver(driver(fail));
+		dataSource.setUrl("jdbc:test");
+		dataSource.setMaxTotal(1);
+		dataSource.setMaxWait(Duration.ofMillis(50));
+		return dataSource;
+	}
+
+	@Test
+	public void testTimeoutCounted() throws Exception
+	{
+		BasicDataSourceWithStatistics dataSource = createDataSource(false);
+		try
+		{
+			try (Connection c = dataSource.getConnection())
+			{
+				// pool exhausted, second request waits max wait time
+				try (Connection c2 = dataSource.getConnection())
+				{
+					fail("SQLException expected");
+				}
+				catch (SQLException e)
+				{
+					assertTrue(e.getCause() instanceof NoSuchElementException);
+				}
+			}
+
+			// connection returned to the pool
+			dataSource.getConnection().close();
+
+			assertEquals(3, dataSource.getConnectionRequests());
+			assertEquals(1, dataSource.getConnectionTimeouts());
+			assertTrue(dataSource.getMaxWaitTimeNanos() >= TimeUnit.MILLISECONDS.toNanos(50));
+			assertTrue(dataSource.getWaitTimeNanos() >= dataSource.getMaxWaitTimeNanos());
+		}
+		finally
+		{
+			dataSource.close();
+		}
+	}
+
+	@Test
+	public void testConnectionErrorNotCountedAsTimeout() throws Exception
+	{
+		BasicDataSourceWithStatistics dataSource = createDataSource(true);
+		try
+		{
+			try (Connection c = dataSource.getConnection())
+			{
+				fail("SQLException expected");
+			}
+			catch (SQLException e)
+			{
+				// expected
+			}
+
+			assertEquals(1, dataSource.getConnectionRequests());
+			assertEquals(0, dataSource.getConnectionTimeouts());
+		}
+		finally
+		{
+			dataSource.close();
+		}
+	}
+}
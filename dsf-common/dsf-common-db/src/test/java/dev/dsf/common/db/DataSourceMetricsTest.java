@@ -0,0 +1,69 @@
+package dev.dsf.common.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+
+import dev.dsf.common.status.metrics.MetricsCollector;
+
+public class DataSourceMetricsTest
+{
+	private static DataSource notUnwrappable()
+	{
+		return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),
+				new Class<?>[] { DataSource.class }, (proxy, method, args) ->
+				{
+					throw new SQLException("test");
+				});
+	}
+
+	@Test
+	public void testPoolNotUnwrappableSkipped() throws Exception
+	{
+		BasicDataSourceWithStatistics dataSource = new BasicDataSourceWithStatistics();
+		dataSource.setMaxTotal(5);
+
+		Map<String, DataSource> dataSourcesByPool = new LinkedHashMap<>();
+		dataSourcesByPool.put("broken", notUnwrappable());
+		dataSourcesByPool.put("pool", dataSource);
+
+		List<String> pools = new ArrayList<>();
+		List<String> names = new ArrayList<>();
+		new DataSourceMetrics(dataSourcesByPool).collectMetrics(new MetricsCollector()
+		{
+			@Override
+			public void counter(String name, String help, Map<String, String> labels, double value)
+			{
+				names.add(name);
+				pools.add(labels.get("pool"));
+			}
+
+			@Override
+			public void gauge(String name, String help, Map<String, String> labels, double value)
+			{
+				names.add(name);
+				pools.add(labels.get("pool"));
+
+				if ("dsf_db_pool_connections_max".equals(name))
+					assertEquals(5, value, 0);
+			}
+		});
+
+		// metrics of remaining pool still collected
+		assertFalse(pools.isEmpty());
+		assertTrue(pools.stream().allMatch("pool"::equals));
+		assertTrue(names.contains("dsf_db_pool_connections_max"));
+		assertTrue(names.contains("dsf_db_pool_timeouts_total"));
+	}
+}
@@ -19,6 +19,7 @@ import jakarta.servlet.http.HttpServletRequest;
 public class StatusPortAuthenticator implements Authenticator
 {
 	private static final String STATUS_PATH = "/status";
+	private static final String METRICS_PATH = "/metrics";
 
 	private final Supplier<Integer> statusPortSupplier;
 
@@ -49,7 +50,8 @@ public class StatusPortAuthenticator implements Authenticator
 	private boolean isStatusPortAndPathGetRequest(ServletRequest req)
 	{
 		HttpServletRequest request = (HttpServletRequest) req;
-		return HttpMethod.GET.is(request.getMethod()) && STATUS_PATH.equals(request.getPathInfo())
+		return HttpMethod.GET.is(request.getMethod())
+				&& (STATUS_PATH.equals(request.getPathInfo()) || METRICS_PATH.equals(request.getPathInfo()))
 				&& statusPortSupplier.get() != null && statusPortSupplier.get() == request.getLocalPort();
 	}
 
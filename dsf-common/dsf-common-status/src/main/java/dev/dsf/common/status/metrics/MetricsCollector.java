@@ -0,0 +1,60 @@
+package dev.dsf.common.status.metrics;
+
+import java.util.Map;
+
+/**
+ * Metric names should follow the Prometheus naming conventions, e.g. <code>dsf_fhir_events_dropped_total</code>. Values
+ * of the same metric with different labels should be collected consecutively.
+ */
+public interface MetricsCollector
+{
+	/**
+	 * @param name
+	 *            not <code>null</code>
+	 * @param help
+	 *            not <code>null</code>
+	 * @param value
+	 *            monotonically increasing value
+	 */
+	default void counter(String name, String help, double value)
+	{
+		counter(name, help, Map.of(), value);
+	}
+
+	/**
+	 * @param name
+	 *            not <code>null</code>
+	 * @param help
+	 *            not <code>null</code>
+	 * @param labels
+	 *            not <code>null</code>, label names and values
+	 * @param value
+	 *            monotonically increasing value
+	 */
+	void counter(String name, String help, Map<String, String> labels, double value);
+
+	/**
+	 * @param name
+	 *            not <code>null</code>
+	 * @param help
+	 *            not <code>null</code>
+	 * @param value
+	 *            current value
+	 */
+	default void gauge(String name, String help, double value)
+	{
+		gauge(name, help, Map.of(), value);
+	}
+
+	/**
+	 * @param name
+	 *            not <code>null</code>
+	 * @param help
+	 *            not <code>null</code>
+	 * @param labels
+	 *            not <code>null</code>, label names and values
+	 * @param value
+	 *            current value
+	 */
+	void gauge(String name, String help, Map<String, String> labels, double value);
+}
@@ -0,0 +1,14 @@
+package dev.dsf.common.status.metrics;
+
+/**
+ * Components providing metrics for the <i>metrics</i> endpoint of the status port.
+ */
+@FunctionalInterface
+public interface MetricsSource
+{
+	/**
+	 * @param collector
+	 *            not <code>null</code>
+	 */
+	void collectMetrics(MetricsCollector collector);
+}
@@ -0,0 +1,129 @@
+package dev.dsf.common.status.webservice;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+
+import dev.dsf.common.status.metrics.MetricsCollector;
+import dev.dsf.common.status.metrics.MetricsSource;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.Status;
+
+/**
+ * Metrics of the given {@link MetricsSource}s in the Prometheus text exposition format, only available via the status
+ * port.
+ */
+@Path(MetricsService.PATH)
+@Produces(MediaType.TEXT_PLAIN)
+@RolesAllowed("STATUS_PORT_ROLE")
+public class MetricsService implements InitializingBean
+{
+	public static final String PATH = "metrics";
+
+	private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	private static final Logger logger = LoggerFactory.getLogger(MetricsService.class);
+
+	private static final class TextCollector implements MetricsCollector
+	{
+		final StringBuilder text = new StringBuilder();
+		final Set<String> described = new HashSet<>();
+
+		@Override
+		public void counter(String name, String help, Map<String, String> labels, double value)
+		{
+			add(name, help, "counter", labels, value);
+		}
+
+		@Override
+		public void gauge(String name, String help, Map<String, String> labels, double value)
+		{
+			add(name, help, "gauge", labels, value);
+		}
+
+		private void add(String name, String help, String type, Map<String, String> labels, double value)
+		{
+			if (described.add(name))
+			{
+				text.append("# HELP ").append(name).append(' ').append(help.replace("\\", "\\\\").replace("\n", "\\n"))
+						.append('\n');
+				text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+			}
+
+			text.append(name);
+			if (!labels.isEmpty())
+				text.append(labels.entrySet().stream()
+						.map(e -> e.getKey() + "=\""
+								+ e.getValue().replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"")
+						.sorted().collect(Collectors.joining(",", "{", "}")));
+			text.append(' ').append(formatValue(value)).append('\n');
+		}
+
+		private String formatValue(double value)
+		{
+			if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15)
+				return Long.toString((long) value);
+			else
+				return Double.toString(value);
+		}
+	}
+
+	private final int statusConnectorPort;
+	private final List<MetricsSource> sources = new ArrayList<>();
+
+	public MetricsService(int statusConnectorPort, List<? extends MetricsSource> sources)
+	{
+		this.statusConnectorPort = statusConnectorPort;
+
+		if (sources != null)
+			this.sources.addAll(sources);
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception
+	{
+		sources.forEach(s -> Objects.requireNonNull(s, "source"));
+	}
+
+	@GET
+	public Response metrics(@Context HttpServletRequest request)
+	{
+		if (request.getLocalPort() != statusConnectorPort)
+		{
+			logger.warn("Sending '401 Unauthorized' request not on status port {}", statusConnectorPort);
+			return Response.status(Status.UNAUTHORIZED).build();
+		}
+
+		TextCollector collector = new TextCollector();
+		for (MetricsSource source : sources)
+		{
+			try
+			{
+				source.collectMetrics(collector);
+			}
+			catch (Exception e)
+			{
+				logger.debug("Error while collecting metrics from {}", source.getClass().getName(), e);
+				logger.warn("Error while collecting metrics from {}: {} - {}", source.getClass().getName(),
+						e.getClass().getName(), e.getMessage());
+			}
+		}
+
+		return Response.ok(collector.text.toString(), CONTENT_TYPE).build();
+	}
+}
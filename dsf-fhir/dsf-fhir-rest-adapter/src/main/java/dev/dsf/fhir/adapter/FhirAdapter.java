@@ -5,14 +5,25 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
 
 import org.hl7.fhir.r4.model.BaseResource;
 import org.hl7.fhir.r4.model.Binary;
 import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.IdType;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.parser.IParser;
 import ca.uhn.fhir.rest.api.Constants;
@@ -33,6 +44,8 @@ import jakarta.ws.rs.ext.Provider;
 public class FhirAdapter extends AbstractAdapter
 		implements MessageBodyReader<BaseResource>, MessageBodyWriter<BaseResource>
 {
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
 	private final FhirContext fhirContext;
 
 	public FhirAdapter(FhirContext fhirContext)
@@ -63,7 +76,89 @@ public class FhirAdapter extends AbstractAdapter
 			MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
 			throws IOException, WebApplicationException
 	{
-		getParser(mediaType).encodeResourceToWriter(t, new OutputStreamWriter(entityStream));
+		IParser parser = getParser(mediaType);
+
+		if (isJson(mediaType))
+		{
+			Optional<String> json = RawJson.get(t);
+			if (json.isPresent())
+			{
+				Writer writer = new OutputStreamWriter(entityStream, StandardCharsets.UTF_8);
+				writer.write(json.get());
+				writer.flush();
+				return;
+			}
+			else if (t instanceof Bundle b
+					&& b.getEntry().stream().anyMatch(e -> RawJson.get(e.getResource()).isPresent()))
+			{
+				writeBundleWithRawJsonEntries(parser, b, mediaType, entityStream);
+				return;
+			}
+		}
+
+		parser.encodeResourceToWriter(t, new OutputStreamWriter(entityStream));
+	}
+
+	private boolean isJson(MediaType mediaType)
+	{
+		return switch (mediaType.getType() + "/" + mediaType.getSubtype())
+		{
+			case Constants.CT_FHIR_JSON_NEW, Constants.CT_FHIR_JSON, MediaType.APPLICATION_JSON -> true;
+			default -> false;
+		};
+	}
+
+	/**
+	 * Encodes the bundle with placeholder entry resources and replaces the placeholders with the attached JSON while
+	 * copying the encoded bundle to the output.
+	 */
+	private void writeBundleWithRawJsonEntries(IParser parser, Bundle bundle, MediaType mediaType,
+			OutputStream entityStream) throws IOException
+	{
+		List<Optional<String>> entryJson = bundle.getEntry().stream().map(e -> RawJson.get(e.getResource())).toList();
+
+		try (JsonParser p = JSON_FACTORY.createParser(parser.encodeResourceToString(bundle));
+				JsonGenerator g = JSON_FACTORY.createGenerator(entityStream, JsonEncoding.UTF8)
+						.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET))
+		{
+			if ("true".equals(mediaType.getParameters().getOrDefault(PRETTY, "false")))
+				g.useDefaultPrettyPrinter();
+
+			while (p.nextToken() != null)
+			{
+				int entryIndex = getEntryIndexIfEntryResource(p);
+				if (entryIndex >= 0 && entryIndex < entryJson.size() && entryJson.get(entryIndex).isPresent())
+				{
+					g.writeFieldName(p.currentName());
+					g.writeRawValue(entryJson.get(entryIndex).get());
+
+					p.nextToken();
+					p.skipChildren();
+				}
+				else
+					g.copyCurrentEventExact(p);
+			}
+		}
+	}
+
+	/**
+	 * @return index of the bundle entry if the current token is the field name <code>Bundle.entry.resource</code>,
+	 *         <code>-1</code> otherwise
+	 */
+	private int getEntryIndexIfEntryResource(JsonParser p) throws IOException
+	{
+		if (p.currentToken() != JsonToken.FIELD_NAME || !"resource".equals(p.currentName()))
+			return -1;
+
+		JsonStreamContext entry = p.getParsingContext();
+		JsonStreamContext entries = entry.getParent();
+		JsonStreamContext bundle = entries == null ? null : entries.getParent();
+
+		if (entries != null && entries.inArray() && bundle != null && "entry".equals(bundle.getCurrentName())
+				&& bundle.getParent() != null && bundle.getParent().inRoot())
+			return entries.getCurrentIndex();
+		else
+			return -1;
 	}
 
 	@Override
@@ -0,0 +1,47 @@
+package dev.dsf.fhir.adapter;
+
+import java.util.Optional;
+
+import org.hl7.fhir.r4.model.Base;
+
+/**
+ * Resources stored as JSON can be written by the {@link FhirAdapter} without parsing and encoding. Placeholder
+ * resources only contain id and meta data, the JSON to write is attached as user data.
+ */
+public final class RawJson
+{
+	private static final String USER_DATA_KEY = RawJson.class.getName();
+
+	private RawJson()
+	{
+	}
+
+	/**
+	 * @param <B>
+	 *            resource type
+	 * @param resource
+	 *            not <code>null</code>
+	 * @param json
+	 *            not <code>null</code>, JSON representation of the resource, written instead of the given resource if
+	 *            JSON is requested
+	 * @return the given resource
+	 */
+	public static <B extends Base> B attach(B resource, String json)
+	{
+		resource.setUserData(USER_DATA_KEY, json);
+		return resource;
+	}
+
+	/**
+	 * @param resource
+	 *            may be <code>null</code>
+	 * @return attached JSON, {@link Optional#empty()} if the given resource is <code>null</code> or no JSON attached
+	 */
+	public static Optional<String> get(Base resource)
+	{
+		if (resource == null)
+			return Optional.empty();
+
+		return resource.getUserData(USER_DATA_KEY) instanceof String json ? Optional.of(json) : Optional.empty();
+	}
+}
@@ -0,0 +1,97 @@
+package dev.dsf.fhir.adapter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.hl7.fhir.r4.model.BaseResource;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Bundle.BundleType;
+import org.hl7.fhir.r4.model.Bundle.SearchEntryMode;
+import org.hl7.fhir.r4.model.Organization;
+import org.hl7.fhir.r4.model.Questionnaire;
+import org.hl7.fhir.r4.model.Questionnaire.QuestionnaireItemType;
+import org.junit.Test;
+
+import ca.uhn.fhir.context.FhirContext;
+import jakarta.ws.rs.core.MediaType;
+
+public class FhirAdapterTest
+{
+	private static final FhirContext fhirContext = FhirContext.forR4();
+	private static final MediaType JSON = new MediaType("application", "fhir+json");
+
+	private final FhirAdapter adapter = new FhirAdapter(fhirContext);
+
+	private String write(BaseResource resource, MediaType mediaType) throws Exception
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		adapter.writeTo(resource, resource.getClass(), null, null, mediaType, null, out);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	private static Questionnaire createQuestionnaire()
+	{
+		Questionnaire q = new Questionnaire();
+		q.setIdElement(q.getIdElement().setValue("Questionnaire/1/_history/2"));
+		q.getMeta().setVersionId("2");
+		q.setUrl("http://test.com/fhir/Questionnaire/test").setVersion("1.0");
+		q.addItem().setLinkId("item").setText("Text with \"quotes\"").setType(QuestionnaireItemType.STRING);
+		return q;
+	}
+
+	private static Questionnaire createPlaceholder(Questionnaire q)
+	{
+		Questionnaire placeholder = new Questionnaire();
+		placeholder.setIdElement(q.getIdElement().copy());
+		placeholder.getMeta().setVersionId(q.getMeta().getVersionId());
+
+		return RawJson.attach(placeholder, fhirContext.newJsonParser().encodeResourceToString(q));
+	}
+
+	@Test
+	public void testWriteRawJson() throws Exception
+	{
+		Questionnaire q = createQuestionnaire();
+		String expected = fhirContext.newJsonParser().encodeResourceToString(q);
+
+		assertEquals(expected, write(createPlaceholder(q), JSON));
+	}
+
+	@Test
+	public void testWriteRawJsonBundleEntries() throws Exception
+	{
+		Questionnaire q = createQuestionnaire();
+		Organization o = new Organization().setName("Include");
+		o.setId("Organization/2");
+
+		Bundle expectedBundle = new Bundle().setType(BundleType.SEARCHSET).setTotal(1);
+		expectedBundle.addEntry().setFullUrl("http://test.com/fhir/Questionnaire/1").setResource(q).getSearch()
+				.setMode(SearchEntryMode.MATCH);
+		expectedBundle.addEntry().setFullUrl("http://test.com/fhir/Organization/2").setResource(o).getSearch()
+				.setMode(SearchEntryMode.INCLUDE);
+
+		Bundle bundle = expectedBundle.copy();
+		bundle.getEntry().get(0).setResource(createPlaceholder(q));
+
+		String expected = fhirContext.newJsonParser().encodeResourceToString(expectedBundle);
+		assertEquals(expected, write(bundle, JSON));
+
+		Bundle parsed = fhirContext.newJsonParser().parseResource(Bundle.class, write(bundle, JSON));
+		assertTrue(parsed.getEntry().get(0).getResource() instanceof Questionnaire);
+		assertEquals("Text with \"quotes\"",
+				((Questionnaire) parsed.getEntry().get(0).getResource()).getItemFirstRep().getText());
+	}
+
+	@Test
+	public void testWriteRawJsonIgnoredForXml() throws Exception
+	{
+		Questionnaire q = createQuestionnaire();
+		String written = write(createPlaceholder(q), new MediaType("application", "fhir+xml"));
+
+		assertTrue(written.startsWith("<Questionnaire"));
+		assertTrue(!written.contains("item"));
+	}
+}
@@ -3,9 +3,16 @@ package dev.dsf.fhir.authentication;
 import java.security.cert.X509Certificate;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.hl7.fhir.r4.model.Organization;
+import org.hl7.fhir.r4.model.OrganizationAffiliation;
 import org.hl7.fhir.r4.model.Practitioner;
+import org.hl7.fhir.r4.model.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
@@ -16,14 +23,35 @@ import dev.dsf.common.auth.conf.IdentityProvider;
 import dev.dsf.common.auth.conf.OrganizationIdentityImpl;
 import dev.dsf.common.auth.conf.PractitionerIdentityImpl;
 import dev.dsf.common.auth.conf.RoleConfig;
-
-public class IdentityProviderImpl extends AbstractIdentityProvider implements IdentityProvider, InitializingBean
+import dev.dsf.common.status.metrics.MetricsCollector;
+import dev.dsf.common.status.metrics.MetricsSource;
+import dev.dsf.fhir.event.Event;
+import dev.dsf.fhir.event.EventHandler;
+
+/**
+ * Identities for client certificates are cached by certificate thumbprint. The cache is cleared if Organization,
+ * OrganizationAffiliation or Practitioner resources are created, updated or deleted.
+ */
+public class IdentityProviderImpl extends AbstractIdentityProvider
+		implements IdentityProvider, EventHandler, MetricsSource, InitializingBean
 {
 	private static final Logger logger = LoggerFactory.getLogger(IdentityProviderImpl.class);
 
+	private static final int MAX_CACHE_SIZE = 10_000;
+
+	private static final Set<Class<? extends Resource>> IDENTITY_RESOURCE_TYPES = Set.of(Organization.class,
+			OrganizationAffiliation.class, Practitioner.class);
+
 	private final OrganizationProvider organizationProvider;
 	private final String localOrganizationIdentifierValue;
 
+	private final ConcurrentMap<String, Optional<Identity>> identitiesByThumbprint = new ConcurrentHashMap<>();
+	private final AtomicLong cacheGeneration = new AtomicLong();
+
+	private final LongAdder cacheHits = new LongAdder();
+	private final LongAdder cacheMisses = new LongAdder();
+	private final LongAdder cacheInvalidations = new LongAdder();
+
 	public IdentityProviderImpl(RoleConfig roleConfig, OrganizationProvider organizationProvider,
 			String localOrganizationIdentifierValue)
 	{
@@ -54,34 +82,60 @@ public class IdentityProviderImpl extends AbstractIdentityProvider implements Id
 
 		String thumbprint = getThumbprint(certificates[0]);
 
-		Optional<Organization> organization = organizationProvider.getOrganization(certificates[0]);
+		Optional<Identity> cached = identitiesByThumbprint.get(thumbprint);
+		if (cached != null)
+		{
+			cacheHits.increment();
+			return cached.orElse(null);
+		}
+
+		cacheMisses.increment();
+
+		long generation = cacheGeneration.get();
+		Identity identity = getIdentity(certificates[0], thumbprint);
+
+		// not caching identities created while the cache was cleared, may be based on outdated resources
+		if (generation == cacheGeneration.get())
+		{
+			if (identitiesByThumbprint.size() >= MAX_CACHE_SIZE)
+				identitiesByThumbprint.clear();
+
+			identitiesByThumbprint.put(thumbprint, Optional.ofNullable(identity));
+		}
+
+		return identity;
+	}
+
+	private Identity getIdentity(X509Certificate certificate, String thumbprint)
+	{
+		Optional<Organization> organization = organizationProvider.getOrganization(certificate);
 		if (organization.isPresent())
 		{
 			boolean localOrganization = isLocalOrganization(organization.get());
 
 			if (localOrganization)
 				return new OrganizationIdentityImpl(true, organization.get(), FhirServerRole.LOCAL_ORGANIZATION,
-						certificates[0]);
+						certificate);
 			else
 				return new OrganizationIdentityImpl(false, organization.get(), FhirServerRole.REMOTE_ORGANIZATION,
-						certificates[0]);
+						certificate);
 		}
 
-		Optional<Practitioner> practitioner = toPractitioner(certificates[0]);
+		Optional<Practitioner> practitioner = toPractitioner(certificate);
 		Optional<Organization> localOrganization = organizationProvider.getLocalOrganization();
 		if (practitioner.isPresent() && localOrganization.isPresent())
 		{
 			Practitioner p = practitioner.get();
 			Organization o = localOrganization.get();
 
-			return new PractitionerIdentityImpl(o, getDsfRolesFor(p, thumbprint, null, null), certificates[0], p,
+			return new PractitionerIdentityImpl(o, getDsfRolesFor(p, thumbprint, null, null), certificate, p,
 					getPractitionerRolesFor(p, thumbprint, null, null), null);
 		}
 		else
 		{
 			logger.warn(
 					"Certificate with thumbprint '{}' for '{}' unknown, not part of allowlist and not configured as local user or local organization",
-					thumbprint, getDn(certificates[0]));
+					thumbprint, getDn(certificate));
 			return null;
 		}
 	}
@@ -92,4 +146,29 @@ public class IdentityProviderImpl extends AbstractIdentityProvider implements Id
 				.filter(i -> OrganizationProvider.ORGANIZATION_IDENTIFIER_SYSTEM.equals(i.getSystem()))
 				.anyMatch(i -> localOrganizationIdentifierValue.equals(i.getValue()));
 	}
+
+	@Override
+	public void handleEvent(Event event)
+	{
+		if (event == null || !IDENTITY_RESOURCE_TYPES.contains(event.getResourceType()))
+			return;
+
+		cacheGeneration.incrementAndGet();
+		identitiesByThumbprint.clear();
+		cacheInvalidations.increment();
+
+		logger.debug("Identity cache cleared, {} {} {}", event.getResourceType().getSimpleName(), event.getId(),
+				event.getClass().getSimpleName());
+	}
+
+	@Override
+	public void collectMetrics(MetricsCollector collector)
+	{
+		collector.gauge("dsf_fhir_identity_cache_size", "Cached client certificate identities",
+				identitiesByThumbprint.size());
+		collector.counter("dsf_fhir_identity_cache_hits_total", "Identities found in cache", cacheHits.sum());
+		collector.counter("dsf_fhir_identity_cache_misses_total", "Identities not found in cache", cacheMisses.sum());
+		collector.counter("dsf_fhir_identity_cache_invalidations_total", "Identity cache clear operations",
+				cacheInvalidations.sum());
+	}
 }
@@ -27,6 +27,7 @@ import ca.uhn.fhir.model.api.annotation.ResourceDef;
 import dev.dsf.common.auth.conf.Identity;
 import dev.dsf.fhir.authentication.FhirServerRole;
 import dev.dsf.fhir.authentication.OrganizationProvider;
+import dev.dsf.fhir.authorization.AuthorizationCache.Region;
 import dev.dsf.fhir.authorization.read.ReadAccessHelper;
 import dev.dsf.fhir.dao.CodeSystemDao;
 import dev.dsf.fhir.dao.OrganizationDao;
@@ -55,10 +56,28 @@ public abstract class AbstractAuthorizationRule<R extends Resource, D extends Re
 	protected final OrganizationProvider organizationProvider;
 	protected final ReadAccessHelper readAccessHelper;
 	protected final ParameterConverter parameterConverter;
+	protected final AuthorizationCache authorizationCache;
 
+	private final boolean createBatchable;
+
+	public AbstractAuthorizationRule(Class<R> resourceType, DaoProvider daoProvider, String serverBase,
+			ReferenceResolver referenceResolver, OrganizationProvider organizationProvider,
+			ReadAccessHelper readAccessHelper, ParameterConverter parameterConverter,
+			AuthorizationCache authorizationCache)
+	{
+		this(resourceType, daoProvider, serverBase, referenceResolver, organizationProvider, readAccessHelper,
+				parameterConverter, authorizationCache, false);
+	}
+
+	/**
+	 * @param createBatchable
+	 *            <code>true</code> if creates do not depend on other resources of the same type (no unique criteria),
+	 *            see {@link #isCreateBatchable()}
+	 */
 	public AbstractAuthorizationRule(Class<R> resourceType, DaoProvider daoProvider, String serverBase,
 			ReferenceResolver referenceResolver, OrganizationProvider organizationProvider,
-			ReadAccessHelper readAccessHelper, ParameterConverter parameterConverter)
+			ReadAccessHelper readAccessHelper, ParameterConverter parameterConverter,
+			AuthorizationCache authorizationCache, boolean createBatchable)
 	{
 		this.resourceType = resourceType;
 		this.daoProvider = daoProvider;
@@ -67,6 +86,8 @@ public abstract class AbstractAuthorizationRule<R extends Resource, D extends Re
 		this.organizationProvider = organizationProvider;
 		this.readAccessHelper = readAccessHelper;
 		this.parameterConverter = parameterConverter;
+		this.authorizationCache = authorizationCache;
+		this.createBatchable = createBatchable;
 	}
 
 	@Override
@@ -79,6 +100,7 @@ public abstract class AbstractAuthorizationRule<R extends Resource, D extends Re
 		Objects.requireNonNull(organizationProvider, "organizationProvider");
 		Objects.requireNonNull(readAccessHelper, "readAccessHelper");
 		Objects.requireNonNull(parameterConverter, "parameterConverter");
+		Objects.requireNonNull(authorizationCache, "authorizationCache");
 	}
 
 	@Override
@@ -87,6 +109,12 @@ public abstract class AbstractAuthorizationRule<R extends Resource, D extends Re
 		return resourceType;
 	}
 
+	@Override
+	public boolean isCreateBatchable()
+	{
+		return createBatchable;
+	}
+
 	protected String getResourceTypeName()
 	{
 		return getResourceType().getAnnotation(ResourceDef.class).name();
@@ -137,9 +165,10 @@ public abstract class AbstractAuthorizationRule<R extends Resource, D extends Re
 
 		try
 		{
-			return daoProvider.getOrganizationAffiliationDao()
+			return authorizationCache.get(connection, Region.AFFILIATION, organizationIdentifierValue, c -> daoProvider
+					.getOrganizationAffiliationDao()
 					.readActiveNotDeletedByMemberOrganizationIdentifierIncludingOrganizationIdentifiersWithTransaction(
-							connection, organizationIdentifierValue);
+							c, organizationIdentifierValue));
 		}
 		catch (SQLException e)
 		{
@@ -203,8 +232,8 @@ public abstract class AbstractAuthorizationRule<R extends Resource, D extends Re
 
 		try
 		{
-			PartialResult<Organization> result = dao.searchWithTransaction(connection, query);
-			return result.getTotal() >= 1;
+			return authorizationCache.get(connection, Region.ORGANIZATION, iSystem + "|" + iValue,
+					c -> dao.searchWithTransaction(c, query).getTotal() >= 1);
 		}
 		catch (SQLException e)
 		{
@@ -237,8 +266,12 @@ public abstract class AbstractAuthorizationRule<R extends Resource, D extends Re
 
 		try
 		{
-			PartialResult<CodeSystem> result = dao.searchWithTransaction(connection, query);
-			return result.getTotal() >= 1 && hasCode(result.getPartialResult().get(0), cCode);
+			return authorizationCache.get(connection, Region.CODE_SYSTEM,
+					cSystem + (coding.hasVersion() ? "|" + cVersion : "") + "#" + cCode, c ->
+					{
+						PartialResult<CodeSystem> result = dao.searchWithTransaction(c, query);
+						return result.getTotal() >= 1 && hasCode(result.getPartialResult().get(0), cCode);
+					});
 		}
 		catch (SQLException e)
 		{
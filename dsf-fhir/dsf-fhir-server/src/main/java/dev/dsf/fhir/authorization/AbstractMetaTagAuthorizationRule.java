@@ -31,10 +31,25 @@ public abstract class AbstractMetaTagAuthorizationRule<R extends Resource, D ext
 
 	public AbstractMetaTagAuthorizationRule(Class<R> resourceType, DaoProvider daoProvider, String serverBase,
 			ReferenceResolver referenceResolver, OrganizationProvider organizationProvider,
-			ReadAccessHelper readAccessHelper, ParameterConverter parameterConverter)
+			ReadAccessHelper readAccessHelper, ParameterConverter parameterConverter,
+			AuthorizationCache authorizationCache)
+	{
+		this(resourceType, daoProvider, serverBase, referenceResolver, organizationProvider, readAccessHelper,
+				parameterConverter, authorizationCache, false);
+	}
+
+	/**
+	 * @param createBatchable
+	 *            <code>true</code> if creates do not depend on other resources of the same type (no unique criteria),
+	 *            see {@link #isCreateBatchable()}
+	 */
+	public AbstractMetaTagAuthorizationRule(Class<R> resourceType, DaoProvider daoProvider, String serverBase,
+			ReferenceResolver referenceResolver, OrganizationProvider organizationProvider,
+			ReadAccessHelper readAccessHelper, ParameterConverter parameterConverter,
+			AuthorizationCache authorizationCache, boolean createBatchable)
 	{
 		super(resourceType, daoProvider, serverBase, referenceResolver, organizationProvider, readAccessHelper,
-				parameterConverter);
+				parameterConverter, authorizationCache, createBatchable);
 
 		readAccessDao = daoProvider.getReadAccessDao();
 	}
@@ -94,6 +109,39 @@ public abstract class AbstractMetaTagAuthorizationRule<R extends Resource, D ext
 				existingResource.getIdElement().getIdPart());
 		final long resourceVersion = existingResource.getIdElement().getVersionIdPartAsLong();
 
+		return reasonReadAllowed(connection, identity, resourceId, resourceVersion);
+	}
+
+	/**
+	 * Read access is decided by matching entries in the <code>read_access</code> table.
+	 *
+	 * @return <code>true</code>
+	 */
+	@Override
+	public final boolean isReadDecidableByIdAndVersion()
+	{
+		return true;
+	}
+
+	@Override
+	public final Optional<String> reasonReadAllowed(Identity identity, UUID resourceId, long resourceVersion)
+	{
+		try (Connection connection = daoProvider.newReadOnlyAutoCommitTransaction())
+		{
+			return reasonReadAllowed(connection, identity, resourceId, resourceVersion);
+		}
+		catch (SQLException e)
+		{
+			logger.debug("Error while accessing database", e);
+			logger.warn("Error while accessing database: {} - {}", e.getClass().getName(), e.getMessage());
+
+			throw new RuntimeException(e);
+		}
+	}
+
+	private Optional<String> reasonReadAllowed(Connection connection, Identity identity, UUID resourceId,
+			long resourceVersion)
+	{
 		if (identity.hasDsfRole(FhirServerRole.READ))
 		{
 			try
@@ -33,10 +33,10 @@ public class ActivityDefinitionAuthorizationRule
 	public ActivityDefinitionAuthorizationRule(DaoProvider daoProvider, String serverBase,
 			ReferenceResolver referenceResolver, OrganizationProvider organizationProvider,
 			ReadAccessHelper readAccessHelper, ParameterConverter parameterConverter,
-			ProcessAuthorizationHelper processAuthorizationHelper)
+			AuthorizationCache authorizationCache, ProcessAuthorizationHelper processAuthorizationHelper)
 	{
 		super(ActivityDefinition.class, daoProvider, serverBase, referenceResolver, organizationProvider,
-				readAccessHelper, parameterConverter);
+				readAccessHelper, parameterConverter, authorizationCache);
 
 		this.processAuthorizationHelper = processAuthorizationHelper;
 	}
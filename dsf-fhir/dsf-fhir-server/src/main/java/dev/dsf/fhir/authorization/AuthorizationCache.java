@@ -0,0 +1,61 @@
+package dev.dsf.fhir.authorization;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+
+import org.hl7.fhir.r4.model.ActivityDefinition;
+import org.hl7.fhir.r4.model.CodeSystem;
+import org.hl7.fhir.r4.model.Organization;
+import org.hl7.fhir.r4.model.OrganizationAffiliation;
+import org.hl7.fhir.r4.model.Resource;
+
+/**
+ * Cache for resource lookups of authorization rules, values are invalidated if resources of the types a {@link Region}
+ * depends on are created, updated or deleted. Lookups using a connection with an active transaction bypass the cache,
+ * values read within a transaction may depend on not yet committed changes.
+ */
+public interface AuthorizationCache
+{
+	enum Region
+	{
+		ACTIVITY_DEFINITION(ActivityDefinition.class), AFFILIATION(OrganizationAffiliation.class,
+				Organization.class), ORGANIZATION(Organization.class), CODE_SYSTEM(CodeSystem.class);
+
+		private final Set<Class<? extends Resource>> dependsOn;
+
+		@SafeVarargs
+		Region(Class<? extends Resource>... dependsOn)
+		{
+			this.dependsOn = Set.of(dependsOn);
+		}
+
+		public boolean dependsOn(Class<? extends Resource> resourceType)
+		{
+			return dependsOn.contains(resourceType);
+		}
+	}
+
+	@FunctionalInterface
+	interface Loader<V>
+	{
+		V load(Connection connection) throws SQLException;
+	}
+
+	/**
+	 * @param <V>
+	 *            value type, cached values are shared and must not be modified
+	 * @param connection
+	 *            not <code>null</code>
+	 * @param region
+	 *            not <code>null</code>
+	 * @param key
+	 *            not <code>null</code>
+	 * @param loader
+	 *            not <code>null</code>, must not return <code>null</code>
+	 * @return cached or loaded value
+	 * @throws SQLException
+	 *             if the loader throws an {@link SQLException}
+	 */
+	<V> V get(Connection connection, Region region, String key, Loader<V> loader) throws SQLException;
+}
@@ -0,0 +1,122 @@
+package dev.dsf.fhir.authorization;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import dev.dsf.common.status.metrics.MetricsCollector;
+import dev.dsf.common.status.metrics.MetricsSource;
+import dev.dsf.fhir.event.Event;
+import dev.dsf.fhir.event.EventHandler;
+
+public class AuthorizationCacheImpl implements AuthorizationCache, EventHandler, MetricsSource
+{
+	private static final Logger logger = LoggerFactory.getLogger(AuthorizationCacheImpl.class);
+
+	private static final int MAX_REGION_SIZE = 10_000;
+
+	private static final class RegionCache
+	{
+		final ConcurrentMap<String, Object> values = new ConcurrentHashMap<>();
+		final AtomicLong generation = new AtomicLong();
+
+		final LongAdder hits = new LongAdder();
+		final LongAdder misses = new LongAdder();
+		final LongAdder bypassed = new LongAdder();
+		final LongAdder invalidations = new LongAdder();
+	}
+
+	private final Map<Region, RegionCache> regions = new EnumMap<>(Region.class);
+
+	public AuthorizationCacheImpl()
+	{
+		for (Region region : Region.values())
+			regions.put(region, new RegionCache());
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <V> V get(Connection connection, Region region, String key, Loader<V> loader) throws SQLException
+	{
+		Objects.requireNonNull(connection, "connection");
+		Objects.requireNonNull(region, "region");
+		Objects.requireNonNull(key, "key");
+		Objects.requireNonNull(loader, "loader");
+
+		RegionCache cache = regions.get(region);
+
+		if (!connection.getAutoCommit())
+		{
+			cache.bypassed.increment();
+			return loader.load(connection);
+		}
+
+		Object cached = cache.values.get(key);
+		if (cached != null)
+		{
+			cache.hits.increment();
+			return (V) cached;
+		}
+
+		cache.misses.increment();
+
+		long generation = cache.generation.get();
+		V value = Objects.requireNonNull(loader.load(connection), "loaded value");
+
+		// not caching values loaded while the region was invalidated
+		if (generation == cache.generation.get())
+		{
+			if (cache.values.size() >= MAX_REGION_SIZE)
+				cache.values.clear();
+
+			cache.values.put(key, value);
+		}
+
+		return value;
+	}
+
+	@Override
+	public void handleEvent(Event event)
+	{
+		if (event == null)
+			return;
+
+		regions.forEach((region, cache) ->
+		{
+			if (region.dependsOn(event.getResourceType()))
+			{
+				cache.generation.incrementAndGet();
+				cache.values.clear();
+				cache.invalidations.increment();
+
+				logger.debug("Authorization cache region {} cleared, {} {} {}", region,
+						event.getResourceType().getSimpleName(), event.getId(), event.getClass().getSimpleName());
+			}
+		});
+	}
+
+	@Override
+	public void collectMetrics(MetricsCollector collector)
+	{
+		regions.forEach((region, cache) ->
+		{
+			String prefix = "dsf_fhir_authorization_cache_" + region.name().toLowerCase();
+
+			collector.gauge(prefix + "_size", "Cached values", cache.values.size());
+			collector.counter(prefix + "_hits_total", "Values found in cache", cache.hits.sum());
+			collector.counter(prefix + "_misses_total", "Values not found in cache", cache.misses.sum());
+			collector.counter(prefix + "_bypassed_total", "Lookups within transactions not using the cache",
+					cache.bypassed.sum());
+			collector.counter(prefix + "_invalidations_total", "Cache clear operations", cache.invalidations.sum());
+		});
+	}
+}
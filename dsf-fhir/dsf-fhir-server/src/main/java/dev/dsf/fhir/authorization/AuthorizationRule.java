@@ -2,6 +2,7 @@ package dev.dsf.fhir.authorization;
 
 import java.sql.Connection;
 import java.util.Optional;
+import java.util.UUID;
 
 import org.hl7.fhir.r4.model.Resource;
 
@@ -35,6 +36,18 @@ public interface AuthorizationRule<R extends Resource>
 	 */
 	Optional<String> reasonCreateAllowed(Connection connection, Identity identity, R newResource);
 
+	/**
+	 * Override this method for non default behavior. Default: <code>false</code>.
+	 *
+	 * @return <code>true</code> if the result of {@link #reasonCreateAllowed(Connection, Identity, Resource)} does not
+	 *         depend on other resources of the same type (no unique criteria), creates may then be written to the
+	 *         database in batches
+	 */
+	default boolean isCreateBatchable()
+	{
+		return false;
+	}
+
 	/**
 	 * Override this method for non default behavior. Default: Not allowed.
 	 *
@@ -59,6 +72,35 @@ public interface AuthorizationRule<R extends Resource>
 	 */
 	Optional<String> reasonReadAllowed(Connection connection, Identity identity, R existingResource);
 
+	/**
+	 * Override this method for non default behavior. Default: <code>false</code>.
+	 *
+	 * @return <code>true</code> if the result of {@link #reasonReadAllowed(Connection, Identity, Resource)} only
+	 *         depends on id and version of the existing resource, read access may then be checked with
+	 *         {@link #reasonReadAllowed(Identity, UUID, long)} without loading the resource
+	 */
+	default boolean isReadDecidableByIdAndVersion()
+	{
+		return false;
+	}
+
+	/**
+	 * Override this method for non default behavior, only called if {@link #isReadDecidableByIdAndVersion()} returns
+	 * <code>true</code>. Default: Not allowed.
+	 *
+	 * @param identity
+	 *            not <code>null</code>
+	 * @param resourceId
+	 *            not <code>null</code>
+	 * @param resourceVersion
+	 *            version of the existing resource
+	 * @return Reason as String in {@link Optional#of(Object)} if read allowed
+	 */
+	default Optional<String> reasonReadAllowed(Identity identity, UUID resourceId, long resourceVersion)
+	{
+		return Optional.empty();
+	}
+
 	/**
 	 * Override this method for non default behavior. Default: Not allowed.
 	 *
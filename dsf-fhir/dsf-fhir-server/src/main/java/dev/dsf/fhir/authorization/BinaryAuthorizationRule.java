@@ -27,10 +27,11 @@ public class BinaryAuthorizationRule extends AbstractMetaTagAuthorizationRule<Bi
 
 	public BinaryAuthorizationRule(DaoProvider daoProvider, String serverBase, ReferenceResolver referenceResolver,
 			OrganizationProvider organizationProvider, ReadAccessHelper readAccessHelper,
-			ParameterConverter parameterConverter, AuthorizationRule<?>... supportedSecurityContextRules)
+			ParameterConverter parameterConverter, AuthorizationCache authorizationCache,
+			AuthorizationRule<?>... supportedSecurityContextRules)
 	{
 		super(Binary.class, daoProvider, serverBase, referenceResolver, organizationProvider, readAccessHelper,
-				parameterConverter);
+				parameterConverter, authorizationCache, true);
 
 		rules = Arrays.stream(supportedSecurityContextRules)
 				.collect(Collectors.toMap(AuthorizationRule::getResourceType, Function.identity()));
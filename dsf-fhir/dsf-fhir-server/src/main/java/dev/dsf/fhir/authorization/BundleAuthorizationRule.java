@@ -20,10 +20,10 @@ public class BundleAuthorizationRule extends AbstractMetaTagAuthorizationRule<Bu
 {
 	public BundleAuthorizationRule(DaoProvider daoProvider, String serverBase, ReferenceResolver referenceResolver,
 			OrganizationProvider organizationProvider, ReadAccessHelper readAccessHelper,
-			ParameterConverter parameterConverter)
+			ParameterConverter parameterConverter, AuthorizationCache authorizationCache)
 	{
 		super(Bundle.class, daoProvider, serverBase, referenceResolver, organizationProvider, readAccessHelper,
-				parameterConverter);
+				parameterConverter, authorizationCache, true);
 	}
 
 	@Override
@@ -27,10 +27,10 @@ public class CodeSystemAuthorizationRule extends AbstractMetaTagAuthorizationRul
 
 	public CodeSystemAuthorizationRule(DaoProvider daoProvider, String serverBase, ReferenceResolver referenceResolver,
 			OrganizationProvider organizationProvider, ReadAccessHelper readAccessHelper,
-			ParameterConverter parameterConverter)
+			ParameterConverter parameterConverter, AuthorizationCache authorizationCache)
 	{
 		super(CodeSystem.class, daoProvider, serverBase, referenceResolver, organizationProvider, readAccessHelper,
-				parameterConverter);
+				parameterConverter, authorizationCache);
 	}
 
 	@Override
@@ -21,10 +21,11 @@ public class DocumentReferenceAuthorizationRule
 {
 	public DocumentReferenceAuthorizationRule(DaoProvider daoProvider, String serverBase,
 			ReferenceResolver referenceResolver, OrganizationProvider organizationProvider,
-			ReadAccessHelper readAccessHelper, ParameterConverter parameterConverter)
+			ReadAccessHelper readAccessHelper, ParameterConverter parameterConverter,
+			AuthorizationCache authorizationCache)
 	{
 		super(DocumentReference.class, daoProvider, serverBase, referenceResolver, organizationProvider,
-				readAccessHelper, parameterConverter);
+				readAccessHelper, parameterConverter, authorizationCache, true);
 	}
 
 	@Override
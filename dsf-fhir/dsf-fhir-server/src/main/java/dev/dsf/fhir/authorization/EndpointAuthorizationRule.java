@@ -37,10 +37,10 @@ public class EndpointAuthorizationRule extends AbstractMetaTagAuthorizationRule<
 
 	public EndpointAuthorizationRule(DaoProvider daoProvider, String serverBase, ReferenceResolver referenceResolver,
 			OrganizationProvider organizationProvider, ReadAccessHelper readAccessHelper,
-			ParameterConverter parameterConverter)
+			ParameterConverter parameterConverter, AuthorizationCache authorizationCache)
 	{
 		super(Endpoint.class, daoProvider, serverBase, referenceResolver, organizationProvider, readAccessHelper,
-				parameterConverter);
+				parameterConverter, authorizationCache);
 	}
 
 	@Override
@@ -20,10 +20,10 @@ public class GroupAuthorizationRule extends AbstractMetaTagAuthorizationRule<Gro
 {
 	public GroupAuthorizationRule(DaoProvider daoProvider, String serverBase, ReferenceResolver referenceResolver,
 			OrganizationProvider organizationProvider, ReadAccessHelper readAccessHelper,
-			ParameterConverter parameterConverter)
+			ParameterConverter parameterConverter, AuthorizationCache authorizationCache)
 	{
 		super(Group.class, daoProvider, serverBase, referenceResolver, organizationProvider, readAccessHelper,
-				parameterConverter);
+				parameterConverter, authorizationCache, true);
 	}
 
 	@Override
@@ -20,10 +20,10 @@ public class LibraryAuthorizationRule extends AbstractMetaTagAuthorizationRule<L
 {
 	public LibraryAuthorizationRule(DaoProvider daoProvider, String serverBase, ReferenceResolver referenceResolver,
 			OrganizationProvider organizationProvider, ReadAccessHelper readAccessHelper,
-			ParameterConverter parameterConverter)
+			ParameterConverter parameterConverter, AuthorizationCache authorizationCache)
 	{
 		super(Library.class, daoProvider, serverBase, referenceResolver, organizationProvider, readAccessHelper,
-				parameterConverter);
+				parameterConverter, authorizationCache, true);
 	}
 
 	@Override
@@ -20,10 +20,11 @@ public class MeasureReportAuthorizationRule extends AbstractMetaTagAuthorization
 {
 	public MeasureReportAuthorizationRule(DaoProvider daoProvider, String serverBase,
 			ReferenceResolver referenceResolver, OrganizationProvider organizationProvider,
-			ReadAccessHelper readAccessHelper, ParameterConverter parameterConverter)
+			ReadAccessHelper readAccessHelper, ParameterConverter parameterConverter,
+			AuthorizationCache authorizationCache)
 	{
 		super(MeasureReport.class, daoProvider, serverBase, referenceResolver, organizationProvider, readAccessHelper,
-				parameterConverter);
+				parameterConverter, authorizationCache, true);
 	}
 
 	@Override
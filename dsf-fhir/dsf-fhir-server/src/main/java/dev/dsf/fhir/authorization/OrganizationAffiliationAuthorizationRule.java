@@ -36,10 +36,11 @@ public class OrganizationAffiliationAuthorizationRule
 
 	public OrganizationAffiliationAuthorizationRule(DaoProvider daoProvider, String serverBase,
 			ReferenceResolver referenceResolver, OrganizationProvider organizationProvider,
-			ReadAccessHelper readAccessHelper, ParameterConverter parameterConverter)
+			ReadAccessHelper readAccessHelper, ParameterConverter parameterConverter,
+			AuthorizationCache authorizationCache)
 	{
 		super(OrganizationAffiliation.class, daoProvider, serverBase, referenceResolver, organizationProvider,
-				readAccessHelper, parameterConverter);
+				readAccessHelper, parameterConverter, authorizationCache);
 	}
 
 	@Override
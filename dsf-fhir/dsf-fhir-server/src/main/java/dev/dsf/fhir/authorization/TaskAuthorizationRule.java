@@ -29,6 +29,7 @@ import dev.dsf.common.auth.conf.Identity;
 import dev.dsf.common.auth.conf.OrganizationIdentity;
 import dev.dsf.fhir.authentication.FhirServerRole;
 import dev.dsf.fhir.authentication.OrganizationProvider;
+import dev.dsf.fhir.authorization.AuthorizationCache.Region;
 import dev.dsf.fhir.authorization.process.ProcessAuthorizationHelper;
 import dev.dsf.fhir.authorization.read.ReadAccessHelper;
 import dev.dsf.fhir.dao.TaskDao;
@@ -57,11 +58,11 @@ public class TaskAuthorizationRule extends AbstractAuthorizationRule<Task, TaskD
 
 	public TaskAuthorizationRule(DaoProvider daoProvider, String serverBase, ReferenceResolver referenceResolver,
 			OrganizationProvider organizationProvider, ReadAccessHelper readAccessHelper,
-			ParameterConverter parameterConverter, ProcessAuthorizationHelper processAuthorizationHelper,
-			FhirContext fhirContext)
+			ParameterConverter parameterConverter, AuthorizationCache authorizationCache,
+			ProcessAuthorizationHelper processAuthorizationHelper, FhirContext fhirContext)
 	{
 		super(Task.class, daoProvider, serverBase, referenceResolver, organizationProvider, readAccessHelper,
-				parameterConverter);
+				parameterConverter, authorizationCache);
 
 		this.processAuthorizationHelper = processAuthorizationHelper;
 		this.fhirContext = fhirContext;
@@ -417,9 +418,8 @@ public class TaskAuthorizationRule extends AbstractAuthorizationRule<Task, TaskD
 
 			try
 			{
-				Optional<ActivityDefinition> activityDefinitionOpt = daoProvider.getActivityDefinitionDao()
-						.readByProcessUrlVersionAndStatusDraftOrActiveWithTransaction(connection, processUrl,
-								processVersion);
+				Optional<ActivityDefinition> activityDefinitionOpt = readActivityDefinition(connection, processUrl,
+						processVersion);
 
 				if (activityDefinitionOpt.isEmpty())
 				{
@@ -474,6 +474,14 @@ public class TaskAuthorizationRule extends AbstractAuthorizationRule<Task, TaskD
 		}
 	}
 
+	private Optional<ActivityDefinition> readActivityDefinition(Connection connection, String processUrl,
+			String processVersion) throws SQLException
+	{
+		return authorizationCache.get(connection, Region.ACTIVITY_DEFINITION, processUrl + "|" + processVersion,
+				c -> daoProvider.getActivityDefinitionDao()
+						.readByProcessUrlVersionAndStatusDraftOrActiveWithTransaction(c, processUrl, processVersion));
+	}
+
 	private boolean taskAllowedForRecipient(Connection connection, Task newResource)
 	{
 		Optional<Identity> recipientOpt = organizationProvider.getLocalOrganizationAsIdentity();
@@ -492,9 +500,8 @@ public class TaskAuthorizationRule extends AbstractAuthorizationRule<Task, TaskD
 
 			try
 			{
-				Optional<ActivityDefinition> activityDefinitionOpt = daoProvider.getActivityDefinitionDao()
-						.readByProcessUrlVersionAndStatusDraftOrActiveWithTransaction(connection, processUrl,
-								processVersion);
+				Optional<ActivityDefinition> activityDefinitionOpt = readActivityDefinition(connection, processUrl,
+						processVersion);
 
 				if (activityDefinitionOpt.isEmpty())
 				{
@@ -1,7 +1,81 @@
 package dev.dsf.fhir.dao;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.UUID;
+
 import org.hl7.fhir.r4.model.Binary;
 
+import dev.dsf.fhir.dao.exception.ResourceDeletedException;
+
 public interface BinaryDao extends ResourceDao<Binary>
 {
+	/**
+	 * Same as {@link #read(UUID)}, but does not load the binary data, use {@link #getDataSize(UUID, long)} and
+	 * {@link #readData(UUID, long, long, long, OutputStream)} to access the data.
+	 *
+	 * @param uuid
+	 *            may be <code>null</code>
+	 * @return {@link Optional#empty()} if the given uuid is <code>null</code> or no resource could be found for the
+	 *         given uuid, the returned {@link Binary} has no data
+	 * @throws SQLException
+	 *             if database access errors occur
+	 * @throws ResourceDeletedException
+	 *             if a resource with the given uuid could be found, but is marked as delete
+	 * @see #read(UUID)
+	 */
+	Optional<Binary> readWithoutData(UUID uuid) throws SQLException, ResourceDeletedException;
+
+	/**
+	 * Same as {@link #readVersion(UUID, long)}, but does not load the binary data, use {@link #getDataSize(UUID, long)}
+	 * and {@link #readData(UUID, long, long, long, OutputStream)} to access the data.
+	 *
+	 * @param uuid
+	 *            may be <code>null</code>
+	 * @param version
+	 *            may be less then {@value #FIRST_VERSION}
+	 * @return {@link Optional#empty()} if the given uuid is <code>null</code> or the given version is less then
+	 *         {@value #FIRST_VERSION} or no resource could be found for the given uuid and version, the returned
+	 *         {@link Binary} has no data
+	 * @throws SQLException
+	 *             if database access errors occur
+	 * @throws ResourceDeletedException
+	 *             if a resource with the given uuid and version could be found, but is marked as delete
+	 * @see #readVersion(UUID, long)
+	 */
+	Optional<Binary> readVersionWithoutData(UUID uuid, long version) throws SQLException, ResourceDeletedException;
+
+	/**
+	 * @param uuid
+	 *            not <code>null</code>
+	 * @param version
+	 *            &gt;= {@value #FIRST_VERSION}
+	 * @return size of the binary data in bytes, <code>0</code> if the resource has no data
+	 * @throws SQLException
+	 *             if database access errors occur or the resource version does not exist
+	 */
+	long getDataSize(UUID uuid, long version) throws SQLException;
+
+	/**
+	 * Writes the binary data of the given resource version to the given stream. Data is read from the database in
+	 * chunks using one read only transaction, the binary data is never loaded into memory completely.
+	 *
+	 * @param uuid
+	 *            not <code>null</code>
+	 * @param version
+	 *            &gt;= {@value #FIRST_VERSION}
+	 * @param offset
+	 *            &gt;= 0, zero based offset of the first byte to write
+	 * @param length
+	 *            &gt;= 0, number of bytes to write, less bytes are written if the data ends before
+	 * @param out
+	 *            not <code>null</code>
+	 * @throws SQLException
+	 *             if database access errors occur or the resource version does not exist
+	 * @throws IOException
+	 *             if writing to the given stream fails
+	 */
+	void readData(UUID uuid, long version, long offset, long length, OutputStream out) throws SQLException, IOException;
 }
@@ -0,0 +1,62 @@
+package dev.dsf.fhir.dao;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+import org.hl7.fhir.r4.model.Binary;
+
+/**
+ * Binary data uploaded with non FHIR content types is not loaded into memory. The request body is attached to the
+ * {@link Binary} resource as user data and written to the database by the {@link BinaryDao} while executing the insert
+ * statement.
+ */
+public final class BinaryDataStream
+{
+	private static final String USER_DATA_KEY = BinaryDataStream.class.getName();
+
+	private BinaryDataStream()
+	{
+	}
+
+	/**
+	 * @param resource
+	 *            not <code>null</code>, should not have data
+	 * @param data
+	 *            not <code>null</code>, stored as binary data of the given resource, read once
+	 * @return the given resource
+	 */
+	public static Binary attach(Binary resource, InputStream data)
+	{
+		resource.setUserData(USER_DATA_KEY, data);
+		return resource;
+	}
+
+	/**
+	 * @param resource
+	 *            may be <code>null</code>
+	 * @return attached data stream, {@link Optional#empty()} if the given resource is <code>null</code> or no stream
+	 *         attached
+	 */
+	public static Optional<InputStream> get(Binary resource)
+	{
+		if (resource == null)
+			return Optional.empty();
+
+		return resource.getUserData(USER_DATA_KEY) instanceof InputStream data ? Optional.of(data) : Optional.empty();
+	}
+
+	/**
+	 * Attaches the data stream of the given source resource to the given target resource, if present.
+	 *
+	 * @param source
+	 *            not <code>null</code>
+	 * @param target
+	 *            not <code>null</code>
+	 * @return the given target resource
+	 */
+	public static Binary copy(Binary source, Binary target)
+	{
+		get(source).ifPresent(data -> attach(target, data));
+		return target;
+	}
+}
@@ -2,13 +2,17 @@ package dev.dsf.fhir.dao;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
+import org.hl7.fhir.r4.model.IdType;
 import org.hl7.fhir.r4.model.Resource;
 
 import dev.dsf.common.auth.conf.Identity;
+import dev.dsf.fhir.adapter.RawJson;
 import dev.dsf.fhir.dao.exception.ResourceDeletedException;
 import dev.dsf.fhir.dao.exception.ResourceNotFoundException;
 import dev.dsf.fhir.dao.exception.ResourceNotMarkedDeletedException;
@@ -64,6 +68,24 @@ public interface ResourceDao<R extends Resource>
 	 */
 	R createWithTransactionAndId(Connection connection, R resource, UUID uuid) throws SQLException;
 
+	/**
+	 * Creates the given resources with a single JDBC batch, see
+	 * {@link #createWithTransactionAndId(Connection, Resource, UUID)}
+	 *
+	 * @param connection
+	 *            not <code>null</code>, not {@link Connection#isReadOnly()}
+	 * @param resources
+	 *            not <code>null</code>
+	 * @param uuids
+	 *            not <code>null</code>, same size as <b>resources</b>
+	 * @return the stored resources in the order of the given resources, not the same objects as the given resources
+	 * @throws SQLException
+	 *             if database access errors occur
+	 * @throws IllegalArgumentException
+	 *             if the given connection is {@link Connection#isReadOnly()} or the sizes of the given lists differ
+	 */
+	List<R> createWithTransactionAndIds(Connection connection, List<R> resources, List<UUID> uuids) throws SQLException;
+
 	/**
 	 * @param uuid
 	 *            may be <code>null</code>
@@ -121,6 +143,41 @@ public interface ResourceDao<R extends Resource>
 	Optional<R> readVersionWithTransaction(Connection connection, UUID uuid, long version)
 			throws SQLException, ResourceDeletedException;
 
+	/**
+	 * Same as {@link #read(UUID)}, but the stored JSON is not parsed if possible. The returned resource only contains
+	 * id and meta data, the stored JSON is attached via {@link RawJson}. Returned resources must not be modified.
+	 *
+	 * @param uuid
+	 *            may be <code>null</code>
+	 * @return {@link Optional#empty()} if the given uuid is <code>null</code> or no resource could be found for the
+	 *         given uuid
+	 * @throws SQLException
+	 *             if database access errors occur
+	 * @throws ResourceDeletedException
+	 *             if a resource with the given uuid could be found, but is marked as delete
+	 * @see #read(UUID)
+	 */
+	Optional<R> readRaw(UUID uuid) throws SQLException, ResourceDeletedException;
+
+	/**
+	 * Same as {@link #readVersion(UUID, long)}, but the stored JSON is not parsed if possible. The returned resource
+	 * only contains id and meta data, the stored JSON is attached via {@link RawJson}. Returned resources must not be
+	 * modified.
+	 *
+	 * @param uuid
+	 *            may be <code>null</code>
+	 * @param version
+	 *            may be less then {@value #FIRST_VERSION}
+	 * @return {@link Optional#empty()} if the given uuid is <code>null</code>, the given version is less then
+	 *         {@value #FIRST_VERSION} or no resource could be found for the given uuid and version
+	 * @throws SQLException
+	 *             if database access errors occur
+	 * @throws ResourceDeletedException
+	 *             if a resource with the given uuid and version could be found, but is the delete history entry
+	 * @see #readVersion(UUID, long)
+	 */
+	Optional<R> readVersionRaw(UUID uuid, long version) throws SQLException, ResourceDeletedException;
+
 	/**
 	 * @param uuid
 	 *            may be <code>null</code>
@@ -143,6 +200,33 @@ public interface ResourceDao<R extends Resource>
 	 */
 	Optional<R> readIncludingDeletedWithTransaction(Connection connection, UUID uuid) throws SQLException;
 
+	/**
+	 * Reads version, last updated and deleted timestamp of the latest version without loading the resource.
+	 *
+	 * @param uuid
+	 *            may be <code>null</code>
+	 * @return {@link Optional#empty()} if the given uuid is <code>null</code> or no resource could be found for the
+	 *         given uuid, resources marked as deleted are returned with {@link ResourceVersionInfo#isDeleted()}
+	 * @throws SQLException
+	 *             if database access errors occur
+	 */
+	Optional<ResourceVersionInfo> readVersionInfo(UUID uuid) throws SQLException;
+
+	/**
+	 * Reads version, last updated and deleted timestamp of the given version without loading the resource.
+	 *
+	 * @param uuid
+	 *            may be <code>null</code>
+	 * @param version
+	 *            may be less then {@value #FIRST_VERSION}
+	 * @return {@link Optional#empty()} if the given uuid is <code>null</code>, the given version is less then
+	 *         {@value #FIRST_VERSION} or no resource could be found for the given uuid and version, delete history
+	 *         entries are not found
+	 * @throws SQLException
+	 *             if database access errors occur
+	 */
+	Optional<ResourceVersionInfo> readVersionInfo(UUID uuid, long version) throws SQLException;
+
 	List<R> readAll() throws SQLException;
 
 	/**
@@ -186,6 +270,22 @@ public interface ResourceDao<R extends Resource>
 	 */
 	boolean existsNotDeletedWithTransaction(Connection connection, String id, String version) throws SQLException;
 
+	/**
+	 * Checks multiple ids with one query for ids without and one query for ids with version.
+	 *
+	 * @param connection
+	 *            not <code>null</code>
+	 * @param ids
+	 *            not <code>null</code>, ids with optional version, ids with an id part that is not a valid UUID are
+	 *            ignored
+	 * @return given <b>ids</b> of resources that exist and are not marked as deleted; for ids with version, the given
+	 *         version of the resource exists and is not marked as deleted
+	 * @throws SQLException
+	 *             if database access errors occur
+	 * @see #existsNotDeletedWithTransaction(Connection, String, String)
+	 */
+	Set<IdType> existingNotDeletedWithTransaction(Connection connection, Collection<IdType> ids) throws SQLException;
+
 	/**
 	 * Sets the version of the stored resource to latest version from DB plus 1.
 	 *
@@ -345,6 +445,20 @@ public interface ResourceDao<R extends Resource>
 	 */
 	PartialResult<R> search(DbSearchQuery query) throws SQLException;
 
+	/**
+	 * Same as {@link #search(DbSearchQuery)}, but the stored JSON of matching resources is not parsed if possible.
+	 * Matching resources only contain id and meta data, the stored JSON is attached via {@link RawJson}. Include
+	 * resources are parsed.
+	 *
+	 * @param query
+	 *            not <code>null</code>
+	 * @return {@link PartialResult} with matching resources
+	 * @throws SQLException
+	 *             if database access errors occur
+	 * @see #search(DbSearchQuery)
+	 */
+	PartialResult<R> searchRaw(DbSearchQuery query) throws SQLException;
+
 	/**
 	 * @param connection
 	 *            not <code>null</code>
@@ -0,0 +1,25 @@
+package dev.dsf.fhir.dao;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Version information of a stored resource, read without loading the resource itself.
+ *
+ * @param id
+ *            not <code>null</code>
+ * @param version
+ *            &gt;= {@value ResourceDao#FIRST_VERSION}
+ * @param lastUpdated
+ *            <code>meta.lastUpdated</code> of the resource, may be <code>null</code>
+ * @param deleted
+ *            <code>null</code> if the resource is not marked as deleted
+ */
+public record ResourceVersionInfo(UUID id, long version, Date lastUpdated, LocalDateTime deleted)
+{
+	public boolean isDeleted()
+	{
+		return deleted != null;
+	}
+}
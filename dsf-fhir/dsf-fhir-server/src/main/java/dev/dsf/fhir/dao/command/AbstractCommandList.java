@@ -1,6 +1,7 @@
 package dev.dsf.fhir.dao.command;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.sql.DataSource;
@@ -20,6 +21,8 @@ class AbstractCommandList
 {
 	private static final Logger audit = LoggerFactory.getLogger("dsf-audit-logger");
 
+	protected static final int CREATE_BATCH_MAX_SIZE = 1000;
+
 	protected final DataSource dataSource;
 	protected final ExceptionHandler exceptionHandler;
 
@@ -43,6 +46,49 @@ class AbstractCommandList
 		return commands != null && commands.stream().anyMatch(c -> c instanceof ModifyingCommand);
 	}
 
+	/**
+	 * @param fromIndex
+	 *            position in {@link #commands}
+	 * @return consecutive {@link CreateCommand#isBatchable()} commands with the same resource type starting at the
+	 *         given position, max {@value #CREATE_BATCH_MAX_SIZE}; empty if less than two commands found
+	 */
+	protected List<CreateCommand<?, ?>> getCreateBatch(int fromIndex)
+	{
+		List<CreateCommand<?, ?>> batch = new ArrayList<>();
+
+		for (int i = fromIndex; i < commands.size() && batch.size() < CREATE_BATCH_MAX_SIZE; i++)
+		{
+			if (commands.get(i) instanceof CreateCommand<?, ?> c && c.isBatchable()
+					&& (batch.isEmpty() || batch.get(0).getResourceTypeName().equals(c.getResourceTypeName())))
+				batch.add(c);
+			else
+				break;
+		}
+
+		return batch.size() > 1 ? batch : Collections.emptyList();
+	}
+
+	/**
+	 * @param fromIndex
+	 *            index of the first command
+	 * @return consecutive {@link CheckReferencesCommand}s starting at the given position; empty if less than two
+	 *         commands found
+	 */
+	protected List<CheckReferencesCommand<?, ?>> getCheckReferencesBatch(int fromIndex)
+	{
+		List<CheckReferencesCommand<?, ?>> batch = new ArrayList<>();
+
+		for (int i = fromIndex; i < commands.size(); i++)
+		{
+			if (commands.get(i) instanceof CheckReferencesCommand<?, ?> c)
+				batch.add(c);
+			else
+				break;
+		}
+
+		return batch.size() > 1 ? batch : Collections.emptyList();
+	}
+
 	protected void auditLogResult(Command command, BundleEntryComponent result)
 	{
 		String resultOutcome = failed(result) ? "failed" : "successful";
@@ -1,7 +1,12 @@
 package dev.dsf.fhir.dao.command;
 
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
 import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.Bundle.BundleEntryComponent;
+import org.hl7.fhir.r4.model.IdType;
 import org.hl7.fhir.r4.model.Resource;
 
 import dev.dsf.common.auth.conf.Identity;
@@ -12,6 +17,7 @@ import dev.dsf.fhir.help.ResponseGenerator;
 import dev.dsf.fhir.prefer.PreferReturnType;
 import dev.dsf.fhir.service.ReferenceExtractor;
 import dev.dsf.fhir.service.ReferenceResolver;
+import dev.dsf.fhir.service.ResourceReference;
 
 public abstract class AbstractCommandWithResource<R extends Resource, D extends ResourceDao<R>> extends AbstractCommand
 		implements Command
@@ -20,6 +26,7 @@ public abstract class AbstractCommandWithResource<R extends Resource, D extends
 	protected final D dao;
 	protected final ExceptionHandler exceptionHandler;
 	protected final ParameterConverter parameterConverter;
+	protected final ReferenceExtractor referenceExtractor;
 	protected final ReferencesHelper<R> referencesHelper;
 
 	public AbstractCommandWithResource(int transactionPriority, int index, Identity identity,
@@ -34,6 +41,7 @@ public abstract class AbstractCommandWithResource<R extends Resource, D extends
 		this.dao = dao;
 		this.exceptionHandler = exceptionHandler;
 		this.parameterConverter = parameterConverter;
+		this.referenceExtractor = referenceExtractor;
 
 		referencesHelper = createReferencesHelper(index, identity, serverBase, resource, responseGenerator,
 				referenceExtractor, referenceResolver);
@@ -47,6 +55,67 @@ public abstract class AbstractCommandWithResource<R extends Resource, D extends
 				responseGenerator);
 	}
 
+	/**
+	 * Creates a copy of the resource with temporary references and urls resolved like
+	 * {@link ReferencesHelper#resolveTemporaryAndConditionalReferencesOrLiteralInternalRelatedArtifactOrAttachmentUrls(Map, java.sql.Connection)}
+	 * does during execute. Resources with references or urls that need to be resolved via the database are not
+	 * supported.
+	 *
+	 * @param idTranslationTable
+	 *            not <code>null</code>
+	 * @return {@link Optional#empty()} if the resource contains references or urls not resolvable via the given id
+	 *         translation table
+	 */
+	protected Optional<PreValidationHelper.Candidate> createPreValidationCandidate(
+			Map<String, IdType> idTranslationTable)
+	{
+		Resource copy = resource.copy();
+
+		for (ResourceReference reference : referenceExtractor.getReferences(copy).toList())
+		{
+			boolean resolved = switch (reference.getType(serverBase))
+			{
+				case TEMPORARY -> resolveTemporary(idTranslationTable, reference.getReference().getReference(),
+						reference.getReference()::setReferenceElement);
+
+				case RELATED_ARTEFACT_TEMPORARY_URL ->
+					resolveTemporary(idTranslationTable, reference.getRelatedArtifact().getUrl(),
+							newId -> reference.getRelatedArtifact().setUrl(toAbsoluteUrl(newId)));
+
+				case ATTACHMENT_TEMPORARY_URL ->
+					resolveTemporary(idTranslationTable, reference.getAttachment().getUrl(),
+							newId -> reference.getAttachment().setUrl(toAbsoluteUrl(newId)));
+
+				case CONDITIONAL, RELATED_ARTEFACT_CONDITIONAL_URL, ATTACHMENT_CONDITIONAL_URL,
+						RELATED_ARTEFACT_LITERAL_INTERNAL_URL, ATTACHMENT_LITERAL_INTERNAL_URL ->
+					false;
+
+				default -> true;
+			};
+
+			if (!resolved)
+				return Optional.empty();
+		}
+
+		return Optional.of(new PreValidationHelper.Candidate(resource, copy));
+	}
+
+	private boolean resolveTemporary(Map<String, IdType> idTranslationTable, String temporaryId,
+			Consumer<IdType> newIdConsumer)
+	{
+		IdType newId = idTranslationTable.get(temporaryId);
+		if (newId == null)
+			return false;
+
+		newIdConsumer.accept(newId);
+		return true;
+	}
+
+	private String toAbsoluteUrl(IdType newId)
+	{
+		return newId.withServerBase(serverBase, newId.getResourceType()).getValue();
+	}
+
 	@Override
 	public String getResourceTypeName()
 	{
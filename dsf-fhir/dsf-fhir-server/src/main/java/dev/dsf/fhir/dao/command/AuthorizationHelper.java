@@ -6,11 +6,21 @@ import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.Resource;
 
 import dev.dsf.common.auth.conf.Identity;
+import dev.dsf.fhir.authorization.AuthorizationRule;
 
 public interface AuthorizationHelper
 {
 	void checkCreateAllowed(int index, Connection connection, Identity identity, Resource newResource);
 
+	/**
+	 * @param newResource
+	 *            not <code>null</code>
+	 * @return <code>true</code> if creates of the given resource may be written to the database in batches with other
+	 *         resources of the same type
+	 * @see AuthorizationRule#isCreateBatchable()
+	 */
+	boolean isCreateBatchable(Resource newResource);
+
 	void checkReadAllowed(int index, Connection connection, Identity identity, Resource existingResource);
 
 	void checkUpdateAllowed(int index, Connection connection, Identity identity, Resource oldResource,
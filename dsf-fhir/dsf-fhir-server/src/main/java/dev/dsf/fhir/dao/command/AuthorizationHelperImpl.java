@@ -70,6 +70,12 @@ public class AuthorizationHelperImpl implements AuthorizationHelper
 		});
 	}
 
+	@Override
+	public boolean isCreateBatchable(Resource newResource)
+	{
+		return getAuthorizationRule(newResource.getClass()).map(AuthorizationRule::isCreateBatchable).orElse(false);
+	}
+
 	private String getResourceTypeName(Resource resource)
 	{
 		return resource.getResourceType().name();
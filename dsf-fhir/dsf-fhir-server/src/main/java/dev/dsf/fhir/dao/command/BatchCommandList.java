@@ -31,15 +31,18 @@ public class BatchCommandList extends AbstractCommandList implements CommandList
 	private final ValidationHelper validationHelper;
 	private final SnapshotGenerator snapshotGenerator;
 	private final EventHandler eventHandler;
+	private final PreValidationHelper preValidationHelper;
 
 	public BatchCommandList(DataSource dataSource, ExceptionHandler exceptionHandler, List<? extends Command> commands,
-			ValidationHelper validationHelper, SnapshotGenerator snapshotGenerator, EventHandler eventHandler)
+			ValidationHelper validationHelper, SnapshotGenerator snapshotGenerator, EventHandler eventHandler,
+			PreValidationHelper preValidationHelper)
 	{
 		super(dataSource, exceptionHandler, commands);
 
 		this.validationHelper = validationHelper;
 		this.snapshotGenerator = snapshotGenerator;
 		this.eventHandler = eventHandler;
+		this.preValidationHelper = preValidationHelper;
 	}
 
 	@Override
@@ -71,7 +74,21 @@ public class BatchCommandList extends AbstractCommandList implements CommandList
 
 			commands.forEach(preExecute(idTranslationTable, connection, caughtExceptions));
 
-			commands.forEach(execute(idTranslationTable, connection, caughtExceptions));
+			ValidationHelper validationHelper = this.validationHelper.withPreValidationResults(preValidationHelper
+					.preValidate(commands.stream().filter(c -> !caughtExceptions.containsKey(c.getIndex())).toList(),
+							idTranslationTable));
+
+			for (int i = 0; i < commands.size(); i++)
+			{
+				List<CreateCommand<?, ?>> createBatch = getCreateBatch(i);
+				if (createBatch.isEmpty())
+					execute(idTranslationTable, connection, validationHelper, caughtExceptions).accept(commands.get(i));
+				else
+				{
+					executeCreateBatch(createBatch, idTranslationTable, connection, validationHelper, caughtExceptions);
+					i += createBatch.size() - 1;
+				}
+			}
 
 			if (hasModifyingCommands)
 			{
@@ -157,8 +174,71 @@ public class BatchCommandList extends AbstractCommandList implements CommandList
 		};
 	}
 
+	@FunctionalInterface
+	private interface Execution
+	{
+		void execute(Command command) throws SQLException, WebApplicationException;
+	}
+
 	private Consumer<Command> execute(Map<String, IdType> idTranslationTable, Connection connection,
-			Map<Integer, Exception> caughtExceptions)
+			ValidationHelper validationHelper, Map<Integer, Exception> caughtExceptions)
+	{
+		return execute(connection, caughtExceptions, "execute", true,
+				command -> command.execute(idTranslationTable, connection, validationHelper, snapshotGenerator));
+	}
+
+	/**
+	 * Validation, authorization and reference resolution is done per command, resources are written with a single JDBC
+	 * batch. If the batch fails, resources are written one by one to attribute errors to the failing entries.
+	 */
+	private void executeCreateBatch(List<CreateCommand<?, ?>> createBatch, Map<String, IdType> idTranslationTable,
+			Connection connection, ValidationHelper validationHelper, Map<Integer, Exception> caughtExceptions)
+	{
+		createBatch.forEach(execute(connection, caughtExceptions, "execute without create", false,
+				command -> ((CreateCommand<?, ?>) command).executeWithoutCreate(idTranslationTable, connection,
+						validationHelper, snapshotGenerator)));
+
+		int firstIndex = createBatch.get(0).getIndex();
+		int lastIndex = createBatch.get(createBatch.size() - 1).getIndex();
+
+		try
+		{
+			logger.debug("Running batch create of {} commands for entries at index {} to {}", createBatch.size(),
+					firstIndex, lastIndex);
+			CreateCommand.executeCreateBatch(createBatch, idTranslationTable, connection);
+
+			if (!connection.getAutoCommit())
+				connection.commit();
+		}
+		catch (Exception e)
+		{
+			logger.debug(
+					"Error while running batch create for entries at index {} to {}, rolling back transaction and creating resources one by one",
+					firstIndex, lastIndex, e);
+			logger.warn(
+					"Error while running batch create for entries at index {} to {}, rolling back transaction and creating resources one by one: {} - {}",
+					firstIndex, lastIndex, e.getClass().getName(), e.getMessage());
+
+			try
+			{
+				if (!connection.getAutoCommit())
+					connection.rollback();
+			}
+			catch (SQLException e1)
+			{
+				logger.debug("Error while rolling back transaction for entries at index {} to {}", firstIndex,
+						lastIndex, e1);
+				logger.warn("Error while rolling back transaction for entries at index {} to {}: {} - {}", firstIndex,
+						lastIndex, e1.getClass().getName(), e1.getMessage());
+			}
+
+			createBatch.forEach(execute(connection, caughtExceptions, "create", true,
+					command -> ((CreateCommand<?, ?>) command).executeCreate(idTranslationTable, connection)));
+		}
+	}
+
+	private Consumer<Command> execute(Connection connection, Map<Integer, Exception> caughtExceptions, String step,
+			boolean commit, Execution execution)
 	{
 		return command ->
 		{
@@ -166,19 +246,19 @@ public class BatchCommandList extends AbstractCommandList implements CommandList
 			{
 				if (!caughtExceptions.containsKey(command.getIndex()))
 				{
-					logger.debug("Running execute of command {} for entry at index {}", command.getClass().getName(),
+					logger.debug("Running {} of command {} for entry at index {}", step, command.getClass().getName(),
 							command.getIndex());
-					command.execute(idTranslationTable, connection, validationHelper, snapshotGenerator);
+					execution.execute(command);
 				}
 				else
 				{
-					logger.info("Skipping execute of command {} for entry at index {}, caught exception {}",
+					logger.info("Skipping {} of command {} for entry at index {}, caught exception {}", step,
 							command.getClass().getName(), command.getIndex(),
 							caughtExceptions.get(command.getIndex()).getClass().getName() + ": "
 									+ caughtExceptions.get(command.getIndex()).getMessage());
 				}
 
-				if (!connection.getAutoCommit())
+				if (commit && !connection.getAutoCommit())
 					connection.commit();
 			}
 			catch (Exception e)
@@ -2,8 +2,11 @@ package dev.dsf.fhir.dao.command;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.Bundle.BundleEntryComponent;
@@ -34,6 +37,9 @@ public class CheckReferencesCommand<R extends Resource, D extends ResourceDao<R>
 	private static final Logger logger = LoggerFactory.getLogger(CheckReferencesCommand.class);
 
 	private final HTTPVerb verb;
+	private final ReferenceResolver referenceResolver;
+
+	private List<ResourceReference> referencesToCheck;
 
 	public CheckReferencesCommand(int index, Identity identity, PreferReturnType returnType, Bundle bundle,
 			BundleEntryComponent entry, String serverBase, AuthorizationHelper authorizationHelper, R resource,
@@ -45,6 +51,61 @@ public class CheckReferencesCommand<R extends Resource, D extends ResourceDao<R>
 				exceptionHandler, parameterConverter, responseGenerator, referenceExtractor, referenceResolver);
 
 		this.verb = verb;
+		this.referenceResolver = referenceResolver;
+	}
+
+	/**
+	 * Checks the existence of all literal internal reference targets of the given commands with one database query per
+	 * target resource type.
+	 *
+	 * @param batch
+	 *            not <code>null</code>
+	 * @param connection
+	 *            not <code>null</code>
+	 * @return existing literal internal reference targets of the given commands, to be used with
+	 *         {@link #execute(Connection, Set)}
+	 * @throws WebApplicationException
+	 */
+	public static Set<IdType> getExistingLiteralInternalReferenceTargets(List<CheckReferencesCommand<?, ?>> batch,
+			Connection connection) throws WebApplicationException
+	{
+		if (batch.isEmpty())
+			return Collections.emptySet();
+
+		List<ResourceReference> references = batch.stream().flatMap(c -> c.getReferencesToCheck(connection).stream())
+				.toList();
+
+		return batch.get(0).referenceResolver.getExistingLiteralInternalReferenceTargets(references, connection);
+	}
+
+	/**
+	 * Checks the literal external references of the given commands in parallel, see
+	 * {@link ReferenceResolver#prefetchLiteralExternalReferences(java.util.Collection)}. Must only be called after the
+	 * corresponding create and update commands have been authorized and executed.
+	 *
+	 * @param batch
+	 *            not <code>null</code>
+	 * @param connection
+	 *            not <code>null</code>
+	 */
+	public static void prefetchLiteralExternalReferences(List<CheckReferencesCommand<?, ?>> batch,
+			Connection connection)
+	{
+		if (batch.isEmpty())
+			return;
+
+		List<ResourceReference> references = batch.stream().flatMap(c -> c.getReferencesToCheck(connection).stream())
+				.toList();
+
+		batch.get(0).referenceResolver.prefetchLiteralExternalReferences(references);
+	}
+
+	private List<ResourceReference> getReferencesToCheck(Connection connection)
+	{
+		if (referencesToCheck == null)
+			referencesToCheck = referencesHelper.getReferencesToCheck(connection, this::checkReferenceAfterUpdate);
+
+		return referencesToCheck;
 	}
 
 	@Override
@@ -52,9 +113,29 @@ public class CheckReferencesCommand<R extends Resource, D extends ResourceDao<R>
 			ValidationHelper validationHelper, SnapshotGenerator snapshotGenerator)
 			throws SQLException, WebApplicationException
 	{
+		// executed after the create or update command of the same entry, prefetch only for authorized resources
+		prefetchLiteralExternalReferences(List.of(this), connection);
+
 		referencesHelper.checkReferences(idTranslationTable, connection, this::checkReferenceAfterUpdate);
 	}
 
+	/**
+	 * Same as {@link #execute(Map, Connection, ValidationHelper, SnapshotGenerator)}, but with literal internal
+	 * reference targets already checked via {@link #getExistingLiteralInternalReferenceTargets(List, Connection)}.
+	 *
+	 * @param connection
+	 *            not <code>null</code>
+	 * @param existingLiteralInternalReferenceTargets
+	 *            not <code>null</code>
+	 * @throws WebApplicationException
+	 */
+	public void execute(Connection connection, Set<IdType> existingLiteralInternalReferenceTargets)
+			throws WebApplicationException
+	{
+		referencesHelper.checkReferences(getReferencesToCheck(connection), connection,
+				existingLiteralInternalReferenceTargets);
+	}
+
 	// See also TaskServiceImpl#checkReferenceAfterUpdate
 	// See also AbstractResourceServiceImpl#checkReferenceAfterUpdate
 	// See also AbstractResourceServiceImpl#checkReferenceAfterCreate
@@ -30,6 +30,21 @@ public interface Command
 	void execute(Map<String, IdType> idTranslationTable, Connection connection, ValidationHelper validationHelper,
 			SnapshotGenerator snapshotGenerator) throws SQLException, WebApplicationException;
 
+	/**
+	 * Called after {@link #preExecute(Map, Connection, ValidationHelper, SnapshotGenerator)} of all commands, before
+	 * {@link #execute(Map, Connection, ValidationHelper, SnapshotGenerator)}
+	 *
+	 * @param idTranslationTable
+	 *            not <code>null</code>
+	 * @return resource validated by this command during execute, with a copy of the resource as it will be validated;
+	 *         {@link Optional#empty()} if the resource can not be validated in advance
+	 * @see PreValidationHelper
+	 */
+	default Optional<PreValidationHelper.Candidate> getPreValidationCandidate(Map<String, IdType> idTranslationTable)
+	{
+		return Optional.empty();
+	}
+
 	default Optional<BundleEntryComponent> postExecute(Connection connection, EventHandler eventHandler)
 	{
 		return Optional.empty();
@@ -4,6 +4,7 @@ import java.sql.Connection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -52,14 +53,17 @@ public class CommandFactoryImpl implements InitializingBean, CommandFactory
 	private final AuthorizationHelper authorizationHelper;
 	private final ValidationHelper validationHelper;
 	private final SnapshotGenerator snapshotGenerator;
-	private final Function<Connection, TransactionResources> transactionResourcesFactory;
+	private final BiFunction<Connection, Boolean, TransactionResources> transactionResourcesFactory;
+	private final PreValidationHelper preValidationHelper;
 
 	public CommandFactoryImpl(String serverBase, int defaultPageCount, DataSource dataSource, DaoProvider daoProvider,
 			ReferenceExtractor referenceExtractor, ReferenceResolver referenceResolver,
 			ReferenceCleaner referenceCleaner, ResponseGenerator responseGenerator, ExceptionHandler exceptionHandler,
 			ParameterConverter parameterConverter, EventHandler eventHandler, EventGenerator eventGenerator,
 			AuthorizationHelper authorizationHelper, ValidationHelper validationHelper,
-			SnapshotGenerator snapshotGenerator, Function<Connection, TransactionResources> transactionResourcesFactory)
+			SnapshotGenerator snapshotGenerator,
+			BiFunction<Connection, Boolean, TransactionResources> transactionResourcesFactory,
+			PreValidationHelper preValidationHelper)
 	{
 		this.serverBase = serverBase;
 		this.defaultPageCount = defaultPageCount;
@@ -77,6 +81,7 @@ public class CommandFactoryImpl implements InitializingBean, CommandFactory
 		this.validationHelper = validationHelper;
 		this.snapshotGenerator = snapshotGenerator;
 		this.transactionResourcesFactory = transactionResourcesFactory;
+		this.preValidationHelper = preValidationHelper;
 	}
 
 	@Override
@@ -97,6 +102,7 @@ public class CommandFactoryImpl implements InitializingBean, CommandFactory
 		Objects.requireNonNull(validationHelper, "validationHelper");
 		Objects.requireNonNull(snapshotGenerator, "snapshotGenerator");
 		Objects.requireNonNull(transactionResourcesFactory, "transactionResourcesFactory");
+		Objects.requireNonNull(preValidationHelper, "preValidationHelper");
 	}
 
 	// head
@@ -210,10 +216,10 @@ public class CommandFactoryImpl implements InitializingBean, CommandFactory
 			return switch (bundle.getType())
 			{
 				case BATCH -> new BatchCommandList(dataSource, exceptionHandler, commands, validationHelper,
-						snapshotGenerator, eventHandler);
+						snapshotGenerator, eventHandler, preValidationHelper);
 
-				case TRANSACTION ->
-					new TransactionCommandList(dataSource, exceptionHandler, commands, transactionResourcesFactory);
+				case TRANSACTION -> new TransactionCommandList(dataSource, exceptionHandler, commands,
+						transactionResourcesFactory, preValidationHelper);
 
 				default -> throw new BadBundleException("Unsupported bundle type " + bundle.getType());
 			};
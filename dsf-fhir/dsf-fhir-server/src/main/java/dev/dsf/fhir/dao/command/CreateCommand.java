@@ -40,6 +40,7 @@ import dev.dsf.fhir.search.SearchQueryParameterError;
 import dev.dsf.fhir.service.ReferenceCleaner;
 import dev.dsf.fhir.service.ReferenceExtractor;
 import dev.dsf.fhir.service.ReferenceResolver;
+import dev.dsf.fhir.service.ResourceReference;
 import dev.dsf.fhir.validation.SnapshotGenerator;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.EntityTag;
@@ -56,6 +57,7 @@ public class CreateCommand<R extends Resource, D extends ResourceDao<R>> extends
 	protected final ReferenceCleaner referenceCleaner;
 	protected final EventGenerator eventGenerator;
 
+	protected boolean createPending;
 	protected R createdResource;
 	protected Response responseResult;
 	protected ValidationResult validationResult;
@@ -122,10 +124,46 @@ public class CreateCommand<R extends Resource, D extends ResourceDao<R>> extends
 		}
 	}
 
+	@Override
+	public Optional<PreValidationHelper.Candidate> getPreValidationCandidate(Map<String, IdType> idTranslationTable)
+	{
+		// conditional create: resource not validated if a matching resource exists
+		if (entry.getRequest().getIfNoneExist() != null)
+			return Optional.empty();
+
+		return createPreValidationCandidate(idTranslationTable);
+	}
+
 	@Override
 	public void execute(Map<String, IdType> idTranslationTable, Connection connection,
 			ValidationHelper validationHelper, SnapshotGenerator snapshotGenerator)
 			throws SQLException, WebApplicationException
+	{
+		executeWithoutCreate(idTranslationTable, connection, validationHelper, snapshotGenerator);
+		executeCreate(idTranslationTable, connection);
+	}
+
+	/**
+	 * Runs all steps of {@link #execute(Map, Connection, ValidationHelper, SnapshotGenerator)} except writing the
+	 * resource to the database, use {@link #executeCreate(Map, Connection)} or
+	 * {@link #executeCreateBatch(List, Map, Connection)} to write the resource.
+	 *
+	 * @param idTranslationTable
+	 *            not <code>null</code>
+	 * @param connection
+	 *            not <code>null</code>
+	 * @param validationHelper
+	 *            not <code>null</code>
+	 * @param snapshotGenerator
+	 *            not <code>null</code>
+	 * @throws SQLException
+	 *             if database access errors occur
+	 * @throws WebApplicationException
+	 *             if the resource can not be created
+	 */
+	protected void executeWithoutCreate(Map<String, IdType> idTranslationTable, Connection connection,
+			ValidationHelper validationHelper, SnapshotGenerator snapshotGenerator)
+			throws SQLException, WebApplicationException
 	{
 		// always resolve temp and conditional references, necessary if conditional create and resource exists
 		referencesHelper.resolveTemporaryAndConditionalReferencesOrLiteralInternalRelatedArtifactOrAttachmentUrls(
@@ -144,7 +182,7 @@ public class CreateCommand<R extends Resource, D extends ResourceDao<R>> extends
 
 			authorizationHelper.checkCreateAllowed(index, connection, identity, resource);
 
-			createdResource = createWithTransactionAndId(connection, resource, getId(idTranslationTable));
+			createPending = true;
 		}
 		else if (responseResult == null)
 		{
@@ -152,11 +190,90 @@ public class CreateCommand<R extends Resource, D extends ResourceDao<R>> extends
 		}
 	}
 
+	/**
+	 * Writes the resource to the database, if not already created and not skipped by conditional create
+	 *
+	 * @param idTranslationTable
+	 *            not <code>null</code>
+	 * @param connection
+	 *            not <code>null</code>
+	 * @throws SQLException
+	 *             if database access errors occur
+	 */
+	protected void executeCreate(Map<String, IdType> idTranslationTable, Connection connection) throws SQLException
+	{
+		if (createPending)
+		{
+			createdResource = createWithTransactionAndId(connection, resource, getId(idTranslationTable));
+			createPending = false;
+		}
+	}
+
 	protected R createWithTransactionAndId(Connection connection, R resource, UUID uuid) throws SQLException
 	{
 		return dao.createWithTransactionAndId(connection, resource, uuid);
 	}
 
+	/**
+	 * @return <code>true</code> if the resource of this command may be written to the database together with resources
+	 *         of other commands with the same resource type via {@link #executeCreateBatch(List, Map, Connection)}
+	 */
+	protected boolean isBatchable()
+	{
+		return entry.getRequest().getIfNoneExist() == null && authorizationHelper.isCreateBatchable(resource)
+				&& referenceExtractor.getReferences(resource).noneMatch(this::isResolvedAgainstSameResourceType);
+	}
+
+	/**
+	 * Conditional and logical references are resolved via database searches, resources of the same batch are not
+	 * visible to these searches.
+	 */
+	private boolean isResolvedAgainstSameResourceType(ResourceReference reference)
+	{
+		return switch (reference.getType(serverBase))
+		{
+			case CONDITIONAL, LOGICAL -> reference.supportsType(resource.getClass());
+			case RELATED_ARTEFACT_CONDITIONAL_URL, ATTACHMENT_CONDITIONAL_URL -> true;
+			default -> false;
+		};
+	}
+
+	/**
+	 * Writes the resources of the given commands with a single JDBC batch, commands with no pending create are ignored.
+	 * All commands must be {@link #isBatchable()} and have the same resource type.
+	 *
+	 * @param commands
+	 *            not <code>null</code>
+	 * @param idTranslationTable
+	 *            not <code>null</code>
+	 * @param connection
+	 *            not <code>null</code>
+	 * @throws SQLException
+	 *             if database access errors occur, no resource of the given commands is marked as created
+	 * @see #executeWithoutCreate(Map, Connection, ValidationHelper, SnapshotGenerator)
+	 */
+	@SuppressWarnings("unchecked")
+	public static void executeCreateBatch(List<? extends CreateCommand<?, ?>> commands,
+			Map<String, IdType> idTranslationTable, Connection connection) throws SQLException
+	{
+		List<CreateCommand<Resource, ResourceDao<Resource>>> pending = commands.stream().filter(c -> c.createPending)
+				.map(c -> (CreateCommand<Resource, ResourceDao<Resource>>) c).toList();
+
+		if (pending.isEmpty())
+			return;
+
+		ResourceDao<Resource> dao = pending.get(0).dao;
+		List<Resource> created = dao.createWithTransactionAndIds(connection,
+				pending.stream().map(c -> c.resource).toList(),
+				pending.stream().map(c -> c.getId(idTranslationTable)).toList());
+
+		for (int i = 0; i < pending.size(); i++)
+		{
+			pending.get(i).createdResource = created.get(i);
+			pending.get(i).createPending = false;
+		}
+	}
+
 	private UUID getId(Map<String, IdType> idTranslationTable)
 	{
 		IdType idType = idTranslationTable.get(entry.getFullUrl());
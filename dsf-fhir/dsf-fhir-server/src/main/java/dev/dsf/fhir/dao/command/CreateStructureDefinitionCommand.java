@@ -75,6 +75,13 @@ public class CreateStructureDefinitionCommand extends CreateCommand<StructureDef
 		return s.getSnapshot();
 	}
 
+	@Override
+	protected boolean isBatchable()
+	{
+		// snapshots are created per resource
+		return false;
+	}
+
 	@Override
 	protected StructureDefinition createWithTransactionAndId(Connection connection, StructureDefinition resource,
 			UUID uuid) throws SQLException
@@ -0,0 +1,36 @@
+package dev.dsf.fhir.dao.command;
+
+import java.util.List;
+import java.util.Map;
+
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Resource;
+
+/**
+ * Validates resources of batch and transaction bundle entries in parallel, after pre-execute of all commands and before
+ * the entries are executed one by one using a single database connection. Results are used by
+ * {@link ValidationHelper#withPreValidationResults(PreValidationResults)} if the resource to validate during execute is
+ * equal to the pre-validated copy, otherwise the resource is validated again. Errors are always reported while
+ * executing the corresponding entry.
+ */
+public interface PreValidationHelper
+{
+	/**
+	 * @param resource
+	 *            not <code>null</code>, resource validated during execute
+	 * @param resolvedCopy
+	 *            not <code>null</code>, copy of the resource with references resolved as during execute
+	 */
+	record Candidate(Resource resource, Resource resolvedCopy)
+	{
+	}
+
+	/**
+	 * @param commands
+	 *            not <code>null</code>
+	 * @param idTranslationTable
+	 *            not <code>null</code>, complete after pre-execute of all commands
+	 * @return not <code>null</code>
+	 */
+	PreValidationResults preValidate(List<? extends Command> commands, Map<String, IdType> idTranslationTable);
+}
@@ -0,0 +1,140 @@
+package dev.dsf.fhir.dao.command;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.hl7.fhir.r4.model.IdType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import ca.uhn.fhir.validation.ValidationResult;
+import dev.dsf.fhir.validation.ResourceValidator;
+
+/**
+ * Uses the global {@link ResourceValidator}, not the validator of the transaction. Bundles modifying resources used by
+ * the validator (StructureDefinition, CodeSystem, ValueSet, Questionnaire, Measure) are not pre-validated, resources of
+ * these bundles are validated sequentially during execute.
+ */
+public class PreValidationHelperImpl implements PreValidationHelper, InitializingBean, DisposableBean
+{
+	private static final Logger logger = LoggerFactory.getLogger(PreValidationHelperImpl.class);
+
+	private static final Set<String> VALIDATION_RESOURCE_TYPES = Set.of("StructureDefinition", "CodeSystem", "ValueSet",
+			"Questionnaire", "Measure");
+
+	private final ResourceValidator resourceValidator;
+	private final ExecutorService executor;
+
+	/**
+	 * @param resourceValidator
+	 *            not <code>null</code>
+	 * @param threads
+	 *            number of validation threads, values &lt; 1 disable pre-validation
+	 */
+	public PreValidationHelperImpl(ResourceValidator resourceValidator, int threads)
+	{
+		this.resourceValidator = resourceValidator;
+		this.executor = threads > 0 ? Executors.newFixedThreadPool(threads) : null;
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception
+	{
+		Objects.requireNonNull(resourceValidator, "resourceValidator");
+	}
+
+	@Override
+	public void destroy() throws Exception
+	{
+		if (executor == null)
+			return;
+
+		executor.shutdown();
+		try
+		{
+			if (!executor.awaitTermination(60, TimeUnit.SECONDS))
+			{
+				executor.shutdownNow();
+				if (!executor.awaitTermination(60, TimeUnit.SECONDS))
+					logger.warn("PreValidationHelper executor did not terminate");
+			}
+		}
+		catch (InterruptedException ie)
+		{
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public PreValidationResults preValidate(List<? extends Command> commands, Map<String, IdType> idTranslationTable)
+	{
+		Objects.requireNonNull(commands, "commands");
+		Objects.requireNonNull(idTranslationTable, "idTranslationTable");
+
+		if (executor == null || commands.stream().anyMatch(this::modifiesValidationResource))
+			return PreValidationResults.empty();
+
+		List<Candidate> candidates = commands.stream().map(c -> c.getPreValidationCandidate(idTranslationTable))
+				.flatMap(Optional::stream).toList();
+
+		if (candidates.size() < 2)
+			return PreValidationResults.empty();
+
+		logger.debug("Pre-validating {} resources", candidates.size());
+
+		List<Future<ValidationResult>> futures;
+		try
+		{
+			futures = candidates.stream().map(c -> executor.submit(() -> resourceValidator.validate(c.resolvedCopy())))
+					.toList();
+		}
+		catch (RejectedExecutionException e)
+		{
+			logger.debug("Unable to pre-validate resources", e);
+			logger.warn("Unable to pre-validate resources: {} - {}", e.getClass().getName(), e.getMessage());
+
+			return PreValidationResults.empty();
+		}
+
+		PreValidationResults results = new PreValidationResults();
+		for (int i = 0; i < candidates.size(); i++)
+		{
+			try
+			{
+				results.add(candidates.get(i), futures.get(i).get());
+			}
+			catch (ExecutionException e)
+			{
+				// resource validated again during execute, errors reported for the corresponding entry
+				logger.debug("Error while pre-validating {} resource", candidates.get(i).resource().fhirType(),
+						e.getCause());
+			}
+			catch (InterruptedException e)
+			{
+				futures.forEach(f -> f.cancel(true));
+				Thread.currentThread().interrupt();
+
+				return results;
+			}
+		}
+
+		return results;
+	}
+
+	private boolean modifiesValidationResource(Command command)
+	{
+		return command instanceof ModifyingCommand && VALIDATION_RESOURCE_TYPES.contains(command.getResourceTypeName());
+	}
+}
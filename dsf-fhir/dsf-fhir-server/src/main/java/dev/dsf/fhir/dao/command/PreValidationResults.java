@@ -0,0 +1,62 @@
+package dev.dsf.fhir.dao.command;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.hl7.fhir.r4.model.Resource;
+
+import ca.uhn.fhir.validation.ValidationResult;
+
+public final class PreValidationResults
+{
+	private static final PreValidationResults EMPTY = new PreValidationResults(Collections.emptyMap());
+
+	public static PreValidationResults empty()
+	{
+		return EMPTY;
+	}
+
+	private static record Result(Resource validated, ValidationResult validationResult)
+	{
+	}
+
+	private final Map<Resource, Result> resultsByResource;
+
+	private PreValidationResults(Map<Resource, Result> resultsByResource)
+	{
+		this.resultsByResource = resultsByResource;
+	}
+
+	PreValidationResults()
+	{
+		this(new IdentityHashMap<>());
+	}
+
+	void add(PreValidationHelper.Candidate candidate, ValidationResult validationResult)
+	{
+		resultsByResource.put(candidate.resource(), new Result(candidate.resolvedCopy(), validationResult));
+	}
+
+	public boolean isEmpty()
+	{
+		return resultsByResource.isEmpty();
+	}
+
+	/**
+	 * @param resource
+	 *            not <code>null</code>
+	 * @return {@link Optional#empty()} if the given resource was not pre-validated or was modified after the validated
+	 *         copy was created
+	 */
+	public Optional<ValidationResult> get(Resource resource)
+	{
+		Result result = resultsByResource.get(resource);
+
+		if (result != null && result.validated().equalsDeep(resource))
+			return Optional.of(result.validationResult());
+		else
+			return Optional.empty();
+	}
+}
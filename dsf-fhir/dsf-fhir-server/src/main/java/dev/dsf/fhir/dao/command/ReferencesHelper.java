@@ -1,12 +1,15 @@
 package dev.dsf.fhir.dao.command;
 
 import java.sql.Connection;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 
 import org.hl7.fhir.r4.model.IdType;
 import org.hl7.fhir.r4.model.Resource;
 
+import dev.dsf.fhir.service.ReferenceResolver;
 import dev.dsf.fhir.service.ResourceReference;
 import jakarta.ws.rs.WebApplicationException;
 
@@ -17,6 +20,42 @@ public interface ReferencesHelper<R extends Resource>
 
 	void resolveLogicalReferences(Connection connection) throws WebApplicationException;
 
+	/**
+	 * Literal internal references are checked with one database query per target resource type.
+	 *
+	 * @param idTranslationTable
+	 *            not <code>null</code>
+	 * @param connection
+	 *            not <code>null</code>
+	 * @param checkReference
+	 *            not <code>null</code>
+	 * @throws WebApplicationException
+	 *             if a reference could not be resolved
+	 */
 	void checkReferences(Map<String, IdType> idTranslationTable, Connection connection,
 			Predicate<ResourceReference> checkReference) throws WebApplicationException;
+
+	/**
+	 * @param connection
+	 *            not <code>null</code>
+	 * @param checkReference
+	 *            not <code>null</code>
+	 * @return references to be checked by {@link #checkReferences(List, Connection, Set)}
+	 */
+	List<ResourceReference> getReferencesToCheck(Connection connection, Predicate<ResourceReference> checkReference);
+
+	/**
+	 * @param references
+	 *            not <code>null</code>, result of {@link #getReferencesToCheck(Connection, Predicate)}
+	 * @param connection
+	 *            not <code>null</code>
+	 * @param existingLiteralInternalReferenceTargets
+	 *            not <code>null</code>, result of
+	 *            {@link ReferenceResolver#getExistingLiteralInternalReferenceTargets(java.util.Collection, Connection)}
+	 *            for at least the given <b>references</b>
+	 * @throws WebApplicationException
+	 *             if a reference could not be resolved
+	 */
+	void checkReferences(List<ResourceReference> references, Connection connection,
+			Set<IdType> existingLiteralInternalReferenceTargets) throws WebApplicationException;
 }
\ No newline at end of file
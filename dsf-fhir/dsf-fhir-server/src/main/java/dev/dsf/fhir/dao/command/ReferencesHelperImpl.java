@@ -1,8 +1,10 @@
 package dev.dsf.fhir.dao.command;
 
 import java.sql.Connection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -199,25 +201,45 @@ public final class ReferencesHelperImpl<R extends Resource> implements Reference
 	public void checkReferences(Map<String, IdType> idTranslationTable, Connection connection,
 			Predicate<ResourceReference> checkReference) throws WebApplicationException
 	{
-		referenceExtractor.getReferences(resource).filter(checkReference)
-				.filter(ref -> referenceResolver.referenceCanBeChecked(ref, connection)).forEach(ref ->
-				{
-					Optional<OperationOutcome> outcome = checkReference(ref, connection);
-					if (outcome.isPresent())
-					{
-						Response response = Response.status(Status.FORBIDDEN).entity(outcome.get()).build();
-						throw new WebApplicationException(response);
-					}
-				});
+		List<ResourceReference> references = getReferencesToCheck(connection, checkReference);
+		Set<IdType> existingTargets = referenceResolver.getExistingLiteralInternalReferenceTargets(references,
+				connection);
+
+		checkReferences(references, connection, existingTargets);
+	}
+
+	@Override
+	public List<ResourceReference> getReferencesToCheck(Connection connection,
+			Predicate<ResourceReference> checkReference)
+	{
+		return referenceExtractor.getReferences(resource).filter(checkReference)
+				.filter(ref -> referenceResolver.referenceCanBeChecked(ref, connection)).toList();
+	}
+
+	@Override
+	public void checkReferences(List<ResourceReference> references, Connection connection,
+			Set<IdType> existingLiteralInternalReferenceTargets) throws WebApplicationException
+	{
+		references.forEach(ref ->
+		{
+			Optional<OperationOutcome> outcome = checkReference(ref, connection,
+					existingLiteralInternalReferenceTargets);
+			if (outcome.isPresent())
+			{
+				Response response = Response.status(Status.FORBIDDEN).entity(outcome.get()).build();
+				throw new WebApplicationException(response);
+			}
+		});
 	}
 
-	private Optional<OperationOutcome> checkReference(ResourceReference reference, Connection connection)
-			throws WebApplicationException
+	private Optional<OperationOutcome> checkReference(ResourceReference reference, Connection connection,
+			Set<IdType> existingLiteralInternalReferenceTargets) throws WebApplicationException
 	{
 		return switch (reference.getType(serverBase))
 		{
 			case LITERAL_INTERNAL, RELATED_ARTEFACT_LITERAL_INTERNAL_URL, ATTACHMENT_LITERAL_INTERNAL_URL ->
-				referenceResolver.checkLiteralInternalReference(resource, reference, connection, index);
+				referenceResolver.checkLiteralInternalReference(resource, reference, index,
+						existingLiteralInternalReferenceTargets);
 
 			case LITERAL_EXTERNAL, RELATED_ARTEFACT_LITERAL_EXTERNAL_URL, ATTACHMENT_LITERAL_EXTERNAL_URL ->
 				referenceResolver.checkLiteralExternalReference(resource, reference, index);
@@ -1,6 +1,7 @@
 package dev.dsf.fhir.dao.command;
 
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -8,7 +9,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
-import java.util.function.Function;
+import java.util.Set;
+import java.util.function.BiFunction;
 
 import javax.sql.DataSource;
 
@@ -29,14 +31,21 @@ public class TransactionCommandList extends AbstractCommandList implements Comma
 {
 	private static final Logger logger = LoggerFactory.getLogger(TransactionCommandList.class);
 
-	private final Function<Connection, TransactionResources> transactionResourceFactory;
+	private static final Set<String> CONFORMANCE_RESOURCE_TYPES = Set.of("StructureDefinition", "CodeSystem",
+			"ValueSet", "Questionnaire", "Measure");
+
+	private final BiFunction<Connection, Boolean, TransactionResources> transactionResourceFactory;
+	private final PreValidationHelper preValidationHelper;
 
 	public TransactionCommandList(DataSource dataSource, ExceptionHandler exceptionHandler,
-			List<? extends Command> commands, Function<Connection, TransactionResources> transactionResourceFactory)
+			List<? extends Command> commands,
+			BiFunction<Connection, Boolean, TransactionResources> transactionResourceFactory,
+			PreValidationHelper preValidationHelper)
 	{
 		super(dataSource, exceptionHandler, commands);
 
 		this.transactionResourceFactory = transactionResourceFactory;
+		this.preValidationHelper = preValidationHelper;
 
 		Collections.sort(this.commands,
 				Comparator.comparing(Command::getTransactionPriority).thenComparing(Command::getIndex));
@@ -58,9 +67,10 @@ public class TransactionCommandList extends AbstractCommandList implements Comma
 					connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
 				}
 
-				TransactionResources transactionResources = transactionResourceFactory.apply(connection);
+				TransactionResources transactionResources = transactionResourceFactory.apply(connection,
+						modifiesConformanceResources());
 				transactionEventHandler = transactionResources.getTransactionEventHandler();
-				ValidationHelper validationHelper = transactionResources.getValidationHelper();
+				ValidationHelper transactionValidationHelper = transactionResources.getValidationHelper();
 				SnapshotGenerator snapshotGenerator = transactionResources.getSnapshotGenerator();
 
 				Map<String, IdType> idTranslationTable = new HashMap<>();
@@ -70,7 +80,7 @@ public class TransactionCommandList extends AbstractCommandList implements Comma
 					{
 						logger.debug("Running pre-execute of command {} for entry at index {}", c.getClass().getName(),
 								c.getIndex());
-						c.preExecute(idTranslationTable, connection, validationHelper, snapshotGenerator);
+						c.preExecute(idTranslationTable, connection, transactionValidationHelper, snapshotGenerator);
 					}
 					catch (Exception e)
 					{
@@ -97,41 +107,99 @@ public class TransactionCommandList extends AbstractCommandList implements Comma
 					}
 				}
 
-				for (Command c : commands)
+				ValidationHelper validationHelper = transactionValidationHelper
+						.withPreValidationResults(preValidationHelper.preValidate(commands, idTranslationTable));
+
+				for (int i = 0; i < commands.size(); i++)
 				{
-					try
+					List<CreateCommand<?, ?>> createBatch = getCreateBatch(i);
+					List<CheckReferencesCommand<?, ?>> checkReferencesBatch = createBatch.isEmpty()
+							? getCheckReferencesBatch(i)
+							: Collections.emptyList();
+
+					if (!checkReferencesBatch.isEmpty())
 					{
-						logger.debug("Running execute of command {} for entry at index {}", c.getClass().getName(),
-								c.getIndex());
-						c.execute(idTranslationTable, connection, validationHelper, snapshotGenerator);
+						Set<IdType> existingTargets;
+						try
+						{
+							logger.debug(
+									"Running literal internal reference check of {} commands for entries at index {} to {}",
+									checkReferencesBatch.size(), checkReferencesBatch.get(0).getIndex(),
+									checkReferencesBatch.get(checkReferencesBatch.size() - 1).getIndex());
+							CheckReferencesCommand.prefetchLiteralExternalReferences(checkReferencesBatch, connection);
+							existingTargets = CheckReferencesCommand
+									.getExistingLiteralInternalReferenceTargets(checkReferencesBatch, connection);
+						}
+						catch (Exception e)
+						{
+							handleExecuteError(connection, checkReferencesBatch.get(0), e);
+							throw e;
+						}
+
+						for (CheckReferencesCommand<?, ?> c : checkReferencesBatch)
+						{
+							try
+							{
+								logger.debug("Running execute of command {} for entry at index {}",
+										c.getClass().getName(), c.getIndex());
+								c.execute(connection, existingTargets);
+							}
+							catch (Exception e)
+							{
+								handleExecuteError(connection, c, e);
+								throw e;
+							}
+						}
+
+						i += checkReferencesBatch.size() - 1;
 					}
-					catch (Exception e)
+					else if (createBatch.isEmpty())
 					{
-						logger.debug("Error while executing command {} for entry at index {}, rolling back transaction",
-								c.getClass().getSimpleName(), c.getIndex(), e);
-						logger.warn(
-								"Error while executing command {} for entry at index {}, rolling back transaction: {} - {}",
-								c.getClass().getSimpleName(), c.getIndex(), e.getClass().getName(), e.getMessage());
-
-						if (hasModifyingCommands)
+						Command c = commands.get(i);
+						try
 						{
-							logger.debug("Rolling back DB transaction");
-							connection.rollback();
+							logger.debug("Running execute of command {} for entry at index {}", c.getClass().getName(),
+									c.getIndex());
+							c.execute(idTranslationTable, connection, validationHelper, snapshotGenerator);
+						}
+						catch (Exception e)
+						{
+							handleExecuteError(connection, c, e);
+							throw e;
+						}
+					}
+					else
+					{
+						for (CreateCommand<?, ?> c : createBatch)
+						{
+							try
+							{
+								logger.debug("Running execute without create of command {} for entry at index {}",
+										c.getClass().getName(), c.getIndex());
+								c.executeWithoutCreate(idTranslationTable, connection, validationHelper,
+										snapshotGenerator);
+							}
+							catch (Exception e)
+							{
+								handleExecuteError(connection, c, e);
+								throw e;
+							}
 						}
 
 						try
 						{
-							commands.stream().limit(c.getIndex()).forEach(this::auditLogAbbort);
-							auditLogResult(c, toEntry(e));
+							logger.debug("Running batch create of {} commands for entries at index {} to {}",
+									createBatch.size(), createBatch.get(0).getIndex(),
+									createBatch.get(createBatch.size() - 1).getIndex());
+							CreateCommand.executeCreateBatch(createBatch, idTranslationTable, connection);
 						}
-						catch (Exception e1)
+						catch (Exception e)
 						{
-							logger.debug("Error while writing to audit log", e1);
-							logger.warn("Error while writing to audit log: {} - {}", e1.getClass().getName(),
-									e1.getMessage());
+							handleExecuteError(connection, createBatch.get(0), e);
+							throw e;
 						}
 
-						throw e;
+						i += createBatch.size() - 1;
 					}
 				}
 
@@ -228,4 +296,35 @@ public class TransactionCommandList extends AbstractCommandList implements Comma
 			throw exceptionHandler.internalServerErrorBundleTransaction(e);
 		}
 	}
+
+	private boolean modifiesConformanceResources()
+	{
+		return commands.stream().anyMatch(
+				c -> c instanceof ModifyingCommand && CONFORMANCE_RESOURCE_TYPES.contains(c.getResourceTypeName()));
+	}
+
+	private void handleExecuteError(Connection connection, Command c, Exception e) throws SQLException
+	{
+		logger.debug("Error while executing command {} for entry at index {}, rolling back transaction",
+				c.getClass().getSimpleName(), c.getIndex(), e);
+		logger.warn("Error while executing command {} for entry at index {}, rolling back transaction: {} - {}",
+				c.getClass().getSimpleName(), c.getIndex(), e.getClass().getName(), e.getMessage());
+
+		if (hasModifyingCommands)
+		{
+			logger.debug("Rolling back DB transaction");
+			connection.rollback();
+		}
+
+		try
+		{
+			commands.stream().limit(c.getIndex()).forEach(this::auditLogAbbort);
+			auditLogResult(c, toEntry(e));
+		}
+		catch (Exception e1)
+		{
+			logger.debug("Error while writing to audit log", e1);
+			logger.warn("Error while writing to audit log: {} - {}", e1.getClass().getName(), e1.getMessage());
+		}
+	}
 }
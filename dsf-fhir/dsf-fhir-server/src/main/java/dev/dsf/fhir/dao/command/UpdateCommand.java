@@ -226,6 +226,16 @@ public class UpdateCommand<R extends Resource, D extends ResourceDao<R>> extends
 					.newInstance().replaceQueryParams(CollectionUtils.toMultiValueMap(queryParameters)).toUriString()));
 	}
 
+	@Override
+	public Optional<PreValidationHelper.Candidate> getPreValidationCandidate(Map<String, IdType> idTranslationTable)
+	{
+		// conditional update: resource id set during execute
+		if (!UriComponentsBuilder.fromUriString(entry.getRequest().getUrl()).build().getQueryParams().isEmpty())
+			return Optional.empty();
+
+		return createPreValidationCandidate(idTranslationTable);
+	}
+
 	@Override
 	public void execute(Map<String, IdType> idTranslationTable, Connection connection,
 			ValidationHelper validationHelper, SnapshotGenerator snapshotGenerator)
@@ -10,4 +10,12 @@ public interface ValidationHelper
 	ValidationResult checkResourceValidForCreate(Identity identity, Resource resource);
 
 	ValidationResult checkResourceValidForUpdate(Identity identity, Resource resource);
+
+	/**
+	 * @param preValidationResults
+	 *            not <code>null</code>
+	 * @return validation helper using the given results instead of validating pre-validated and unmodified resources
+	 *         again
+	 */
+	ValidationHelper withPreValidationResults(PreValidationResults preValidationResults);
 }
@@ -1,5 +1,6 @@
 package dev.dsf.fhir.dao.command;
 
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import org.hl7.fhir.r4.model.Resource;
@@ -19,11 +20,28 @@ public class ValidationHelperImpl implements ValidationHelper
 
 	private final ResourceValidator resourceValidator;
 	private final ResponseGenerator responseGenerator;
+	private final PreValidationResults preValidationResults;
 
 	public ValidationHelperImpl(ResourceValidator resourceValidator, ResponseGenerator responseGenerator)
+	{
+		this(resourceValidator, responseGenerator, PreValidationResults.empty());
+	}
+
+	private ValidationHelperImpl(ResourceValidator resourceValidator, ResponseGenerator responseGenerator,
+			PreValidationResults preValidationResults)
 	{
 		this.resourceValidator = resourceValidator;
 		this.responseGenerator = responseGenerator;
+		this.preValidationResults = preValidationResults;
+	}
+
+	@Override
+	public ValidationHelper withPreValidationResults(PreValidationResults preValidationResults)
+	{
+		Objects.requireNonNull(preValidationResults, "preValidationResults");
+
+		return preValidationResults.isEmpty() ? this
+				: new ValidationHelperImpl(resourceValidator, responseGenerator, preValidationResults);
 	}
 
 	@Override
@@ -40,7 +58,8 @@ public class ValidationHelperImpl implements ValidationHelper
 
 	private ValidationResult checkResourceValid(Identity identity, Resource resource, String method)
 	{
-		ValidationResult validationResult = resourceValidator.validate(resource);
+		ValidationResult validationResult = preValidationResults.get(resource)
+				.orElseGet(() -> resourceValidator.validate(resource));
 
 		if (validationResult.getMessages().stream().anyMatch(m -> ResultSeverityEnum.ERROR.equals(m.getSeverity())
 				|| ResultSeverityEnum.FATAL.equals(m.getSeverity())))
@@ -1,5 +1,6 @@
 package dev.dsf.fhir.dao.jdbc;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -8,10 +9,16 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -22,11 +29,14 @@ import javax.sql.DataSource;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.r4.model.Binary;
 import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.InstantType;
 import org.hl7.fhir.r4.model.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonToken;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
@@ -34,7 +44,9 @@ import com.google.gson.JsonParser;
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.model.api.annotation.ResourceDef;
 import dev.dsf.common.auth.conf.Identity;
+import dev.dsf.fhir.adapter.RawJson;
 import dev.dsf.fhir.dao.ResourceDao;
+import dev.dsf.fhir.dao.ResourceVersionInfo;
 import dev.dsf.fhir.dao.exception.ResourceDeletedException;
 import dev.dsf.fhir.dao.exception.ResourceNotFoundException;
 import dev.dsf.fhir.dao.exception.ResourceNotMarkedDeletedException;
@@ -48,6 +60,7 @@ import dev.dsf.fhir.search.SearchQueryIdentityFilter;
 import dev.dsf.fhir.search.SearchQueryIncludeParameter;
 import dev.dsf.fhir.search.SearchQueryParameter;
 import dev.dsf.fhir.search.SearchQueryParameterFactory;
+import dev.dsf.fhir.search.SearchQueryProjection;
 import dev.dsf.fhir.search.SearchQueryRevIncludeParameter;
 import dev.dsf.fhir.search.SearchQueryRevIncludeParameterFactory;
 import dev.dsf.fhir.search.parameters.ResourceId;
@@ -58,6 +71,14 @@ abstract class AbstractResourceDaoJdbc<R extends Resource> implements ResourceDa
 {
 	private static final Logger logger = LoggerFactory.getLogger(AbstractResourceDaoJdbc.class);
 
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	@FunctionalInterface
+	private static interface ResourceReader<R extends Resource>
+	{
+		R read(ResultSet result) throws SQLException;
+	}
+
 	protected static <R extends Resource> SearchQueryParameterFactory<R> factory(String parameterName,
 			Supplier<SearchQueryParameter<R>> supplier)
 	{
@@ -119,6 +140,8 @@ abstract class AbstractResourceDaoJdbc<R extends Resource> implements ResourceDa
 	private final SearchQueryParameterFactory<R> resourceLastUpdatedFactory;
 	private final SearchQueryParameterFactory<R> resourceProfileFactory;
 
+	private final SearchQueryProjection projection;
+
 	protected static SearchQueryRevIncludeParameterFactory factory(
 			Supplier<SearchQueryRevIncludeParameter> revIncludeSupplier, List<String> revIncludeParameterValues)
 	{
@@ -158,14 +181,14 @@ abstract class AbstractResourceDaoJdbc<R extends Resource> implements ResourceDa
 			List<SearchQueryParameterFactory<R>> searchParameterFactories,
 			List<SearchQueryRevIncludeParameterFactory> searchRevIncludeParameterFactories)
 	{
-		this(dataSource, permanentDeleteDataSource, resourceType, resourceTable, resourceColumn, resourceIdColumn,
-				new PreparedStatementFactoryDefault<>(fhirContext, resourceType, resourceTable, resourceIdColumn,
-						resourceColumn),
+		this(dataSource, permanentDeleteDataSource, fhirContext, resourceType, resourceTable, resourceColumn,
+				resourceIdColumn, new PreparedStatementFactoryDefault<>(fhirContext, resourceType, resourceTable,
+						resourceIdColumn, resourceColumn),
 				userFilter, searchParameterFactories, searchRevIncludeParameterFactories);
 	}
 
-	AbstractResourceDaoJdbc(DataSource dataSource, DataSource permanentDeleteDataSource, Class<R> resourceType,
-			String resourceTable, String resourceColumn, String resourceIdColumn,
+	AbstractResourceDaoJdbc(DataSource dataSource, DataSource permanentDeleteDataSource, FhirContext fhirContext,
+			Class<R> resourceType, String resourceTable, String resourceColumn, String resourceIdColumn,
 			PreparedStatementFactory<R> preparedStatementFactory,
 			Function<Identity, SearchQueryIdentityFilter> userFilter,
 			List<SearchQueryParameterFactory<R>> searchParameterFactories,
@@ -195,6 +218,9 @@ abstract class AbstractResourceDaoJdbc<R extends Resource> implements ResourceDa
 				() -> new ResourceLastUpdated<>(resourceType, resourceColumn));
 		resourceProfileFactory = new SearchQueryParameterFactory<>(ResourceProfile.PARAMETER_NAME,
 				() -> new ResourceProfile<>(resourceType, resourceColumn), ResourceProfile.getNameModifiers());
+
+		projection = SearchQueryProjection.forResourceType(Objects.requireNonNull(fhirContext, "fhirContext"),
+				resourceType);
 	}
 
 	@Override
@@ -296,10 +322,7 @@ abstract class AbstractResourceDaoJdbc<R extends Resource> implements ResourceDa
 
 	private R create(Connection connection, R resource, UUID uuid) throws SQLException
 	{
-		resource = copy(resource); // XXX defensive copy, might want to remove this call
-		resource.setIdElement(new IdType(resourceTypeName, uuid.toString(), FIRST_VERSION_STRING));
-		resource.getMeta().setVersionId(FIRST_VERSION_STRING);
-		resource.getMeta().setLastUpdated(new Date());
+		resource = prepareCreate(resource, uuid, new Date());
 
 		try (PreparedStatement statement = connection.prepareStatement(preparedStatementFactory.getCreateSql()))
 		{
@@ -311,6 +334,52 @@ abstract class AbstractResourceDaoJdbc<R extends Resource> implements ResourceDa
 		return resource;
 	}
 
+	private R prepareCreate(R resource, UUID uuid, Date lastUpdated)
+	{
+		resource = copy(resource); // XXX defensive copy, might want to remove this call
+		resource.setIdElement(new IdType(resourceTypeName, uuid.toString(), FIRST_VERSION_STRING));
+		resource.getMeta().setVersionId(FIRST_VERSION_STRING);
+		resource.getMeta().setLastUpdated(lastUpdated);
+
+		return resource;
+	}
+
+	@Override
+	public List<R> createWithTransactionAndIds(Connection connection, List<R> resources, List<UUID> uuids)
+			throws SQLException
+	{
+		Objects.requireNonNull(connection, "connection");
+		Objects.requireNonNull(resources, "resources");
+		Objects.requireNonNull(uuids, "uuids");
+		if (connection.isReadOnly())
+			throw new IllegalArgumentException("Connection is read-only");
+		if (resources.size() != uuids.size())
+			throw new IllegalArgumentException("resources.size() != uuids.size()");
+
+		if (resources.isEmpty())
+			return Collections.emptyList();
+
+		Date lastUpdated = new Date();
+		List<R> inserted = new ArrayList<>(resources.size());
+
+		try (PreparedStatement statement = connection.prepareStatement(preparedStatementFactory.getCreateSql()))
+		{
+			for (int i = 0; i < resources.size(); i++)
+			{
+				R resource = prepareCreate(resources.get(i), uuids.get(i), lastUpdated);
+				preparedStatementFactory.configureCreateStatement(statement, resource, uuids.get(i));
+				statement.addBatch();
+
+				inserted.add(resource);
+			}
+
+			statement.executeBatch();
+		}
+
+		logger.debug("{} {} resources created with batch", inserted.size(), resourceTypeName);
+		return inserted;
+	}
+
 	protected abstract R copy(R resource);
 
 	protected R getResource(ResultSet result, int index) throws SQLException
@@ -335,6 +404,20 @@ abstract class AbstractResourceDaoJdbc<R extends Resource> implements ResourceDa
 	public Optional<R> readWithTransaction(Connection connection, UUID uuid)
 			throws SQLException, ResourceDeletedException
 	{
+		return readWithTransaction(preparedStatementFactory, connection, uuid);
+	}
+
+	protected Optional<R> readWithTransaction(PreparedStatementFactory<R> preparedStatementFactory,
+			Connection connection, UUID uuid) throws SQLException, ResourceDeletedException
+	{
+		return readWithTransaction(preparedStatementFactory, connection, uuid,
+				preparedStatementFactory::getReadByIdResource);
+	}
+
+	private Optional<R> readWithTransaction(PreparedStatementFactory<R> preparedStatementFactory, Connection connection,
+			UUID uuid, ResourceReader<R> resourceReader) throws SQLException, ResourceDeletedException
+	{
+		Objects.requireNonNull(preparedStatementFactory, "preparedStatementFactory");
 		Objects.requireNonNull(connection, "connection");
 		if (uuid == null)
 			return Optional.empty();
@@ -357,7 +440,7 @@ abstract class AbstractResourceDaoJdbc<R extends Resource> implements ResourceDa
 					else
 					{
 						logger.debug("{} with IdPart {} found", resourceTypeName, uuid);
-						return Optional.of(preparedStatementFactory.getReadByIdResource(result));
+						return Optional.of(resourceReader.read(result));
 					}
 				}
 				else
@@ -391,6 +474,21 @@ abstract class AbstractResourceDaoJdbc<R extends Resource> implements ResourceDa
 	public Optional<R> readVersionWithTransaction(Connection connection, UUID uuid, long version)
 			throws SQLException, ResourceDeletedException
 	{
+		return readVersionWithTransaction(preparedStatementFactory, connection, uuid, version);
+	}
+
+	protected Optional<R> readVersionWithTransaction(PreparedStatementFactory<R> preparedStatementFactory,
+			Connection connection, UUID uuid, long version) throws SQLException, ResourceDeletedException
+	{
+		return readVersionWithTransaction(preparedStatementFactory, connection, uuid, version,
+				preparedStatementFactory::getReadByIdAndVersionResource);
+	}
+
+	private Optional<R> readVersionWithTransaction(PreparedStatementFactory<R> preparedStatementFactory,
+			Connection connection, UUID uuid, long version, ResourceReader<R> resourceReader)
+			throws SQLException, ResourceDeletedException
+	{
+		Objects.requireNonNull(preparedStatementFactory, "preparedStatementFactory");
 		Objects.requireNonNull(connection, "connection");
 		if (uuid == null || version < FIRST_VERSION)
 			return Optional.empty();
@@ -421,7 +519,7 @@ abstract class AbstractResourceDaoJdbc<R extends Resource> implements ResourceDa
 					else
 					{
 						logger.debug("{} with IdPart {} and Version {} found", resourceTypeName, uuid, version);
-						return Optional.of(preparedStatementFactory.getReadByIdAndVersionResource(result));
+						return Optional.of(resourceReader.read(result));
 					}
 				}
 				else
@@ -433,6 +531,130 @@ abstract class AbstractResourceDaoJdbc<R extends Resource> implements ResourceDa
 		}
 	}
 
+	@Override
+	public final Optional<R> readRaw(UUID uuid) throws SQLException, ResourceDeletedException
+	{
+		if (!isRawJsonSupported())
+			return read(uuid);
+
+		if (uuid == null)
+			return Optional.empty();
+
+		try (Connection connection = dataSource.getConnection())
+		{
+			return readWithTransaction(preparedStatementFactory, connection, uuid,
+					result -> getRawResource(preparedStatementFactory.getReadByIdJson(result),
+							preparedStatementFactory::getReadByIdResource, result));
+		}
+	}
+
+	@Override
+	public final Optional<R> readVersionRaw(UUID uuid, long version) throws SQLException, ResourceDeletedException
+	{
+		if (!isRawJsonSupported())
+			return readVersion(uuid, version);
+
+		if (uuid == null || version < FIRST_VERSION)
+			return Optional.empty();
+
+		try (Connection connection = dataSource.getConnection())
+		{
+			return readVersionWithTransaction(preparedStatementFactory, connection, uuid, version,
+					result -> getRawResource(preparedStatementFactory.getReadByIdAndVersionJson(result),
+							preparedStatementFactory::getReadByIdAndVersionResource, result));
+		}
+	}
+
+	/**
+	 * Override this method to disable raw JSON reads and searches, if the stored JSON is not the complete resource.
+	 *
+	 * @return <code>true</code> if {@link #readRaw(UUID)}, {@link #readVersionRaw(UUID, long)} and
+	 *         {@link #searchRaw(DbSearchQuery)} can return the stored JSON
+	 */
+	protected boolean isRawJsonSupported()
+	{
+		return true;
+	}
+
+	/**
+	 * Literal references with identifier are cleaned before resources are returned to the client, resources possibly
+	 * containing such references are parsed.
+	 *
+	 * @see dev.dsf.fhir.service.ReferenceCleaner
+	 */
+	private boolean needsReferenceCleanup(String json)
+	{
+		return json.contains("\"reference\"") && json.contains("\"identifier\"");
+	}
+
+	private R getRawResource(String json, ResourceReader<R> parsingReader, ResultSet result) throws SQLException
+	{
+		if (json == null || needsReferenceCleanup(json))
+			return parsingReader.read(result);
+		else
+			return toRawResource(json);
+	}
+
+	/**
+	 * @return placeholder with id and meta of the given JSON, the JSON is attached via {@link RawJson}
+	 */
+	private R toRawResource(String json) throws SQLException
+	{
+		String id = null, versionId = null, lastUpdated = null;
+
+		// jsonb orders keys by length, id and meta are typically the first keys
+		try (com.fasterxml.jackson.core.JsonParser parser = JSON_FACTORY.createParser(json))
+		{
+			if (parser.nextToken() != JsonToken.START_OBJECT)
+				throw new SQLException("Stored " + resourceTypeName + " not a JSON object");
+
+			while ((id == null || versionId == null) && parser.nextToken() == JsonToken.FIELD_NAME)
+			{
+				String field = parser.currentName();
+				JsonToken value = parser.nextToken();
+
+				if ("id".equals(field) && value == JsonToken.VALUE_STRING)
+					id = parser.getText();
+				else if ("meta".equals(field) && value == JsonToken.START_OBJECT)
+				{
+					while (parser.nextToken() == JsonToken.FIELD_NAME)
+					{
+						String metaField = parser.currentName();
+						JsonToken metaValue = parser.nextToken();
+
+						if ("versionId".equals(metaField) && metaValue == JsonToken.VALUE_STRING)
+							versionId = parser.getText();
+						else if ("lastUpdated".equals(metaField) && metaValue == JsonToken.VALUE_STRING)
+							lastUpdated = parser.getText();
+						else
+							parser.skipChildren();
+					}
+				}
+				else
+					parser.skipChildren();
+			}
+		}
+		catch (IOException e)
+		{
+			throw new SQLException("Unable to read id and meta of stored " + resourceTypeName, e);
+		}
+
+		try
+		{
+			R resource = resourceType.getConstructor().newInstance();
+			resource.setIdElement(new IdType(resourceTypeName, id, versionId));
+			resource.getMeta().setVersionId(versionId);
+			if (lastUpdated != null)
+				resource.getMeta().setLastUpdatedElement(new InstantType(lastUpdated));
+
+			return RawJson.attach(resource, json);
+		}
+		catch (ReflectiveOperationException e)
+		{
+			throw new SQLException("Unable to create " + resourceTypeName + " placeholder", e);
+		}
+	}
+
 	@Override
 	public Optional<R> readIncludingDeleted(UUID uuid) throws SQLException
 	{
@@ -476,6 +698,69 @@ abstract class AbstractResourceDaoJdbc<R extends Resource> implements ResourceDa
 		}
 	}
 
+	@Override
+	public Optional<ResourceVersionInfo> readVersionInfo(UUID uuid) throws SQLException
+	{
+		if (uuid == null)
+			return Optional.empty();
+
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement statement = connection.prepareStatement(
+						readVersionInfoSql(" WHERE " + resourceIdColumn + " = ? ORDER BY version DESC LIMIT 1")))
+		{
+			statement.setObject(1, preparedStatementFactory.uuidToPgObject(uuid));
+
+			return readVersionInfo(statement, uuid);
+		}
+	}
+
+	@Override
+	public Optional<ResourceVersionInfo> readVersionInfo(UUID uuid, long version) throws SQLException
+	{
+		if (uuid == null || version < FIRST_VERSION)
+			return Optional.empty();
+
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement statement = connection
+						.prepareStatement(readVersionInfoSql(" WHERE " + resourceIdColumn + " = ? AND version = ?")))
+		{
+			statement.setObject(1, preparedStatementFactory.uuidToPgObject(uuid));
+			statement.setLong(2, version);
+
+			return readVersionInfo(statement, uuid);
+		}
+	}
+
+	private String readVersionInfoSql(String where)
+	{
+		return "SELECT version, (" + resourceColumn + "->'meta'->>'lastUpdated')::timestamptz, deleted FROM "
+				+ resourceTable + where;
+	}
+
+	private Optional<ResourceVersionInfo> readVersionInfo(PreparedStatement statement, UUID uuid) throws SQLException
+	{
+		try (ResultSet result = statement.executeQuery())
+		{
+			if (result.next())
+			{
+				long version = result.getLong(1);
+				Timestamp lastUpdated = result.getTimestamp(2);
+				Timestamp deleted = result.getTimestamp(3);
+
+				logger.debug("{} with IdPart {} and Version {} found{}", resourceTypeName, uuid, version,
+						deleted != null ? ", marked as deleted" : "");
+				return Optional.of(new ResourceVersionInfo(uuid, version,
+						lastUpdated == null ? null : new Date(lastUpdated.getTime()),
+						deleted == null ? null : deleted.toLocalDateTime()));
+			}
+			else
+			{
+				logger.debug("{} with IdPart {} not found", resourceTypeName, uuid);
+				return Optional.empty();
+			}
+		}
+	}
+
 	@Override
 	public List<R> readAll() throws SQLException
 	{
@@ -558,6 +843,72 @@ abstract class AbstractResourceDaoJdbc<R extends Resource> implements ResourceDa
 		}
 	}
 
+	@Override
+	public Set<IdType> existingNotDeletedWithTransaction(Connection connection, Collection<IdType> ids)
+			throws SQLException
+	{
+		Objects.requireNonNull(connection, "connection");
+		Objects.requireNonNull(ids, "ids");
+
+		Map<UUID, List<IdType>> withoutVersion = new HashMap<>();
+		Map<UUID, Map<Long, List<IdType>>> withVersion = new HashMap<>();
+		for (IdType id : ids)
+		{
+			UUID uuid = toUuid(id.getIdPart());
+			if (uuid == null)
+				continue;
+
+			if (!id.hasVersionIdPart())
+				withoutVersion.computeIfAbsent(uuid, k -> new ArrayList<>()).add(id);
+			else
+			{
+				Long version = toLong(id.getVersionIdPart());
+				if (version != null && version >= FIRST_VERSION)
+					withVersion.computeIfAbsent(uuid, k -> new HashMap<>())
+							.computeIfAbsent(version, k -> new ArrayList<>()).add(id);
+			}
+		}
+
+		Set<IdType> existing = new HashSet<>();
+
+		if (!withoutVersion.isEmpty())
+		{
+			try (PreparedStatement statement = connection.prepareStatement("SELECT " + resourceIdColumn
+					+ " FROM current_" + resourceTable + " WHERE " + resourceIdColumn + " = ANY (?)"))
+			{
+				statement.setArray(1, connection.createArrayOf("UUID", withoutVersion.keySet().toArray()));
+
+				try (ResultSet result = statement.executeQuery())
+				{
+					while (result.next())
+						existing.addAll(withoutVersion.getOrDefault(result.getObject(1, UUID.class), List.of()));
+				}
+			}
+		}
+
+		if (!withVersion.isEmpty())
+		{
+			// selects all combinations of given ids and versions, unexpected combinations are ignored
+			try (PreparedStatement statement = connection
+					.prepareStatement("SELECT " + resourceIdColumn + ", version FROM " + resourceTable + " WHERE "
+							+ resourceIdColumn + " = ANY (?) AND version = ANY (?) AND deleted IS NULL"))
+			{
+				statement.setArray(1, connection.createArrayOf("UUID", withVersion.keySet().toArray()));
+				statement.setArray(2, connection.createArrayOf("BIGINT",
+						withVersion.values().stream().flatMap(v -> v.keySet().stream()).distinct().toArray()));
+
+				try (ResultSet result = statement.executeQuery())
+				{
+					while (result.next())
+						existing.addAll(withVersion.getOrDefault(result.getObject(1, UUID.class), Map.of())
+								.getOrDefault(result.getLong(2), List.of()));
+				}
+			}
+		}
+
+		return existing;
+	}
+
 	@Override
 	public final R update(R resource, Long expectedVersion)
 			throws SQLException, ResourceNotFoundException, ResourceVersionNoMatchException
@@ -797,41 +1148,71 @@ abstract class AbstractResourceDaoJdbc<R extends Resource> implements ResourceDa
 		}
 	}
 
+	@Override
+	public final PartialResult<R> searchRaw(DbSearchQuery query) throws SQLException
+	{
+		Objects.requireNonNull(query, "query");
+
+		if (!isRawJsonSupported())
+			return search(query);
+
+		try (Connection connection = dataSource.getConnection())
+		{
+			return searchWithTransaction(connection, query, true);
+		}
+	}
+
 	@Override
 	public PartialResult<R> searchWithTransaction(Connection connection, DbSearchQuery query) throws SQLException
+	{
+		return searchWithTransaction(connection, query, false);
+	}
+
+	private PartialResult<R> searchWithTransaction(Connection connection, DbSearchQuery query, boolean raw)
+			throws SQLException
 	{
 		Objects.requireNonNull(connection, "connection");
 		Objects.requireNonNull(query, "query");
 
-		int total = 0;
-		try (PreparedStatement statement = connection.prepareStatement(query.getCountSql()))
-		{
-			query.modifyStatement(statement, connection::createArrayOf);
+		PageAndCount pageAndCount = query.getPageAndCount();
 
-			try (ResultSet result = statement.executeQuery())
-			{
-				if (result.next())
-					total = result.getInt(1);
-			}
-		}
+		int total = switch (pageAndCount.getTotalMode())
+		{
+			case NONE -> 0;
+			case ESTIMATE -> estimate(connection, query);
+			case ACCURATE -> count(connection, query);
+		};
 
 		List<R> partialResult = new ArrayList<>();
 		List<Resource> includes = new ArrayList<>();
+		boolean nextPage = false;
 
-		if (!query.getPageAndCount().isCountOnly(total))
+		if (pageAndCount.isTotalAccurate() ? !pageAndCount.isCountOnly(total) : !pageAndCount.isCountOnly())
 		{
 			try (PreparedStatement statement = connection.prepareStatement(query.getSearchSql()))
 			{
-				query.modifyStatement(statement, connection::createArrayOf);
+				query.modifySearchStatement(statement, connection::createArrayOf);
 
 				try (ResultSet result = statement.executeQuery())
 				{
 					ResultSetMetaData metaData = result.getMetaData();
 					while (result.next())
 					{
-						R resource = getResource(result, 1);
-						modifySearchResultResource(resource, connection);
-						partialResult.add(resource);
+						// search sql requests one additional row if total not accurate, see PageAndCount
+						if (partialResult.size() >= pageAndCount.getCount())
+						{
+							nextPage = true;
+							break;
+						}
+
+						if (raw)
+							partialResult.add(getRawResource(result.getString(1), r -> getResource(r, 1), result));
+						else
+						{
+							R resource = getResource(result, 1);
+							modifySearchResultResource(resource, connection, query);
+							partialResult.add(resource);
+						}
 
 						for (int columnIndex = 2; columnIndex <= metaData.getColumnCount(); columnIndex++)
 							getResources(result, columnIndex, includes, connection, query);
@@ -844,7 +1225,59 @@ abstract class AbstractResourceDaoJdbc<R extends Resource> implements ResourceDa
 		includes = includes.stream().map(r -> new ResourceDistinctById(r.getIdElement(), r)).distinct()
 				.map(ResourceDistinctById::getResource).collect(Collectors.toList());
 
-		return new PartialResult<>(total, query.getPageAndCount(), partialResult, includes);
+		if (pageAndCount.isTotalAccurate())
+			return new PartialResult<>(total, pageAndCount, partialResult, includes);
+		else
+			return new PartialResult<>(total, pageAndCount, partialResult, includes, nextPage);
+	}
+
+	private int count(Connection connection, DbSearchQuery query) throws SQLException
+	{
+		try (PreparedStatement statement = connection.prepareStatement(query.getCountSql()))
+		{
+			query.modifyStatement(statement, connection::createArrayOf);
+
+			try (ResultSet result = statement.executeQuery())
+			{
+				if (result.next())
+					return result.getInt(1);
+				else
+					return 0;
+			}
+		}
+	}
+
+	private int estimate(Connection connection, DbSearchQuery query) throws SQLException
+	{
+		try (PreparedStatement statement = connection.prepareStatement(query.getEstimateSql()))
+		{
+			query.modifyStatement(statement, connection::createArrayOf);
+
+			try (ResultSet result = statement.executeQuery())
+			{
+				if (result.next())
+					return getPlanRows(result.getString(1));
+				else
+					return 0;
+			}
+		}
+	}
+
+	private int getPlanRows(String explainJson)
+	{
+		try
+		{
+			JsonElement plan = JsonParser.parseString(explainJson).getAsJsonArray().get(0).getAsJsonObject()
+					.get("Plan");
+			double planRows = plan.getAsJsonObject().get("Plan Rows").getAsDouble();
+
+			return (int) Math.min(Math.max(planRows, 0), Integer.MAX_VALUE);
+		}
+		catch (RuntimeException e)
+		{
+			logger.warn("Unable to read 'Plan Rows' from query plan: {} - {}", e.getClass().getName(), e.getMessage());
+			return 0;
+		}
 	}
 
 	/**
@@ -863,6 +1296,26 @@ abstract class AbstractResourceDaoJdbc<R extends Resource> implements ResourceDa
 	{
 	}
 
+	/**
+	 * Calls {@link #modifySearchResultResource(Resource, Connection)}. Override this method, if additional content only
+	 * needs to be retrieved for elements not removed by the <i>_summary</i> or <i>_elements</i> parameters, see
+	 * {@link DbSearchQuery#isElementIncluded(String)}.
+	 *
+	 * @param resource
+	 *            not <code>null</code>
+	 * @param connection
+	 *            not <code>null</code>
+	 * @param query
+	 *            not <code>null</code>
+	 * @throws SQLException
+	 *             if database access errors occur
+	 */
+	protected void modifySearchResultResource(R resource, Connection connection, DbSearchQuery query)
+			throws SQLException
+	{
+		modifySearchResultResource(resource, connection);
+	}
+
 	private void getResources(ResultSet result, int columnIndex, List<? super Resource> includeResources,
 			Connection connection, DbSearchQuery query) throws SQLException
 	{
@@ -904,13 +1357,15 @@ abstract class AbstractResourceDaoJdbc<R extends Resource> implements ResourceDa
 	{
 		Objects.requireNonNull(pageAndCount, "pageAndCount");
 
-		var builder = SearchQueryBuilder.create(resourceType, getResourceTable(), getResourceColumn(), pageAndCount);
+		var builder = SearchQueryBuilder.create(resourceType, getResourceTable(), getResourceIdColumn(),
+				getResourceColumn(), pageAndCount);
 
 		if (identity != null)
 			builder = builder.with(identityFilter.apply(identity));
 
-		return builder.with(resourceIdFactory).with(resourceLastUpdatedFactory).with(resourceProfileFactory)
-				.with(searchParameterFactories).withRevInclude(searchRevIncludeParameterFactories).build();
+		return builder.withProjection(projection).with(resourceIdFactory).with(resourceLastUpdatedFactory)
+				.with(resourceProfileFactory).with(searchParameterFactories)
+				.withRevInclude(searchRevIncludeParameterFactories).build();
 	}
 
 	@Override
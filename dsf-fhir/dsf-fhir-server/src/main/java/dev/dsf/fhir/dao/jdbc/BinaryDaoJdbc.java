@@ -1,10 +1,15 @@
 package dev.dsf.fhir.dao.jdbc;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
 
 import javax.sql.DataSource;
 
@@ -14,24 +19,37 @@ import org.postgresql.util.PGobject;
 
 import ca.uhn.fhir.context.FhirContext;
 import dev.dsf.fhir.dao.BinaryDao;
+import dev.dsf.fhir.dao.BinaryDataStream;
+import dev.dsf.fhir.dao.exception.ResourceDeletedException;
+import dev.dsf.fhir.search.DbSearchQuery;
 import dev.dsf.fhir.search.filter.BinaryIdentityFilter;
 import dev.dsf.fhir.search.parameters.BinaryContentType;
 
 public class BinaryDaoJdbc extends AbstractResourceDaoJdbc<Binary> implements BinaryDao
 {
+	/**
+	 * Bytes read from the database per query when streaming binary data, multiple of the 2000 byte postgres toast chunk
+	 * size
+	 */
+	public static final int DATA_CHUNK_SIZE = 2000 * 2048;
+
+	private final PreparedStatementFactoryBinary withoutDataPreparedStatementFactory;
+
 	public BinaryDaoJdbc(DataSource dataSource, DataSource permanentDeleteDataSource, FhirContext fhirContext)
 	{
-		super(dataSource, permanentDeleteDataSource, Binary.class, "binaries", "binary_json", "binary_id",
+		super(dataSource, permanentDeleteDataSource, fhirContext, Binary.class, "binaries", "binary_json", "binary_id",
 				new PreparedStatementFactoryBinary(fhirContext), BinaryIdentityFilter::new,
 				List.of(factory(BinaryContentType.PARAMETER_NAME, BinaryContentType::new,
 						BinaryContentType.getNameModifiers())),
 				List.of());
+
+		withoutDataPreparedStatementFactory = new PreparedStatementFactoryBinary(fhirContext, false);
 	}
 
 	@Override
 	protected Binary copy(Binary resource)
 	{
-		return resource.copy();
+		return BinaryDataStream.copy(resource, resource.copy());
 	}
 
 	@Override
@@ -45,6 +63,25 @@ public class BinaryDaoJdbc extends AbstractResourceDaoJdbc<Binary> implements Bi
 		return binary;
 	}
 
+	/**
+	 * Binary data is not part of the stored JSON.
+	 *
+	 * @return <code>false</code>
+	 */
+	@Override
+	protected boolean isRawJsonSupported()
+	{
+		return false;
+	}
+
+	@Override
+	protected void modifySearchResultResource(Binary resource, Connection connection, DbSearchQuery query)
+			throws SQLException
+	{
+		if (query.isElementIncluded("data"))
+			modifySearchResultResource(resource, connection);
+	}
+
 	@Override
 	protected void modifySearchResultResource(Binary resource, Connection connection) throws SQLException
 	{
@@ -71,4 +108,119 @@ public class BinaryDaoJdbc extends AbstractResourceDaoJdbc<Binary> implements Bi
 			}
 		}
 	}
+
+	@Override
+	public Optional<Binary> readWithoutData(UUID uuid) throws SQLException, ResourceDeletedException
+	{
+		if (uuid == null)
+			return Optional.empty();
+
+		try (Connection connection = getDataSource().getConnection())
+		{
+			return readWithTransaction(withoutDataPreparedStatementFactory, connection, uuid);
+		}
+	}
+
+	@Override
+	public Optional<Binary> readVersionWithoutData(UUID uuid, long version)
+			throws SQLException, ResourceDeletedException
+	{
+		if (uuid == null || version < FIRST_VERSION)
+			return Optional.empty();
+
+		try (Connection connection = getDataSource().getConnection())
+		{
+			return readVersionWithTransaction(withoutDataPreparedStatementFactory, connection, uuid, version);
+		}
+	}
+
+	@Override
+	public long getDataSize(UUID uuid, long version) throws SQLException
+	{
+		Objects.requireNonNull(uuid, "uuid");
+
+		try (Connection connection = getDataSource().getConnection();
+				PreparedStatement statement = connection.prepareStatement(
+						"SELECT coalesce(octet_length(binary_data), 0) FROM binaries WHERE binary_id = ? AND version = ?"))
+		{
+			statement.setObject(1, getPreparedStatementFactory().uuidToPgObject(uuid));
+			statement.setLong(2, version);
+
+			try (ResultSet result = statement.executeQuery())
+			{
+				if (result.next())
+					return result.getLong(1);
+				else
+					throw new SQLException(
+							"Binary resource with id " + uuid + " and version " + version + " not found");
+			}
+		}
+	}
+
+	@Override
+	public void readData(UUID uuid, long version, long offset, long length, OutputStream out)
+			throws SQLException, IOException
+	{
+		Objects.requireNonNull(uuid, "uuid");
+		Objects.requireNonNull(out, "out");
+		if (offset < 0)
+			throw new IllegalArgumentException("offset < 0");
+		if (length < 0)
+			throw new IllegalArgumentException("length < 0");
+
+		// all chunks from one read only repeatable read transaction, consistent data even if the resource version is
+		// permanently deleted while streaming
+		try (Connection connection = getDataSource().getConnection())
+		{
+			connection.setReadOnly(true);
+			connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+			connection.setAutoCommit(false);
+
+			try (PreparedStatement statement = connection.prepareStatement(
+					"SELECT coalesce(substring(binary_data FROM ? FOR ?), ''::bytea) FROM binaries WHERE binary_id = ? AND version = ?"))
+			{
+				statement.setObject(3, getPreparedStatementFactory().uuidToPgObject(uuid));
+				statement.setLong(4, version);
+
+				long position = offset;
+				long end = offset + length;
+
+				while (position < end)
+				{
+					int chunkLength = (int) Math.min(DATA_CHUNK_SIZE, end - position);
+					byte[] chunk = readDataChunk(statement, uuid, version, position, chunkLength);
+
+					out.write(chunk);
+
+					if (chunk.length < chunkLength)
+						break;
+
+					position += chunk.length;
+				}
+
+				out.flush();
+			}
+			finally
+			{
+				// nothing to commit, ends the transaction before the connection is returned to the pool
+				connection.rollback();
+			}
+		}
+	}
+
+	private byte[] readDataChunk(PreparedStatement statement, UUID uuid, long version, long offset, int length)
+			throws SQLException
+	{
+		// postgres substring is one based, bytea values are limited to 1 GB
+		statement.setInt(1, Math.toIntExact(offset + 1));
+		statement.setInt(2, length);
+
+		try (ResultSet result = statement.executeQuery())
+		{
+			if (result.next())
+				return result.getBytes(1);
+			else
+				throw new SQLException("Binary resource with id " + uuid + " and version " + version + " not found");
+		}
+	}
 }
@@ -37,6 +37,9 @@ import dev.dsf.fhir.search.SearchQueryParameter;
 
 public class HistroyDaoJdbc implements HistoryDao, InitializingBean
 {
+	// matches index history_entries_last_updated_type_id_index
+	private static final String ORDER_BY_SQL = " ORDER BY last_updated, type, id, version";
+
 	private final DataSource dataSource;
 	private final FhirContext fhirContext;
 	private final BinaryDaoJdbc binaryDao;
@@ -204,7 +207,7 @@ public class HistroyDaoJdbc implements HistoryDao, InitializingBean
 	private String createCountSql(boolean forId, boolean forResource, List<HistoryIdentityFilter> filter,
 			List<AtParameter> atParameter, SinceParameter sinceParameter)
 	{
-		String selectSql = "SELECT count(*) FROM history WHERE ";
+		String selectSql = "SELECT count(*) FROM history_entries AS history WHERE ";
 
 		return createSql(forId, forResource, filter, atParameter, sinceParameter, selectSql, "");
 	}
@@ -212,9 +215,14 @@ public class HistroyDaoJdbc implements HistoryDao, InitializingBean
 	private String createReadSql(boolean forId, boolean forResource, List<HistoryIdentityFilter> filter,
 			List<AtParameter> atParameter, SinceParameter sinceParameter, PageAndCount pageAndCount)
 	{
-		String selectSql = "SELECT id, version, type, method, last_updated, resource FROM history WHERE ";
-
-		return createSql(forId, forResource, filter, atParameter, sinceParameter, selectSql, pageAndCount.getSql());
+		String selectSql = "SELECT id, version, type, method, last_updated FROM history_entries AS history WHERE ";
+
+		// resources only loaded for entries of the selected page
+		return "SELECT id, version, type, method, last_updated, "
+				+ "CASE WHEN method = 'DELETE' THEN NULL ELSE history_resource(type, id, version) END FROM ("
+				+ createSql(forId, forResource, filter, atParameter, sinceParameter, selectSql,
+						ORDER_BY_SQL + pageAndCount.getSql())
+				+ ") AS history_page" + ORDER_BY_SQL;
 	}
 
 	private String createSql(boolean forId, boolean forResource, List<HistoryIdentityFilter> filter,
@@ -33,6 +33,8 @@ interface PreparedStatementFactory<R extends Resource>
 
 	R getReadByIdResource(ResultSet result) throws SQLException;
 
+	String getReadByIdJson(ResultSet result) throws SQLException;
+
 	String getReadByIdAndVersionSql();
 
 	void configureReadByIdAndVersionStatement(PreparedStatement statement, UUID uuid, long version) throws SQLException;
@@ -43,6 +45,8 @@ interface PreparedStatementFactory<R extends Resource>
 
 	R getReadByIdAndVersionResource(ResultSet result) throws SQLException;
 
+	String getReadByIdAndVersionJson(ResultSet result) throws SQLException;
+
 	String getUpdateNewRowSql();
 
 	void configureUpdateNewRowSqlStatement(PreparedStatement statement, UUID uuid, long version, R resource)
@@ -1,30 +1,51 @@
 package dev.dsf.fhir.dao.jdbc;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.hl7.fhir.r4.model.Binary;
 
 import ca.uhn.fhir.context.FhirContext;
+import dev.dsf.fhir.dao.BinaryDataStream;
 
 class PreparedStatementFactoryBinary extends AbstractPreparedStatementFactory<Binary>
 {
 	private static final String createSql = "INSERT INTO binaries (binary_id, binary_json, binary_data) VALUES (?, ?, ?)";
 	private static final String readByIdSql = "SELECT deleted, version, binary_json, binary_data FROM binaries WHERE binary_id = ? ORDER BY version DESC LIMIT 1";
 	private static final String readByIdAndVersionSql = "SELECT deleted, version, binary_json, binary_data FROM binaries WHERE binary_id = ? AND (version = ? OR version = ?) ORDER BY version DESC LIMIT 1";
+	private static final String readByIdWithoutDataSql = "SELECT deleted, version, binary_json FROM binaries WHERE binary_id = ? ORDER BY version DESC LIMIT 1";
+	private static final String readByIdAndVersionWithoutDataSql = "SELECT deleted, version, binary_json FROM binaries WHERE binary_id = ? AND (version = ? OR version = ?) ORDER BY version DESC LIMIT 1";
 	private static final String updateNewRowSql = "INSERT INTO binaries (binary_id, version, binary_json, binary_data) VALUES (?, ?, ?, ?)";
 	private static final String updateSameRowSql = "UPDATE binaries SET binary_json = ?, binary_data = ? WHERE binary_id = ? AND version = ?";
 
+	private final boolean readData;
+
 	PreparedStatementFactoryBinary(FhirContext fhirContext)
 	{
-		super(fhirContext, Binary.class, createSql, readByIdSql, readByIdAndVersionSql, updateNewRowSql,
-				updateSameRowSql);
+		this(fhirContext, true);
+	}
+
+	/**
+	 * @param fhirContext
+	 *            not <code>null</code>
+	 * @param readData
+	 *            <code>false</code> if read statements should not select the binary data column, read resources will
+	 *            have no data
+	 */
+	PreparedStatementFactoryBinary(FhirContext fhirContext, boolean readData)
+	{
+		super(fhirContext, Binary.class, createSql, readData ? readByIdSql : readByIdWithoutDataSql,
+				readData ? readByIdAndVersionSql : readByIdAndVersionWithoutDataSql, updateNewRowSql, updateSameRowSql);
+
+		this.readData = readData;
 	}
 
 	@Override
@@ -36,14 +57,27 @@ class PreparedStatementFactoryBinary extends AbstractPreparedStatementFactory<Bi
 		statement.setObject(1, uuidToPgObject(uuid));
 		statement.setObject(2, resourceToPgObject(resource));
 
-		if (data != null)
-			statement.setBinaryStream(3, new ByteArrayInputStream(data));
-		else
-			statement.setNull(3, Types.VARBINARY);
+		setData(statement, 3, resource, data);
 
 		resource.setData(data);
 	}
 
+	/**
+	 * Uses the {@link BinaryDataStream} attached to the given resource if the resource has no data. The stream is
+	 * copied to the database by the driver without loading it into memory completely.
+	 */
+	private void setData(PreparedStatement statement, int index, Binary resource, byte[] data) throws SQLException
+	{
+		Optional<InputStream> dataStream = BinaryDataStream.get(resource);
+
+		if (data != null)
+			statement.setBinaryStream(index, new ByteArrayInputStream(data));
+		else if (dataStream.isPresent())
+			statement.setBinaryStream(index, dataStream.get());
+		else
+			statement.setNull(index, Types.VARBINARY);
+	}
+
 	@Override
 	public void configureReadByIdStatement(PreparedStatement statement, UUID uuid) throws SQLException
 	{
@@ -66,12 +100,18 @@ class PreparedStatementFactoryBinary extends AbstractPreparedStatementFactory<Bi
 	@Override
 	public Binary getReadByIdResource(ResultSet result) throws SQLException
 	{
-		String json = result.getString(3);
-		byte[] data = result.getBytes(4);
+		String json = getReadByIdJson(result);
+		byte[] data = readData ? result.getBytes(4) : null;
 
 		return jsonToResource(json).setData(data);
 	}
 
+	@Override
+	public String getReadByIdJson(ResultSet result) throws SQLException
+	{
+		return result.getString(3);
+	}
+
 	@Override
 	public void configureReadByIdAndVersionStatement(PreparedStatement statement, UUID uuid, long version)
 			throws SQLException
@@ -97,12 +137,18 @@ class PreparedStatementFactoryBinary extends AbstractPreparedStatementFactory<Bi
 	@Override
 	public Binary getReadByIdAndVersionResource(ResultSet result) throws SQLException
 	{
-		String json = result.getString(3);
-		byte[] data = result.getBytes(4);
+		String json = getReadByIdAndVersionJson(result);
+		byte[] data = readData ? result.getBytes(4) : null;
 
 		return jsonToResource(json).setData(data);
 	}
 
+	@Override
+	public String getReadByIdAndVersionJson(ResultSet result) throws SQLException
+	{
+		return result.getString(3);
+	}
+
 	@Override
 	public void configureUpdateNewRowSqlStatement(PreparedStatement statement, UUID uuid, long version, Binary resource)
 			throws SQLException
@@ -114,10 +160,7 @@ class PreparedStatementFactoryBinary extends AbstractPreparedStatementFactory<Bi
 		statement.setLong(2, version);
 		statement.setObject(3, resourceToPgObject(resource));
 
-		if (data != null)
-			statement.setBinaryStream(4, new ByteArrayInputStream(data));
-		else
-			statement.setNull(4, Types.VARBINARY);
+		setData(statement, 4, resource, data);
 
 		resource.setData(data);
 	}
@@ -131,10 +174,7 @@ class PreparedStatementFactoryBinary extends AbstractPreparedStatementFactory<Bi
 
 		statement.setObject(1, resourceToPgObject(resource));
 
-		if (data != null)
-			statement.setBinaryStream(2, new ByteArrayInputStream(data));
-		else
-			statement.setNull(2, Types.VARBINARY);
+		setData(statement, 2, resource, data);
 
 		statement.setObject(3, uuidToPgObject(uuid));
 		statement.setLong(4, version);
@@ -81,11 +81,17 @@ class PreparedStatementFactoryDefault<R extends Resource> extends AbstractPrepar
 	@Override
 	public R getReadByIdResource(ResultSet result) throws SQLException
 	{
-		String json = result.getString(3);
+		String json = getReadByIdJson(result);
 
 		return jsonToResource(json);
 	}
 
+	@Override
+	public String getReadByIdJson(ResultSet result) throws SQLException
+	{
+		return result.getString(3);
+	}
+
 	@Override
 	public void configureReadByIdAndVersionStatement(PreparedStatement statement, UUID uuid, long version)
 			throws SQLException
@@ -111,11 +117,17 @@ class PreparedStatementFactoryDefault<R extends Resource> extends AbstractPrepar
 	@Override
 	public R getReadByIdAndVersionResource(ResultSet result) throws SQLException
 	{
-		String json = result.getString(3);
+		String json = getReadByIdAndVersionJson(result);
 
 		return jsonToResource(json);
 	}
 
+	@Override
+	public String getReadByIdAndVersionJson(ResultSet result) throws SQLException
+	{
+		return result.getString(3);
+	}
+
 	@Override
 	public void configureUpdateNewRowSqlStatement(PreparedStatement statement, UUID uuid, long version, R resource)
 			throws SQLException
@@ -0,0 +1,245 @@
+package dev.dsf.fhir.event;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import dev.dsf.common.status.metrics.MetricsCollector;
+import dev.dsf.common.status.metrics.MetricsSource;
+
+/**
+ * Decouples event producers from a potentially slow {@link EventHandler}. Events are stored in a bounded buffer and
+ * handed to the delegate in order by a single dispatch thread. If the buffer is full, producers wait up to the
+ * configured timeout; events not accepted within the timeout are dropped, counted and handed to the dropped events
+ * handler, e.g. to notify subscribers that events were missed.
+ */
+public class EventDispatcher implements EventHandler, MetricsSource, InitializingBean, DisposableBean
+{
+	private static final Logger logger = LoggerFactory.getLogger(EventDispatcher.class);
+
+	private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+	private static record Item(List<Event> events, long enqueuedNanos)
+	{
+	}
+
+	private final EventHandler delegate;
+	private final Consumer<List<Event>> droppedEventsHandler;
+	private final String metricsPrefix;
+	private final int capacity;
+	private final long offerTimeoutMillis;
+
+	private final BlockingQueue<Item> queue;
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+	private volatile boolean running = true;
+
+	private final LongAdder dispatched = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final LongAdder latencyNanosSum = new LongAdder();
+	private final LongAdder latencyCount = new LongAdder();
+	private final AtomicLong latencyNanosMax = new AtomicLong();
+
+	/**
+	 * @param delegate
+	 *            not <code>null</code>
+	 * @param droppedEventsHandler
+	 *            not <code>null</code>, called on the producer thread with events not accepted by the buffer
+	 * @param metricsPrefix
+	 *            not <code>null</code>, e.g. <code>dsf_fhir_websocket_events</code>
+	 * @param capacity
+	 *            &gt; 0, number of {@link #handleEvent(Event)} or {@link #handleEvents(List)} calls buffered
+	 * @param offerTimeoutMillis
+	 *            &gt;= 0, max time producers wait if the buffer is full
+	 */
+	public EventDispatcher(EventHandler delegate, Consumer<List<Event>> droppedEventsHandler, String metricsPrefix,
+			int capacity, long offerTimeoutMillis)
+	{
+		this.delegate = delegate;
+		this.droppedEventsHandler = droppedEventsHandler;
+		this.metricsPrefix = metricsPrefix;
+		this.capacity = capacity;
+		this.offerTimeoutMillis = offerTimeoutMillis;
+
+		queue = new ArrayBlockingQueue<>(capacity);
+		executor.execute(this::dispatchLoop);
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception
+	{
+		Objects.requireNonNull(delegate, "delegate");
+		Objects.requireNonNull(droppedEventsHandler, "droppedEventsHandler");
+		Objects.requireNonNull(metricsPrefix, "metricsPrefix");
+
+		if (offerTimeoutMillis < 0)
+			throw new IllegalArgumentException("offerTimeoutMillis < 0");
+	}
+
+	@Override
+	public void destroy() throws Exception
+	{
+		running = false;
+
+		executor.shutdown();
+		try
+		{
+			if (!executor.awaitTermination(60, TimeUnit.SECONDS))
+			{
+				executor.shutdownNow();
+				if (!executor.awaitTermination(60, TimeUnit.SECONDS))
+					logger.warn("EventDispatcher executor did not terminate");
+			}
+		}
+		catch (InterruptedException ie)
+		{
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+
+		if (!queue.isEmpty())
+			logger.warn("EventDispatcher stopped with {} pending event batches", queue.size());
+	}
+
+	@Override
+	public void handleEvent(Event event)
+	{
+		if (event != null)
+			enqueue(List.of(event));
+	}
+
+	@Override
+	public void handleEvents(List<Event> events)
+	{
+		if (events != null && !events.isEmpty())
+			enqueue(List.copyOf(events));
+	}
+
+	private void enqueue(List<Event> events)
+	{
+		try
+		{
+			if (!queue.offer(new Item(events, System.nanoTime()), offerTimeoutMillis, TimeUnit.MILLISECONDS))
+			{
+				logger.warn("Event buffer of {} full, dropping {} event{}", delegate.getClass().getSimpleName(),
+						events.size(), events.size() != 1 ? "s" : "");
+
+				drop(events);
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+
+			drop(events);
+		}
+	}
+
+	private void drop(List<Event> events)
+	{
+		dropped.add(events.size());
+
+		try
+		{
+			droppedEventsHandler.accept(events);
+		}
+		catch (Exception e)
+		{
+			logger.debug("Error while handling dropped events of {}", delegate.getClass().getName(), e);
+			logger.warn("Error while handling dropped events of {}: {} - {}", delegate.getClass().getName(),
+					e.getClass().getName(), e.getMessage());
+		}
+	}
+
+	private void dispatchLoop()
+	{
+		while (running || !queue.isEmpty())
+		{
+			try
+			{
+				Item item = queue.poll(1, TimeUnit.SECONDS);
+				if (item != null)
+					dispatch(item);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private void dispatch(Item item)
+	{
+		try
+		{
+			if (item.events().size() == 1)
+				delegate.handleEvent(item.events().get(0));
+			else
+				delegate.handleEvents(item.events());
+
+			dispatched.add(item.events().size());
+		}
+		catch (Exception e)
+		{
+			failed.add(item.events().size());
+
+			logger.debug("Error while handling events with {}", delegate.getClass().getName(), e);
+			logger.warn("Error while handling events with {}: {} - {}", delegate.getClass().getName(),
+					e.getClass().getName(), e.getMessage());
+		}
+		finally
+		{
+			long latency = System.nanoTime() - item.enqueuedNanos();
+			latencyNanosSum.add(latency);
+			latencyCount.increment();
+			latencyNanosMax.accumulateAndGet(latency, Math::max);
+		}
+	}
+
+	/**
+	 * @return number of buffered {@link #handleEvent(Event)} and {@link #handleEvents(List)} calls
+	 */
+	public int getQueueDepth()
+	{
+		return queue.size();
+	}
+
+	/**
+	 * @return number of events dropped because the buffer was full
+	 */
+	public long getDroppedCount()
+	{
+		return dropped.sum();
+	}
+
+	@Override
+	public void collectMetrics(MetricsCollector collector)
+	{
+		collector.gauge(metricsPrefix + "_queue_depth", "Buffered event batches", queue.size());
+		collector.gauge(metricsPrefix + "_queue_capacity", "Max buffered event batches", capacity);
+		collector.counter(metricsPrefix + "_dispatched_total", "Events handed to the event handler", dispatched.sum());
+		collector.counter(metricsPrefix + "_dropped_total", "Events dropped because the buffer was full",
+				dropped.sum());
+		collector.counter(metricsPrefix + "_failed_total", "Events failed in the event handler", failed.sum());
+		collector.counter(metricsPrefix + "_dispatch_latency_seconds_sum", "Time from buffering to handled event batch",
+				latencyNanosSum.sum() / NANOS_PER_SECOND);
+		collector.counter(metricsPrefix + "_dispatch_latency_seconds_count", "Handled event batches",
+				latencyCount.sum());
+		collector.gauge(metricsPrefix + "_dispatch_latency_seconds_max",
+				"Max time from buffering to handled event batch since last collection",
+				latencyNanosMax.getAndSet(0) / NANOS_PER_SECOND);
+	}
+}
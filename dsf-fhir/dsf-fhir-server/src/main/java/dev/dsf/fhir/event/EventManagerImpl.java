@@ -1,9 +1,8 @@
 package dev.dsf.fhir.event;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 
 import org.slf4j.Logger;
@@ -13,7 +12,8 @@ public class EventManagerImpl implements EventManager
 {
 	private static final Logger logger = LoggerFactory.getLogger(EventManagerImpl.class);
 
-	private final List<EventHandler> eventHandlers = Collections.synchronizedList(new ArrayList<>());
+	// read mostly, no lock while handlers are called
+	private final List<EventHandler> eventHandlers = new CopyOnWriteArrayList<>();
 
 	public EventManagerImpl(Collection<? extends EventHandler> eventHandlers)
 	{
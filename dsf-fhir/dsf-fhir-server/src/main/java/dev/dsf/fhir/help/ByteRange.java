@@ -0,0 +1,145 @@
+package dev.dsf.fhir.help;
+
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Single byte range of a HTTP <i>Range</i> request header, see RFC 9110 section 14. Multiple ranges are not supported.
+ */
+public class ByteRange
+{
+	public static final String UNIT = "bytes";
+
+	private static final Pattern RANGE_PATTERN = Pattern.compile("^\\s*bytes\\s*=\\s*(\\d*)\\s*-\\s*(\\d*)\\s*$",
+			Pattern.CASE_INSENSITIVE);
+
+	/**
+	 * @param rangeHeader
+	 *            may be <code>null</code>
+	 * @return {@link Optional#empty()} if the given header value is <code>null</code>, not a valid single byte range or
+	 *         contains multiple ranges
+	 */
+	public static Optional<ByteRange> fromHeader(String rangeHeader)
+	{
+		if (rangeHeader == null)
+			return Optional.empty();
+
+		Matcher matcher = RANGE_PATTERN.matcher(rangeHeader);
+		if (!matcher.matches())
+			return Optional.empty();
+
+		String first = matcher.group(1);
+		String last = matcher.group(2);
+
+		try
+		{
+			if (!first.isEmpty() && !last.isEmpty())
+			{
+				long firstPosition = Long.parseLong(first);
+				long lastPosition = Long.parseLong(last);
+
+				return firstPosition <= lastPosition ? Optional.of(new ByteRange(firstPosition, lastPosition))
+						: Optional.empty();
+			}
+			else if (!first.isEmpty())
+				return Optional.of(new ByteRange(Long.parseLong(first), null));
+			else if (!last.isEmpty())
+				return Optional.of(new ByteRange(null, Long.parseLong(last)));
+			else
+				return Optional.empty();
+		}
+		catch (NumberFormatException e)
+		{
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * @param size
+	 *            &gt;= 0
+	 * @return <i>Content-Range</i> header value for status 416 responses
+	 */
+	public static String toUnsatisfiedContentRange(long size)
+	{
+		return UNIT + " */" + size;
+	}
+
+	private final Long firstPosition;
+	private final Long lastPosition;
+
+	/**
+	 * @param firstPosition
+	 *            <code>null</code> for suffix ranges
+	 * @param lastPosition
+	 *            <code>null</code> for open ranges, suffix length for suffix ranges
+	 */
+	private ByteRange(Long firstPosition, Long lastPosition)
+	{
+		this.firstPosition = firstPosition;
+		this.lastPosition = lastPosition;
+	}
+
+	/**
+	 * @param size
+	 *            &gt;= 0
+	 * @return <code>true</code> if at least one byte of a representation with the given size is selected by this range
+	 */
+	public boolean isSatisfiable(long size)
+	{
+		if (firstPosition != null)
+			return firstPosition < size;
+		else
+			return lastPosition > 0 && size > 0;
+	}
+
+	/**
+	 * @param size
+	 *            &gt;= 0
+	 * @return zero based position of the first selected byte
+	 * @see #isSatisfiable(long)
+	 */
+	public long getStart(long size)
+	{
+		if (firstPosition != null)
+			return firstPosition;
+		else
+			return Math.max(0, size - lastPosition);
+	}
+
+	/**
+	 * @param size
+	 *            &gt;= 0
+	 * @return zero based position of the last selected byte (inclusive)
+	 * @see #isSatisfiable(long)
+	 */
+	public long getEnd(long size)
+	{
+		if (firstPosition != null && lastPosition != null)
+			return Math.min(lastPosition, size - 1);
+		else
+			return size - 1;
+	}
+
+	/**
+	 * @param size
+	 *            &gt;= 0
+	 * @return number of selected bytes
+	 * @see #isSatisfiable(long)
+	 */
+	public long getLength(long size)
+	{
+		return getEnd(size) - getStart(size) + 1;
+	}
+
+	/**
+	 * @param size
+	 *            &gt;= 0
+	 * @return <i>Content-Range</i> header value for status 206 responses
+	 * @see #isSatisfiable(long)
+	 */
+	public String toContentRange(long size)
+	{
+		return UNIT + " " + getStart(size) + "-" + getEnd(size) + "/" + size;
+	}
+}
@@ -2,7 +2,16 @@ package dev.dsf.fhir.help;
 
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -17,6 +26,7 @@ import org.slf4j.LoggerFactory;
 
 import ca.uhn.fhir.rest.api.Constants;
 import dev.dsf.fhir.adapter.AbstractAdapter;
+import dev.dsf.fhir.adapter.RawJson;
 import dev.dsf.fhir.prefer.PreferHandlingType;
 import dev.dsf.fhir.prefer.PreferReturnType;
 import jakarta.ws.rs.WebApplicationException;
@@ -141,6 +151,22 @@ public class ParameterConverter
 			return Optional.empty();
 	}
 
+	/**
+	 * @param uri
+	 *            not <code>null</code>
+	 * @param headers
+	 *            not <code>null</code>
+	 * @return <code>true</code> if JSON is requested without <i>_pretty</i> and <i>_summary</i> parameters, stored
+	 *         resources can be returned without parsing and encoding in this case
+	 * @see RawJson
+	 */
+	public boolean isUnmodifiedJsonRequested(UriInfo uri, HttpHeaders headers)
+	{
+		return getMediaTypeIfSupported(uri, headers)
+				.filter(m -> JSON_FORMATS.contains(m.getType() + "/" + m.getSubtype()))
+				.filter(m -> m.getParameters().isEmpty()).isPresent();
+	}
+
 	private MediaType mediaType(String type, String subtype, boolean pretty, SummaryMode summaryMode)
 	{
 		Map<String, String> parameters = new HashMap<>();
@@ -283,4 +309,84 @@ public class ParameterConverter
 			return Optional.empty();
 		}
 	}
+
+	/**
+	 * @param headers
+	 *            not <code>null</code>
+	 * @return <code>true</code> if a <i>If-None-Match</i> or <i>If-Modified-Since</i> header is present
+	 */
+	public boolean hasNotModifiedHeaders(HttpHeaders headers)
+	{
+		return getHeaderString(headers, Constants.HEADER_IF_NONE_MATCH, Constants.HEADER_IF_NONE_MATCH_LC).isPresent()
+				|| getHeaderString(headers, Constants.HEADER_IF_MODIFIED_SINCE, Constants.HEADER_IF_MODIFIED_SINCE_LC)
+						.isPresent();
+	}
+
+	/**
+	 * <i>If-Modified-Since</i> is ignored, when used in combination with <i>If-None-Match</i>.
+	 *
+	 * @param headers
+	 *            not <code>null</code>
+	 * @param resourceTag
+	 *            not <code>null</code>, weak {@link EntityTag} of the current resource version
+	 * @param lastUpdated
+	 *            may be <code>null</code>, last updated date of the current resource version
+	 * @return <code>true</code> if the <i>If-None-Match</i> header matches the given tag or the
+	 *         <i>If-Modified-Since</i> header is not before the given last updated date (seconds precision)
+	 */
+	public boolean isNotModified(HttpHeaders headers, EntityTag resourceTag, Date lastUpdated)
+	{
+		Optional<EntityTag> ifNoneMatch = getHeaderString(headers, Constants.HEADER_IF_NONE_MATCH,
+				Constants.HEADER_IF_NONE_MATCH_LC).flatMap(this::toEntityTag);
+
+		if (ifNoneMatch.isPresent())
+			return ifNoneMatch.get().equals(resourceTag);
+
+		Optional<Date> ifModifiedSince = getHeaderString(headers, Constants.HEADER_IF_MODIFIED_SINCE,
+				Constants.HEADER_IF_MODIFIED_SINCE_LC).flatMap(this::toDate);
+
+		return lastUpdated != null
+				&& ifModifiedSince.map(d -> !afterWithSecondsPrecision(lastUpdated, d)).orElse(false);
+	}
+
+	private Optional<String> getHeaderString(HttpHeaders headers, String... headerNames)
+	{
+		return Arrays.stream(headerNames).map(name -> headers.getHeaderString(name)).filter(h -> h != null).findFirst();
+	}
+
+	private boolean afterWithSecondsPrecision(Date a, Date b)
+	{
+		LocalDateTime aLdt = a.toInstant().atZone(ZoneOffset.UTC.normalized()).toLocalDateTime()
+				.truncatedTo(ChronoUnit.SECONDS);
+		LocalDateTime bLdt = b.toInstant().atZone(ZoneOffset.UTC.normalized()).toLocalDateTime()
+				.truncatedTo(ChronoUnit.SECONDS);
+
+		return aLdt.isAfter(bLdt);
+	}
+
+	/**
+	 * @param rfc1123DateValue
+	 *            RFC 1123 date string
+	 * @return {@link Optional} of {@link Date} in system default timezone or {@link Optional#empty()} if the given
+	 *         value could not be parsed or was null/blank
+	 */
+	private Optional<Date> toDate(String rfc1123DateValue)
+	{
+		if (rfc1123DateValue == null || rfc1123DateValue.isBlank())
+			return Optional.empty();
+
+		try
+		{
+			ZonedDateTime parsed = ZonedDateTime.parse(rfc1123DateValue,
+					DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneId.systemDefault()));
+			return Optional.of(Date.from(parsed.toInstant()));
+		}
+		catch (DateTimeParseException e)
+		{
+			logger.debug("Not a RFC-1123 date", e);
+			logger.warn("Not a RFC-1123 date: {} - {}", e.getClass().getName(), e.getMessage());
+
+			return Optional.empty();
+		}
+	}
 }
@@ -34,7 +34,10 @@ import dev.dsf.fhir.history.HistoryEntry;
 import dev.dsf.fhir.prefer.PreferReturnType;
 import dev.dsf.fhir.search.PageAndCount;
 import dev.dsf.fhir.search.PartialResult;
+import dev.dsf.fhir.search.SearchQuery;
+import dev.dsf.fhir.search.SearchQueryCursor;
 import dev.dsf.fhir.search.SearchQueryParameterError;
+import dev.dsf.fhir.search.TotalMode;
 import dev.dsf.fhir.service.ResourceReference;
 import jakarta.ws.rs.core.CacheControl;
 import jakarta.ws.rs.core.EntityTag;
@@ -184,13 +187,33 @@ public class ResponseGenerator
 		if (!errors.isEmpty())
 			bundle.addEntry(toBundleEntryComponent(toOperationOutcomeWarning(errors), SearchEntryMode.OUTCOME));
 
-		bundle.setTotal(result.getTotal());
+		PageAndCount pageAndCount = result.getPageAndCount();
+		if (pageAndCount.isTotalAccurate())
+		{
+			int total = result.getTotal();
+			bundle.setTotal(total);
+			setLinks(pageAndCount, bundleUri, format, pretty, summaryMode, bundle, pageAndCount.isCountOnly(total),
+					!pageAndCount.isLastPage(total), pageAndCount.getLastPage(total), getNextPageCursor(result));
+		}
+		else
+		{
+			if (TotalMode.ESTIMATE.equals(pageAndCount.getTotalMode()))
+				bundle.setTotal(result.getTotal());
 
-		setLinks(result.getPageAndCount(), bundleUri, format, pretty, summaryMode, bundle, result.getTotal());
+			setLinks(pageAndCount, bundleUri, format, pretty, summaryMode, bundle, pageAndCount.isCountOnly(),
+					result.hasNextPage(), null, getNextPageCursor(result));
+		}
 
 		return bundle;
 	}
 
+	private SearchQueryCursor getNextPageCursor(PartialResult<? extends Resource> result)
+	{
+		List<? extends Resource> resources = result.getPartialResult();
+		return resources.isEmpty() ? null
+				: SearchQueryCursor.fromResource(resources.get(resources.size() - 1)).orElse(null);
+	}
+
 	public BundleEntryComponent toBundleEntryComponent(Resource resource, SearchEntryMode mode)
 	{
 		BundleEntryComponent entry = new BundleEntryComponent();
@@ -261,6 +284,21 @@ public class ResponseGenerator
 
 	private void setLinks(PageAndCount pageAndCount, UriBuilder bundleUri, String format, String pretty,
 			SummaryMode summaryMode, Bundle bundle, int total)
+	{
+		setLinks(pageAndCount, bundleUri, format, pretty, summaryMode, bundle, pageAndCount.isCountOnly(total),
+				!pageAndCount.isLastPage(total), pageAndCount.getLastPage(total), null);
+	}
+
+	/**
+	 * @param lastPage
+	 *            <code>null</code> if the total number of results is not known, no last link will be added
+	 * @param nextPageCursor
+	 *            may be <code>null</code>, if not <code>null</code> added to the next link to select the next page via
+	 *            keyset pagination
+	 */
+	private void setLinks(PageAndCount pageAndCount, UriBuilder bundleUri, String format, String pretty,
+			SummaryMode summaryMode, Bundle bundle, boolean countOnly, boolean nextPage, Integer lastPage,
+			SearchQueryCursor nextPageCursor)
 	{
 		if (format != null)
 			bundleUri = bundleUri.replaceQueryParam("_format", format);
@@ -269,7 +307,6 @@ public class ResponseGenerator
 		if (summaryMode != null)
 			bundleUri = bundleUri.replaceQueryParam("_summary", summaryMode.toString());
 
-		boolean countOnly = pageAndCount.isCountOnly(total);
 		if (!countOnly)
 		{
 			bundleUri = bundleUri.replaceQueryParam("_count", pageAndCount.getCount());
@@ -282,6 +319,9 @@ public class ResponseGenerator
 
 		if (!countOnly && pageAndCount.getCount() > 0)
 		{
+			// cursor of the current page only valid for self link
+			bundleUri = bundleUri.replaceQueryParam(SearchQuery.PARAMETER_CURSOR);
+
 			bundleUri = bundleUri.replaceQueryParam("_page", 1);
 			bundleUri = bundleUri.replaceQueryParam("_count", pageAndCount.getCount());
 			bundle.addLink().setRelation("first").setUrlElement(new UriType(bundleUri.build()));
@@ -292,16 +332,22 @@ public class ResponseGenerator
 				bundleUri = bundleUri.replaceQueryParam("_count", pageAndCount.getCount());
 				bundle.addLink().setRelation("previous").setUrlElement(new UriType(bundleUri.build()));
 			}
-			if (!pageAndCount.isLastPage(total))
+			if (nextPage)
 			{
 				bundleUri = bundleUri.replaceQueryParam("_page", pageAndCount.getPage() + 1);
 				bundleUri = bundleUri.replaceQueryParam("_count", pageAndCount.getCount());
+				if (nextPageCursor != null)
+					bundleUri = bundleUri.replaceQueryParam(SearchQuery.PARAMETER_CURSOR, nextPageCursor.toToken());
 				bundle.addLink().setRelation("next").setUrlElement(new UriType(bundleUri.build()));
+				bundleUri = bundleUri.replaceQueryParam(SearchQuery.PARAMETER_CURSOR);
 			}
 
-			bundleUri = bundleUri.replaceQueryParam("_page", pageAndCount.getLastPage(total));
-			bundleUri = bundleUri.replaceQueryParam("_count", pageAndCount.getCount());
-			bundle.addLink().setRelation("last").setUrlElement(new UriType(bundleUri.build()));
+			if (lastPage != null)
+			{
+				bundleUri = bundleUri.replaceQueryParam("_page", lastPage);
+				bundleUri = bundleUri.replaceQueryParam("_count", pageAndCount.getCount());
+				bundle.addLink().setRelation("last").setUrlElement(new UriType(bundleUri.build()));
+			}
 		}
 	}
 
@@ -0,0 +1,101 @@
+package dev.dsf.fhir.help;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Fails with an {@link IOException} if more than the configured max number of bytes are read from the delegate stream.
+ */
+public class SizeLimitedInputStream extends FilterInputStream
+{
+	private final long maxSize;
+
+	private long count;
+	private boolean maxSizeExceeded;
+
+	/**
+	 * @param delegate
+	 *            not <code>null</code>
+	 * @param maxSize
+	 *            &gt;= 0, maximum number of bytes that can be read
+	 */
+	public SizeLimitedInputStream(InputStream delegate, long maxSize)
+	{
+		super(delegate);
+
+		if (maxSize < 0)
+			throw new IllegalArgumentException("maxSize < 0");
+
+		this.maxSize = maxSize;
+	}
+
+	@Override
+	public int read() throws IOException
+	{
+		int b = super.read();
+
+		if (b >= 0)
+			count(1);
+
+		return b;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException
+	{
+		int read = super.read(b, off, len);
+
+		if (read > 0)
+			count(read);
+
+		return read;
+	}
+
+	@Override
+	public long skip(long n) throws IOException
+	{
+		long skipped = super.skip(n);
+
+		if (skipped > 0)
+			count(skipped);
+
+		return skipped;
+	}
+
+	private void count(long read) throws IOException
+	{
+		count += read;
+
+		if (count > maxSize)
+		{
+			maxSizeExceeded = true;
+			throw new IOException("Stream exceeds max size of " + maxSize + " bytes");
+		}
+	}
+
+	@Override
+	public boolean markSupported()
+	{
+		return false;
+	}
+
+	@Override
+	public synchronized void mark(int readlimit)
+	{
+	}
+
+	@Override
+	public synchronized void reset() throws IOException
+	{
+		throw new IOException("mark/reset not supported");
+	}
+
+	/**
+	 * @return <code>true</code> if more than the configured max number of bytes were read
+	 */
+	public boolean isMaxSizeExceeded()
+	{
+		return maxSizeExceeded;
+	}
+}
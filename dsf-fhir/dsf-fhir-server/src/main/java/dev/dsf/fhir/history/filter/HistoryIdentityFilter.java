@@ -5,7 +5,6 @@ import dev.dsf.fhir.search.SearchQueryIdentityFilter;
 public interface HistoryIdentityFilter extends SearchQueryIdentityFilter
 {
 	String RESOURCE_ID_COLUMN = "id";
-	String RESOURCE_COLUMN = "resource";
 	String RESOURCE_TABLE = "history";
 
 	static String getFilterQuery(String resourceType, String filterQuery)
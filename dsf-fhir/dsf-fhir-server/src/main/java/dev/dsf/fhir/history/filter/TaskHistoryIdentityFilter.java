@@ -12,12 +12,20 @@ public class TaskHistoryIdentityFilter extends TaskIdentityFilter implements His
 
 	public TaskHistoryIdentityFilter(Identity identity)
 	{
-		super(identity, HistoryIdentityFilter.RESOURCE_COLUMN);
+		super(identity, "tasks.task");
 	}
 
 	@Override
 	public String getFilterQuery()
 	{
-		return HistoryIdentityFilter.getFilterQuery(RESOURCE_TYPE, super.getFilterQuery());
+		String filterQuery = super.getFilterQuery();
+
+		// task version looked up via primary key, history entries filtered without loading the resource
+		if (!"FALSE".equals(filterQuery))
+			filterQuery = "EXISTS (SELECT 1 FROM tasks WHERE tasks.task_id = " + HistoryIdentityFilter.RESOURCE_TABLE
+					+ "." + HistoryIdentityFilter.RESOURCE_ID_COLUMN + " AND tasks.version = "
+					+ HistoryIdentityFilter.RESOURCE_TABLE + ".version AND " + filterQuery + ")";
+
+		return HistoryIdentityFilter.getFilterQuery(RESOURCE_TYPE, filterQuery);
 	}
 }
@@ -13,12 +13,48 @@ public interface DbSearchQuery
 {
 	String getCountSql();
 
+	/**
+	 * @return sql to retrieve the query planners row estimate as JSON via <code>EXPLAIN (FORMAT JSON)</code>
+	 */
+	String getEstimateSql();
+
 	String getSearchSql();
 
+	/**
+	 * Sets parameters of statements created via {@link #getCountSql()} and {@link #getEstimateSql()}
+	 *
+	 * @param statement
+	 *            not <code>null</code>
+	 * @param arrayCreator
+	 *            not <code>null</code>
+	 * @throws SQLException
+	 *             if parameters could not be set
+	 */
 	void modifyStatement(PreparedStatement statement, BiFunctionWithSqlException<String, Object[], Array> arrayCreator)
 			throws SQLException;
 
+	/**
+	 * Sets parameters of statements created via {@link #getSearchSql()}
+	 *
+	 * @param statement
+	 *            not <code>null</code>
+	 * @param arrayCreator
+	 *            not <code>null</code>
+	 * @throws SQLException
+	 *             if parameters could not be set
+	 */
+	void modifySearchStatement(PreparedStatement statement,
+			BiFunctionWithSqlException<String, Object[], Array> arrayCreator) throws SQLException;
+
 	PageAndCount getPageAndCount();
 
+	/**
+	 * @param elementName
+	 *            top-level element name
+	 * @return <code>false</code> if the element is removed from search results by <i>_summary</i> or <i>_elements</i>
+	 *         parameters
+	 */
+	boolean isElementIncluded(String elementName);
+
 	void modifyIncludeResource(Resource resource, int columnIndex, Connection connection) throws SQLException;
 }
@@ -1,6 +1,8 @@
 package dev.dsf.fhir.search;
 
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
 
 import org.hl7.fhir.r4.model.Resource;
 
@@ -10,7 +12,30 @@ public interface Matcher
 {
 	void resloveReferencesForMatching(Resource resource, DaoProvider daoProvider) throws SQLException;
 
+	/**
+	 * Resolves references like {@link #resloveReferencesForMatching(Resource, DaoProvider)}, but skips parameters of
+	 * types already resolved for the given resource. Resolving references does not depend on the configured parameter
+	 * values, so matchers evaluated against the same resource can share the resolved references.
+	 *
+	 * @param resource
+	 *            may be <code>null</code>
+	 * @param daoProvider
+	 *            not <code>null</code>
+	 * @param resolvedParameterTypes
+	 *            not <code>null</code>, parameter types already resolved for the given resource, parameter types
+	 *            resolved by this method are added
+	 * @throws SQLException
+	 *             if references could not be resolved
+	 */
+	void resloveReferencesForMatching(Resource resource, DaoProvider daoProvider,
+			Set<Class<? extends MatcherParameter>> resolvedParameterTypes) throws SQLException;
+
 	boolean matches(Resource resource);
 
 	Class<? extends Resource> getResourceType();
+
+	/**
+	 * @return errors while configuring the matcher, parameters with errors are ignored while matching
+	 */
+	List<SearchQueryParameterError> getUnsupportedQueryParameters();
 }
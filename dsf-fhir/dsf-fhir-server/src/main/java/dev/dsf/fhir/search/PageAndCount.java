@@ -6,8 +6,8 @@ import java.util.Map;
 
 public class PageAndCount
 {
-	private static final PageAndCount EXISTS = new PageAndCount(0, 0, 0);
-	private static final PageAndCount SINGLE = new PageAndCount(1, 1, 1);
+	private static final PageAndCount EXISTS = new PageAndCount(0, 0, 0, TotalMode.ACCURATE);
+	private static final PageAndCount SINGLE = new PageAndCount(1, 1, 1, TotalMode.ACCURATE);
 
 	public static PageAndCount single()
 	{
@@ -23,8 +23,17 @@ public class PageAndCount
 	{
 		Integer page = getFirstInt(queryParameters, SearchQuery.PARAMETER_PAGE);
 		Integer count = getFirstInt(queryParameters, SearchQuery.PARAMETER_COUNT);
+		TotalMode totalMode = getFirstTotalMode(queryParameters);
 
-		return new PageAndCount(page, count, defaultPageCount);
+		return new PageAndCount(page, count, defaultPageCount, totalMode);
+	}
+
+	private static TotalMode getFirstTotalMode(Map<String, List<String>> queryParameters)
+	{
+		List<String> values = queryParameters.getOrDefault(SearchQuery.PARAMETER_TOTAL, Collections.emptyList());
+		TotalMode totalMode = values.isEmpty() ? null : TotalMode.fromString(values.get(0));
+
+		return totalMode == null ? TotalMode.ACCURATE : totalMode;
 	}
 
 	private static Integer getFirstInt(Map<String, List<String>> queryParameters, String key)
@@ -58,14 +67,15 @@ public class PageAndCount
 	{
 		Math.multiplyExact(page, count); // throws ArithmeticException
 
-		return new PageAndCount(page, count, count);
+		return new PageAndCount(page, count, count, TotalMode.ACCURATE);
 	}
 
 
 	private final int page;
 	private final int count;
+	private final TotalMode totalMode;
 
-	private PageAndCount(Integer page, Integer count, int defaultPageCount)
+	private PageAndCount(Integer page, Integer count, int defaultPageCount, TotalMode totalMode)
 	{
 		int effectivePage = page == null ? 1 : page < 0 ? 0 : page;
 		int effectiveCount = count == null ? defaultPageCount : count < 0 ? 0 : count;
@@ -80,11 +90,27 @@ public class PageAndCount
 
 		this.page = effectivePage;
 		this.count = effectiveCount;
+		this.totalMode = totalMode;
 	}
 
 	public String getSql()
 	{
-		return " LIMIT " + count + (page > 1 ? " OFFSET " + getOffset() : "");
+		return getSql(false, true);
+	}
+
+	/**
+	 * @param nextPageCheck
+	 *            <code>true</code> to select one additional row, used to detect if a next page exists without knowing
+	 *            the total number of results
+	 * @param withOffset
+	 *            <code>false</code> to omit the <code>OFFSET</code>, used if the first row of the page is selected via
+	 *            a {@link SearchQueryCursor}
+	 * @return <code>LIMIT</code> and optional <code>OFFSET</code> sql
+	 */
+	public String getSql(boolean nextPageCheck, boolean withOffset)
+	{
+		return " LIMIT " + (nextPageCheck ? (long) count + 1 : count)
+				+ (withOffset && page > 1 ? " OFFSET " + getOffset() : "");
 	}
 
 	private int getOffset()
@@ -92,9 +118,25 @@ public class PageAndCount
 		return (page - 1) * count;
 	}
 
+	/**
+	 * @return <code>true</code> if more than one result can be returned, results need a stable order
+	 */
+	public boolean isPaging()
+	{
+		return count > 1;
+	}
+
+	/**
+	 * @return <code>true</code> if no resources need to be returned, independent of the total number of results
+	 */
+	public boolean isCountOnly()
+	{
+		return page < 1 || count < 1;
+	}
+
 	public boolean isCountOnly(int total)
 	{
-		return page < 1 || count < 1 || page > getLastPage(total);
+		return isCountOnly() || page > getLastPage(total);
 	}
 
 	public int getPage()
@@ -107,6 +149,16 @@ public class PageAndCount
 		return count;
 	}
 
+	public TotalMode getTotalMode()
+	{
+		return totalMode;
+	}
+
+	public boolean isTotalAccurate()
+	{
+		return TotalMode.ACCURATE.equals(totalMode);
+	}
+
 	public boolean isLastPage(int total)
 	{
 		return page >= getLastPage(total);
@@ -11,20 +11,50 @@ public class PartialResult<R extends Resource>
 	private final PageAndCount pageAndCount;
 	private final List<R> partialResult;
 	private final List<Resource> includes;
+	private final boolean nextPage;
 
 	public PartialResult(int total, PageAndCount pageAndCount, List<R> partialResult, List<Resource> includes)
+	{
+		this(total, pageAndCount, partialResult, includes, !pageAndCount.isLastPage(total));
+	}
+
+	/**
+	 * @param total
+	 *            exact total if {@link PageAndCount#isTotalAccurate()}, estimated total for {@link TotalMode#ESTIMATE}
+	 *            ignored for {@link TotalMode#NONE}
+	 * @param pageAndCount
+	 *            not <code>null</code>
+	 * @param partialResult
+	 *            not <code>null</code>
+	 * @param includes
+	 *            not <code>null</code>
+	 * @param nextPage
+	 *            <code>true</code> if more results exist after this page
+	 */
+	public PartialResult(int total, PageAndCount pageAndCount, List<R> partialResult, List<Resource> includes,
+			boolean nextPage)
 	{
 		this.total = total;
 		this.pageAndCount = pageAndCount;
 		this.partialResult = partialResult;
 		this.includes = includes;
+		this.nextPage = nextPage;
 	}
 
+	/**
+	 * @return exact total if {@link PageAndCount#isTotalAccurate()}, estimated total for {@link TotalMode#ESTIMATE},
+	 *         <code>0</code> for {@link TotalMode#NONE}
+	 */
 	public int getTotal()
 	{
 		return total;
 	}
 
+	public boolean hasNextPage()
+	{
+		return nextPage;
+	}
+
 	public PageAndCount getPageAndCount()
 	{
 		return pageAndCount;
@@ -10,11 +10,14 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -24,7 +27,9 @@ import org.slf4j.LoggerFactory;
 
 import dev.dsf.fhir.dao.provider.DaoProvider;
 import dev.dsf.fhir.function.BiFunctionWithSqlException;
+import dev.dsf.fhir.help.SummaryMode;
 import dev.dsf.fhir.search.SearchQueryParameterError.SearchQueryParameterErrorType;
+import dev.dsf.fhir.search.SearchQuerySortParameterConfiguration.SortDirection;
 import jakarta.ws.rs.core.UriBuilder;
 
 public class SearchQuery<R extends Resource> implements DbSearchQuery, Matcher
@@ -38,23 +43,30 @@ public class SearchQuery<R extends Resource> implements DbSearchQuery, Matcher
 	public static final String PARAMETER_FORMAT = "_format";
 	public static final String PARAMETER_PRETTY = "_pretty";
 	public static final String PARAMETER_SUMMARY = "_summary";
+	public static final String PARAMETER_ELEMENTS = "_elements";
+	public static final String PARAMETER_TOTAL = "_total";
+	public static final String PARAMETER_CURSOR = "_cursor";
 
 	public static final String[] STANDARD_PARAMETERS = { PARAMETER_SORT, PARAMETER_INCLUDE, PARAMETER_REVINCLUDE,
-			PARAMETER_PAGE, PARAMETER_COUNT, PARAMETER_FORMAT, PARAMETER_PRETTY, PARAMETER_SUMMARY };
+			PARAMETER_PAGE, PARAMETER_COUNT, PARAMETER_FORMAT, PARAMETER_PRETTY, PARAMETER_SUMMARY, PARAMETER_ELEMENTS,
+			PARAMETER_TOTAL, PARAMETER_CURSOR };
 
 	private static final String[] SINGLE_VALUE_PARAMETERS = { PARAMETER_SORT, PARAMETER_PAGE, PARAMETER_COUNT,
-			PARAMETER_FORMAT, PARAMETER_PRETTY, PARAMETER_SUMMARY };
+			PARAMETER_FORMAT, PARAMETER_PRETTY, PARAMETER_SUMMARY, PARAMETER_ELEMENTS, PARAMETER_TOTAL,
+			PARAMETER_CURSOR };
 
 	public static class SearchQueryBuilder<R extends Resource>
 	{
 		public static <R extends Resource> SearchQueryBuilder<R> create(Class<R> resourceType, String resourceTable,
-				String resourceColumn, PageAndCount pageAndCount)
+				String resourceIdColumn, String resourceColumn, PageAndCount pageAndCount)
 		{
-			return new SearchQueryBuilder<>(resourceType, resourceTable, resourceColumn, pageAndCount);
+			return new SearchQueryBuilder<>(resourceType, resourceTable, resourceIdColumn, resourceColumn,
+					pageAndCount);
 		}
 
 		private final Class<R> resourceType;
 		private final String resourceTable;
+		private final String resourceIdColumn;
 		private final String resourceColumn;
 
 		private final PageAndCount pageAndCount;
@@ -63,12 +75,14 @@ public class SearchQuery<R extends Resource> implements DbSearchQuery, Matcher
 		private final List<SearchQueryRevIncludeParameterFactory> revIncludeParameters = new ArrayList<>();
 
 		private SearchQueryIdentityFilter identityFilter; // may be null
+		private SearchQueryProjection projection; // may be null
 
-		private SearchQueryBuilder(Class<R> resourceType, String resourceTable, String resourceColumn,
-				PageAndCount pageAndCount)
+		private SearchQueryBuilder(Class<R> resourceType, String resourceTable, String resourceIdColumn,
+				String resourceColumn, PageAndCount pageAndCount)
 		{
 			this.resourceType = resourceType;
 			this.resourceTable = resourceTable;
+			this.resourceIdColumn = resourceIdColumn;
 			this.resourceColumn = resourceColumn;
 
 			this.pageAndCount = pageAndCount;
@@ -80,6 +94,12 @@ public class SearchQuery<R extends Resource> implements DbSearchQuery, Matcher
 			return this;
 		}
 
+		public SearchQueryBuilder<R> withProjection(SearchQueryProjection projection)
+		{
+			this.projection = projection;
+			return this;
+		}
+
 		public SearchQueryBuilder<R> with(SearchQueryParameterFactory<R> searchParameters)
 		{
 			this.searchParameters.add(searchParameters);
@@ -117,8 +137,8 @@ public class SearchQuery<R extends Resource> implements DbSearchQuery, Matcher
 
 		public SearchQuery<R> build()
 		{
-			return new SearchQuery<>(resourceType, resourceTable, resourceColumn, identityFilter, pageAndCount,
-					searchParameters, revIncludeParameters);
+			return new SearchQuery<>(resourceType, resourceTable, resourceIdColumn, resourceColumn, identityFilter,
+					projection, pageAndCount, searchParameters, revIncludeParameters);
 		}
 	}
 
@@ -126,9 +146,11 @@ public class SearchQuery<R extends Resource> implements DbSearchQuery, Matcher
 
 	private final Class<R> resourceType;
 	private final String resourceColumn;
+	private final String resourceIdColumn;
 	private final String resourceTable;
 
 	private final SearchQueryIdentityFilter identityFilter;
+	private final SearchQueryProjection projection;
 
 	private final PageAndCount pageAndCount;
 
@@ -148,16 +170,26 @@ public class SearchQuery<R extends Resource> implements DbSearchQuery, Matcher
 	private String includeSql;
 	private String revIncludeSql;
 
-	SearchQuery(Class<R> resourceType, String resourceTable, String resourceColumn,
-			SearchQueryIdentityFilter identityFilter, PageAndCount pageAndCount,
+	private String elementsParameterValue; // may be null
+	private Predicate<String> elementFilter = name -> true;
+	private String projectionSql = "";
+
+	private SearchQueryCursor cursor; // may be null
+	private String cursorSql = "";
+	private int cursorSubqueryCount;
+
+	SearchQuery(Class<R> resourceType, String resourceTable, String resourceIdColumn, String resourceColumn,
+			SearchQueryIdentityFilter identityFilter, SearchQueryProjection projection, PageAndCount pageAndCount,
 			List<SearchQueryParameterFactory<R>> searchParameterFactories,
 			List<SearchQueryRevIncludeParameterFactory> searchRevIncludeParameterFactories)
 	{
 		this.resourceType = resourceType;
 		this.resourceTable = resourceTable;
+		this.resourceIdColumn = resourceIdColumn;
 		this.resourceColumn = resourceColumn;
 
 		this.identityFilter = identityFilter;
+		this.projection = projection;
 
 		this.pageAndCount = pageAndCount;
 
@@ -217,6 +249,7 @@ public class SearchQuery<R extends Resource> implements DbSearchQuery, Matcher
 	public SearchQuery<R> configureParameters(Map<String, List<String>> queryParameters)
 	{
 		checkSingleValueParameters(queryParameters);
+		checkTotalParameter(queryParameters);
 
 		filterQuery = createFilterQuery(queryParameters);
 
@@ -226,6 +259,12 @@ public class SearchQuery<R extends Resource> implements DbSearchQuery, Matcher
 
 		sortSql = createSortSql(queryParameters.getOrDefault(PARAMETER_SORT, Collections.emptyList()));
 
+		cursor = createCursor(queryParameters.getOrDefault(PARAMETER_CURSOR, Collections.emptyList()));
+		cursorSql = createCursorSql();
+
+		projectionSql = createProjectionSql(queryParameters.getOrDefault(PARAMETER_SUMMARY, Collections.emptyList()),
+				queryParameters.getOrDefault(PARAMETER_ELEMENTS, Collections.emptyList()));
+
 		return this;
 	}
 
@@ -242,6 +281,17 @@ public class SearchQuery<R extends Resource> implements DbSearchQuery, Matcher
 		});
 	}
 
+	private void checkTotalParameter(Map<String, List<String>> queryParameters)
+	{
+		List<String> values = queryParameters.getOrDefault(PARAMETER_TOTAL, Collections.emptyList());
+		if (!values.isEmpty() && !TotalMode.isValid(values.get(0)))
+		{
+			errors.add(new SearchQueryParameterError(SearchQueryParameterErrorType.UNPARSABLE_VALUE, PARAMETER_TOTAL,
+					values.get(0), PARAMETER_TOTAL + " query parameter value `" + values.get(0)
+							+ "` not supported, expected one of none, estimate or accurate"));
+		}
+	}
+
 	private String createFilterQuery(Map<String, List<String>> queryParameters)
 	{
 		queryParameters.entrySet().stream()
@@ -278,13 +328,14 @@ public class SearchQuery<R extends Resource> implements DbSearchQuery, Matcher
 
 	private String createSortSql(List<String> sortParameterValues)
 	{
+		// resource id as last sort key, results need a stable order for paging
 		if (sortParameterValues.size() <= 0)
-			return "";
+			return pageAndCount.isPaging() ? " ORDER BY " + resourceIdColumn : "";
 
 		final String sortParameterValue = sortParameterValues.get(0);
 
 		if (sortParameterValue == null || sortParameterValue.isBlank())
-			return "";
+			return pageAndCount.isPaging() ? " ORDER BY " + resourceIdColumn : "";
 
 		Set<String> supportedSortValues = new HashSet<>();
 		for (String value : sortParameterValue.split(","))
@@ -317,9 +368,149 @@ public class SearchQuery<R extends Resource> implements DbSearchQuery, Matcher
 			}
 		}
 
-		return sortParameters.isEmpty() ? ""
-				: sortParameters.stream().map(SearchQuerySortParameterConfiguration::getSql)
-						.collect(Collectors.joining(", ", " ORDER BY ", ""));
+		if (sortParameters.isEmpty())
+			return pageAndCount.isPaging() ? " ORDER BY " + resourceIdColumn : "";
+
+		Stream<String> sortSql = sortParameters.stream().map(SearchQuerySortParameterConfiguration::getSql);
+		if (pageAndCount.isPaging() && !isSortedById())
+			sortSql = Stream.concat(sortSql, Stream.of(resourceIdColumn));
+
+		return sortSql.collect(Collectors.joining(", ", " ORDER BY ", ""));
+	}
+
+	private boolean isSortedById()
+	{
+		return sortParameters.stream().map(SearchQuerySortParameterConfiguration::getKeySql)
+				.anyMatch(resourceIdColumn::equals);
+	}
+
+	private SearchQueryCursor createCursor(List<String> cursorParameterValues)
+	{
+		if (cursorParameterValues.isEmpty() || cursorParameterValues.get(0) == null
+				|| cursorParameterValues.get(0).isBlank())
+			return null;
+
+		String value = cursorParameterValues.get(0);
+		Optional<SearchQueryCursor> cursor = SearchQueryCursor.fromToken(value);
+
+		if (cursor.isEmpty())
+			errors.add(new SearchQueryParameterError(SearchQueryParameterErrorType.UNPARSABLE_VALUE, PARAMETER_CURSOR,
+					value, PARAMETER_CURSOR + " query parameter value `" + value + "` not a valid cursor"));
+
+		return cursor.orElse(null);
+	}
+
+	/**
+	 * Creates a filter selecting all rows after the sort key values of the cursor resource version. Sort keys with
+	 * different directions and <code>null</code> values (sorted last for ascending, first for descending order) are
+	 * supported by expanding <code>(k1, k2, id) &gt; (v1, v2, vId)</code> to
+	 * <code>k1 &gt; v1 OR (k1 = v1 AND k2 &gt; v2) OR (k1 = v1 AND k2 = v2 AND id &gt; vId)</code>. Sort key values of
+	 * the cursor are selected via uncorrelated sub queries, usable as index conditions. The sub queries apply the
+	 * identity filter, sort key values of resources not readable by the current identity are not disclosed.
+	 */
+	private String createCursorSql()
+	{
+		cursorSubqueryCount = 0;
+
+		if (cursor == null)
+			return "";
+
+		List<SearchQuerySortParameterConfiguration> keys = new ArrayList<>(sortParameters);
+		if (!isSortedById())
+			keys.add(new SearchQuerySortParameterConfiguration(resourceIdColumn, null, SortDirection.ASC));
+
+		List<String> alternatives = new ArrayList<>();
+		for (int i = 0; i < keys.size(); i++)
+		{
+			List<String> conditions = new ArrayList<>();
+			for (int j = 0; j < i; j++)
+				conditions.add(getCursorEqualsSql(keys.get(j)));
+
+			conditions.add(getCursorAfterSql(keys.get(i)));
+
+			alternatives.add(conditions.stream().collect(Collectors.joining(" AND ", "(", ")")));
+		}
+
+		return alternatives.stream().collect(Collectors.joining(" OR ", "(", ")"));
+	}
+
+	private String getCursorEqualsSql(SearchQuerySortParameterConfiguration key)
+	{
+		if (resourceIdColumn.equals(key.getKeySql()))
+			return key.getKeySql() + " = " + getCursorValueSql(key);
+		else
+			return "(" + key.getKeySql() + ") IS NOT DISTINCT FROM " + getCursorValueSql(key);
+	}
+
+	private String getCursorAfterSql(SearchQuerySortParameterConfiguration key)
+	{
+		boolean desc = SortDirection.DESC.equals(key.getDirection());
+
+		if (resourceIdColumn.equals(key.getKeySql()))
+			return key.getKeySql() + (desc ? " < " : " > ") + getCursorValueSql(key);
+		else if (desc)
+			return "((" + key.getKeySql() + ") < " + getCursorValueSql(key) + " OR ((" + key.getKeySql()
+					+ ") IS NOT NULL AND " + getCursorValueSql(key) + " IS NULL))";
+		else
+			return "((" + key.getKeySql() + ") > " + getCursorValueSql(key) + " OR ((" + key.getKeySql()
+					+ ") IS NULL AND " + getCursorValueSql(key) + " IS NOT NULL))";
+	}
+
+	private String getCursorValueSql(SearchQuerySortParameterConfiguration key)
+	{
+		cursorSubqueryCount++;
+
+		// identity filters reference the current_* view name, used as alias for the resource table
+		String identityFilterSql = identityFilter != null ? identityFilter.getFilterQuery() : "";
+		return SearchQueryCursor.getKeySubquerySql(resourceTable, "current_" + resourceTable, resourceIdColumn,
+				key.getKeySql(), identityFilterSql);
+	}
+
+	/**
+	 * Only top-level elements are projected, see {@link SearchQueryProjection}. <i>_summary</i> takes precedence if
+	 * both <i>_summary</i> and <i>_elements</i> are specified.
+	 */
+	private String createProjectionSql(List<String> summaryParameterValues, List<String> elementsParameterValues)
+	{
+		if (projection == null)
+			return "";
+
+		SummaryMode summaryMode = summaryParameterValues.isEmpty() ? null
+				: SummaryMode.fromString(summaryParameterValues.get(0));
+
+		if (summaryMode != null && !elementsParameterValues.isEmpty())
+		{
+			errors.add(new SearchQueryParameterError(SearchQueryParameterErrorType.UNSUPPORTED_PARAMETER,
+					PARAMETER_ELEMENTS, null,
+					PARAMETER_ELEMENTS + " query parameter not supported in combination with " + PARAMETER_SUMMARY));
+		}
+		else if (!elementsParameterValues.isEmpty() && elementsParameterValues.get(0) != null
+				&& !elementsParameterValues.get(0).isBlank())
+		{
+			Set<String> elements = new LinkedHashSet<>();
+			for (String value : elementsParameterValues.get(0).split(","))
+			{
+				String element = value.trim();
+				if (projection.isElement(element))
+					elements.add(element);
+				else if (!element.isEmpty())
+					errors.add(new SearchQueryParameterError(SearchQueryParameterErrorType.UNPARSABLE_VALUE,
+							PARAMETER_ELEMENTS, null, PARAMETER_ELEMENTS + " query parameter value `" + element
+									+ "` not a top-level element of " + resourceType.getSimpleName()));
+			}
+
+			if (!elements.isEmpty())
+			{
+				elementsParameterValue = String.join(",", elements);
+				elementFilter = projection.getElementsFilter(elements);
+			}
+		}
+		else if (summaryMode != null)
+			elementFilter = projection.getSummaryFilter(summaryMode);
+
+		// resources projected for _elements are returned as stored if JSON is requested, SUBSETTED tag added by the db
+		return (elementsParameterValue != null ? projection.getSubsettedSql(resourceColumn, elementFilter)
+				: projection.getSql(resourceColumn, elementFilter)).orElse("");
 	}
 
 	private String createIncludeSql(List<String> includeParameterValues)
@@ -405,14 +596,27 @@ public class SearchQuery<R extends Resource> implements DbSearchQuery, Matcher
 		return countQueryMain + (!filterQuery.isEmpty() ? " WHERE " + filterQuery : "");
 	}
 
+	@Override
+	public String getEstimateSql()
+	{
+		String estimateQueryMain = "EXPLAIN (FORMAT JSON) SELECT " + resourceColumn + " FROM current_" + resourceTable;
+
+		return estimateQueryMain + (!filterQuery.isEmpty() ? " WHERE " + filterQuery : "");
+	}
+
 	@Override
 	public String getSearchSql()
 	{
-		String searchQueryMain = "SELECT " + resourceColumn + includeSql + revIncludeSql + " FROM current_"
-				+ resourceTable;
+		// include sql uses the unprojected resource column, select list expressions can't reference each other
+		String searchQueryMain = "SELECT " + (projectionSql.isEmpty() ? resourceColumn : projectionSql) + includeSql
+				+ revIncludeSql + " FROM current_" + resourceTable;
 
-		return searchQueryMain + (!filterQuery.isEmpty() ? " WHERE " + filterQuery : "") + sortSql
-				+ pageAndCount.getSql();
+		String filter = Stream.of(filterQuery, cursorSql).filter(s -> !s.isEmpty())
+				.collect(Collectors.joining(" AND "));
+
+		// pages after a cursor don't need an offset
+		return searchQueryMain + (!filter.isEmpty() ? " WHERE " + filter : "") + sortSql
+				+ pageAndCount.getSql(!pageAndCount.isTotalAccurate(), cursor == null);
 	}
 
 	@Override
@@ -445,12 +649,52 @@ public class SearchQuery<R extends Resource> implements DbSearchQuery, Matcher
 		}
 	}
 
+	@Override
+	public void modifySearchStatement(PreparedStatement statement,
+			BiFunctionWithSqlException<String, Object[], Array> arrayCreator) throws SQLException
+	{
+		modifyStatement(statement, arrayCreator);
+
+		if (cursor != null)
+		{
+			try
+			{
+				int index = (identityFilter != null ? identityFilter.getSqlParameterCount() : 0)
+						+ searchParameters.stream().filter(SearchQueryParameter::isDefined)
+								.mapToInt(SearchQueryParameter::getSqlParameterCount).sum()
+						+ 1;
+
+				for (int i = 0; i < cursorSubqueryCount; i++)
+				{
+					index = cursor.modifyStatement(index, statement);
+
+					if (identityFilter != null)
+					{
+						for (int j = 1; j <= identityFilter.getSqlParameterCount(); j++)
+							identityFilter.modifyStatement(index++, j, statement);
+					}
+				}
+			}
+			catch (SQLException e)
+			{
+				logger.debug("Error while modifying prepared statement '{}'", statement.toString(), e);
+				throw e;
+			}
+		}
+	}
+
 	@Override
 	public PageAndCount getPageAndCount()
 	{
 		return pageAndCount;
 	}
 
+	@Override
+	public boolean isElementIncluded(String elementName)
+	{
+		return elementFilter.test(elementName);
+	}
+
 	public UriBuilder configureBundleUri(UriBuilder bundleUri)
 	{
 		Objects.requireNonNull(bundleUri, "bundleUri");
@@ -485,6 +729,12 @@ public class SearchQuery<R extends Resource> implements DbSearchQuery, Matcher
 					.map(SearchQueryIncludeParameterConfiguration::getBundleUriQueryParameterValues).toArray();
 			bundleUri.replaceQueryParam(PARAMETER_REVINCLUDE, values);
 		}
+		if (elementsParameterValue != null)
+			bundleUri.replaceQueryParam(PARAMETER_ELEMENTS, elementsParameterValue);
+		if (!pageAndCount.isTotalAccurate())
+			bundleUri.replaceQueryParam(PARAMETER_TOTAL, pageAndCount.getTotalMode().toString());
+		if (cursor != null)
+			bundleUri.replaceQueryParam(PARAMETER_CURSOR, cursor.toToken());
 
 		return bundleUri;
 	}
@@ -497,22 +747,31 @@ public class SearchQuery<R extends Resource> implements DbSearchQuery, Matcher
 
 	@Override
 	public void resloveReferencesForMatching(Resource resource, DaoProvider daoProvider) throws SQLException
+	{
+		resloveReferencesForMatching(resource, daoProvider, new HashSet<>());
+	}
+
+	@Override
+	public void resloveReferencesForMatching(Resource resource, DaoProvider daoProvider,
+			Set<Class<? extends MatcherParameter>> resolvedParameterTypes) throws SQLException
 	{
 		if (resource == null || !getResourceType().isInstance(resource))
 			return;
 
-		List<SQLException> exceptions = searchParameters.stream().filter(SearchQueryParameter::isDefined).map(p ->
-		{
-			try
-			{
-				p.resolveReferencesForMatching(resource, daoProvider);
-				return null;
-			}
-			catch (SQLException e)
-			{
-				return e;
-			}
-		}).filter(e -> e != null).collect(Collectors.toList());
+		List<SQLException> exceptions = searchParameters.stream().filter(SearchQueryParameter::isDefined)
+				.filter(p -> !resolvedParameterTypes.contains(p.getClass())).map(p ->
+				{
+					try
+					{
+						p.resolveReferencesForMatching(resource, daoProvider);
+						resolvedParameterTypes.add(p.getClass());
+						return null;
+					}
+					catch (SQLException e)
+					{
+						return e;
+					}
+				}).filter(e -> e != null).collect(Collectors.toList());
 
 		if (!exceptions.isEmpty())
 		{
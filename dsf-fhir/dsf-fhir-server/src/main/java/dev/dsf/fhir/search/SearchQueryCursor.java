@@ -0,0 +1,151 @@
+package dev.dsf.fhir.search;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.hl7.fhir.r4.model.Resource;
+import org.postgresql.util.PGobject;
+
+/**
+ * Continuation token for keyset pagination. References the last resource (id and version) of the previous page, the
+ * next page starts after the sort key values of this exact resource version. Resource versions are never modified, so
+ * pages do not shift if resources are created, updated or deleted while paging.
+ */
+public class SearchQueryCursor
+{
+	private static final String SEPARATOR = "/";
+
+	/**
+	 * @param token
+	 *            may be <code>null</code>
+	 * @return {@link Optional#empty()} if the given token is <code>null</code>, blank or not a valid cursor token
+	 */
+	public static Optional<SearchQueryCursor> fromToken(String token)
+	{
+		if (token == null || token.isBlank())
+			return Optional.empty();
+
+		try
+		{
+			String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			String[] idAndVersion = decoded.split(SEPARATOR);
+
+			if (idAndVersion.length != 2)
+				return Optional.empty();
+
+			return Optional
+					.of(new SearchQueryCursor(UUID.fromString(idAndVersion[0]), Long.parseLong(idAndVersion[1])));
+		}
+		catch (IllegalArgumentException e)
+		{
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * @param resource
+	 *            may be <code>null</code>
+	 * @return {@link Optional#empty()} if the given resource is <code>null</code> or has no valid id or version
+	 */
+	public static Optional<SearchQueryCursor> fromResource(Resource resource)
+	{
+		if (resource == null || !resource.hasIdElement() || !resource.getIdElement().hasIdPart())
+			return Optional.empty();
+
+		String version = resource.getIdElement().hasVersionIdPart() ? resource.getIdElement().getVersionIdPart()
+				: resource.getMeta().getVersionId();
+		if (version == null)
+			return Optional.empty();
+
+		try
+		{
+			return Optional.of(new SearchQueryCursor(UUID.fromString(resource.getIdElement().getIdPart()),
+					Long.parseLong(version)));
+		}
+		catch (IllegalArgumentException e)
+		{
+			return Optional.empty();
+		}
+	}
+
+	private final UUID id;
+	private final long version;
+
+	private SearchQueryCursor(UUID id, long version)
+	{
+		this.id = Objects.requireNonNull(id, "id");
+		this.version = version;
+	}
+
+	public UUID getId()
+	{
+		return id;
+	}
+
+	public long getVersion()
+	{
+		return version;
+	}
+
+	public String toToken()
+	{
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString((id.toString() + SEPARATOR + version).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @param resourceTable
+	 *            not <code>null</code>
+	 * @param resourceTableAlias
+	 *            not <code>null</code>, alias of the resource table referenced by the given identity filter
+	 * @param resourceIdColumn
+	 *            not <code>null</code>
+	 * @param keySql
+	 *            not <code>null</code>, evaluated against the referenced resource version
+	 * @param identityFilterSql
+	 *            not <code>null</code>, empty if the referenced resource version is not filtered
+	 * @return sql sub query selecting the given key from the referenced resource version, the first two parameters are
+	 *         set via {@link #modifyStatement(int, PreparedStatement)}, followed by the parameters of the identity
+	 *         filter
+	 */
+	public static String getKeySubquerySql(String resourceTable, String resourceTableAlias, String resourceIdColumn,
+			String keySql, String identityFilterSql)
+	{
+		return "(SELECT " + keySql + " FROM " + resourceTable + " AS " + resourceTableAlias + " WHERE "
+				+ resourceTableAlias + "." + resourceIdColumn + " = ? AND " + resourceTableAlias + ".version = ?"
+				+ (identityFilterSql.isEmpty() ? "" : " AND (" + identityFilterSql + ")") + ")";
+	}
+
+	/**
+	 * Sets the first two parameters of a sql sub query created via
+	 * {@link #getKeySubquerySql(String, String, String, String, String)}
+	 *
+	 * @param parameterIndex
+	 *            index of the first parameter
+	 * @param statement
+	 *            not <code>null</code>
+	 * @return index of the next parameter
+	 * @throws SQLException
+	 *             if the parameters could not be set
+	 */
+	public int modifyStatement(int parameterIndex, PreparedStatement statement) throws SQLException
+	{
+		statement.setObject(parameterIndex, asUuidPgObject(id));
+		statement.setLong(parameterIndex + 1, version);
+
+		return parameterIndex + 2;
+	}
+
+	private PGobject asUuidPgObject(UUID uuid) throws SQLException
+	{
+		PGobject o = new PGobject();
+		o.setType("UUID");
+		o.setValue(uuid.toString());
+		return o;
+	}
+}
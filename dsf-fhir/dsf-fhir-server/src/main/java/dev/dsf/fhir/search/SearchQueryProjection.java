@@ -0,0 +1,165 @@
+package dev.dsf.fhir.search;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.hl7.fhir.r4.model.Resource;
+
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.FhirContext;
+import dev.dsf.fhir.help.SummaryMode;
+
+/**
+ * Projection of the top-level elements of a resource type for the <i>_summary</i> and <i>_elements</i> parameters.
+ * Elements not requested are removed from the resource JSON by the database, so they are not transferred and parsed.
+ * <p>
+ * Elements <i>id</i> and <i>meta</i> are never removed, <i>meta.versionId</i> and <i>meta.tag</i> are needed for paging
+ * and read access checks. Mandatory elements are always kept. Nested elements are not projected, the parser removes
+ * nested non-summary elements while encoding.
+ */
+public class SearchQueryProjection
+{
+	private static final Set<String> ALWAYS_INCLUDED = Set.of("id", "meta");
+	private static final String TEXT = "text";
+	private static final String SUBSETTED_TAG = "[{\"system\":"
+			+ "\"http://terminology.hl7.org/CodeSystem/v3-ObservationValue\",\"code\":\"SUBSETTED\"}]";
+
+	private static record Element(String name, List<String> jsonNames, boolean summary, boolean mandatory)
+	{
+	}
+
+	/**
+	 * @param fhirContext
+	 *            not <code>null</code>
+	 * @param resourceType
+	 *            not <code>null</code>
+	 * @return projection for the top-level elements of the given resource type
+	 */
+	public static SearchQueryProjection forResourceType(FhirContext fhirContext, Class<? extends Resource> resourceType)
+	{
+		Objects.requireNonNull(fhirContext, "fhirContext");
+		Objects.requireNonNull(resourceType, "resourceType");
+
+		Map<String, Element> elementsByName = new LinkedHashMap<>();
+		for (BaseRuntimeChildDefinition child : fhirContext.getResourceDefinition(resourceType)
+				.getChildrenAndExtension())
+		{
+			if (ALWAYS_INCLUDED.contains(child.getElementName()))
+				continue;
+
+			// choice types are stored with type suffix, primitive extensions with '_' prefix
+			List<String> jsonNames = child.getValidChildNames().stream().flatMap(n -> Stream.of(n, "_" + n)).sorted()
+					.toList();
+
+			elementsByName.put(child.getElementName(),
+					new Element(child.getElementName(), jsonNames, child.isSummary(), child.getMin() > 0));
+		}
+
+		return new SearchQueryProjection(elementsByName);
+	}
+
+	private final Map<String, Element> elementsByName;
+
+	private SearchQueryProjection(Map<String, Element> elementsByName)
+	{
+		this.elementsByName = Collections.unmodifiableMap(elementsByName);
+	}
+
+	/**
+	 * @param elementName
+	 *            may be <code>null</code>
+	 * @return <code>true</code> if the given name is a top-level element of the resource type
+	 */
+	public boolean isElement(String elementName)
+	{
+		return elementName != null
+				&& (ALWAYS_INCLUDED.contains(elementName) || elementsByName.containsKey(elementName));
+	}
+
+	/**
+	 * @param summaryMode
+	 *            may be <code>null</code>
+	 * @return filter for top-level element names, matches all elements if <code>null</code>, {@link SummaryMode#FALSE}
+	 *         or {@link SummaryMode#COUNT}
+	 */
+	public Predicate<String> getSummaryFilter(SummaryMode summaryMode)
+	{
+		if (summaryMode == null)
+			return name -> true;
+
+		return switch (summaryMode)
+		{
+			case TRUE -> filter(e -> e.summary() || e.mandatory());
+			case TEXT -> filter(e -> TEXT.equals(e.name()) || e.mandatory());
+			case DATA -> filter(e -> !TEXT.equals(e.name()));
+			default -> name -> true;
+		};
+	}
+
+	/**
+	 * @param elementNames
+	 *            not <code>null</code>, top-level element names
+	 * @return filter for top-level element names, matching the given and mandatory elements
+	 */
+	public Predicate<String> getElementsFilter(Set<String> elementNames)
+	{
+		Objects.requireNonNull(elementNames, "elementNames");
+
+		return filter(e -> elementNames.contains(e.name()) || e.mandatory());
+	}
+
+	private Predicate<String> filter(Predicate<Element> included)
+	{
+		return name -> ALWAYS_INCLUDED.contains(name)
+				|| Optional.ofNullable(elementsByName.get(name)).map(included::test).orElse(true);
+	}
+
+	/**
+	 * @param resourceColumn
+	 *            not <code>null</code>
+	 * @param filter
+	 *            not <code>null</code>
+	 * @return sql expression selecting the resource JSON without the top-level elements not matched by the given
+	 *         filter, {@link Optional#empty()} if all elements match
+	 */
+	public Optional<String> getSql(String resourceColumn, Predicate<String> filter)
+	{
+		Objects.requireNonNull(resourceColumn, "resourceColumn");
+		Objects.requireNonNull(filter, "filter");
+
+		List<String> excluded = elementsByName.values().stream().filter(e -> !filter.test(e.name()))
+				.flatMap(e -> e.jsonNames().stream()).toList();
+
+		if (excluded.isEmpty())
+			return Optional.empty();
+
+		// FHIR element names only contain letters and digits, no escaping needed
+		return Optional.of("(" + resourceColumn + " - '" + excluded.stream().collect(Collectors.joining(",", "{", "}"))
+				+ "'::text[])");
+	}
+
+	/**
+	 * Same as {@link #getSql(String, Predicate)}, but adds the <i>SUBSETTED</i> tag to <i>meta.tag</i> of the projected
+	 * resource JSON. Used for <i>_elements</i>, the parser only adds the tag while encoding in summary mode.
+	 *
+	 * @param resourceColumn
+	 *            not <code>null</code>
+	 * @param filter
+	 *            not <code>null</code>
+	 * @return sql expression selecting the tagged resource JSON without the top-level elements not matched by the given
+	 *         filter, {@link Optional#empty()} if all elements match
+	 */
+	public Optional<String> getSubsettedSql(String resourceColumn, Predicate<String> filter)
+	{
+		return getSql(resourceColumn, filter).map(sql -> "jsonb_set(" + sql + ", '{meta,tag}', COALESCE("
+				+ resourceColumn + "->'meta'->'tag', '[]'::jsonb) || '" + SUBSETTED_TAG + "'::jsonb)");
+	}
+}
@@ -34,20 +34,37 @@ public class SearchQuerySortParameterConfiguration
 		}
 	}
 
-	private final String sql;
+	private final String keySql;
 	private final String parameterName;
 	private final SortDirection direction;
 
-	public SearchQuerySortParameterConfiguration(String sql, String parameterName, SortDirection direction)
+	/**
+	 * @param keySql
+	 *            sort expression without direction modifier, used in <code>ORDER BY</code> together with the direction
+	 *            modifier and for keyset pagination
+	 * @param parameterName
+	 *            sort parameter name
+	 * @param direction
+	 *            sort direction
+	 */
+	public SearchQuerySortParameterConfiguration(String keySql, String parameterName, SortDirection direction)
 	{
-		this.sql = sql;
+		this.keySql = keySql;
 		this.parameterName = parameterName;
 		this.direction = direction;
 	}
 
+	/**
+	 * @return sort expression including direction modifier, used in <code>ORDER BY</code>
+	 */
 	public String getSql()
 	{
-		return sql;
+		return keySql + direction.getSqlModifierWithSpacePrefix();
+	}
+
+	public String getKeySql()
+	{
+		return keySql;
 	}
 
 	public SortDirection getDirection()
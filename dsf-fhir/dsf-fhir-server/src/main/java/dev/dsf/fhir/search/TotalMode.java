@@ -0,0 +1,51 @@
+package dev.dsf.fhir.search;
+
+/**
+ * Values of the <code>_total</code> search parameter, see
+ * <a href="https://hl7.org/fhir/R4/search.html#total">https://hl7.org/fhir/R4/search.html#total</a>
+ */
+public enum TotalMode
+{
+	/**
+	 * No <code>count(*)</code> query is executed, <code>Bundle.total</code> is not set. Existence of a next page is
+	 * detected by reading one additional row.
+	 */
+	NONE,
+
+	/**
+	 * <code>Bundle.total</code> is set to the row estimate of the query planner, existence of a next page is detected
+	 * by reading one additional row.
+	 */
+	ESTIMATE,
+
+	/**
+	 * A <code>count(*)</code> query is executed, <code>Bundle.total</code> is exact. Default if no or an unsupported
+	 * value is given.
+	 */
+	ACCURATE;
+
+	public static TotalMode fromString(String mode)
+	{
+		if (mode == null)
+			return null;
+
+		return switch (mode.toLowerCase())
+		{
+			case "none" -> TotalMode.NONE;
+			case "estimate" -> TotalMode.ESTIMATE;
+			case "accurate" -> TotalMode.ACCURATE;
+			default -> null;
+		};
+	}
+
+	public static boolean isValid(String mode)
+	{
+		return fromString(mode) != null;
+	}
+
+	@Override
+	public String toString()
+	{
+		return name().toLowerCase();
+	}
+}
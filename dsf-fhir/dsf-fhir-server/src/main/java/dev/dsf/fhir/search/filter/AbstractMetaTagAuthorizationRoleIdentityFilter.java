@@ -18,14 +18,15 @@ abstract class AbstractMetaTagAuthorizationRoleIdentityFilter extends AbstractId
 	@Override
 	public String getFilterQuery()
 	{
+		// EXISTS instead of count(*) > 0, stops at the first matching read_access row
 		if (identity.isLocalIdentity() && identity.hasDsfRole(FhirServerRole.READ))
-			return "(SELECT count(*) FROM read_access WHERE read_access.resource_id = " + resourceTable + "."
+			return "EXISTS (SELECT 1 FROM read_access WHERE read_access.resource_id = " + resourceTable + "."
 					+ resourceIdColumn + " AND read_access.resource_version = " + resourceTable + ".version"
-					+ " AND (read_access.organization_id = ? OR read_access.access_type = 'ALL' OR read_access.access_type = 'LOCAL')) > 0";
+					+ " AND (read_access.organization_id = ? OR read_access.access_type = 'ALL' OR read_access.access_type = 'LOCAL'))";
 		else if (identity.hasDsfRole(FhirServerRole.READ))
-			return "(SELECT count(*) FROM read_access WHERE read_access.resource_id = " + resourceTable + "."
+			return "EXISTS (SELECT 1 FROM read_access WHERE read_access.resource_id = " + resourceTable + "."
 					+ resourceIdColumn + " AND read_access.resource_version = " + resourceTable + ".version"
-					+ " AND (read_access.organization_id = ? OR read_access.access_type = 'ALL')) > 0";
+					+ " AND (read_access.organization_id = ? OR read_access.access_type = 'ALL'))";
 		else
 			return "FALSE";
 	}
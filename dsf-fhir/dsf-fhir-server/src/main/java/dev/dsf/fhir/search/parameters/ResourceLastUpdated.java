@@ -13,7 +13,9 @@ public class ResourceLastUpdated<R extends Resource> extends AbstractDateTimePar
 
 	public ResourceLastUpdated(Class<R> resourceType, String resourceColumn)
 	{
-		super(resourceType, PARAMETER_NAME, resourceColumn + "->'meta'->>'lastUpdated'", fromInstant(
-				r -> r.hasMeta() && r.getMeta().hasLastUpdatedElement(), r -> r.getMeta().getLastUpdatedElement()));
+		// text_to_timestamp(text) is used by expression indexes on tasks and questionnaire_responses
+		super(resourceType, PARAMETER_NAME, "text_to_timestamp(" + resourceColumn + "->'meta'->>'lastUpdated')",
+				fromInstant(r -> r.hasMeta() && r.getMeta().hasLastUpdatedElement(),
+						r -> r.getMeta().getLastUpdatedElement()));
 	}
 }
@@ -49,7 +49,8 @@ public abstract class AbstractSearchParameter<R extends Resource>
 			String queryParameterSortValue)
 	{
 		SortDirection direction = SortDirection.fromString(queryParameterSortValue);
-		return new SearchQuerySortParameterConfiguration(getSortSql(direction.getSqlModifierWithSpacePrefix()),
+		// direction modifier appended by the configuration, ORDER BY and keyset pagination use the same direction
+		return new SearchQuerySortParameterConfiguration(getSortSql(SortDirection.ASC.getSqlModifierWithSpacePrefix()),
 				parameterName, direction);
 	}
 
@@ -0,0 +1,166 @@
+package dev.dsf.fhir.service;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.hl7.fhir.r4.model.Resource;
+
+import dev.dsf.common.status.metrics.MetricsCollector;
+import dev.dsf.common.status.metrics.MetricsSource;
+
+/**
+ * Results of literal external reference checks and resolves, keyed by absolute reference URL including the version.
+ * Existing and not existing targets are cached for the configured time to live, errors while contacting the remote
+ * server for at most {@value #MAX_ERROR_TIME_TO_LIVE_MILLIS} ms. The cache is limited to {@value #MAX_CACHE_SIZE}
+ * entries, expired entries are removed once the limit is reached, the cache is cleared if no entry has expired.
+ */
+public class LiteralExternalReferenceCache implements MetricsSource
+{
+	private static final int MAX_CACHE_SIZE = 10_000;
+	private static final long MAX_ERROR_TIME_TO_LIVE_MILLIS = 10_000;
+
+	public static enum Status
+	{
+		EXISTS, NOT_FOUND, ERROR
+	}
+
+	/**
+	 * @param status
+	 *            not <code>null</code>
+	 * @param resource
+	 *            not <code>null</code>, empty if status not {@link Status#EXISTS} or only the existence was checked
+	 */
+	public static record Result(Status status, Optional<Resource> resource)
+	{
+		public static Result exists()
+		{
+			return new Result(Status.EXISTS, Optional.empty());
+		}
+
+		public static Result exists(Resource resource)
+		{
+			return new Result(Status.EXISTS, Optional.of(resource));
+		}
+
+		public static Result notFound()
+		{
+			return new Result(Status.NOT_FOUND, Optional.empty());
+		}
+
+		public static Result error()
+		{
+			return new Result(Status.ERROR, Optional.empty());
+		}
+	}
+
+	private static record Entry(Result result, long expiresAt)
+	{
+	}
+
+	private final long timeToLiveMillis;
+	private final long errorTimeToLiveMillis;
+	private final LongSupplier currentTimeMillis;
+
+	private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder expired = new LongAdder();
+
+	/**
+	 * @param timeToLiveMillis
+	 *            values &lt; 1 disable the cache
+	 */
+	public LiteralExternalReferenceCache(long timeToLiveMillis)
+	{
+		this(timeToLiveMillis, System::currentTimeMillis);
+	}
+
+	LiteralExternalReferenceCache(long timeToLiveMillis, LongSupplier currentTimeMillis)
+	{
+		this.timeToLiveMillis = timeToLiveMillis;
+		this.errorTimeToLiveMillis = Math.min(timeToLiveMillis, MAX_ERROR_TIME_TO_LIVE_MILLIS);
+		this.currentTimeMillis = Objects.requireNonNull(currentTimeMillis, "currentTimeMillis");
+	}
+
+	/**
+	 * @param url
+	 *            not <code>null</code>, absolute reference URL
+	 * @return cached result, resources are returned as copies
+	 */
+	public Optional<Result> get(String url)
+	{
+		Objects.requireNonNull(url, "url");
+
+		if (timeToLiveMillis <= 0)
+			return Optional.empty();
+
+		Entry entry = entries.get(url);
+		if (entry == null)
+		{
+			misses.increment();
+			return Optional.empty();
+		}
+		else if (entry.expiresAt() <= currentTimeMillis.getAsLong())
+		{
+			entries.remove(url, entry);
+			expired.increment();
+			misses.increment();
+			return Optional.empty();
+		}
+
+		hits.increment();
+
+		Result result = entry.result();
+		return Optional.of(new Result(result.status(), result.resource().map(Resource::copy)));
+	}
+
+	/**
+	 * Existing targets without resource do not replace not expired cached results with resource.
+	 *
+	 * @param url
+	 *            not <code>null</code>, absolute reference URL
+	 * @param result
+	 *            not <code>null</code>
+	 */
+	public void put(String url, Result result)
+	{
+		Objects.requireNonNull(url, "url");
+		Objects.requireNonNull(result, "result");
+
+		if (timeToLiveMillis <= 0)
+			return;
+
+		long now = currentTimeMillis.getAsLong();
+		if (entries.size() >= MAX_CACHE_SIZE)
+		{
+			entries.values().removeIf(e -> e.expiresAt() <= now);
+
+			if (entries.size() >= MAX_CACHE_SIZE)
+				entries.clear();
+		}
+
+		long expiresAt = now + (Status.ERROR.equals(result.status()) ? errorTimeToLiveMillis : timeToLiveMillis);
+		Entry entry = new Entry(new Result(result.status(), result.resource().map(Resource::copy)), expiresAt);
+
+		entries.merge(url, entry, (oldEntry,
+				newEntry) -> Status.EXISTS.equals(newEntry.result().status()) && newEntry.result().resource().isEmpty()
+						&& oldEntry.result().resource().isPresent() && oldEntry.expiresAt() > now ? oldEntry
+								: newEntry);
+	}
+
+	@Override
+	public void collectMetrics(MetricsCollector collector)
+	{
+		collector.gauge("dsf_fhir_external_reference_cache_size", "Cached literal external reference results",
+				entries.size());
+		collector.counter("dsf_fhir_external_reference_cache_hits_total", "Results found in cache", hits.sum());
+		collector.counter("dsf_fhir_external_reference_cache_misses_total", "Results not found in cache", misses.sum());
+		collector.counter("dsf_fhir_external_reference_cache_expired_total", "Results removed after time to live",
+				expired.sum());
+	}
+}
@@ -1,8 +1,11 @@
 package dev.dsf.fhir.service;
 
 import java.sql.Connection;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
+import org.hl7.fhir.r4.model.IdType;
 import org.hl7.fhir.r4.model.OperationOutcome;
 import org.hl7.fhir.r4.model.Resource;
 
@@ -76,6 +79,55 @@ public interface ReferenceResolver
 	Optional<OperationOutcome> checkLiteralInternalReference(Resource resource, ResourceReference resourceReference,
 			Connection connection, Integer bundleIndex) throws IllegalArgumentException;
 
+	/**
+	 * Checks the existence of the targets of all given literal internal references with one database query per target
+	 * resource type.
+	 *
+	 * @param references
+	 *            not <code>null</code>, references not of type
+	 *            {@link ResourceReference.ReferenceType#LITERAL_INTERNAL},
+	 *            {@link ResourceReference.ReferenceType#RELATED_ARTEFACT_LITERAL_INTERNAL_URL} or
+	 *            {@link ResourceReference.ReferenceType#ATTACHMENT_LITERAL_INTERNAL_URL} are ignored
+	 * @param connection
+	 *            not <code>null</code>
+	 * @return unqualified ids of existing and not deleted reference targets, to be used with
+	 *         {@link #checkLiteralInternalReference(Resource, ResourceReference, Integer, Set)}
+	 */
+	Set<IdType> getExistingLiteralInternalReferenceTargets(Collection<ResourceReference> references,
+			Connection connection);
+
+	/**
+	 * @param resource
+	 *            not <code>null</code>
+	 * @param resourceReference
+	 *            not <code>null</code>
+	 * @param bundleIndex
+	 *            may be <code>null</code>
+	 * @param existingTargets
+	 *            not <code>null</code>, result of
+	 *            {@link #getExistingLiteralInternalReferenceTargets(Collection, Connection)} including the given
+	 *            <b>resourceReference</b>
+	 * @return {@link Optional#empty()} if the reference could be resolved
+	 * @throws IllegalArgumentException
+	 *             if the reference is not of type {@link ResourceReference.ReferenceType#LITERAL_INTERNAL}
+	 * @see ResourceReference#getType(String)
+	 */
+	Optional<OperationOutcome> checkLiteralInternalReference(Resource resource, ResourceReference resourceReference,
+			Integer bundleIndex, Set<IdType> existingTargets) throws IllegalArgumentException;
+
+	/**
+	 * Checks literal external references in parallel, with a timeout per remote server, and caches the results for
+	 * {@link #checkLiteralExternalReference(Resource, ResourceReference, Integer)}. Must only be called for references
+	 * of authorized resources, errors are reported by the subsequent checks.
+	 *
+	 * @param references
+	 *            not <code>null</code>, references not of type
+	 *            {@link ResourceReference.ReferenceType#LITERAL_EXTERNAL},
+	 *            {@link ResourceReference.ReferenceType#RELATED_ARTEFACT_LITERAL_EXTERNAL_URL} or
+	 *            {@link ResourceReference.ReferenceType#ATTACHMENT_LITERAL_EXTERNAL_URL} are ignored
+	 */
+	void prefetchLiteralExternalReferences(Collection<ResourceReference> references);
+
 	/**
 	 * @param resource
 	 *            not <code>null</code>
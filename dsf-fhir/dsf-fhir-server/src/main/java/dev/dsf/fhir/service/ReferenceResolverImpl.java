@@ -2,14 +2,31 @@ package dev.dsf.fhir.service;
 
 import java.sql.Connection;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.hl7.fhir.r4.model.IdType;
@@ -18,6 +35,7 @@ import org.hl7.fhir.r4.model.OperationOutcome;
 import org.hl7.fhir.r4.model.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.util.UriComponents;
@@ -36,20 +54,58 @@ import dev.dsf.fhir.search.PartialResult;
 import dev.dsf.fhir.search.SearchQuery;
 import dev.dsf.fhir.search.SearchQueryParameterError;
 import dev.dsf.fhir.service.ResourceReference.ReferenceType;
-
-public class ReferenceResolverImpl implements ReferenceResolver, InitializingBean
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response.Status;
+
+/**
+ * Results of literal external reference checks and resolves are cached in a {@link LiteralExternalReferenceCache}.
+ * {@link #prefetchLiteralExternalReferences(Collection)} checks literal external references in parallel, with a timeout
+ * and separate threads per remote server. Errors after a timeout are not cached, references not checked in time are
+ * checked again while executing the request.
+ */
+public class ReferenceResolverImpl implements ReferenceResolver, InitializingBean, DisposableBean
 {
 	private static final Logger logger = LoggerFactory.getLogger(ReferenceResolverImpl.class);
 
+	private static final EnumSet<ReferenceType> LITERAL_EXTERNAL_TYPES = EnumSet.of(ReferenceType.LITERAL_EXTERNAL,
+			ReferenceType.RELATED_ARTEFACT_LITERAL_EXTERNAL_URL, ReferenceType.ATTACHMENT_LITERAL_EXTERNAL_URL);
+
 	private final String serverBase;
 	private final DaoProvider daoProvider;
 	private final ResponseGenerator responseGenerator;
 	private final ExceptionHandler exceptionHandler;
 	private final ClientProvider clientProvider;
 	private final ParameterConverter parameterConverter;
-
+	private final LiteralExternalReferenceCache literalExternalReferenceCache;
+	private final int literalExternalReferenceThreads;
+	private final long literalExternalReferenceTimeoutMillis;
+	private final ConcurrentMap<String, ExecutorService> executorsByServerBase = new ConcurrentHashMap<>();
+
+	/**
+	 * @param serverBase
+	 *            not <code>null</code>
+	 * @param daoProvider
+	 *            not <code>null</code>
+	 * @param responseGenerator
+	 *            not <code>null</code>
+	 * @param exceptionHandler
+	 *            not <code>null</code>
+	 * @param clientProvider
+	 *            not <code>null</code>
+	 * @param parameterConverter
+	 *            not <code>null</code>
+	 * @param literalExternalReferenceCache
+	 *            not <code>null</code>
+	 * @param literalExternalReferenceThreads
+	 *            number of threads per remote server checking literal external references in parallel, values &lt; 1
+	 *            disable parallel checks
+	 * @param literalExternalReferenceTimeoutMillis
+	 *            timeout per remote server for parallel checks
+	 */
 	public ReferenceResolverImpl(String serverBase, DaoProvider daoProvider, ResponseGenerator responseGenerator,
-			ExceptionHandler exceptionHandler, ClientProvider clientProvider, ParameterConverter parameterConverter)
+			ExceptionHandler exceptionHandler, ClientProvider clientProvider, ParameterConverter parameterConverter,
+			LiteralExternalReferenceCache literalExternalReferenceCache, int literalExternalReferenceThreads,
+			long literalExternalReferenceTimeoutMillis)
 	{
 		this.serverBase = serverBase;
 		this.daoProvider = daoProvider;
@@ -57,6 +113,9 @@ public class ReferenceResolverImpl implements ReferenceResolver, InitializingBea
 		this.exceptionHandler = exceptionHandler;
 		this.clientProvider = clientProvider;
 		this.parameterConverter = parameterConverter;
+		this.literalExternalReferenceCache = literalExternalReferenceCache;
+		this.literalExternalReferenceThreads = literalExternalReferenceThreads;
+		this.literalExternalReferenceTimeoutMillis = literalExternalReferenceTimeoutMillis;
 	}
 
 	@Override
@@ -68,6 +127,43 @@ public class ReferenceResolverImpl implements ReferenceResolver, InitializingBea
 		Objects.requireNonNull(exceptionHandler, "exceptionHandler");
 		Objects.requireNonNull(clientProvider, "clientProvider");
 		Objects.requireNonNull(parameterConverter, "parameterConverter");
+		Objects.requireNonNull(literalExternalReferenceCache, "literalExternalReferenceCache");
+	}
+
+	@Override
+	public void destroy() throws Exception
+	{
+		executorsByServerBase.values().forEach(ExecutorService::shutdown);
+
+		try
+		{
+			for (ExecutorService executor : executorsByServerBase.values())
+			{
+				if (!executor.awaitTermination(60, TimeUnit.SECONDS))
+				{
+					executor.shutdownNow();
+					if (!executor.awaitTermination(60, TimeUnit.SECONDS))
+						logger.warn("ReferenceResolver executor did not terminate");
+				}
+			}
+		}
+		catch (InterruptedException ie)
+		{
+			executorsByServerBase.values().forEach(ExecutorService::shutdownNow);
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// a slow remote server only blocks its own threads, idle threads are stopped
+	private ExecutorService getExecutor(String remoteServerBase)
+	{
+		return executorsByServerBase.computeIfAbsent(remoteServerBase, b ->
+		{
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(literalExternalReferenceThreads,
+					literalExternalReferenceThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+			executor.allowCoreThreadTimeOut(true);
+			return executor;
+		});
 	}
 
 	@Override
@@ -105,8 +201,7 @@ public class ReferenceResolverImpl implements ReferenceResolver, InitializingBea
 
 	private boolean literalExternalReferenceCanBeCheckedAndResolved(ResourceReference reference)
 	{
-		if (!EnumSet.of(ReferenceType.LITERAL_EXTERNAL, ReferenceType.RELATED_ARTEFACT_LITERAL_EXTERNAL_URL,
-				ReferenceType.ATTACHMENT_LITERAL_EXTERNAL_URL).contains(reference.getType(serverBase)))
+		if (!LITERAL_EXTERNAL_TYPES.contains(reference.getType(serverBase)))
 		{
 			throw new IllegalArgumentException(
 					"Not a literal external reference, related artifact literal external url or attachment literal external url");
@@ -200,42 +295,69 @@ public class ReferenceResolverImpl implements ReferenceResolver, InitializingBea
 				ReferenceType.RELATED_ARTEFACT_LITERAL_EXTERNAL_URL, ReferenceType.ATTACHMENT_LITERAL_EXTERNAL_URL);
 
 		String remoteServerBase = reference.getServerBase(serverBase);
+		String referenceValue = reference.getValue();
+
+		Optional<LiteralExternalReferenceCache.Result> cached = literalExternalReferenceCache.get(referenceValue);
+		if (cached.isPresent() && (cached.get().resource().isPresent()
+				|| !LiteralExternalReferenceCache.Status.EXISTS.equals(cached.get().status())))
+		{
+			logger.debug("Literal external reference {} resolved from cache: {}", referenceValue,
+					cached.get().status());
+			return cached.get().resource();
+		}
+
 		Optional<FhirWebserviceClient> client = clientProvider.getClient(remoteServerBase);
 
 		if (client.isEmpty())
 		{
 			logger.warn("Literal external reference {} could not be resolved, no remote client for server base {}",
-					reference.getReference().getReference(), remoteServerBase);
+					referenceValue, remoteServerBase);
 			return Optional.empty();
 		}
 		else
 		{
-			IdType referenceId = new IdType(reference.getReference().getReference());
-			logger.debug("Trying to resolve literal external reference {}, at remote server {}",
-					reference.getReference().getReference(), remoteServerBase);
+			IdType referenceId = new IdType(referenceValue);
+			logger.debug("Trying to resolve literal external reference {}, at remote server {}", referenceValue,
+					remoteServerBase);
 
 			try
 			{
+				Resource resource;
 				if (!referenceId.hasVersionIdPart())
-					return Optional
-							.ofNullable(client.get().read(referenceId.getResourceType(), referenceId.getIdPart()));
+					resource = client.get().read(referenceId.getResourceType(), referenceId.getIdPart());
 				else
-					return Optional.ofNullable(client.get().read(referenceId.getResourceType(), referenceId.getIdPart(),
-							referenceId.getVersionIdPart()));
+					resource = client.get().read(referenceId.getResourceType(), referenceId.getIdPart(),
+							referenceId.getVersionIdPart());
+
+				if (resource != null)
+					literalExternalReferenceCache.put(referenceValue,
+							LiteralExternalReferenceCache.Result.exists(resource));
+
+				return Optional.ofNullable(resource);
 			}
 			catch (Exception e)
 			{
-				logger.debug("Literal external reference {} could not be resolved on remote server {}",
-						reference.getReference().getReference(), remoteServerBase, e);
+				logger.debug("Literal external reference {} could not be resolved on remote server {}", referenceValue,
+						remoteServerBase, e);
 				logger.error("Literal external reference {} could not be resolved on remote server {}: {} - {}",
-						reference.getReference().getReference(), remoteServerBase, e.getClass().getName(),
-						e.getMessage());
+						referenceValue, remoteServerBase, e.getClass().getName(), e.getMessage());
+
+				literalExternalReferenceCache.put(referenceValue,
+						isNotFound(e) ? LiteralExternalReferenceCache.Result.notFound()
+								: LiteralExternalReferenceCache.Result.error());
 
 				return Optional.empty();
 			}
 		}
 	}
 
+	private boolean isNotFound(Exception e)
+	{
+		return e instanceof WebApplicationException w && w.getResponse() != null
+				&& (Status.NOT_FOUND.getStatusCode() == w.getResponse().getStatus()
+						|| Status.GONE.getStatusCode() == w.getResponse().getStatus());
+	}
+
 	private Optional<Resource> resolveConditionalReference(Identity identity, ResourceReference reference,
 			Connection connection)
 	{
@@ -404,6 +526,28 @@ public class ReferenceResolverImpl implements ReferenceResolver, InitializingBea
 				ReferenceType.RELATED_ARTEFACT_LITERAL_INTERNAL_URL, ReferenceType.ATTACHMENT_LITERAL_INTERNAL_URL);
 
 		IdType id = new IdType(reference.getValue());
+		return checkLiteralInternalReference(resource, reference, bundleIndex, id,
+				d -> exceptionHandler.handleSqlException(
+						() -> d.existsNotDeletedWithTransaction(connection, id.getIdPart(), id.getVersionIdPart())));
+	}
+
+	@Override
+	public Optional<OperationOutcome> checkLiteralInternalReference(Resource resource, ResourceReference reference,
+			Integer bundleIndex, Set<IdType> existingTargets) throws IllegalArgumentException
+	{
+		Objects.requireNonNull(resource, "resource");
+		Objects.requireNonNull(reference, "reference");
+		Objects.requireNonNull(existingTargets, "existingTargets");
+		throwIfReferenceTypeUnexpected(reference.getType(serverBase), ReferenceType.LITERAL_INTERNAL,
+				ReferenceType.RELATED_ARTEFACT_LITERAL_INTERNAL_URL, ReferenceType.ATTACHMENT_LITERAL_INTERNAL_URL);
+
+		IdType id = new IdType(reference.getValue()).toUnqualified();
+		return checkLiteralInternalReference(resource, reference, bundleIndex, id, d -> existingTargets.contains(id));
+	}
+
+	private Optional<OperationOutcome> checkLiteralInternalReference(Resource resource, ResourceReference reference,
+			Integer bundleIndex, IdType id, Predicate<ResourceDao<?>> exists)
+	{
 		Optional<ResourceDao<?>> referenceDao = daoProvider.getDao(id.getResourceType());
 
 		if (referenceDao.isEmpty())
@@ -416,15 +560,35 @@ public class ReferenceResolverImpl implements ReferenceResolver, InitializingBea
 				return Optional.of(
 						responseGenerator.referenceTargetTypeNotSupportedByResource(bundleIndex, resource, reference));
 
-			boolean exists = exceptionHandler.handleSqlException(
-					() -> d.existsNotDeletedWithTransaction(connection, id.getIdPart(), id.getVersionIdPart()));
-			if (!exists)
+			if (!exists.test(d))
 				return Optional.of(responseGenerator.referenceTargetNotFoundLocally(bundleIndex, resource, reference));
 		}
 
 		return Optional.empty();
 	}
 
+	@Override
+	public Set<IdType> getExistingLiteralInternalReferenceTargets(Collection<ResourceReference> references,
+			Connection connection)
+	{
+		Objects.requireNonNull(references, "references");
+		Objects.requireNonNull(connection, "connection");
+
+		Map<String, List<IdType>> targetsByType = references.stream()
+				.filter(r -> EnumSet
+						.of(ReferenceType.LITERAL_INTERNAL, ReferenceType.RELATED_ARTEFACT_LITERAL_INTERNAL_URL,
+								ReferenceType.ATTACHMENT_LITERAL_INTERNAL_URL)
+						.contains(r.getType(serverBase)))
+				.map(r -> new IdType(r.getValue()).toUnqualified()).distinct()
+				.collect(Collectors.groupingBy(IdType::getResourceType));
+
+		Set<IdType> existing = new HashSet<>();
+		targetsByType.forEach((type, ids) -> daoProvider.getDao(type).ifPresent(d -> existing.addAll(
+				exceptionHandler.handleSqlException(() -> d.existingNotDeletedWithTransaction(connection, ids)))));
+
+		return existing;
+	}
+
 	@Override
 	public Optional<OperationOutcome> checkLiteralExternalReference(Resource resource,
 			ResourceReference resourceReference) throws IllegalArgumentException
@@ -443,48 +607,174 @@ public class ReferenceResolverImpl implements ReferenceResolver, InitializingBea
 
 		String remoteServerBase = reference.getServerBase(serverBase);
 		String referenceValue = reference.getValue();
-		Optional<FhirWebserviceClient> client = clientProvider.getClient(remoteServerBase);
 
-		if (client.isEmpty())
+		Optional<LiteralExternalReferenceCache.Status> status = literalExternalReferenceCache.get(referenceValue)
+				.map(LiteralExternalReferenceCache.Result::status);
+		if (status.isEmpty())
 		{
-			logger.error("Literal external reference {} could not be resolved, no remote client for server base {}",
-					referenceValue, remoteServerBase);
-			return Optional
-					.of(responseGenerator.noEndpointFoundForLiteralExternalReference(bundleIndex, resource, reference));
+			Optional<FhirWebserviceClient> client = clientProvider.getClient(remoteServerBase);
+
+			if (client.isEmpty())
+			{
+				logger.error("Literal external reference {} could not be resolved, no remote client for server base {}",
+						referenceValue, remoteServerBase);
+				return Optional.of(
+						responseGenerator.noEndpointFoundForLiteralExternalReference(bundleIndex, resource, reference));
+			}
+
+			LiteralExternalReferenceCache.Result result = checkLiteralExternalReference(client.get(), referenceValue,
+					remoteServerBase);
+			literalExternalReferenceCache.put(referenceValue, result);
+			status = Optional.of(result.status());
 		}
 		else
+			logger.debug("Literal external reference {} checked from cache: {}", referenceValue, status.get());
+
+		return switch (status.get())
 		{
-			IdType referenceId = new IdType(referenceValue);
-			logger.debug("Trying to resolve literal external reference {}, at remote server {}", referenceValue,
-					remoteServerBase);
+			// resource exists - no error response
+			case EXISTS -> Optional.empty();
+
+			case NOT_FOUND -> Optional.of(responseGenerator.referenceTargetNotFoundRemote(bundleIndex, resource,
+					reference, remoteServerBase));
+
+			default -> Optional.of(responseGenerator.referenceTargetCouldNotBeResolvedOnRemote(bundleIndex, resource,
+					reference, remoteServerBase));
+		};
+	}
+
+	private LiteralExternalReferenceCache.Result checkLiteralExternalReference(FhirWebserviceClient client,
+			String referenceValue, String remoteServerBase)
+	{
+		IdType referenceId = new IdType(referenceValue);
+		logger.debug("Trying to resolve literal external reference {}, at remote server {}", referenceValue,
+				remoteServerBase);
+
+		try
+		{
+			if (client.exists(referenceId))
+				return LiteralExternalReferenceCache.Result.exists();
+			else
+			{
+				logger.warn(
+						"Literal external reference {} could not be resolved, resource not found on remote server {}",
+						referenceValue, remoteServerBase);
+				return LiteralExternalReferenceCache.Result.notFound();
+			}
+		}
+		catch (Exception e)
+		{
+			logger.debug("Literal external reference {} could not be resolved on remote server {}", referenceValue,
+					remoteServerBase, e);
+			logger.error("Literal external reference {} could not be resolved on remote server {}: {} - {}",
+					referenceValue, remoteServerBase, e.getClass().getName(), e.getMessage());
+			return LiteralExternalReferenceCache.Result.error();
+		}
+	}
+
+	private static record Prefetch(String remoteServerBase, long deadline, AtomicBoolean timedOut,
+			Map<String, Future<?>> futures)
+	{
+	}
+
+	@Override
+	public void prefetchLiteralExternalReferences(Collection<ResourceReference> references)
+	{
+		Objects.requireNonNull(references, "references");
+
+		if (literalExternalReferenceThreads < 1)
+			return;
+
+		Map<String, Set<String>> referenceValuesByServerBase = references.stream()
+				.filter(r -> LITERAL_EXTERNAL_TYPES.contains(r.getType(serverBase)))
+				.filter(r -> literalExternalReferenceCache.get(r.getValue()).isEmpty())
+				.collect(Collectors.groupingBy(r -> r.getServerBase(serverBase), LinkedHashMap::new,
+						Collectors.mapping(ResourceReference::getValue, Collectors.toCollection(LinkedHashSet::new))));
+
+		if (referenceValuesByServerBase.isEmpty())
+			return;
+
+		logger.debug("Checking literal external references at {} remote servers in parallel",
+				referenceValuesByServerBase.size());
+
+		List<Prefetch> prefetches = referenceValuesByServerBase.entrySet().stream()
+				.flatMap(e -> startPrefetch(e.getKey(), e.getValue()).stream()).toList();
+
+		prefetches.forEach(this::awaitPrefetch);
+	}
+
+	// no endpoint errors reported by checkLiteralExternalReference
+	private Optional<Prefetch> startPrefetch(String remoteServerBase, Set<String> referenceValues)
+	{
+		Optional<FhirWebserviceClient> client = clientProvider.getClient(remoteServerBase);
+		if (client.isEmpty())
+			return Optional.empty();
+
+		ExecutorService executor = getExecutor(remoteServerBase);
+		AtomicBoolean timedOut = new AtomicBoolean(false);
+		long deadline = System.currentTimeMillis() + literalExternalReferenceTimeoutMillis;
+
+		Map<String, Future<?>> futures = new LinkedHashMap<>();
+		try
+		{
+			for (String referenceValue : referenceValues)
+				futures.put(referenceValue,
+						executor.submit(() -> prefetch(client.get(), referenceValue, remoteServerBase, timedOut)));
+		}
+		catch (RejectedExecutionException e)
+		{
+			logger.debug("Unable to check literal external references at {} in parallel", remoteServerBase, e);
+			logger.warn("Unable to check literal external references at {} in parallel: {} - {}", remoteServerBase,
+					e.getClass().getName(), e.getMessage());
+		}
 
+		return Optional.of(new Prefetch(remoteServerBase, deadline, timedOut, futures));
+	}
+
+	private void prefetch(FhirWebserviceClient client, String referenceValue, String remoteServerBase,
+			AtomicBoolean timedOut)
+	{
+		if (timedOut.get())
+			return;
+
+		LiteralExternalReferenceCache.Result result = checkLiteralExternalReference(client, referenceValue,
+				remoteServerBase);
+
+		// errors caused by timeout or cancel not cached, reference checked again while executing the request
+		if (LiteralExternalReferenceCache.Status.ERROR.equals(result.status())
+				&& (timedOut.get() || Thread.currentThread().isInterrupted()))
+			return;
+
+		literalExternalReferenceCache.put(referenceValue, result);
+	}
+
+	private void awaitPrefetch(Prefetch prefetch)
+	{
+		prefetch.futures().forEach((referenceValue, future) ->
+		{
 			try
 			{
-				if (client.get().exists(referenceId))
-				{
-					// resource exists - no error response
-					return Optional.empty();
-				}
-				else
-				{
-					logger.warn(
-							"Literal external reference {} could not be resolved, resource not found on remote server {}",
-							referenceValue, remoteServerBase);
-					return Optional.of(responseGenerator.referenceTargetNotFoundRemote(bundleIndex, resource, reference,
-							remoteServerBase));
-				}
+				future.get(Math.max(0, prefetch.deadline() - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
 			}
-			catch (Exception e)
+			catch (TimeoutException e)
 			{
-				logger.debug("Literal external reference {} could not be resolved on remote server {}", referenceValue,
-						remoteServerBase, e);
-				logger.error("Literal external reference {} could not be resolved on remote server {}: {} - {}",
-						referenceValue, remoteServerBase, e.getClass().getName(), e.getMessage());
+				prefetch.timedOut().set(true);
+				future.cancel(true);
 
-				return Optional.of(responseGenerator.referenceTargetCouldNotBeResolvedOnRemote(bundleIndex, resource,
-						reference, remoteServerBase));
+				logger.warn("Literal external reference {} not checked in parallel, remote server {}: timeout",
+						referenceValue, prefetch.remoteServerBase());
 			}
-		}
+			catch (ExecutionException e)
+			{
+				logger.debug("Error while checking literal external reference {}", referenceValue, e.getCause());
+			}
+			catch (InterruptedException e)
+			{
+				prefetch.timedOut().set(true);
+				future.cancel(true);
+				Thread.currentThread().interrupt();
+			}
+		});
 	}
 
 	@Override
@@ -0,0 +1,210 @@
+package dev.dsf.fhir.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.hl7.fhir.r4.model.Base;
+import org.hl7.fhir.r4.model.CodeSystem;
+import org.hl7.fhir.r4.model.Measure;
+import org.hl7.fhir.r4.model.Narrative;
+import org.hl7.fhir.r4.model.Property;
+import org.hl7.fhir.r4.model.Questionnaire;
+import org.hl7.fhir.r4.model.Reference;
+import org.hl7.fhir.r4.model.Resource;
+import org.hl7.fhir.r4.model.StructureDefinition;
+import org.hl7.fhir.r4.model.ValueSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ca.uhn.fhir.validation.ValidationResult;
+import dev.dsf.common.status.metrics.MetricsCollector;
+import dev.dsf.common.status.metrics.MetricsSource;
+import dev.dsf.fhir.event.Event;
+import dev.dsf.fhir.event.EventHandler;
+import dev.dsf.fhir.validation.ResourceValidator;
+import dev.dsf.fhir.validation.ResourceValidatorWithCompiledProfiles;
+
+/**
+ * {@link ResourceValidator} memoizing validation results of identical resources, keyed by resource type and a SHA-256
+ * hash computed while walking the resource's element tree, without encoding the resource. The cache is cleared if
+ * resources used while validating (StructureDefinition, CodeSystem, ValueSet, Questionnaire and Measure) are created,
+ * updated or deleted. The cache is cleared once the configured max size is reached. A
+ * {@link ResourceValidatorWithCompiledProfiles} delegate is cleared together with the cache.
+ */
+public class ResourceValidatorWithCache implements ResourceValidator, EventHandler, MetricsSource
+{
+	private static final Logger logger = LoggerFactory.getLogger(ResourceValidatorWithCache.class);
+
+	private static final Set<Class<? extends Resource>> VALIDATION_RESOURCE_TYPES = Set.of(StructureDefinition.class,
+			CodeSystem.class, ValueSet.class, Questionnaire.class, Measure.class);
+
+	private final ResourceValidator delegate;
+	private final int maxSize;
+
+	private final ConcurrentMap<String, ValidationResult> results = new ConcurrentHashMap<>();
+	private final AtomicLong generation = new AtomicLong();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+
+	/**
+	 * @param delegate
+	 *            not <code>null</code>
+	 * @param maxSize
+	 *            values &lt; 1 disable the cache, all resources are validated by the delegate
+	 */
+	public ResourceValidatorWithCache(ResourceValidator delegate, int maxSize)
+	{
+		this.delegate = Objects.requireNonNull(delegate, "delegate");
+		this.maxSize = maxSize;
+	}
+
+	@Override
+	public ValidationResult validate(Resource resource)
+	{
+		if (maxSize < 1 || resource == null)
+			return delegate.validate(resource);
+
+		String key = resource.fhirType() + ":" + hash(resource);
+
+		ValidationResult cached = results.get(key);
+		if (cached != null)
+		{
+			hits.increment();
+			return cached;
+		}
+
+		misses.increment();
+
+		long generation = this.generation.get();
+		ValidationResult result = delegate.validate(resource);
+
+		// not caching results of validations running while the cache was invalidated
+		if (generation == this.generation.get())
+		{
+			if (results.size() >= maxSize)
+				results.clear();
+
+			results.put(key, result);
+		}
+
+		return result;
+	}
+
+	private String hash(Resource resource)
+	{
+		try
+		{
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			update(digest, resource, Collections.newSetFromMap(new IdentityHashMap<>()));
+			return Base64.getEncoder().encodeToString(digest.digest());
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * @param path
+	 *            elements currently walked, to stop at cyclic {@link Reference#getResource()} references
+	 */
+	private void update(MessageDigest digest, Base value, Set<Base> path)
+	{
+		update(digest, value.fhirType());
+
+		if (!path.add(value))
+		{
+			update(digest, "cycle");
+			return;
+		}
+
+		if (value.isPrimitive())
+			update(digest, value.primitiveValue());
+
+		// not part of Base.children()
+		if (value instanceof Narrative n)
+			update(digest, n.getDivAsString());
+		else if (value instanceof Reference r && r.getResource() instanceof Base b)
+		{
+			update(digest, "resource");
+			update(digest, b, path);
+		}
+
+		for (Property property : value.children())
+		{
+			List<Base> values = property.getValues().stream().filter(v -> v != null && !v.isEmpty()).toList();
+			if (values.isEmpty())
+				continue;
+
+			update(digest, property.getName());
+			digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(values.size()).array());
+
+			for (Base v : values)
+				update(digest, v, path);
+		}
+
+		path.remove(value);
+	}
+
+	private void update(MessageDigest digest, String value)
+	{
+		if (value == null)
+			digest.update((byte) 0);
+		else
+		{
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			digest.update((byte) 1);
+			digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+			digest.update(bytes);
+		}
+	}
+
+	@Override
+	public void handleEvent(Event event)
+	{
+		if (event == null || !VALIDATION_RESOURCE_TYPES.contains(event.getResourceType()))
+			return;
+
+		generation.incrementAndGet();
+		results.clear();
+		invalidations.increment();
+
+		if (delegate instanceof ResourceValidatorWithCompiledProfiles compiled)
+			compiled.clear();
+
+		logger.debug("Validation result cache cleared, {} {} {}", event.getResourceType().getSimpleName(),
+				event.getId(), event.getClass().getSimpleName());
+	}
+
+	@Override
+	public void collectMetrics(MetricsCollector collector)
+	{
+		collector.gauge("dsf_fhir_validation_cache_size", "Cached validation results", results.size());
+		collector.counter("dsf_fhir_validation_cache_hits_total", "Validation results found in cache", hits.sum());
+		collector.counter("dsf_fhir_validation_cache_misses_total", "Resources validated", misses.sum());
+		collector.counter("dsf_fhir_validation_cache_invalidations_total", "Cache clear operations",
+				invalidations.sum());
+
+		if (delegate instanceof ResourceValidatorWithCompiledProfiles compiled)
+		{
+			collector.counter("dsf_fhir_validation_compiled_total", "Resources accepted by compiled profile checks",
+					compiled.getCompiledValidations());
+			collector.counter("dsf_fhir_validation_full_total", "Resources validated by HAPI validator",
+					compiled.getDelegateValidations());
+		}
+	}
+}
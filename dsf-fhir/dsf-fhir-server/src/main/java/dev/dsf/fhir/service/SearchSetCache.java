@@ -0,0 +1,200 @@
+package dev.dsf.fhir.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.hl7.fhir.r4.model.ActivityDefinition;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.CodeSystem;
+import org.hl7.fhir.r4.model.Endpoint;
+import org.hl7.fhir.r4.model.NamingSystem;
+import org.hl7.fhir.r4.model.Organization;
+import org.hl7.fhir.r4.model.OrganizationAffiliation;
+import org.hl7.fhir.r4.model.Resource;
+import org.hl7.fhir.r4.model.StructureDefinition;
+import org.hl7.fhir.r4.model.ValueSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import dev.dsf.common.auth.conf.Identity;
+import dev.dsf.common.status.metrics.MetricsCollector;
+import dev.dsf.common.status.metrics.MetricsSource;
+import dev.dsf.fhir.authentication.FhirServerRole;
+import dev.dsf.fhir.event.Event;
+import dev.dsf.fhir.event.EventHandler;
+import dev.dsf.fhir.search.SearchQuery;
+import jakarta.ws.rs.core.MultivaluedMap;
+
+/**
+ * Caches search set {@link Bundle}s of rarely changing resource types (ActivityDefinition, CodeSystem, Endpoint,
+ * NamingSystem, Organization, StructureDefinition and ValueSet), keyed by resource type, read access of the current
+ * identity and normalized query parameters. Cached search sets of a resource type are removed if resources of this type
+ * are created, updated or deleted. All search sets are removed if Organization or OrganizationAffiliation resources are
+ * modified, as role based read access depends on them. Searches with <code>_include</code> or <code>_revinclude</code>
+ * parameters are not cached. Cached search sets are returned as shallow copies with a new timestamp, entries and
+ * resources are shared and must not be modified.
+ */
+public class SearchSetCache implements EventHandler, MetricsSource
+{
+	private static final Logger logger = LoggerFactory.getLogger(SearchSetCache.class);
+
+	private static final Set<Class<? extends Resource>> CACHED_RESOURCE_TYPES = Set.of(ActivityDefinition.class,
+			CodeSystem.class, Endpoint.class, NamingSystem.class, Organization.class, StructureDefinition.class,
+			ValueSet.class);
+
+	private static final Set<Class<? extends Resource>> READ_ACCESS_RESOURCE_TYPES = Set.of(Organization.class,
+			OrganizationAffiliation.class);
+
+	private final int maxSize;
+
+	private final ConcurrentMap<Class<? extends Resource>, ConcurrentMap<String, Bundle>> searchSets = new ConcurrentHashMap<>();
+	private final AtomicLong generation = new AtomicLong();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+
+	/**
+	 * @param maxSize
+	 *            max number of cached search sets per resource type, values &lt; 1 disable the cache
+	 */
+	public SearchSetCache(int maxSize)
+	{
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @param resourceType
+	 *            not <code>null</code>
+	 * @param identity
+	 *            not <code>null</code>
+	 * @param queryParameters
+	 *            not <code>null</code>
+	 * @param rawJson
+	 *            <code>true</code> if unmodified JSON was requested
+	 * @param search
+	 *            not <code>null</code>, executes the search if no cached search set is found
+	 * @return shallow copy of the cached search set or new search set
+	 */
+	public Bundle getSearchSet(Class<? extends Resource> resourceType, Identity identity,
+			MultivaluedMap<String, String> queryParameters, boolean rawJson, Supplier<Bundle> search)
+	{
+		Objects.requireNonNull(resourceType, "resourceType");
+		Objects.requireNonNull(identity, "identity");
+		Objects.requireNonNull(queryParameters, "queryParameters");
+		Objects.requireNonNull(search, "search");
+
+		if (maxSize < 1 || !CACHED_RESOURCE_TYPES.contains(resourceType) || hasIncludeParameters(queryParameters))
+			return search.get();
+
+		String key = toReadAccessKey(identity) + "|" + rawJson + "|" + toQueryKey(queryParameters);
+		ConcurrentMap<String, Bundle> cache = searchSets.computeIfAbsent(resourceType, t -> new ConcurrentHashMap<>());
+
+		Bundle cached = cache.get(key);
+		if (cached != null)
+		{
+			hits.increment();
+			return copyOf(cached);
+		}
+
+		misses.increment();
+
+		long generation = this.generation.get();
+		Bundle searchSet = search.get();
+
+		// not caching search sets created while the cache was invalidated
+		if (searchSet != null && generation == this.generation.get())
+		{
+			if (cache.size() >= maxSize)
+				cache.clear();
+
+			cache.put(key, searchSet);
+		}
+
+		return searchSet;
+	}
+
+	private Bundle copyOf(Bundle cached)
+	{
+		Bundle copy = new Bundle();
+		copy.setTimestamp(new Date());
+		copy.setType(cached.getType());
+		if (cached.hasTotal())
+			copy.setTotal(cached.getTotal());
+		copy.setLink(new ArrayList<>(cached.getLink()));
+		copy.setEntry(new ArrayList<>(cached.getEntry()));
+
+		return copy;
+	}
+
+	private boolean hasIncludeParameters(MultivaluedMap<String, String> queryParameters)
+	{
+		return queryParameters.keySet().stream().anyMatch(
+				p -> p.startsWith(SearchQuery.PARAMETER_INCLUDE) || p.startsWith(SearchQuery.PARAMETER_REVINCLUDE));
+	}
+
+	private String toReadAccessKey(Identity identity)
+	{
+		// same values as used by the identity filters to restrict search results via the read_access table
+		if (!identity.hasDsfRole(FhirServerRole.READ))
+			return "NONE";
+		else
+			return (identity.isLocalIdentity() ? "LOCAL:" : "REMOTE:")
+					+ identity.getOrganization().getIdElement().getIdPart();
+	}
+
+	private String toQueryKey(MultivaluedMap<String, String> queryParameters)
+	{
+		// parameter names sorted, value order of repeated parameters kept
+		return queryParameters.entrySet().stream().sorted(Map.Entry.comparingByKey())
+				.map(e -> e.getKey() + "=" + String.join("&" + e.getKey() + "=", e.getValue()))
+				.collect(Collectors.joining("&"));
+	}
+
+	@Override
+	public void handleEvent(Event event)
+	{
+		if (event == null)
+			return;
+
+		if (READ_ACCESS_RESOURCE_TYPES.contains(event.getResourceType()))
+		{
+			generation.incrementAndGet();
+			searchSets.values().forEach(Map::clear);
+			invalidations.increment();
+
+			logger.debug("Search set cache cleared, {} {} {}", event.getResourceType().getSimpleName(), event.getId(),
+					event.getClass().getSimpleName());
+		}
+		else if (CACHED_RESOURCE_TYPES.contains(event.getResourceType()))
+		{
+			generation.incrementAndGet();
+			ConcurrentMap<String, Bundle> cache = searchSets.get(event.getResourceType());
+			if (cache != null)
+				cache.clear();
+			invalidations.increment();
+
+			logger.debug("Search set cache for {} cleared, {} {}", event.getResourceType().getSimpleName(),
+					event.getId(), event.getClass().getSimpleName());
+		}
+	}
+
+	@Override
+	public void collectMetrics(MetricsCollector collector)
+	{
+		collector.gauge("dsf_fhir_search_cache_size", "Cached search sets",
+				searchSets.values().stream().mapToInt(Map::size).sum());
+		collector.counter("dsf_fhir_search_cache_hits_total", "Search sets found in cache", hits.sum());
+		collector.counter("dsf_fhir_search_cache_misses_total", "Searches executed", misses.sum());
+		collector.counter("dsf_fhir_search_cache_invalidations_total", "Cache clear operations", invalidations.sum());
+	}
+}
@@ -180,7 +180,8 @@ public class ValidationSupportWithFetchFromDbWithTransaction implements IValidat
 
 	public Measure fetchMeasure(String url)
 	{
-		Optional<Measure> measure = throwRuntimeException(() -> measureDao.readByUrlAndVersion(url));
+		Optional<Measure> measure = throwRuntimeException(
+				() -> measureDao.readByUrlAndVersionWithTransaction(connection, url));
 		if (measure.isPresent())
 			return measure.get();
 		else
@@ -189,7 +190,8 @@ public class ValidationSupportWithFetchFromDbWithTransaction implements IValidat
 
 	public Questionnaire fetchQuestionnaire(String url)
 	{
-		Optional<Questionnaire> questionnaire = throwRuntimeException(() -> questionnaireDao.readByUrlAndVersion(url));
+		Optional<Questionnaire> questionnaire = throwRuntimeException(
+				() -> questionnaireDao.readByUrlAndVersionWithTransaction(connection, url));
 		return questionnaire.orElse(null);
 	}
 }
@@ -0,0 +1,313 @@
+package dev.dsf.fhir.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.CodeSystem;
+import org.hl7.fhir.r4.model.Measure;
+import org.hl7.fhir.r4.model.Questionnaire;
+import org.hl7.fhir.r4.model.Resource;
+import org.hl7.fhir.r4.model.StructureDefinition;
+import org.hl7.fhir.r4.model.ValueSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.support.ConceptValidationOptions;
+import ca.uhn.fhir.context.support.IValidationSupport;
+import ca.uhn.fhir.context.support.ValidationSupportContext;
+import ca.uhn.fhir.context.support.ValueSetExpansionOptions;
+import dev.dsf.fhir.event.Event;
+import dev.dsf.fhir.event.EventHandler;
+import dev.dsf.fhir.event.ResourceCreatedEvent;
+import dev.dsf.fhir.event.ResourceDeletedEvent;
+import dev.dsf.fhir.event.ResourceUpdatedEvent;
+
+/**
+ * Copy-on-write overlay of the long-lived, shared {@link IValidationSupport} for a single DB transaction. Conformance
+ * resources, questionnaires and measures created, updated or deleted within the transaction are kept in the overlay,
+ * all other lookups are answered by the shared validation support. Resources not known to the shared validation support
+ * are read using the transaction's DB connection, in order to find resources created within the transaction.
+ */
+public class ValidationSupportWithTransaction implements IValidationSupport, EventHandler
+{
+	private static final Logger logger = LoggerFactory.getLogger(ValidationSupportWithTransaction.class);
+
+	private final FhirContext context;
+	private final IValidationSupport delegate;
+	private final IValidationSupport transactionDelegate;
+
+	private final ConcurrentMap<String, StructureDefinition> structureDefinitions = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, CodeSystem> codeSystems = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, ValueSet> valueSets = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Questionnaire> questionnaires = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Measure> measures = new ConcurrentHashMap<>();
+
+	private final Set<String> deletedIds = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * @param context
+	 *            not <code>null</code>
+	 * @param delegate
+	 *            not <code>null</code>, shared validation support
+	 * @param transactionDelegate
+	 *            not <code>null</code>, validation support reading from the DB within the current transaction
+	 */
+	public ValidationSupportWithTransaction(FhirContext context, IValidationSupport delegate,
+			IValidationSupport transactionDelegate)
+	{
+		this.context = Objects.requireNonNull(context, "context");
+		this.delegate = Objects.requireNonNull(delegate, "delegate");
+		this.transactionDelegate = Objects.requireNonNull(transactionDelegate, "transactionDelegate");
+	}
+
+	@Override
+	public FhirContext getFhirContext()
+	{
+		return context;
+	}
+
+	@Override
+	public void handleEvent(Event event)
+	{
+		if (event == null)
+			return;
+
+		logger.trace("handling event {}", event.getClass().getSimpleName());
+
+		if (event instanceof ResourceCreatedEvent || event instanceof ResourceUpdatedEvent)
+			add(event.getResource());
+		else if (event instanceof ResourceDeletedEvent)
+			remove(event.getResourceType(), event.getId());
+	}
+
+	private void add(Resource resource)
+	{
+		if (resource instanceof CodeSystem c)
+			doAdd(c, codeSystems, CodeSystem::getUrl, CodeSystem::getVersion);
+		else if (resource instanceof StructureDefinition s)
+			doAdd(s, structureDefinitions, StructureDefinition::getUrl, StructureDefinition::getVersion);
+		else if (resource instanceof ValueSet v)
+			doAdd(v, valueSets, ValueSet::getUrl, ValueSet::getVersion);
+		else if (resource instanceof Questionnaire q)
+			doAdd(q, questionnaires, Questionnaire::getUrl, Questionnaire::getVersion);
+		else if (resource instanceof Measure m)
+			doAdd(m, measures, Measure::getUrl, Measure::getVersion);
+	}
+
+	private <R extends Resource> void doAdd(R resource, ConcurrentMap<String, R> overlay, Function<R, String> toUrl,
+			Function<R, String> toVersion)
+	{
+		String url = toUrl.apply(resource);
+		String version = toVersion.apply(resource);
+
+		if (url == null)
+			return;
+
+		overlay.put(url, resource);
+		if (version != null)
+			overlay.put(url + "|" + version, resource);
+
+		if (resource.hasIdElement() && resource.getIdElement().hasIdPart())
+			deletedIds.remove(resource.getIdElement().getIdPart());
+	}
+
+	private void remove(Class<? extends Resource> type, String id)
+	{
+		if (CodeSystem.class.equals(type))
+			doRemove(id, codeSystems);
+		else if (StructureDefinition.class.equals(type))
+			doRemove(id, structureDefinitions);
+		else if (ValueSet.class.equals(type))
+			doRemove(id, valueSets);
+		else if (Questionnaire.class.equals(type))
+			doRemove(id, questionnaires);
+		else if (Measure.class.equals(type))
+			doRemove(id, measures);
+	}
+
+	private <R extends Resource> void doRemove(String id, ConcurrentMap<String, R> overlay)
+	{
+		deletedIds.add(id);
+		overlay.values().removeIf(r -> id.equals(r.getIdElement().getIdPart()));
+	}
+
+	private boolean isDeleted(IBaseResource resource)
+	{
+		return resource != null && !deletedIds.isEmpty() && resource.getIdElement().hasIdPart()
+				&& deletedIds.contains(resource.getIdElement().getIdPart());
+	}
+
+	@Override
+	public List<IBaseResource> fetchAllConformanceResources()
+	{
+		List<IBaseResource> shared = delegate.fetchAllConformanceResources();
+
+		List<IBaseResource> all = new ArrayList<>();
+		all.addAll(withOverlay(shared, codeSystems, CodeSystem.class, CodeSystem::getUrl));
+		all.addAll(withOverlay(shared, structureDefinitions, StructureDefinition.class, StructureDefinition::getUrl));
+		all.addAll(withOverlay(shared, valueSets, ValueSet.class, ValueSet::getUrl));
+
+		return all;
+	}
+
+	@Override
+	public <T extends IBaseResource> List<T> fetchAllStructureDefinitions()
+	{
+		@SuppressWarnings("unchecked")
+		List<T> all = (List<T>) withOverlay(delegate.fetchAllStructureDefinitions(), structureDefinitions,
+				StructureDefinition.class, StructureDefinition::getUrl);
+		return all;
+	}
+
+	private <R extends Resource> List<R> withOverlay(List<? extends IBaseResource> shared,
+			ConcurrentMap<String, R> overlay, Class<R> type, Function<R, String> toUrl)
+	{
+		if (shared == null)
+			shared = List.of();
+
+		Map<String, R> byUrl = new LinkedHashMap<>();
+		shared.stream().filter(type::isInstance).map(type::cast).filter(r -> !isDeleted(r))
+				.forEach(r -> byUrl.put(toUrl.apply(r), r));
+		overlay.values().forEach(r -> byUrl.put(toUrl.apply(r), r));
+
+		return new ArrayList<>(byUrl.values());
+	}
+
+	@Override
+	public IBaseResource fetchStructureDefinition(String url)
+	{
+		if (url == null || url.isBlank())
+			return null;
+
+		return fetch(structureDefinitions, url, () -> delegate.fetchStructureDefinition(url),
+				() -> transactionDelegate.fetchStructureDefinition(url));
+	}
+
+	@Override
+	public boolean isCodeSystemSupported(ValidationSupportContext theRootValidationSupport, String url)
+	{
+		return fetchCodeSystem(url) != null;
+	}
+
+	@Override
+	public IBaseResource fetchCodeSystem(String url)
+	{
+		if (url == null || url.isBlank())
+			return null;
+
+		return fetch(codeSystems, url, () -> delegate.fetchCodeSystem(url),
+				() -> transactionDelegate.fetchCodeSystem(url));
+	}
+
+	@Override
+	public boolean isValueSetSupported(ValidationSupportContext theRootValidationSupport, String url)
+	{
+		return fetchValueSet(url) != null;
+	}
+
+	@Override
+	public IBaseResource fetchValueSet(String url)
+	{
+		if (url == null || url.isBlank())
+			return null;
+
+		return fetch(valueSets, url, () -> delegate.fetchValueSet(url), () -> transactionDelegate.fetchValueSet(url));
+	}
+
+	private <R extends Resource> IBaseResource fetch(Map<String, R> overlay, String url,
+			Supplier<IBaseResource> fetchShared, Supplier<IBaseResource> fetchWithTransaction)
+	{
+		R fromOverlay = overlay.get(url);
+		if (fromOverlay != null)
+			return fromOverlay;
+
+		IBaseResource shared = fetchShared.get();
+		if (shared != null && !isDeleted(shared))
+			return shared;
+
+		logger.trace("Fetching '{}' within transaction", url);
+
+		IBaseResource fromTransaction = fetchWithTransaction.get();
+		return isDeleted(fromTransaction) ? null : fromTransaction;
+	}
+
+	@Override
+	public <T extends IBaseResource> T fetchResource(Class<T> theClass, String theUri)
+	{
+		if (StructureDefinition.class.equals(theClass) || CodeSystem.class.equals(theClass)
+				|| ValueSet.class.equals(theClass))
+			return IValidationSupport.super.fetchResource(theClass, theUri);
+
+		if (theUri == null || theUri.isBlank())
+			return null;
+
+		Map<String, ? extends Resource> overlay = Questionnaire.class.equals(theClass) ? questionnaires
+				: Measure.class.equals(theClass) ? measures : Map.of();
+
+		return theClass.cast(fetch(overlay, theUri, () -> delegate.fetchResource(theClass, theUri),
+				() -> transactionDelegate.fetchResource(theClass, theUri)));
+	}
+
+	@Override
+	public ValueSetExpansionOutcome expandValueSet(ValidationSupportContext theRootValidationSupport,
+			ValueSetExpansionOptions theExpansionOptions, IBaseResource theValueSetToExpand)
+	{
+		return delegate.expandValueSet(theRootValidationSupport, theExpansionOptions, theValueSetToExpand);
+	}
+
+	@Override
+	public CodeValidationResult validateCode(ValidationSupportContext theRootValidationSupport,
+			ConceptValidationOptions theOptions, String theCodeSystem, String theCode, String theDisplay,
+			String theValueSetUrl)
+	{
+		return delegate.validateCode(theRootValidationSupport, theOptions, theCodeSystem, theCode, theDisplay,
+				theValueSetUrl);
+	}
+
+	@Override
+	public CodeValidationResult validateCodeInValueSet(ValidationSupportContext theRootValidationSupport,
+			ConceptValidationOptions theOptions, String theCodeSystem, String theCode, String theDisplay,
+			IBaseResource theValueSet)
+	{
+		return delegate.validateCodeInValueSet(theRootValidationSupport, theOptions, theCodeSystem, theCode, theDisplay,
+				theValueSet);
+	}
+
+	@Override
+	public LookupCodeResult lookupCode(ValidationSupportContext theRootValidationSupport, String theSystem,
+			String theCode)
+	{
+		return delegate.lookupCode(theRootValidationSupport, theSystem, theCode);
+	}
+
+	@Override
+	public IBaseResource generateSnapshot(ValidationSupportContext theRootValidationSupport, IBaseResource theInput,
+			String theUrl, String theWebUrl, String theProfileName)
+	{
+		return delegate.generateSnapshot(theRootValidationSupport, theInput, theUrl, theWebUrl, theProfileName);
+	}
+
+	/**
+	 * Clears the transaction overlay only, the shared validation support is not invalidated.
+	 */
+	@Override
+	public void invalidateCaches()
+	{
+		structureDefinitions.clear();
+		codeSystems.clear();
+		valueSets.clear();
+		questionnaires.clear();
+		measures.clear();
+		deletedIds.clear();
+	}
+}
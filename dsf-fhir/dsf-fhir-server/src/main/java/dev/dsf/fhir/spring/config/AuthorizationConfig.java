@@ -32,6 +32,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import dev.dsf.fhir.authorization.ActivityDefinitionAuthorizationRule;
+import dev.dsf.fhir.authorization.AuthorizationCacheImpl;
 import dev.dsf.fhir.authorization.AuthorizationRule;
 import dev.dsf.fhir.authorization.AuthorizationRuleProvider;
 import dev.dsf.fhir.authorization.AuthorizationRuleProviderImpl;
@@ -95,6 +96,12 @@ public class AuthorizationConfig
 		return new ReadAccessHelperImpl();
 	}
 
+	@Bean
+	public AuthorizationCacheImpl authorizationCache()
+	{
+		return new AuthorizationCacheImpl();
+	}
+
 	@Bean
 	public ProcessAuthorizationHelper processAuthorizationHelper()
 	{
@@ -106,7 +113,7 @@ public class AuthorizationConfig
 	{
 		return new ActivityDefinitionAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter(), processAuthorizationHelper());
+				helperConfig.parameterConverter(), authorizationCache(), processAuthorizationHelper());
 	}
 
 	@Bean
@@ -114,7 +121,7 @@ public class AuthorizationConfig
 	{
 		return new BinaryAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter(),
+				helperConfig.parameterConverter(), authorizationCache(),
 
 				// Binary and Task not supported as securityContext rule
 				activityDefinitionAuthorizationRule(), bundleAuthorizationRule(), codeSystemAuthorizationRule(),
@@ -133,7 +140,7 @@ public class AuthorizationConfig
 	{
 		return new BundleAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -141,7 +148,7 @@ public class AuthorizationConfig
 	{
 		return new CodeSystemAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -149,7 +156,7 @@ public class AuthorizationConfig
 	{
 		return new DocumentReferenceAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -157,7 +164,7 @@ public class AuthorizationConfig
 	{
 		return new EndpointAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -165,7 +172,7 @@ public class AuthorizationConfig
 	{
 		return new GroupAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -173,7 +180,7 @@ public class AuthorizationConfig
 	{
 		return new HealthcareServiceAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -181,7 +188,7 @@ public class AuthorizationConfig
 	{
 		return new LibraryAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -189,7 +196,7 @@ public class AuthorizationConfig
 	{
 		return new LocationAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -197,7 +204,7 @@ public class AuthorizationConfig
 	{
 		return new MeasureAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -205,7 +212,7 @@ public class AuthorizationConfig
 	{
 		return new MeasureReportAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -213,7 +220,7 @@ public class AuthorizationConfig
 	{
 		return new NamingSystemAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -221,7 +228,7 @@ public class AuthorizationConfig
 	{
 		return new OrganizationAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -229,7 +236,8 @@ public class AuthorizationConfig
 	{
 		return new OrganizationAffiliationAuthorizationRule(daoConfig.daoProvider(),
 				propertiesConfig.getServerBaseUrl(), referenceConfig.referenceResolver(),
-				authenticationConfig.organizationProvider(), readAccessHelper(), helperConfig.parameterConverter());
+				authenticationConfig.organizationProvider(), readAccessHelper(), helperConfig.parameterConverter(),
+				authorizationCache());
 	}
 
 	@Bean
@@ -237,7 +245,7 @@ public class AuthorizationConfig
 	{
 		return new PatientAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -245,7 +253,7 @@ public class AuthorizationConfig
 	{
 		return new PractitionerAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -253,7 +261,7 @@ public class AuthorizationConfig
 	{
 		return new PractitionerRoleAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -261,7 +269,7 @@ public class AuthorizationConfig
 	{
 		return new ProvenanceAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -269,7 +277,7 @@ public class AuthorizationConfig
 	{
 		return new QuestionnaireAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -277,7 +285,7 @@ public class AuthorizationConfig
 	{
 		return new QuestionnaireResponseAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -285,7 +293,7 @@ public class AuthorizationConfig
 	{
 		return new ResearchStudyAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -293,7 +301,7 @@ public class AuthorizationConfig
 	{
 		return new StructureDefinitionAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -301,7 +309,7 @@ public class AuthorizationConfig
 	{
 		return new SubscriptionAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
@@ -309,7 +317,8 @@ public class AuthorizationConfig
 	{
 		return new TaskAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter(), processAuthorizationHelper(), fhirConfig.fhirContext());
+				helperConfig.parameterConverter(), authorizationCache(), processAuthorizationHelper(),
+				fhirConfig.fhirContext());
 	}
 
 	@Bean
@@ -317,7 +326,7 @@ public class AuthorizationConfig
 	{
 		return new ValueSetAuthorizationRule(daoConfig.daoProvider(), propertiesConfig.getServerBaseUrl(),
 				referenceConfig.referenceResolver(), authenticationConfig.organizationProvider(), readAccessHelper(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), authorizationCache());
 	}
 
 	@Bean
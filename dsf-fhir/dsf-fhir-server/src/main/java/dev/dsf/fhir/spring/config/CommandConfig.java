@@ -11,6 +11,8 @@ import org.springframework.context.annotation.Scope;
 import ca.uhn.fhir.context.support.IValidationSupport;
 import dev.dsf.fhir.dao.command.CommandFactory;
 import dev.dsf.fhir.dao.command.CommandFactoryImpl;
+import dev.dsf.fhir.dao.command.PreValidationHelper;
+import dev.dsf.fhir.dao.command.PreValidationHelperImpl;
 import dev.dsf.fhir.dao.command.TransactionEventHandler;
 import dev.dsf.fhir.dao.command.TransactionResources;
 import dev.dsf.fhir.dao.command.ValidationHelper;
@@ -59,13 +61,25 @@ public class CommandConfig
 				helperConfig.responseGenerator(), helperConfig.exceptionHandler(), helperConfig.parameterConverter(),
 				eventConfig.eventManager(), eventConfig.eventGenerator(), authorizationConfig.authorizationHelper(),
 				validationConfig.validationHelper(), snapshotConfig.snapshotGenerator(),
-				this::transactionResourceFactory);
+				this::transactionResourceFactory, preValidationHelper());
+	}
+
+	@Bean
+	public PreValidationHelper preValidationHelper()
+	{
+		return new PreValidationHelperImpl(validationConfig.resourceValidator(),
+				propertiesConfig.getBundleValidationThreads());
 	}
 
 	@Bean
 	@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
-	public TransactionResources transactionResourceFactory(Connection connection)
+	public TransactionResources transactionResourceFactory(Connection connection, boolean conformanceResourcesModified)
 	{
+		// shared validator sufficient if no conformance resources, questionnaires or measures modified
+		if (!conformanceResourcesModified)
+			return new TransactionResources(validationConfig.validationHelper(), snapshotConfig.snapshotGenerator(),
+					new TransactionEventHandler(eventConfig.eventManager(), null));
+
 		IValidationSupport validationSupport = validationConfig.validationSupportWithTransaction(connection);
 
 		ValidationHelper validationHelper = new ValidationHelperImpl(
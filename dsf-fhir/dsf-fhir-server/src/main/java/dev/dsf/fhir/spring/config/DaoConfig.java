@@ -1,5 +1,9 @@
 package dev.dsf.fhir.spring.config;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import javax.sql.DataSource;
 
 import org.apache.commons.dbcp2.BasicDataSource;
@@ -8,6 +12,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import dev.dsf.common.db.BasicDataSourceWithStatistics;
+import dev.dsf.common.db.DataSourceMetrics;
 import dev.dsf.common.db.DataSourceWithLogger;
 import dev.dsf.fhir.dao.ActivityDefinitionDao;
 import dev.dsf.fhir.dao.BinaryDao;
@@ -72,6 +78,8 @@ import dev.dsf.fhir.dao.provider.DaoProviderImpl;
 @Configuration
 public class DaoConfig
 {
+	private static final Duration POOL_EVICTION_INTERVAL = Duration.ofSeconds(30);
+
 	@Autowired
 	private PropertiesConfig propertiesConfig;
 
@@ -81,15 +89,17 @@ public class DaoConfig
 	@Bean
 	public DataSource dataSource()
 	{
-		BasicDataSource dataSource = new BasicDataSource();
+		BasicDataSource dataSource = new BasicDataSourceWithStatistics();
 		dataSource.setDriverClassName(Driver.class.getName());
 		dataSource.setUrl(propertiesConfig.getDbUrl());
 		dataSource.setUsername(propertiesConfig.getDbUsername());
 		dataSource.setPassword(toString(propertiesConfig.getDbPassword()));
 		dataSource.setDefaultReadOnly(true);
 
-		dataSource.setTestOnBorrow(true);
-		dataSource.setValidationQuery("SELECT 1");
+		// batched inserts from transaction and batch bundles send as multi-row insert statements
+		dataSource.addConnectionProperty("reWriteBatchedInserts", "true");
+
+		configurePool(dataSource, propertiesConfig.getDbPoolMinIdle());
 
 		return new DataSourceWithLogger(propertiesConfig.getDebugLogMessageDbStatement(), dataSource);
 	}
@@ -97,19 +107,47 @@ public class DaoConfig
 	@Bean
 	public DataSource permanentDeleteDataSource()
 	{
-		BasicDataSource dataSource = new BasicDataSource();
+		BasicDataSource dataSource = new BasicDataSourceWithStatistics();
 		dataSource.setDriverClassName(Driver.class.getName());
 		dataSource.setUrl(propertiesConfig.getDbUrl());
 		dataSource.setUsername(propertiesConfig.getDbPermanentDeleteUsername());
 		dataSource.setPassword(toString(propertiesConfig.getDbPermanentDeletePassword()));
 		dataSource.setDefaultReadOnly(true);
 
-		dataSource.setTestOnBorrow(true);
-		dataSource.setValidationQuery("SELECT 1");
+		// permanent deletes are rare, no idle connections kept open
+		configurePool(dataSource, 0);
 
 		return new DataSourceWithLogger(propertiesConfig.getDebugLogMessageDbStatement(), dataSource);
 	}
 
+	@Bean
+	public DataSourceMetrics dataSourceMetrics()
+	{
+		Map<String, DataSource> dataSourcesByPool = new LinkedHashMap<>();
+		dataSourcesByPool.put("fhir", dataSource());
+		dataSourcesByPool.put("fhir_permanent_delete", permanentDeleteDataSource());
+
+		return new DataSourceMetrics(dataSourcesByPool);
+	}
+
+	private void configurePool(BasicDataSource dataSource, int minIdle)
+	{
+		dataSource.setMaxTotal(propertiesConfig.getDbPoolMaxTotal());
+		dataSource.setMaxIdle(propertiesConfig.getDbPoolMaxTotal());
+		dataSource.setMinIdle(minIdle);
+		dataSource.setMaxWait(Duration.ofMillis(propertiesConfig.getDbPoolMaxWaitMillis()));
+
+		dataSource.setPoolPreparedStatements(propertiesConfig.getDbPoolStatementCacheSize() > 0);
+		dataSource.setMaxOpenPreparedStatements(propertiesConfig.getDbPoolStatementCacheSize());
+
+		// no validation query on borrow, idle connections validated via Connection.isValid by the evictor,
+		// connections with fatal errors not returned to the pool
+		dataSource.setTestOnBorrow(false);
+		dataSource.setTestWhileIdle(true);
+		dataSource.setDurationBetweenEvictionRuns(POOL_EVICTION_INTERVAL);
+		dataSource.setFastFailValidation(true);
+	}
+
 	private String toString(char[] password)
 	{
 		return password == null ? null : String.valueOf(password);
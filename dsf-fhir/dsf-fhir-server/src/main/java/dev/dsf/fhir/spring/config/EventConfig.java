@@ -12,17 +12,20 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import dev.dsf.fhir.dao.ResourceDao;
+import dev.dsf.fhir.event.EventDispatcher;
 import dev.dsf.fhir.event.EventGenerator;
 import dev.dsf.fhir.event.EventHandler;
 import dev.dsf.fhir.event.EventManager;
 import dev.dsf.fhir.event.EventManagerImpl;
 import dev.dsf.fhir.subscription.MatcherFactory;
-import dev.dsf.fhir.subscription.WebSocketSubscriptionManager;
 import dev.dsf.fhir.subscription.WebSocketSubscriptionManagerImpl;
 
 @Configuration
 public class EventConfig
 {
+	@Autowired
+	private PropertiesConfig propertiesConfig;
+
 	@Autowired
 	private DaoConfig daoConfig;
 
@@ -38,6 +41,9 @@ public class EventConfig
 	@Autowired
 	private ValidationConfig validationConfig;
 
+	@Autowired
+	private AuthenticationConfig authenticationConfig;
+
 	@Bean
 	public MatcherFactory matcherFactory()
 	{
@@ -82,17 +88,28 @@ public class EventConfig
 	public EventManager eventManager()
 	{
 		List<EventHandler> eventHandlers = Stream
-				.of(validationConfig.validationSupport(), webSocketSubscriptionManager())
+				.of(validationConfig.validationSupport(), validationConfig.resourceValidator(),
+						authenticationConfig.identityProvider(), authorizationConfig.authorizationCache(),
+						helperConfig.searchSetCache(), webSocketEventDispatcher())
 				.filter(o -> o instanceof EventHandler).map(o -> (EventHandler) o).collect(Collectors.toList());
 
 		return new EventManagerImpl(eventHandlers);
 	}
 
 	@Bean
-	public WebSocketSubscriptionManager webSocketSubscriptionManager()
+	public EventDispatcher webSocketEventDispatcher()
+	{
+		return new EventDispatcher(webSocketSubscriptionManager(),
+				webSocketSubscriptionManager()::closeSessionsMissingEvents, "dsf_fhir_websocket_events",
+				propertiesConfig.getWebsocketEventBufferSize(), propertiesConfig.getWebsocketEventBufferTimeout());
+	}
+
+	@Bean
+	public WebSocketSubscriptionManagerImpl webSocketSubscriptionManager()
 	{
 		return new WebSocketSubscriptionManagerImpl(daoConfig.daoProvider(), helperConfig.exceptionHandler(),
-				matcherFactory(), fhirConfig.fhirContext(), authorizationConfig.authorizationRuleProvider());
+				matcherFactory(), fhirConfig.fhirContext(), authorizationConfig.authorizationRuleProvider(),
+				propertiesConfig.getWebsocketMaxPendingMessages());
 	}
 
 	@Bean
@@ -7,6 +7,7 @@ import org.springframework.context.annotation.Configuration;
 import dev.dsf.fhir.help.ExceptionHandler;
 import dev.dsf.fhir.help.ParameterConverter;
 import dev.dsf.fhir.help.ResponseGenerator;
+import dev.dsf.fhir.service.SearchSetCache;
 
 @Configuration
 public class HelperConfig
@@ -31,4 +32,10 @@ public class HelperConfig
 	{
 		return new ParameterConverter(exceptionHandler());
 	}
+
+	@Bean
+	public SearchSetCache searchSetCache()
+	{
+		return new SearchSetCache(propertiesConfig.getSearchCacheSize());
+	}
 }
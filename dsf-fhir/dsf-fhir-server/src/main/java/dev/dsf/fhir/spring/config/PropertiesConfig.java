@@ -49,6 +49,22 @@ public class PropertiesConfig implements InitializingBean
 	@Value("${dev.dsf.fhir.db.user.permanent.delete.password}")
 	private char[] dbPermanentDeletePassword;
 
+	@Documentation(description = "Max number of database connections of the DSF FHIR server, applies separately to the connection pools of both database users", recommendation = "Increase together with the max number of connections configured for the database server")
+	@Value("${dev.dsf.fhir.db.pool.max.total:20}")
+	private int dbPoolMaxTotal;
+
+	@Documentation(description = "Min number of idle database connections kept open by the DSF FHIR server")
+	@Value("${dev.dsf.fhir.db.pool.min.idle:2}")
+	private int dbPoolMinIdle;
+
+	@Documentation(description = "Max time in milliseconds to wait for a free database connection if all connections are in use, requests fail after waiting; a negative value means waiting indefinitely")
+	@Value("${dev.dsf.fhir.db.pool.max.wait:30000}")
+	private long dbPoolMaxWaitMillis;
+
+	@Documentation(description = "Max number of prepared statements cached per database connection; `0` disables the statement cache")
+	@Value("${dev.dsf.fhir.db.pool.statement.cache.size:200}")
+	private int dbPoolStatementCacheSize;
+
 	@Documentation(required = true, description = "Base address of this DSF FHIR server to read/store fhir resources", example = "https://foo.bar/fhir")
 	@Value("${dev.dsf.fhir.server.base.url}")
 	private String serverBaseUrl;
@@ -57,6 +73,38 @@ public class PropertiesConfig implements InitializingBean
 	@Value("${dev.dsf.fhir.server.page.count:20}")
 	private int defaultPageCount;
 
+	@Documentation(description = "Maximum size in bytes of binary data uploaded to the DSF FHIR server via Binary create and update requests with non FHIR content types, requests exceeding the limit are answered with status 413; a negative value disables the limit; the default of 512 MiB stays below the 1 GiB PostgreSQL limit for binary data")
+	@Value("${dev.dsf.fhir.server.binary.max.size:536870912}")
+	private long binaryMaxSize;
+
+	@Documentation(description = "Number of threads used to validate resources of batch and transaction bundles in parallel before the bundle entries are executed; `0` disables parallel validation")
+	@Value("${dev.dsf.fhir.server.bundle.validation.threads:4}")
+	private int bundleValidationThreads;
+
+	@Documentation(description = "Max number of validation results cached for identical resources, the cache is cleared if StructureDefinition, CodeSystem, ValueSet, Questionnaire or Measure resources are modified; `0` disables the cache")
+	@Value("${dev.dsf.fhir.server.validation.cache.size:1000}")
+	private int validationCacheSize;
+
+	@Documentation(description = "Set to `false` to validate all resources with the HAPI FHIR validator; if `true` resources are first checked against precompiled StructureDefinition snapshots, resources not accepted by the compiled checks are validated with the HAPI FHIR validator")
+	@Value("${dev.dsf.fhir.server.validation.compiled.profiles:true}")
+	private boolean validationCompiledProfiles;
+
+	@Documentation(description = "Max number of search result bundles cached per resource type for ActivityDefinition, CodeSystem, Endpoint, NamingSystem, Organization, StructureDefinition and ValueSet searches, cached results are removed if resources of the same type are modified; `0` disables the cache")
+	@Value("${dev.dsf.fhir.server.search.cache.size:100}")
+	private int searchCacheSize;
+
+	@Documentation(description = "Number of events and event batches buffered for websocket subscriptions; if the buffer is full, requests creating, updating or deleting resources wait up to `DEV_DSF_FHIR_SERVER_WEBSOCKET_EVENT_BUFFER_TIMEOUT` milliseconds before events are dropped; websocket clients of subscriptions possibly matching dropped events are disconnected and expected to reconnect")
+	@Value("${dev.dsf.fhir.server.websocket.event.buffer.size:1000}")
+	private int websocketEventBufferSize;
+
+	@Documentation(description = "Max time in milliseconds to wait for free space in the websocket subscription event buffer")
+	@Value("${dev.dsf.fhir.server.websocket.event.buffer.timeout:1000}")
+	private int websocketEventBufferTimeout;
+
+	@Documentation(description = "Max number of messages not yet sent to a websocket client, clients exceeding the limit are disconnected and expected to reconnect")
+	@Value("${dev.dsf.fhir.server.websocket.max.pending.messages:100}")
+	private int websocketMaxPendingMessages;
+
 	@Documentation(description = "UI theme parameter, adds a color indicator to the ui to distinguish `dev`, `test` and `prod` environments im configured; supported values: `dev`, `test` and `prod`")
 	@Value("${dev.dsf.fhir.server.ui.theme:}")
 	private String uiTheme;
@@ -101,6 +149,14 @@ public class PropertiesConfig implements InitializingBean
 	@Value("${dev.dsf.fhir.client.verbose:false}")
 	private boolean webserviceClientVerbose;
 
+	@Documentation(description = "Number of threads per remote DSF FHIR server used to check literal external references of created or updated resources in parallel; `0` disables parallel checks")
+	@Value("${dev.dsf.fhir.client.reference.check.threads:4}")
+	private int webserviceClientReferenceCheckThreads;
+
+	@Documentation(description = "Time in milliseconds results of literal external reference checks are cached; `0` disables the cache", recommendation = "Change default value only if resources on remote DSF FHIR servers are deleted frequently")
+	@Value("${dev.dsf.fhir.client.reference.cache.ttl:300000}")
+	private long webserviceClientReferenceCacheTimeToLive;
+
 	@Documentation(description = "To disable static resource caching, set to `false`", recommendation = "Only set to `false` for development")
 	@Value("${dev.dsf.fhir.server.static.resource.cache:true}")
 	private boolean staticResourceCacheEnabled;
@@ -223,6 +279,26 @@ public class PropertiesConfig implements InitializingBean
 		return dbPermanentDeletePassword;
 	}
 
+	public int getDbPoolMaxTotal()
+	{
+		return dbPoolMaxTotal;
+	}
+
+	public int getDbPoolMinIdle()
+	{
+		return dbPoolMinIdle;
+	}
+
+	public long getDbPoolMaxWaitMillis()
+	{
+		return dbPoolMaxWaitMillis;
+	}
+
+	public int getDbPoolStatementCacheSize()
+	{
+		return dbPoolStatementCacheSize;
+	}
+
 	public String getServerBaseUrl()
 	{
 		return serverBaseUrl.endsWith("/") ? serverBaseUrl.substring(serverBaseUrl.length() - 1) : serverBaseUrl;
@@ -238,6 +314,46 @@ public class PropertiesConfig implements InitializingBean
 		return defaultPageCount;
 	}
 
+	public long getBinaryMaxSize()
+	{
+		return binaryMaxSize;
+	}
+
+	public int getBundleValidationThreads()
+	{
+		return bundleValidationThreads;
+	}
+
+	public int getValidationCacheSize()
+	{
+		return validationCacheSize;
+	}
+
+	public boolean getValidationCompiledProfiles()
+	{
+		return validationCompiledProfiles;
+	}
+
+	public int getSearchCacheSize()
+	{
+		return searchCacheSize;
+	}
+
+	public int getWebsocketEventBufferSize()
+	{
+		return websocketEventBufferSize;
+	}
+
+	public int getWebsocketEventBufferTimeout()
+	{
+		return websocketEventBufferTimeout;
+	}
+
+	public int getWebsocketMaxPendingMessages()
+	{
+		return websocketMaxPendingMessages;
+	}
+
 	public String getRoleConfig()
 	{
 		return roleConfig;
@@ -288,6 +404,16 @@ public class PropertiesConfig implements InitializingBean
 		return webserviceClientVerbose;
 	}
 
+	public int getWebserviceClientReferenceCheckThreads()
+	{
+		return webserviceClientReferenceCheckThreads;
+	}
+
+	public long getWebserviceClientReferenceCacheTimeToLive()
+	{
+		return webserviceClientReferenceCacheTimeToLive;
+	}
+
 	public boolean getStaticResourceCacheEnabled()
 	{
 		return staticResourceCacheEnabled;
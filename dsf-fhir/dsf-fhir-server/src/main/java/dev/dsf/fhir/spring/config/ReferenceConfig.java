@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import dev.dsf.fhir.service.LiteralExternalReferenceCache;
 import dev.dsf.fhir.service.ReferenceCleaner;
 import dev.dsf.fhir.service.ReferenceCleanerImpl;
 import dev.dsf.fhir.service.ReferenceExtractor;
@@ -32,12 +33,21 @@ public class ReferenceConfig
 		return new ReferenceExtractorImpl();
 	}
 
+	@Bean
+	public LiteralExternalReferenceCache literalExternalReferenceCache()
+	{
+		return new LiteralExternalReferenceCache(propertiesConfig.getWebserviceClientReferenceCacheTimeToLive());
+	}
+
 	@Bean
 	public ReferenceResolver referenceResolver()
 	{
 		return new ReferenceResolverImpl(propertiesConfig.getServerBaseUrl(), daoConfig.daoProvider(),
 				helperConfig.responseGenerator(), helperConfig.exceptionHandler(), clientConfig.clientProvider(),
-				helperConfig.parameterConverter());
+				helperConfig.parameterConverter(), literalExternalReferenceCache(),
+				propertiesConfig.getWebserviceClientReferenceCheckThreads(),
+				propertiesConfig.getWebserviceClientConnectTimeout()
+						+ propertiesConfig.getWebserviceClientReadTimeout());
 	}
 
 	@Bean
@@ -15,15 +15,21 @@ import ca.uhn.fhir.context.support.DefaultProfileValidationSupport;
 import ca.uhn.fhir.context.support.IValidationSupport;
 import dev.dsf.fhir.dao.command.ValidationHelper;
 import dev.dsf.fhir.dao.command.ValidationHelperImpl;
+import dev.dsf.fhir.service.ResourceValidatorWithCache;
 import dev.dsf.fhir.service.ValidationSupportWithCache;
 import dev.dsf.fhir.service.ValidationSupportWithFetchFromDb;
 import dev.dsf.fhir.service.ValidationSupportWithFetchFromDbWithTransaction;
+import dev.dsf.fhir.service.ValidationSupportWithTransaction;
 import dev.dsf.fhir.validation.ResourceValidator;
 import dev.dsf.fhir.validation.ResourceValidatorImpl;
+import dev.dsf.fhir.validation.ResourceValidatorWithCompiledProfiles;
 
 @Configuration
 public class ValidationConfig
 {
+	@Autowired
+	private PropertiesConfig propertiesConfig;
+
 	@Autowired
 	private DaoConfig daoConfig;
 
@@ -54,9 +60,15 @@ public class ValidationConfig
 	}
 
 	@Bean
-	public ResourceValidator resourceValidator()
+	public ResourceValidatorWithCache resourceValidator()
 	{
-		return new ResourceValidatorImpl(fhirConfig.fhirContext(), validationSupport());
+		ResourceValidator validator = new ResourceValidatorImpl(fhirConfig.fhirContext(), validationSupport());
+
+		if (propertiesConfig.getValidationCompiledProfiles())
+			validator = new ResourceValidatorWithCompiledProfiles(fhirConfig.fhirContext(), validationSupport(),
+					validator);
+
+		return new ResourceValidatorWithCache(validator, propertiesConfig.getValidationCacheSize());
 	}
 
 	@Bean
@@ -69,12 +81,10 @@ public class ValidationConfig
 	@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 	public IValidationSupport validationSupportWithTransaction(Connection connection)
 	{
-		ValidationSupportWithCache validationSupport = new ValidationSupportWithCache(fhirConfig.fhirContext(),
-				validationSupportChain(new ValidationSupportWithFetchFromDbWithTransaction(fhirConfig.fhirContext(),
+		return new ValidationSupportWithTransaction(fhirConfig.fhirContext(), validationSupport(),
+				new ValidationSupportWithFetchFromDbWithTransaction(fhirConfig.fhirContext(),
 						daoConfig.structureDefinitionDao(), daoConfig.structureDefinitionSnapshotDao(),
 						daoConfig.codeSystemDao(), daoConfig.valueSetDao(), daoConfig.measureDao(),
-						daoConfig.questionnaireDao(), connection)));
-
-		return validationSupport.populateCache(validationSupport().fetchAllConformanceResources());
+						daoConfig.questionnaireDao(), connection));
 	}
 }
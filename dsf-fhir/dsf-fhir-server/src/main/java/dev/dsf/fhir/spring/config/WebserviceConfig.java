@@ -1,10 +1,13 @@
 package dev.dsf.fhir.spring.config;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import dev.dsf.common.auth.logout.LogoutService;
+import dev.dsf.common.status.webservice.MetricsService;
 import dev.dsf.common.status.webservice.StatusService;
 import dev.dsf.common.ui.webservice.StaticResourcesService;
 import dev.dsf.fhir.exception.DataFormatExceptionHandler;
@@ -152,6 +155,9 @@ public class WebserviceConfig
 	@Autowired
 	private AuthorizationConfig authorizationConfig;
 
+	@Autowired
+	private AuthenticationConfig authenticationConfig;
+
 	@Autowired
 	private ReferenceConfig referenceConfig;
 
@@ -193,13 +199,15 @@ public class WebserviceConfig
 				helperConfig.exceptionHandler(), eventConfig.eventGenerator(), helperConfig.responseGenerator(),
 				helperConfig.parameterConverter(), referenceConfig.referenceExtractor(),
 				referenceConfig.referenceResolver(), referenceConfig.referenceCleaner(),
-				authorizationConfig.authorizationRuleProvider(), historyConfig.historyService());
+				authorizationConfig.authorizationRuleProvider(), historyConfig.historyService(),
+				helperConfig.searchSetCache());
 	}
 
 	@Bean
 	public BinaryService binaryService()
 	{
-		return new BinaryServiceJaxrs(binaryServiceSecure(), helperConfig.parameterConverter());
+		return new BinaryServiceJaxrs(binaryServiceSecure(), helperConfig.parameterConverter(),
+				propertiesConfig.getBinaryMaxSize());
 	}
 
 	private BinaryServiceSecure binaryServiceSecure()
@@ -271,7 +279,7 @@ public class WebserviceConfig
 				helperConfig.responseGenerator(), helperConfig.parameterConverter(),
 				referenceConfig.referenceExtractor(), referenceConfig.referenceResolver(),
 				referenceConfig.referenceCleaner(), authorizationConfig.authorizationRuleProvider(),
-				historyConfig.historyService());
+				historyConfig.historyService(), helperConfig.searchSetCache());
 	}
 
 	@Bean
@@ -323,7 +331,7 @@ public class WebserviceConfig
 				helperConfig.responseGenerator(), helperConfig.parameterConverter(),
 				referenceConfig.referenceExtractor(), referenceConfig.referenceResolver(),
 				referenceConfig.referenceCleaner(), authorizationConfig.authorizationRuleProvider(),
-				historyConfig.historyService());
+				historyConfig.historyService(), helperConfig.searchSetCache());
 	}
 
 	@Bean
@@ -511,7 +519,7 @@ public class WebserviceConfig
 				eventConfig.eventGenerator(), helperConfig.responseGenerator(), helperConfig.parameterConverter(),
 				referenceConfig.referenceExtractor(), referenceConfig.referenceResolver(),
 				referenceConfig.referenceCleaner(), authorizationConfig.authorizationRuleProvider(),
-				historyConfig.historyService());
+				historyConfig.historyService(), helperConfig.searchSetCache());
 	}
 
 	@Bean
@@ -537,7 +545,7 @@ public class WebserviceConfig
 				eventConfig.eventGenerator(), helperConfig.responseGenerator(), helperConfig.parameterConverter(),
 				referenceConfig.referenceExtractor(), referenceConfig.referenceResolver(),
 				referenceConfig.referenceCleaner(), authorizationConfig.authorizationRuleProvider(),
-				historyConfig.historyService());
+				historyConfig.historyService(), helperConfig.searchSetCache());
 	}
 
 	@Bean
@@ -776,7 +784,7 @@ public class WebserviceConfig
 				helperConfig.parameterConverter(), referenceConfig.referenceExtractor(),
 				referenceConfig.referenceResolver(), referenceConfig.referenceCleaner(),
 				authorizationConfig.authorizationRuleProvider(), daoConfig.structureDefinitionSnapshotDao(),
-				snapshotConfig.snapshotGenerator(), historyConfig.historyService());
+				snapshotConfig.snapshotGenerator(), historyConfig.historyService(), helperConfig.searchSetCache());
 	}
 
 	@Bean
@@ -854,7 +862,7 @@ public class WebserviceConfig
 				helperConfig.responseGenerator(), helperConfig.parameterConverter(),
 				referenceConfig.referenceExtractor(), referenceConfig.referenceResolver(),
 				referenceConfig.referenceCleaner(), authorizationConfig.authorizationRuleProvider(),
-				historyConfig.historyService());
+				historyConfig.historyService(), helperConfig.searchSetCache());
 	}
 
 	@Bean
@@ -908,4 +916,14 @@ public class WebserviceConfig
 	{
 		return new StatusService(daoConfig.dataSource(), propertiesConfig.getJettyStatusConnectorPort());
 	}
+
+	@Bean
+	public MetricsService metricsService()
+	{
+		return new MetricsService(propertiesConfig.getJettyStatusConnectorPort(),
+				List.of(eventConfig.webSocketEventDispatcher(), eventConfig.webSocketSubscriptionManager(),
+						authenticationConfig.identityProvider(), authorizationConfig.authorizationCache(),
+						referenceConfig.literalExternalReferenceCache(), validationConfig.resourceValidator(),
+						daoConfig.dataSourceMetrics(), helperConfig.searchSetCache()));
+	}
 }
@@ -0,0 +1,236 @@
+package dev.dsf.fhir.subscription;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.hl7.fhir.r4.model.Base;
+import org.hl7.fhir.r4.model.CanonicalType;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.Property;
+import org.hl7.fhir.r4.model.Reference;
+import org.hl7.fhir.r4.model.Resource;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Index of subscription criteria for a single resource type. Criteria are indexed by the value of one search parameter
+ * with equality semantics: <i>identifier</i>, <i>requester</i>, <i>_profile</i> or <i>status</i>. Criteria without such
+ * a parameter are not indexed and always returned as candidates. The index only excludes criteria that can not match,
+ * candidates still need to be tested with the matcher created from the criteria.
+ *
+ * @param <E>
+ *            indexed element type
+ */
+public class CriteriaIndex<E>
+{
+	private static final String PARAMETER_IDENTIFIER = "identifier";
+	private static final String PARAMETER_REQUESTER = "requester";
+	private static final String PARAMETER_PROFILE = "_profile";
+	private static final String PARAMETER_STATUS = "status";
+
+	// most selective first
+	private static final List<String> INDEXED_PARAMETERS = List.of(PARAMETER_IDENTIFIER, PARAMETER_REQUESTER,
+			PARAMETER_PROFILE, PARAMETER_STATUS);
+
+	/**
+	 * Key extractors return <code>null</code> if the resource type does not have the corresponding element, all
+	 * criteria indexed by the parameter are candidates in this case.
+	 */
+	private static final Map<String, Function<Resource, Set<String>>> KEY_EXTRACTORS = Map.of(PARAMETER_IDENTIFIER,
+			CriteriaIndex::getIdentifierKeys, PARAMETER_REQUESTER, CriteriaIndex::getRequesterKeys, PARAMETER_PROFILE,
+			CriteriaIndex::getProfileKeys, PARAMETER_STATUS, CriteriaIndex::getStatusKeys);
+
+	private static record Entry<E>(int position, E element)
+	{
+	}
+
+	private final List<Entry<E>> notIndexed = new ArrayList<>();
+	private final Map<String, Map<String, List<Entry<E>>>> entriesByParameterAndKey = new HashMap<>();
+	private int size;
+
+	/**
+	 * @param element
+	 *            not <code>null</code>
+	 * @param criteria
+	 *            not <code>null</code>, subscription criteria e.g. <code>Task?status=requested</code>
+	 * @param indexable
+	 *            <code>false</code> if the criteria contains parameters that are ignored while matching, e.g.
+	 *            parameters with errors
+	 */
+	public void add(E element, String criteria, boolean indexable)
+	{
+		Entry<E> entry = new Entry<>(size++, element);
+
+		if (!indexable)
+		{
+			notIndexed.add(entry);
+			return;
+		}
+
+		MultiValueMap<String, String> parameters = UriComponentsBuilder.fromUriString(criteria).build()
+				.getQueryParams();
+
+		for (String parameter : INDEXED_PARAMETERS)
+		{
+			String key = parameters.getFirst(parameter);
+			if (isIndexable(parameter, key))
+			{
+				entriesByParameterAndKey.computeIfAbsent(parameter, p -> new HashMap<>())
+						.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+				return;
+			}
+		}
+
+		notIndexed.add(entry);
+	}
+
+	/**
+	 * Values not matching the supported search value formats are ignored while matching or matched differently, these
+	 * values are not indexed.
+	 */
+	private static boolean isIndexable(String parameter, String value)
+	{
+		if (value == null || value.isBlank() || value.indexOf(',') >= 0)
+			return false;
+
+		long pipes = value.chars().filter(c -> c == '|').count();
+
+		return switch (parameter)
+		{
+			case PARAMETER_STATUS, PARAMETER_REQUESTER -> pipes == 0;
+			case PARAMETER_PROFILE -> pipes == 0 || (pipes == 1 && !value.startsWith("|") && !value.endsWith("|"));
+			default -> pipes <= 1;
+		};
+	}
+
+	/**
+	 * @return number of elements in this index
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * @param resource
+	 *            not <code>null</code>
+	 * @return elements whose criteria may match the given resource, in the order the elements were added
+	 */
+	public List<E> getCandidates(Resource resource)
+	{
+		List<Entry<E>> candidates = new ArrayList<>(notIndexed);
+
+		entriesByParameterAndKey.forEach((parameter, entriesByKey) ->
+		{
+			Set<String> keys = KEY_EXTRACTORS.get(parameter).apply(resource);
+
+			if (keys == null)
+				entriesByKey.values().forEach(candidates::addAll);
+			else
+				keys.stream().map(entriesByKey::get).filter(e -> e != null).forEach(candidates::addAll);
+		});
+
+		return candidates.stream().sorted(Comparator.comparingInt(Entry::position)).map(Entry::element).toList();
+	}
+
+	private static Collection<Base> getValues(Resource resource, String elementName)
+	{
+		Property property = resource.getNamedProperty(elementName);
+		return property == null ? null : property.getValues();
+	}
+
+	private static Set<String> getIdentifierKeys(Resource resource)
+	{
+		Collection<Base> values = getValues(resource, "identifier");
+		if (values == null)
+			return null;
+
+		Set<String> keys = new HashSet<>();
+		for (Base value : values)
+		{
+			if (value instanceof Identifier identifier)
+			{
+				// keys for search values: value, system|value, |value and system|
+				if (identifier.hasValue())
+				{
+					keys.add(identifier.getValue());
+
+					if (identifier.hasSystem())
+						keys.add(identifier.getSystem() + "|" + identifier.getValue());
+					else
+						keys.add("|" + identifier.getValue());
+				}
+
+				if (identifier.hasSystem())
+					keys.add(identifier.getSystem() + "|");
+			}
+		}
+
+		return keys;
+	}
+
+	private static Set<String> getRequesterKeys(Resource resource)
+	{
+		Collection<Base> values = getValues(resource, PARAMETER_REQUESTER);
+		if (values == null)
+			return null;
+
+		Set<String> keys = new HashSet<>();
+		for (Base value : values)
+		{
+			if (value instanceof Reference reference && reference.hasReference())
+			{
+				// keys for search values: id, type/id and url
+				keys.add(reference.getReference());
+
+				if (reference.getReferenceElement().hasIdPart())
+					keys.add(reference.getReferenceElement().getIdPart());
+			}
+		}
+
+		return keys;
+	}
+
+	private static Set<String> getProfileKeys(Resource resource)
+	{
+		Set<String> keys = new HashSet<>();
+		for (CanonicalType profile : resource.getMeta().getProfile())
+		{
+			if (profile.hasValue())
+				keys.add(profile.getValue());
+		}
+
+		return keys;
+	}
+
+	private static Set<String> getStatusKeys(Resource resource)
+	{
+		Collection<Base> values = getValues(resource, PARAMETER_STATUS);
+		if (values == null)
+			return null;
+
+		Set<String> keys = new HashSet<>();
+		for (Base value : values)
+		{
+			if (value.isPrimitive() && value.primitiveValue() != null)
+				keys.add(value.primitiveValue());
+		}
+
+		return keys;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "CriteriaIndex[size=" + size + ", notIndexed=" + notIndexed.size() + ", parameters="
+				+ Collections.unmodifiableSet(entriesByParameterAndKey.keySet()) + "]";
+	}
+}
@@ -3,16 +3,16 @@ package dev.dsf.fhir.subscription;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -21,7 +21,6 @@ import org.hl7.fhir.r4.model.Subscription;
 import org.hl7.fhir.r4.model.Subscription.SubscriptionStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 
 import ca.uhn.fhir.context.FhirContext;
@@ -29,21 +28,25 @@ import ca.uhn.fhir.model.api.annotation.ResourceDef;
 import ca.uhn.fhir.parser.IParser;
 import ca.uhn.fhir.rest.api.Constants;
 import dev.dsf.common.auth.conf.Identity;
+import dev.dsf.common.status.metrics.MetricsCollector;
+import dev.dsf.common.status.metrics.MetricsSource;
 import dev.dsf.fhir.authorization.AuthorizationRule;
 import dev.dsf.fhir.authorization.AuthorizationRuleProvider;
 import dev.dsf.fhir.dao.SubscriptionDao;
 import dev.dsf.fhir.dao.provider.DaoProvider;
 import dev.dsf.fhir.event.Event;
+import dev.dsf.fhir.event.EventDispatcher;
 import dev.dsf.fhir.event.EventHandler;
 import dev.dsf.fhir.help.ExceptionHandler;
 import dev.dsf.fhir.search.Matcher;
+import dev.dsf.fhir.search.MatcherParameter;
 import jakarta.websocket.CloseReason;
 import jakarta.websocket.CloseReason.CloseCodes;
 import jakarta.websocket.RemoteEndpoint.Async;
 import jakarta.websocket.Session;
 
 public class WebSocketSubscriptionManagerImpl
-		implements WebSocketSubscriptionManager, EventHandler, InitializingBean, DisposableBean
+		implements WebSocketSubscriptionManager, EventHandler, MetricsSource, InitializingBean
 {
 	private static final Logger logger = LoggerFactory.getLogger(WebSocketSubscriptionManagerImpl.class);
 
@@ -58,11 +61,12 @@ public class WebSocketSubscriptionManagerImpl
 			this.matcher = matcher;
 		}
 
-		boolean matches(Resource resource, DaoProvider daoProvider)
+		boolean matches(Resource resource, DaoProvider daoProvider,
+				Set<Class<? extends MatcherParameter>> resolvedParameterTypes)
 		{
 			try
 			{
-				matcher.resloveReferencesForMatching(resource, daoProvider);
+				matcher.resloveReferencesForMatching(resource, daoProvider, resolvedParameterTypes);
 			}
 			catch (SQLException e)
 			{
@@ -77,13 +81,18 @@ public class WebSocketSubscriptionManagerImpl
 	{
 		final Identity identity;
 		final String sessionId;
+		final Session session;
 		final Async remoteAsync;
 
-		SessionIdAndRemoteAsync(Identity identity, String sessionId, Async remoteAsync)
+		final AtomicInteger pendingSends = new AtomicInteger();
+		final AtomicBoolean closing = new AtomicBoolean();
+
+		SessionIdAndRemoteAsync(Identity identity, String sessionId, Session session)
 		{
 			this.identity = identity;
 			this.sessionId = sessionId;
-			this.remoteAsync = remoteAsync;
+			this.session = session;
+			this.remoteAsync = session == null ? null : session.getAsyncRemote();
 		}
 
 		@Override
@@ -104,22 +113,41 @@ public class WebSocketSubscriptionManagerImpl
 		}
 	}
 
-	private final ExecutorService executor = Executors.newCachedThreadPool();
-
 	private final DaoProvider daoProvider;
 	private final SubscriptionDao subscriptionDao;
 	private final ExceptionHandler exceptionHandler;
 	private final MatcherFactory matcherFactory;
 	private final FhirContext fhirContext;
 	private final AuthorizationRuleProvider authorizationRuleProvider;
+	private final int maxPendingSends;
+
+	private final LongAdder messagesSent = new LongAdder();
+	private final LongAdder messagesFailed = new LongAdder();
+	private final LongAdder slowConsumersClosed = new LongAdder();
+	private final LongAdder missedEventsClosed = new LongAdder();
 
 	private final AtomicBoolean firstCall = new AtomicBoolean(true);
 	private final ReadWriteMap<String, Subscription> subscriptionsByIdPart = new ReadWriteMap<>();
-	private final ReadWriteMap<Class<? extends Resource>, List<SubscriptionAndMatcher>> matchersByResource = new ReadWriteMap<>();
+	private final ReadWriteMap<Class<? extends Resource>, CriteriaIndex<SubscriptionAndMatcher>> matchersByResource = new ReadWriteMap<>();
 	private final ReadWriteMap<String, List<SessionIdAndRemoteAsync>> asyncRemotesBySubscriptionIdPart = new ReadWriteMap<>();
 
+	/**
+	 * @param daoProvider
+	 *            not <code>null</code>
+	 * @param exceptionHandler
+	 *            not <code>null</code>
+	 * @param matcherFactory
+	 *            not <code>null</code>
+	 * @param fhirContext
+	 *            not <code>null</code>
+	 * @param authorizationRuleProvider
+	 *            not <code>null</code>
+	 * @param maxPendingSends
+	 *            &gt; 0, websocket sessions with more messages not yet sent are closed as slow consumers
+	 */
 	public WebSocketSubscriptionManagerImpl(DaoProvider daoProvider, ExceptionHandler exceptionHandler,
-			MatcherFactory matcherFactory, FhirContext fhirContext, AuthorizationRuleProvider authorizationRuleProvider)
+			MatcherFactory matcherFactory, FhirContext fhirContext, AuthorizationRuleProvider authorizationRuleProvider,
+			int maxPendingSends)
 	{
 		this.daoProvider = daoProvider;
 		this.subscriptionDao = daoProvider.getSubscriptionDao();
@@ -127,6 +155,7 @@ public class WebSocketSubscriptionManagerImpl
 		this.matcherFactory = matcherFactory;
 		this.fhirContext = fhirContext;
 		this.authorizationRuleProvider = authorizationRuleProvider;
+		this.maxPendingSends = maxPendingSends;
 	}
 
 	@Override
@@ -138,6 +167,9 @@ public class WebSocketSubscriptionManagerImpl
 		Objects.requireNonNull(matcherFactory, "matcherFactory");
 		Objects.requireNonNull(fhirContext, "fhirContext");
 		Objects.requireNonNull(authorizationRuleProvider, "authorizationRuleProvider");
+
+		if (maxPendingSends <= 0)
+			throw new IllegalArgumentException("maxPendingSends <= 0");
 	}
 
 	private void refreshMatchers()
@@ -148,25 +180,20 @@ public class WebSocketSubscriptionManagerImpl
 		try
 		{
 			List<Subscription> subscriptions = subscriptionDao.readByStatus(SubscriptionStatus.ACTIVE);
-			Map<Class<? extends Resource>, List<SubscriptionAndMatcher>> matchers = new HashMap<>();
+			Map<Class<? extends Resource>, CriteriaIndex<SubscriptionAndMatcher>> matchers = new HashMap<>();
 			for (Subscription subscription : subscriptions)
 			{
 				Optional<Matcher> matcher = matcherFactory.createMatcher(subscription.getCriteria());
 				if (matcher.isPresent())
 				{
-					if (matchers.containsKey(matcher.get().getResourceType()))
-					{
-						matchers.get(matcher.get().getResourceType())
-								.add(new SubscriptionAndMatcher(subscription, matcher.get()));
-					}
-					else
-					{
-						matchers.put(matcher.get().getResourceType(), new ArrayList<>(
-								Collections.singletonList(new SubscriptionAndMatcher(subscription, matcher.get()))));
-					}
+					matchers.computeIfAbsent(matcher.get().getResourceType(), t -> new CriteriaIndex<>()).add(
+							new SubscriptionAndMatcher(subscription, matcher.get()), subscription.getCriteria(),
+							matcher.get().getUnsupportedQueryParameters().isEmpty());
 				}
 			}
 			matchersByResource.replaceAll(matchers);
+
+			logger.debug("Subscription criteria indices (after refreshing): {}", matchers);
 			subscriptionsByIdPart.replaceAll(subscriptions.stream()
 					.collect(Collectors.toMap(s -> s.getIdElement().getIdPart(), Function.identity())));
 
@@ -179,30 +206,13 @@ public class WebSocketSubscriptionManagerImpl
 		}
 	}
 
-	@Override
-	public void destroy() throws Exception
-	{
-		executor.shutdown();
-		try
-		{
-			if (!executor.awaitTermination(60, TimeUnit.SECONDS))
-			{
-				executor.shutdownNow();
-				if (!executor.awaitTermination(60, TimeUnit.SECONDS))
-					logger.warn("EventManager executor did not terminate");
-			}
-		}
-		catch (InterruptedException ie)
-		{
-			executor.shutdownNow();
-			Thread.currentThread().interrupt();
-		}
-	}
-
+	/**
+	 * Events are handled on the calling thread, use a {@link EventDispatcher} to decouple event producers.
+	 */
 	@Override
 	public void handleEvents(List<Event> events)
 	{
-		executor.execute(() -> doHandleEventsAndRefreshMatchers(events));
+		doHandleEventsAndRefreshMatchers(events);
 	}
 
 	private void doHandleEventsAndRefreshMatchers(List<Event> events)
@@ -213,10 +223,13 @@ public class WebSocketSubscriptionManagerImpl
 		events.stream().forEach(this::doHandleEvent);
 	}
 
+	/**
+	 * Events are handled on the calling thread, use a {@link EventDispatcher} to decouple event producers.
+	 */
 	@Override
 	public void handleEvent(Event event)
 	{
-		executor.execute(() -> doHandleEventAndRefreshMatchers(event));
+		doHandleEventAndRefreshMatchers(event);
 	}
 
 	private void doHandleEventAndRefreshMatchers(Event event)
@@ -232,7 +245,7 @@ public class WebSocketSubscriptionManagerImpl
 		logger.debug("handling event {} for resource of type {} with id {}", event.getClass().getSimpleName(),
 				event.getResourceType().getAnnotation(ResourceDef.class).name(), event.getId());
 
-		Optional<List<SubscriptionAndMatcher>> optMatchers = matchersByResource.get(event.getResourceType());
+		Optional<CriteriaIndex<SubscriptionAndMatcher>> optMatchers = matchersByResource.get(event.getResourceType());
 		if (optMatchers.isEmpty())
 		{
 			logger.debug("No subscriptions for event {} for resource of type {} with id {}",
@@ -241,8 +254,17 @@ public class WebSocketSubscriptionManagerImpl
 			return;
 		}
 
-		List<SubscriptionAndMatcher> matchingSubscriptions = optMatchers.get().stream()
-				.filter(sAndM -> sAndM.matches(event.getResource(), daoProvider)).collect(Collectors.toList());
+		List<SubscriptionAndMatcher> candidates = optMatchers.get().getCandidates(event.getResource());
+
+		logger.debug("Testing {} of {} subscriptions for event {} for resource of type {} with id {}",
+				candidates.size(), optMatchers.get().size(), event.getClass().getSimpleName(),
+				event.getResourceType().getAnnotation(ResourceDef.class).name(), event.getId());
+
+		// references resolved once per event
+		Set<Class<? extends MatcherParameter>> resolvedParameterTypes = new HashSet<>();
+		List<SubscriptionAndMatcher> matchingSubscriptions = candidates.stream()
+				.filter(sAndM -> sAndM.matches(event.getResource(), daoProvider, resolvedParameterTypes))
+				.collect(Collectors.toList());
 
 		if (matchingSubscriptions.isEmpty())
 		{
@@ -252,10 +274,12 @@ public class WebSocketSubscriptionManagerImpl
 			return;
 		}
 
-		matchingSubscriptions.forEach(sAndM -> doHandleEventWithSubscription(sAndM.subscription, event));
+		// payload serialized once per event and payload type
+		Map<String, String> textByPayload = new HashMap<>();
+		matchingSubscriptions.forEach(sAndM -> doHandleEventWithSubscription(sAndM.subscription, event, textByPayload));
 	}
 
-	private void doHandleEventWithSubscription(Subscription s, Event event)
+	private void doHandleEventWithSubscription(Subscription s, Event event, Map<String, String> textByPayload)
 	{
 		Optional<List<SessionIdAndRemoteAsync>> optRemotes = asyncRemotesBySubscriptionIdPart
 				.get(s.getIdElement().getIdPart());
@@ -268,9 +292,11 @@ public class WebSocketSubscriptionManagerImpl
 
 		final String text;
 		if (Constants.CT_FHIR_JSON_NEW.equals(s.getChannel().getPayload()))
-			text = newJsonParser().encodeResourceToString(event.getResource());
+			text = textByPayload.computeIfAbsent(Constants.CT_FHIR_JSON_NEW,
+					p -> newJsonParser().encodeResourceToString(event.getResource()));
 		else if (Constants.CT_FHIR_XML_NEW.contentEquals(s.getChannel().getPayload()))
-			text = newXmlParser().encodeResourceToString(event.getResource());
+			text = textByPayload.computeIfAbsent(Constants.CT_FHIR_XML_NEW,
+					p -> newXmlParser().encodeResourceToString(event.getResource()));
 		else
 			text = "ping " + s.getIdElement().getIdPart();
 
@@ -333,18 +359,119 @@ public class WebSocketSubscriptionManagerImpl
 
 	private void send(SessionIdAndRemoteAsync sessionAndRemote, String text)
 	{
+		if (sessionAndRemote.closing.get())
+			return;
+
+		if (sessionAndRemote.pendingSends.get() >= maxPendingSends)
+		{
+			closeSlowConsumer(sessionAndRemote);
+			return;
+		}
+
 		try
 		{
-			sessionAndRemote.remoteAsync.sendText(text);
+			sessionAndRemote.pendingSends.incrementAndGet();
+			sessionAndRemote.remoteAsync.sendText(text, result ->
+			{
+				sessionAndRemote.pendingSends.decrementAndGet();
+
+				if (result.isOK())
+					messagesSent.increment();
+				else
+				{
+					messagesFailed.increment();
+
+					logger.debug("Error while sending event to remote with session id {}", sessionAndRemote.sessionId,
+							result.getException());
+					logger.warn("Error while sending event to remote with session id {}: {} - {}",
+							sessionAndRemote.sessionId, result.getException().getClass().getName(),
+							result.getException().getMessage());
+				}
+			});
 		}
 		catch (Exception e)
 		{
+			sessionAndRemote.pendingSends.decrementAndGet();
+			messagesFailed.increment();
+
 			logger.debug("Error while sending event to remote with session id {}", sessionAndRemote.sessionId, e);
 			logger.warn("Error while sending event to remote with session id {}: {} - {}", sessionAndRemote.sessionId,
 					e.getClass().getName(), e.getMessage());
 		}
 	}
 
+	/**
+	 * Closes websocket sessions bound to subscriptions that may match the given events with
+	 * {@link CloseCodes#TRY_AGAIN_LATER}, used for events that could not be handled, e.g. because the event buffer was
+	 * full. Clients are expected to reconnect and search for resources missed while not connected.
+	 *
+	 * @param events
+	 *            not <code>null</code>
+	 */
+	public void closeSessionsMissingEvents(List<Event> events)
+	{
+		// matchers refreshed with the next event, if subscriptions were modified
+		if (events.stream().anyMatch(e -> e.getResource() instanceof Subscription))
+			firstCall.set(true);
+
+		// candidates of the criteria index only, matching may need DB access
+		Set<String> subscriptionIdParts = new HashSet<>();
+		for (Event event : events)
+		{
+			matchersByResource.get(event.getResourceType()).ifPresent(index -> index.getCandidates(event.getResource())
+					.forEach(sAndM -> subscriptionIdParts.add(sAndM.subscription.getIdElement().getIdPart())));
+		}
+
+		for (String subscriptionIdPart : subscriptionIdParts)
+		{
+			asyncRemotesBySubscriptionIdPart.get(subscriptionIdPart).map(ArrayList::new)
+					.ifPresent(remotes -> remotes.forEach(this::closeMissingEvents));
+		}
+	}
+
+	private void closeMissingEvents(SessionIdAndRemoteAsync sessionAndRemote)
+	{
+		if (!sessionAndRemote.closing.compareAndSet(false, true))
+			return;
+
+		missedEventsClosed.increment();
+
+		logger.warn("Closing websocket with user {}, session {}, events not handled",
+				sessionAndRemote.identity.getName(), sessionAndRemote.sessionId);
+
+		close(sessionAndRemote, "Events missed");
+	}
+
+	/**
+	 * Clients are expected to reconnect and search for resources missed while not connected.
+	 */
+	private void closeSlowConsumer(SessionIdAndRemoteAsync sessionAndRemote)
+	{
+		if (!sessionAndRemote.closing.compareAndSet(false, true))
+			return;
+
+		slowConsumersClosed.increment();
+
+		logger.warn("Closing websocket with user {}, session {}, {} messages not yet sent",
+				sessionAndRemote.identity.getName(), sessionAndRemote.sessionId, sessionAndRemote.pendingSends.get());
+
+		close(sessionAndRemote, "Too many messages not yet received");
+	}
+
+	private void close(SessionIdAndRemoteAsync sessionAndRemote, String reason)
+	{
+		try
+		{
+			sessionAndRemote.session.close(new CloseReason(CloseCodes.TRY_AGAIN_LATER, reason));
+		}
+		catch (IOException e)
+		{
+			logger.warn("Error while closing websocket with user {}, session {}, {}",
+					sessionAndRemote.identity.getName(), sessionAndRemote.sessionId, e.getMessage());
+			logger.debug("Error while closing websocket", e);
+		}
+	}
+
 	@Override
 	public void bind(Identity identity, Session session, String subscriptionIdPart)
 	{
@@ -359,12 +486,12 @@ public class WebSocketSubscriptionManagerImpl
 				if (list == null)
 				{
 					List<SessionIdAndRemoteAsync> newList = new ArrayList<>();
-					newList.add(new SessionIdAndRemoteAsync(identity, session.getId(), session.getAsyncRemote()));
+					newList.add(new SessionIdAndRemoteAsync(identity, session.getId(), session));
 					return newList;
 				}
 				else
 				{
-					list.add(new SessionIdAndRemoteAsync(identity, session.getId(), session.getAsyncRemote()));
+					list.add(new SessionIdAndRemoteAsync(identity, session.getId(), session));
 					return list;
 				}
 			});
@@ -401,4 +528,19 @@ public class WebSocketSubscriptionManagerImpl
 		asyncRemotesBySubscriptionIdPart.removeWhereValueMatches(List::isEmpty,
 				list -> list.remove(new SessionIdAndRemoteAsync(null, sessionId, null)));
 	}
+
+	@Override
+	public void collectMetrics(MetricsCollector collector)
+	{
+		collector.gauge("dsf_fhir_websocket_subscriptions", "Active websocket subscriptions",
+				subscriptionsByIdPart.getAllKeys().size());
+		collector.counter("dsf_fhir_websocket_messages_sent_total", "Messages sent to websocket clients",
+				messagesSent.sum());
+		collector.counter("dsf_fhir_websocket_messages_failed_total", "Messages failed to send to websocket clients",
+				messagesFailed.sum());
+		collector.counter("dsf_fhir_websocket_slow_consumers_closed_total",
+				"Websocket sessions closed because of too many messages not yet sent", slowConsumersClosed.sum());
+		collector.counter("dsf_fhir_websocket_missed_events_closed_total",
+				"Websocket sessions closed because events were dropped", missedEventsClosed.sum());
+	}
 }
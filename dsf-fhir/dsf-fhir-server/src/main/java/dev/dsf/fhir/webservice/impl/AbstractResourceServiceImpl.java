@@ -3,20 +3,13 @@ package dev.dsf.fhir.webservice.impl;
 import java.net.URI;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
-import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -39,6 +32,7 @@ import dev.dsf.fhir.authorization.AuthorizationRule;
 import dev.dsf.fhir.authorization.AuthorizationRuleProvider;
 import dev.dsf.fhir.dao.ResourceDao;
 import dev.dsf.fhir.dao.command.CheckReferencesCommand;
+import dev.dsf.fhir.dao.exception.ResourceDeletedException;
 import dev.dsf.fhir.event.EventGenerator;
 import dev.dsf.fhir.event.EventHandler;
 import dev.dsf.fhir.help.ExceptionHandler;
@@ -56,6 +50,7 @@ import dev.dsf.fhir.service.ReferenceExtractor;
 import dev.dsf.fhir.service.ReferenceResolver;
 import dev.dsf.fhir.service.ResourceReference;
 import dev.dsf.fhir.service.ResourceReference.ReferenceType;
+import dev.dsf.fhir.service.SearchSetCache;
 import dev.dsf.fhir.validation.ResourceValidator;
 import dev.dsf.fhir.webservice.base.AbstractBasicService;
 import dev.dsf.fhir.webservice.specification.BasicResourceService;
@@ -91,6 +86,7 @@ public abstract class AbstractResourceServiceImpl<D extends ResourceDao<R>, R ex
 	protected final ReferenceCleaner referenceCleaner;
 	protected final AuthorizationRuleProvider authorizationRuleProvider;
 	protected final HistoryService historyService;
+	private final SearchSetCache searchSetCache;
 
 	public AbstractResourceServiceImpl(String path, Class<R> resourceType, String serverBase, int defaultPageCount,
 			D dao, ResourceValidator validator, EventHandler eventHandler, ExceptionHandler exceptionHandler,
@@ -98,6 +94,22 @@ public abstract class AbstractResourceServiceImpl<D extends ResourceDao<R>, R ex
 			ReferenceExtractor referenceExtractor, ReferenceResolver referenceResolver,
 			ReferenceCleaner referenceCleaner, AuthorizationRuleProvider authorizationRuleProvider,
 			HistoryService historyService)
+	{
+		this(path, resourceType, serverBase, defaultPageCount, dao, validator, eventHandler, exceptionHandler,
+				eventGenerator, responseGenerator, parameterConverter, referenceExtractor, referenceResolver,
+				referenceCleaner, authorizationRuleProvider, historyService, null);
+	}
+
+	/**
+	 * @param searchSetCache
+	 *            may be <code>null</code>, search results are not cached if <code>null</code>
+	 */
+	public AbstractResourceServiceImpl(String path, Class<R> resourceType, String serverBase, int defaultPageCount,
+			D dao, ResourceValidator validator, EventHandler eventHandler, ExceptionHandler exceptionHandler,
+			EventGenerator eventGenerator, ResponseGenerator responseGenerator, ParameterConverter parameterConverter,
+			ReferenceExtractor referenceExtractor, ReferenceResolver referenceResolver,
+			ReferenceCleaner referenceCleaner, AuthorizationRuleProvider authorizationRuleProvider,
+			HistoryService historyService, SearchSetCache searchSetCache)
 	{
 		this.path = path;
 		this.resourceType = resourceType;
@@ -116,6 +128,7 @@ public abstract class AbstractResourceServiceImpl<D extends ResourceDao<R>, R ex
 		this.referenceCleaner = referenceCleaner;
 		this.authorizationRuleProvider = authorizationRuleProvider;
 		this.historyService = historyService;
+		this.searchSetCache = searchSetCache;
 	}
 
 	@Override
@@ -146,6 +159,9 @@ public abstract class AbstractResourceServiceImpl<D extends ResourceDao<R>, R ex
 
 		Consumer<R> afterCreate = preCreate(resource);
 
+		referenceResolver.prefetchLiteralExternalReferences(referenceExtractor.getReferences(resource)
+				.filter(ref -> checkReferenceAfterCreate(resource, ref)).toList());
+
 		R createdResource = exceptionHandler.handleSqlException(() ->
 		{
 			try (Connection connection = dao.newReadWriteTransaction())
@@ -242,25 +258,31 @@ public abstract class AbstractResourceServiceImpl<D extends ResourceDao<R>, R ex
 	private void checkReferences(Resource resource, Connection connection, Predicate<ResourceReference> checkReference)
 			throws WebApplicationException
 	{
-		referenceExtractor.getReferences(resource).filter(checkReference)
-				.filter(ref -> referenceResolver.referenceCanBeChecked(ref, connection)).forEach(ref ->
-				{
-					Optional<OperationOutcome> outcome = checkReference(resource, connection, ref);
-					if (outcome.isPresent())
-					{
-						Response response = Response.status(Status.FORBIDDEN).entity(outcome.get()).build();
-						throw new WebApplicationException(response);
-					}
-				});
+		List<ResourceReference> references = referenceExtractor.getReferences(resource).filter(checkReference)
+				.filter(ref -> referenceResolver.referenceCanBeChecked(ref, connection)).toList();
+		Set<IdType> existingTargets = referenceResolver.getExistingLiteralInternalReferenceTargets(references,
+				connection);
+
+		references.forEach(ref ->
+		{
+			Optional<OperationOutcome> outcome = checkReference(resource, connection, ref, existingTargets);
+			if (outcome.isPresent())
+			{
+				Response response = Response.status(Status.FORBIDDEN).entity(outcome.get()).build();
+				throw new WebApplicationException(response);
+			}
+		});
 	}
 
 	private Optional<OperationOutcome> checkReference(Resource resource, Connection connection,
-			ResourceReference reference) throws WebApplicationException
+			ResourceReference reference, Set<IdType> existingLiteralInternalReferenceTargets)
+			throws WebApplicationException
 	{
 		return switch (reference.getType(serverBase))
 		{
 			case LITERAL_INTERNAL, RELATED_ARTEFACT_LITERAL_INTERNAL_URL, ATTACHMENT_LITERAL_INTERNAL_URL ->
-				referenceResolver.checkLiteralInternalReference(resource, reference, connection);
+				referenceResolver.checkLiteralInternalReference(resource, reference, null,
+						existingLiteralInternalReferenceTargets);
 
 			case LITERAL_EXTERNAL, RELATED_ARTEFACT_LITERAL_EXTERNAL_URL, ATTACHMENT_LITERAL_EXTERNAL_URL ->
 				referenceResolver.checkLiteralExternalReference(resource, reference);
@@ -355,27 +377,14 @@ public abstract class AbstractResourceServiceImpl<D extends ResourceDao<R>, R ex
 	public Response read(String id, UriInfo uri, HttpHeaders headers)
 	{
 		Optional<R> read = exceptionHandler.handleSqlAndResourceDeletedException(serverBase, resourceTypeName,
-				() -> dao.read(parameterConverter.toUuid(resourceTypeName, id)));
-
-		Optional<EntityTag> ifNoneMatch = getHeaderString(headers, Constants.HEADER_IF_NONE_MATCH,
-				Constants.HEADER_IF_NONE_MATCH_LC).flatMap(parameterConverter::toEntityTag);
-		Optional<Date> ifModifiedSince = getHeaderString(headers, Constants.HEADER_IF_MODIFIED_SINCE,
-				Constants.HEADER_IF_MODIFIED_SINCE_LC).flatMap(this::toDate);
+				() -> readResource(parameterConverter.toUuid(resourceTypeName, id), uri, headers));
 
 		return read.map(resource ->
 		{
 			referenceCleaner.cleanLiteralReferences(resource);
 
 			EntityTag resourceTag = new EntityTag(resource.getMeta().getVersionId(), true);
-			if (ifNoneMatch.map(t -> t.equals(resourceTag)).orElse(false))
-			{
-				// entity removed by AbstractResourceServiceSecure
-				return Response.notModified(resourceTag).entity(resource)
-						.lastModified(resource.getMeta().getLastUpdated()).build();
-			}
-			// If-Modified-Since is ignored, when used in combination with If-None-Match
-			else if (ifNoneMatch.isEmpty() && ifModifiedSince
-					.map(d -> !afterWithSecondsPrecision(resource.getMeta().getLastUpdated(), d)).orElse(false))
+			if (parameterConverter.isNotModified(headers, resourceTag, resource.getMeta().getLastUpdated()))
 			{
 				// entity removed by AbstractResourceServiceSecure
 				return Response.notModified(resourceTag).entity(resource)
@@ -387,72 +396,95 @@ public abstract class AbstractResourceServiceImpl<D extends ResourceDao<R>, R ex
 		}).orElseGet(() -> Response.status(Status.NOT_FOUND).build()); // TODO return OperationOutcome
 	}
 
-	private boolean afterWithSecondsPrecision(Date a, Date b)
+	/**
+	 * Override this method to modify how resources are read from the database for
+	 * {@link #read(String, UriInfo, HttpHeaders)} requests.
+	 *
+	 * @param uuid
+	 *            may be <code>null</code>
+	 * @param uri
+	 *            not <code>null</code>
+	 * @param headers
+	 *            not <code>null</code>
+	 * @return {@link Optional#empty()} if not found
+	 * @throws SQLException
+	 *             if database access errors occur
+	 * @throws ResourceDeletedException
+	 *             if the resource is marked as deleted
+	 * @see ResourceDao#read(UUID)
+	 */
+	protected Optional<R> readResource(UUID uuid, UriInfo uri, HttpHeaders headers)
+			throws SQLException, ResourceDeletedException
 	{
-		LocalDateTime aLdt = a.toInstant().atZone(ZoneOffset.UTC.normalized()).toLocalDateTime()
-				.truncatedTo(ChronoUnit.SECONDS);
-		LocalDateTime bLdt = b.toInstant().atZone(ZoneOffset.UTC.normalized()).toLocalDateTime()
-				.truncatedTo(ChronoUnit.SECONDS);
-
-		return aLdt.isAfter(bLdt);
+		if (isRawJsonRead(uri, headers))
+			return dao.readRaw(uuid);
+		else
+			return dao.read(uuid);
 	}
 
-	protected MediaType getMediaTypeForRead(UriInfo uri, HttpHeaders headers)
+	/**
+	 * Override this method to modify how resources are read from the database for
+	 * {@link #vread(String, long, UriInfo, HttpHeaders)} requests.
+	 *
+	 * @param uuid
+	 *            may be <code>null</code>
+	 * @param version
+	 *            resource version
+	 * @param uri
+	 *            not <code>null</code>
+	 * @param headers
+	 *            not <code>null</code>
+	 * @return {@link Optional#empty()} if not found
+	 * @throws SQLException
+	 *             if database access errors occur
+	 * @throws ResourceDeletedException
+	 *             if the resource version is a delete history entry
+	 * @see ResourceDao#readVersion(UUID, long)
+	 */
+	protected Optional<R> readResourceVersion(UUID uuid, long version, UriInfo uri, HttpHeaders headers)
+			throws SQLException, ResourceDeletedException
 	{
-		return parameterConverter.getMediaTypeThrowIfNotSupported(uri, headers);
+		if (isRawJsonRead(uri, headers))
+			return dao.readVersionRaw(uuid, version);
+		else
+			return dao.readVersion(uuid, version);
 	}
 
 	/**
-	 * @param rfc1123DateValue
-	 *            RFC 1123 date string
-	 * @return {@link Optional} of {@link Date} in system default timezone or {@link Optional#empty()} if the given
-	 *         value could not be parsed or was null/blank
+	 * Stored JSON can be returned without parsing if unmodified JSON is requested and the read access check of the
+	 * security layer only needs id and version of the resource.
+	 *
+	 * @param uri
+	 *            not <code>null</code>
+	 * @param headers
+	 *            not <code>null</code>
+	 * @return <code>true</code> if resources can be read with {@link ResourceDao#readRaw(UUID)} and
+	 *         {@link ResourceDao#readVersionRaw(UUID, long)}
+	 * @see AuthorizationRule#isReadDecidableByIdAndVersion()
 	 */
-	private Optional<Date> toDate(String rfc1123DateValue)
+	protected boolean isRawJsonRead(UriInfo uri, HttpHeaders headers)
 	{
-		if (rfc1123DateValue == null || rfc1123DateValue.isBlank())
-			return Optional.empty();
-
-		try
-		{
-			ZonedDateTime parsed = ZonedDateTime.parse(rfc1123DateValue,
-					DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneId.systemDefault()));
-			return Optional.of(Date.from(parsed.toInstant()));
-		}
-		catch (DateTimeParseException e)
-		{
-			logger.debug("Not a RFC-1123 date", e);
-			logger.warn("Not a RFC-1123 date: {} - {}", e.getClass().getName(), e.getMessage());
+		return parameterConverter.isUnmodifiedJsonRequested(uri, headers) && authorizationRuleProvider
+				.getAuthorizationRule(resourceType).map(AuthorizationRule::isReadDecidableByIdAndVersion).orElse(false);
+	}
 
-			return Optional.empty();
-		}
+	protected MediaType getMediaTypeForRead(UriInfo uri, HttpHeaders headers)
+	{
+		return parameterConverter.getMediaTypeThrowIfNotSupported(uri, headers);
 	}
 
 	@Override
 	public Response vread(String id, long version, UriInfo uri, HttpHeaders headers)
 	{
 		Optional<R> read = exceptionHandler.handleSqlAndResourceDeletedException(serverBase, resourceTypeName,
-				() -> dao.readVersion(parameterConverter.toUuid(resourceTypeName, id), version));
-
-		Optional<EntityTag> ifNoneMatch = getHeaderString(headers, Constants.HEADER_IF_NONE_MATCH,
-				Constants.HEADER_IF_NONE_MATCH_LC).flatMap(parameterConverter::toEntityTag);
-		Optional<Date> ifModifiedSince = getHeaderString(headers, Constants.HEADER_IF_MODIFIED_SINCE,
-				Constants.HEADER_IF_MODIFIED_SINCE_LC).flatMap(this::toDate);
+				() -> readResourceVersion(parameterConverter.toUuid(resourceTypeName, id), version, uri, headers));
 
 		return read.map(resource ->
 		{
 			referenceCleaner.cleanLiteralReferences(resource);
 
 			EntityTag resourceTag = new EntityTag(resource.getMeta().getVersionId(), true);
-			if (ifNoneMatch.map(t -> t.equals(resourceTag)).orElse(false))
-			{
-				// entity removed by AbstractResourceServiceSecure
-				return Response.notModified(resourceTag).entity(resource)
-						.lastModified(resource.getMeta().getLastUpdated()).build();
-			}
-			// If-Modified-Since is ignored, when used in combination with If-None-Match
-			else if (ifNoneMatch.isEmpty() && ifModifiedSince
-					.map(d -> !afterWithSecondsPrecision(resource.getMeta().getLastUpdated(), d)).orElse(false))
+			if (parameterConverter.isNotModified(headers, resourceTag, resource.getMeta().getLastUpdated()))
 			{
 				// entity removed by AbstractResourceServiceSecure
 				return Response.notModified(resourceTag).entity(resource)
@@ -501,6 +533,9 @@ public abstract class AbstractResourceServiceImpl<D extends ResourceDao<R>, R ex
 		Optional<Long> ifMatch = getHeaderString(headers, Constants.HEADER_IF_MATCH, Constants.HEADER_IF_MATCH_LC)
 				.flatMap(parameterConverter::toEntityTag).flatMap(parameterConverter::toVersion);
 
+		referenceResolver.prefetchLiteralExternalReferences(referenceExtractor.getReferences(resource)
+				.filter(ref -> checkReferenceAfterUpdate(resource, ref)).toList());
+
 		R updatedResource = exceptionHandler
 				.handleSqlExAndResourceNotFoundExAndResouceVersionNonMatchEx(resourceTypeName, () ->
 				{
@@ -635,7 +670,22 @@ public abstract class AbstractResourceServiceImpl<D extends ResourceDao<R>, R ex
 			return responseGenerator.response(Status.BAD_REQUEST, responseGenerator.toOperationOutcomeError(errors),
 					parameterConverter.getMediaTypeThrowIfNotSupported(uri, headers)).build();
 
-		PartialResult<R> result = exceptionHandler.handleSqlException(() -> dao.search(query));
+		boolean rawJson = parameterConverter.isUnmodifiedJsonRequested(uri, headers);
+		Bundle searchSet = searchSetCache == null ? search(queryParameters, query, errors, rawJson)
+				: searchSetCache.getSearchSet(resourceType, getCurrentIdentity(), queryParameters, rawJson,
+						() -> search(queryParameters, query, errors, rawJson));
+
+		return responseGenerator
+				.response(Status.OK, searchSet, parameterConverter.getMediaTypeThrowIfNotSupported(uri, headers))
+				.build();
+	}
+
+	private Bundle search(MultivaluedMap<String, String> queryParameters, SearchQuery<R> query,
+			List<SearchQueryParameterError> errors, boolean rawJson)
+	{
+		// search results are filtered by the database, only include resources need to be parsed for read access checks
+		PartialResult<R> result = rawJson ? exceptionHandler.handleSqlException(() -> dao.searchRaw(query))
+				: exceptionHandler.handleSqlException(() -> dao.search(query));
 
 		result = filterIncludeResources(result);
 
@@ -650,15 +700,14 @@ public abstract class AbstractResourceServiceImpl<D extends ResourceDao<R>, R ex
 		searchSet.getEntry().stream().filter(BundleEntryComponent::hasResource).map(BundleEntryComponent::getResource)
 				.forEach(referenceCleaner::cleanLiteralReferences);
 
-		return responseGenerator
-				.response(Status.OK, searchSet, parameterConverter.getMediaTypeThrowIfNotSupported(uri, headers))
-				.build();
+		return searchSet;
 	}
 
 	private PartialResult<R> filterIncludeResources(PartialResult<R> result)
 	{
 		List<Resource> includes = filterIncludeResources(result.getIncludes());
-		return new PartialResult<>(result.getTotal(), result.getPageAndCount(), result.getPartialResult(), includes);
+		return new PartialResult<>(result.getTotal(), result.getPageAndCount(), result.getPartialResult(), includes,
+				result.hasNextPage());
 	}
 
 	private List<Resource> filterIncludeResources(List<Resource> includes)
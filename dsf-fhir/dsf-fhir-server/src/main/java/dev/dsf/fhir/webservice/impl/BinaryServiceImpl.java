@@ -1,13 +1,19 @@
 package dev.dsf.fhir.webservice.impl;
 
 import java.io.InputStream;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 import org.hl7.fhir.r4.model.Binary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import ca.uhn.fhir.rest.api.Constants;
 import dev.dsf.fhir.authorization.AuthorizationRuleProvider;
 import dev.dsf.fhir.dao.BinaryDao;
+import dev.dsf.fhir.dao.exception.ResourceDeletedException;
 import dev.dsf.fhir.event.EventGenerator;
 import dev.dsf.fhir.event.EventHandler;
 import dev.dsf.fhir.help.ExceptionHandler;
@@ -19,13 +25,20 @@ import dev.dsf.fhir.service.ReferenceExtractor;
 import dev.dsf.fhir.service.ReferenceResolver;
 import dev.dsf.fhir.validation.ResourceValidator;
 import dev.dsf.fhir.webservice.specification.BinaryService;
+import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import jakarta.ws.rs.core.UriInfo;
 
 public class BinaryServiceImpl extends AbstractResourceServiceImpl<BinaryDao, Binary> implements BinaryService
 {
+	private static final Logger logger = LoggerFactory.getLogger(BinaryServiceImpl.class);
+
+	private static final List<String> FHIR_MEDIA_TYPES = List.of(Constants.CT_FHIR_XML_NEW, Constants.CT_FHIR_JSON_NEW,
+			Constants.CT_FHIR_XML, Constants.CT_FHIR_JSON);
+
 	public BinaryServiceImpl(String path, String serverBase, int defaultPageCount, BinaryDao dao,
 			ResourceValidator validator, EventHandler eventHandler, ExceptionHandler exceptionHandler,
 			EventGenerator eventGenerator, ResponseGenerator responseGenerator, ParameterConverter parameterConverter,
@@ -73,4 +86,116 @@ public class BinaryServiceImpl extends AbstractResourceServiceImpl<BinaryDao, Bi
 		List<MediaType> types = headers.getAcceptableMediaTypes();
 		return types == null ? null : types.get(0);
 	}
+
+	@Override
+	protected Optional<Binary> readResource(UUID uuid, UriInfo uri, HttpHeaders headers)
+			throws SQLException, ResourceDeletedException
+	{
+		if (isDataRequest(uri, headers))
+			return dao.readWithoutData(uuid);
+		else
+			return super.readResource(uuid, uri, headers);
+	}
+
+	@Override
+	protected Optional<Binary> readResourceVersion(UUID uuid, long version, UriInfo uri, HttpHeaders headers)
+			throws SQLException, ResourceDeletedException
+	{
+		if (isDataRequest(uri, headers))
+			return dao.readVersionWithoutData(uuid, version);
+		else
+			return super.readResourceVersion(uuid, version, uri, headers);
+	}
+
+	/**
+	 * Binary data is streamed from the database by the jaxrs layer if the request is not for a FHIR resource
+	 * representation, no need to load the data with the resource.
+	 */
+	private boolean isDataRequest(UriInfo uri, HttpHeaders headers)
+	{
+		if (uri.getQueryParameters().containsKey(Constants.PARAM_FORMAT))
+			return false;
+
+		MediaType accept = getMediaType(headers);
+		return accept != null && !FHIR_MEDIA_TYPES.contains(accept.toString());
+	}
+
+	@Override
+	public BinaryData getData(Binary binary)
+	{
+		if (binary.hasData())
+		{
+			byte[] data = binary.getData();
+
+			return new BinaryData()
+			{
+				@Override
+				public long getSize()
+				{
+					return data.length;
+				}
+
+				@Override
+				public StreamingOutput write(long offset, long length)
+				{
+					return out -> out.write(data, (int) offset, (int) length);
+				}
+			};
+		}
+
+		UUID uuid = getUuid(binary);
+		long version = getVersion(binary);
+		long size = getDataSize(uuid, version);
+
+		return new BinaryData()
+		{
+			@Override
+			public long getSize()
+			{
+				return size;
+			}
+
+			@Override
+			public StreamingOutput write(long offset, long length)
+			{
+				return out ->
+				{
+					try
+					{
+						dao.readData(uuid, version, offset, length, out);
+					}
+					catch (SQLException e)
+					{
+						logger.warn("Unable to stream data of Binary/{}/_history/{}: {} - {}", uuid, version,
+								e.getClass().getName(), e.getMessage());
+						throw new WebApplicationException(e);
+					}
+				};
+			}
+		};
+	}
+
+	private long getDataSize(UUID uuid, long version)
+	{
+		try
+		{
+			return dao.getDataSize(uuid, version);
+		}
+		catch (SQLException e)
+		{
+			logger.warn("Unable to read data size of Binary/{}/_history/{}: {} - {}", uuid, version,
+					e.getClass().getName(), e.getMessage());
+			throw new WebApplicationException(e);
+		}
+	}
+
+	private UUID getUuid(Binary binary)
+	{
+		return UUID.fromString(binary.getIdElement().getIdPart());
+	}
+
+	private long getVersion(Binary binary)
+	{
+		return binary.getIdElement().getVersionIdPartAsLong();
+	}
 }
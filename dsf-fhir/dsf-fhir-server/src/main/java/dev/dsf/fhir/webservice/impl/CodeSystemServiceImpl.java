@@ -13,6 +13,7 @@ import dev.dsf.fhir.history.HistoryService;
 import dev.dsf.fhir.service.ReferenceCleaner;
 import dev.dsf.fhir.service.ReferenceExtractor;
 import dev.dsf.fhir.service.ReferenceResolver;
+import dev.dsf.fhir.service.SearchSetCache;
 import dev.dsf.fhir.validation.ResourceValidator;
 import dev.dsf.fhir.webservice.specification.CodeSystemService;
 
@@ -24,10 +25,10 @@ public class CodeSystemServiceImpl extends AbstractResourceServiceImpl<CodeSyste
 			EventGenerator eventGenerator, ResponseGenerator responseGenerator, ParameterConverter parameterConverter,
 			ReferenceExtractor referenceExtractor, ReferenceResolver referenceResolver,
 			ReferenceCleaner referenceCleaner, AuthorizationRuleProvider authorizationRuleProvider,
-			HistoryService historyService)
+			HistoryService historyService, SearchSetCache searchSetCache)
 	{
 		super(path, CodeSystem.class, serverBase, defaultPageCount, dao, validator, eventHandler, exceptionHandler,
 				eventGenerator, responseGenerator, parameterConverter, referenceExtractor, referenceResolver,
-				referenceCleaner, authorizationRuleProvider, historyService);
+				referenceCleaner, authorizationRuleProvider, historyService, searchSetCache);
 	}
 }
@@ -461,6 +461,7 @@ public class ConformanceServiceImpl extends AbstractBasicService implements Conf
 			r.addSearchParam(createPageParameter());
 			r.addSearchParam(createPrettyParameter());
 			r.addSearchParam(createSummaryParameter());
+			r.addSearchParam(createElementsParameter());
 			r.addSearchParam(createProfileParameter());
 			r.addSearchParam(createSinceParameter());
 			r.addSearchParam(createAtParameter());
@@ -592,6 +593,12 @@ public class ConformanceServiceImpl extends AbstractBasicService implements Conf
 		return createFormatParameter;
 	}
 
+	private CapabilityStatementRestResourceSearchParamComponent createElementsParameter()
+	{
+		return createSearchParameter("_elements", "", SearchParamType.SPECIAL,
+				"Comma separated list of top-level elements to return, not supported in combination with _summary");
+	}
+
 	private CapabilityStatementRestResourceSearchParamComponent createProfileParameter()
 	{
 		return createSearchParameter(ResourceProfile.class);
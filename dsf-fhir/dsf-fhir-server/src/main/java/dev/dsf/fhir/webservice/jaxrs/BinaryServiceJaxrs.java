@@ -1,11 +1,12 @@
 package dev.dsf.fhir.webservice.jaxrs;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 
 import org.hl7.fhir.r4.model.Binary;
 import org.hl7.fhir.r4.model.Reference;
@@ -13,8 +14,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ca.uhn.fhir.rest.api.Constants;
+import dev.dsf.fhir.dao.BinaryDataStream;
+import dev.dsf.fhir.help.ByteRange;
 import dev.dsf.fhir.help.ParameterConverter;
 import dev.dsf.fhir.help.ResponseGenerator;
+import dev.dsf.fhir.help.SizeLimitedInputStream;
 import dev.dsf.fhir.webservice.specification.BinaryService;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
@@ -38,17 +42,32 @@ public class BinaryServiceJaxrs extends AbstractResourceServiceJaxrs<Binary, Bin
 {
 	public static final String PATH = "Binary";
 
+	private static final String HEADER_RANGE = "Range";
+	private static final String HEADER_IF_RANGE = "If-Range";
+	private static final String HEADER_CONTENT_RANGE = "Content-Range";
+	private static final String HEADER_ACCEPT_RANGES = "Accept-Ranges";
+
 	private static final Logger logger = LoggerFactory.getLogger(BinaryServiceJaxrs.class);
 
 	private final String[] FHIR_MEDIA_TYPES = { Constants.CT_FHIR_XML_NEW, Constants.CT_FHIR_JSON_NEW,
 			Constants.CT_FHIR_XML, Constants.CT_FHIR_JSON };
 	private final ParameterConverter parameterConverter;
-
-	public BinaryServiceJaxrs(BinaryService delegate, ParameterConverter parameterConverter)
+	private final long maxSize;
+
+	/**
+	 * @param delegate
+	 *            not <code>null</code>
+	 * @param parameterConverter
+	 *            not <code>null</code>
+	 * @param maxSize
+	 *            maximum size of uploaded binary data in bytes, negative values disable the limit
+	 */
+	public BinaryServiceJaxrs(BinaryService delegate, ParameterConverter parameterConverter, long maxSize)
 	{
 		super(delegate);
 
 		this.parameterConverter = parameterConverter;
+		this.maxSize = maxSize;
 	}
 
 	@Override
@@ -70,10 +89,9 @@ public class BinaryServiceJaxrs extends AbstractResourceServiceJaxrs<Binary, Bin
 		{
 			String securityContext = getSecurityContext(headers);
 			String contentType = getContentType(headers);
-			byte[] content = in.readAllBytes();
 
-			Binary resource = createBinary(contentType, content, securityContext);
-			return delegate.create(resource, uri, headers);
+			return withMaxSize(in, headers,
+					data -> delegate.create(createBinary(contentType, data, securityContext), uri, headers));
 		}
 		catch (IOException e)
 		{
@@ -81,13 +99,47 @@ public class BinaryServiceJaxrs extends AbstractResourceServiceJaxrs<Binary, Bin
 		}
 	}
 
-	private Binary createBinary(String contentType, byte[] content, String securityContextReference)
+	/**
+	 * The request body is not loaded into memory, but streamed to the database while executing the insert statement. If
+	 * a max size is configured, oversized requests are answered with status 413 based on the
+	 * {@value HttpHeaders#CONTENT_LENGTH} header or after max size + 1 bytes were read.
+	 */
+	private Response withMaxSize(InputStream in, HttpHeaders headers, Function<InputStream, Response> request)
+	{
+		if (maxSize < 0)
+			return request.apply(in);
+
+		if (headers.getLength() > maxSize)
+		{
+			logger.warn("{} header value {} exceeds max size of {} bytes, sending {}", HttpHeaders.CONTENT_LENGTH,
+					headers.getLength(), maxSize, Status.REQUEST_ENTITY_TOO_LARGE);
+			throw new WebApplicationException(Status.REQUEST_ENTITY_TOO_LARGE);
+		}
+
+		SizeLimitedInputStream data = new SizeLimitedInputStream(in, maxSize);
+		try
+		{
+			return request.apply(data);
+		}
+		catch (RuntimeException e)
+		{
+			if (data.isMaxSizeExceeded())
+			{
+				logger.warn("Binary data exceeds max size of {} bytes, sending {}", maxSize,
+						Status.REQUEST_ENTITY_TOO_LARGE);
+				throw new WebApplicationException(Status.REQUEST_ENTITY_TOO_LARGE);
+			}
+			else
+				throw e;
+		}
+	}
+
+	private Binary createBinary(String contentType, InputStream data, String securityContextReference)
 	{
 		Binary resource = new Binary();
 		resource.setContentType(contentType);
-		resource.setContent(content);
 		resource.setSecurityContext(new Reference(securityContextReference));
-		return resource;
+		return BinaryDataStream.attach(resource, data);
 	}
 
 	private String getSecurityContext(HttpHeaders headers)
@@ -153,7 +205,7 @@ public class BinaryServiceJaxrs extends AbstractResourceServiceJaxrs<Binary, Bin
 		if (read.getEntity() instanceof Binary binary && !isValidFhirRequest(uri, headers))
 		{
 			if (mediaTypeMatches(headers, binary))
-				return toStream(binary);
+				return toStream(binary, headers);
 			else
 				return Response.status(Status.NOT_ACCEPTABLE).build();
 		}
@@ -168,13 +220,36 @@ public class BinaryServiceJaxrs extends AbstractResourceServiceJaxrs<Binary, Bin
 				.anyMatch(acceptType -> acceptType.isCompatible(binaryMediaType));
 	}
 
-	private Response toStream(Binary binary)
+	private Response toStream(Binary binary, HttpHeaders headers)
 	{
 		String contentType = binary.getContentType();
-		byte[] content = binary.getContent();
+		BinaryData data = delegate.getData(binary);
+		long size = data.getSize();
+		Optional<ByteRange> range = getRange(binary, headers);
+
+		ResponseBuilder b;
+		if (range.isPresent() && !range.get().isSatisfiable(size))
+		{
+			return Response.status(Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+					.header(HEADER_CONTENT_RANGE, ByteRange.toUnsatisfiedContentRange(size)).build();
+		}
+		else if (range.isPresent())
+		{
+			long start = range.get().getStart(size);
+			long length = range.get().getLength(size);
+
+			b = Response.status(Status.PARTIAL_CONTENT).entity(data.write(start, length));
+			b = b.header(HEADER_CONTENT_RANGE, range.get().toContentRange(size));
+			b = b.header(HttpHeaders.CONTENT_LENGTH, length);
+		}
+		else
+		{
+			b = Response.status(Status.OK).entity(data.write(0, size));
+			b = b.header(HttpHeaders.CONTENT_LENGTH, size);
+		}
 
-		ResponseBuilder b = Response.status(Status.OK).entity(new ByteArrayInputStream(content));
 		b = b.type(contentType);
+		b = b.header(HEADER_ACCEPT_RANGES, ByteRange.UNIT);
 
 		if (binary.getMeta() != null && binary.getMeta().getLastUpdated() != null
 				&& binary.getMeta().getVersionId() != null)
@@ -194,6 +269,28 @@ public class BinaryServiceJaxrs extends AbstractResourceServiceJaxrs<Binary, Bin
 		return b.build();
 	}
 
+	/**
+	 * @return {@link Optional#empty()} if no valid single byte range requested or <i>If-Range</i> header present and
+	 *         not matching the current entity tag
+	 */
+	private Optional<ByteRange> getRange(Binary binary, HttpHeaders headers)
+	{
+		Optional<ByteRange> range = ByteRange.fromHeader(headers.getHeaderString(HEADER_RANGE));
+		if (range.isEmpty())
+			return range;
+
+		String ifRange = headers.getHeaderString(HEADER_IF_RANGE);
+		if (ifRange == null)
+			return range;
+
+		// binary versions are immutable, weak entity tag used as strong validator
+		String versionId = binary.getMeta().getVersionId();
+		if (versionId != null && (ifRange.equals("W/\"" + versionId + "\"") || ifRange.equals("\"" + versionId + "\"")))
+			return range;
+		else
+			return Optional.empty();
+	}
+
 	@GET
 	@Path("/{id}/_history/{version}")
 	@Produces
@@ -206,7 +303,7 @@ public class BinaryServiceJaxrs extends AbstractResourceServiceJaxrs<Binary, Bin
 		if (read.getEntity() instanceof Binary binary && !isValidFhirRequest(uri, headers))
 		{
 			if (mediaTypeMatches(headers, binary))
-				return toStream(binary);
+				return toStream(binary, headers);
 			else
 				return Response.status(Status.NOT_ACCEPTABLE).build();
 		}
@@ -245,14 +342,19 @@ public class BinaryServiceJaxrs extends AbstractResourceServiceJaxrs<Binary, Bin
 		{
 			String securityContext = getSecurityContext(headers);
 			String contentType = getContentType(headers);
-			byte[] content = in.readAllBytes();
 
-			Binary resource = createBinary(contentType, content, securityContext);
-			return delegate.update(id, resource, uri, headers);
+			return withMaxSize(in, headers,
+					data -> delegate.update(id, createBinary(contentType, data, securityContext), uri, headers));
 		}
 		catch (IOException e)
 		{
 			throw new WebApplicationException(e);
 		}
 	}
+
+	@Override
+	public BinaryData getData(Binary binary)
+	{
+		return delegate.getData(binary);
+	}
 }
@@ -1,11 +1,13 @@
 package dev.dsf.fhir.webservice.secure;
 
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -24,6 +26,7 @@ import ca.uhn.fhir.validation.ResultSeverityEnum;
 import ca.uhn.fhir.validation.ValidationResult;
 import dev.dsf.fhir.authorization.AuthorizationRule;
 import dev.dsf.fhir.dao.ResourceDao;
+import dev.dsf.fhir.dao.ResourceVersionInfo;
 import dev.dsf.fhir.help.ExceptionHandler;
 import dev.dsf.fhir.help.ParameterConverter;
 import dev.dsf.fhir.help.ResponseGenerator;
@@ -40,6 +43,7 @@ import dev.dsf.fhir.service.ResourceReference.ReferenceType;
 import dev.dsf.fhir.validation.ResourceValidator;
 import dev.dsf.fhir.webservice.specification.BasicResourceService;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.Response.Status;
@@ -199,9 +203,70 @@ public abstract class AbstractResourceServiceSecure<D extends ResourceDao<R>, R
 		}
 	}
 
+	/**
+	 * Conditional reads are answered with version information only, if read access can be decided by id and version and
+	 * the resource was not modified. The resource is not loaded and parsed in this case.
+	 *
+	 * @param id
+	 *            may be <code>null</code>
+	 * @param version
+	 *            <code>null</code> for read requests
+	 * @param headers
+	 *            not <code>null</code>
+	 * @return {@link Optional#empty()} if the request needs to be handled by the delegate
+	 */
+	private Optional<Response> notModifiedWithoutResource(String id, Long version, HttpHeaders headers)
+	{
+		if (!authorizationRule.isReadDecidableByIdAndVersion() || !parameterConverter.hasNotModifiedHeaders(headers))
+			return Optional.empty();
+
+		Optional<UUID> uuid = parameterConverter.toUuid(id);
+		if (uuid.isEmpty())
+			return Optional.empty();
+
+		Optional<ResourceVersionInfo> versionInfo = exceptionHandler.handleSqlException(
+				() -> version == null ? dao.readVersionInfo(uuid.get()) : dao.readVersionInfo(uuid.get(), version));
+
+		// deleted resources answered by the delegate
+		if (versionInfo.isEmpty() || (version == null && versionInfo.get().isDeleted()))
+			return Optional.empty();
+
+		final long entityVersion = versionInfo.get().version();
+		final Date lastUpdated = versionInfo.get().lastUpdated();
+		final EntityTag resourceTag = new EntityTag(String.valueOf(entityVersion), true);
+
+		if (!parameterConverter.isNotModified(headers, resourceTag, lastUpdated))
+			return Optional.empty();
+
+		final String entityId = uuid.get().toString();
+		final Optional<String> reasonReadAllowed = authorizationRule.reasonReadAllowed(getCurrentIdentity(), uuid.get(),
+				entityVersion);
+
+		if (reasonReadAllowed.isEmpty())
+		{
+			audit.info("Read of {}/{}/_history/{} denied for identity '{}'", resourceTypeName, entityId, entityVersion,
+					getCurrentIdentity().getName());
+			return Optional.of(forbidden("read"));
+		}
+		else
+		{
+			audit.info("Read of {}/{}/_history/{} allowed for identity '{}', reason: {}", resourceTypeName, entityId,
+					entityVersion, getCurrentIdentity().getName(), reasonReadAllowed.get());
+			audit.info("Read of {}/{}/_history/{} for identity '{}' successful, status: {} {}", resourceTypeName,
+					entityId, entityVersion, getCurrentIdentity().getName(), Status.NOT_MODIFIED.getStatusCode(),
+					Status.NOT_MODIFIED.getReasonPhrase());
+
+			return Optional.of(Response.notModified(resourceTag).lastModified(lastUpdated).build());
+		}
+	}
+
 	@Override
 	public Response read(String id, UriInfo uri, HttpHeaders headers)
 	{
+		Optional<Response> notModified = notModifiedWithoutResource(id, null, headers);
+		if (notModified.isPresent())
+			return notModified.get();
+
 		Response read = delegate.read(id, uri, headers);
 
 		if (read.hasEntity() && resourceType.isInstance(read.getEntity()))
@@ -269,6 +334,10 @@ public abstract class AbstractResourceServiceSecure<D extends ResourceDao<R>, R
 	@Override
 	public Response vread(String id, long version, UriInfo uri, HttpHeaders headers)
 	{
+		Optional<Response> notModified = notModifiedWithoutResource(id, version, headers);
+		if (notModified.isPresent())
+			return notModified.get();
+
 		Response read = delegate.vread(id, version, uri, headers);
 
 		if (read.hasEntity() && resourceType.isInstance(read.getEntity()))
@@ -1,6 +1,7 @@
 package dev.dsf.fhir.webservice.secure;
 
 import java.io.InputStream;
+import java.util.Optional;
 
 import org.hl7.fhir.r4.model.Binary;
 
@@ -14,6 +15,7 @@ import dev.dsf.fhir.service.ReferenceExtractor;
 import dev.dsf.fhir.service.ReferenceResolver;
 import dev.dsf.fhir.validation.ResourceValidator;
 import dev.dsf.fhir.webservice.specification.BinaryService;
+import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
@@ -42,4 +44,29 @@ public class BinaryServiceSecure extends AbstractResourceServiceSecure<BinaryDao
 	{
 		throw new UnsupportedOperationException("Implemented and delegated by jaxrs layer");
 	}
-}
\ No newline at end of file
+
+	@Override
+	public BinaryData getData(Binary binary)
+	{
+		checkReadAllowed(binary);
+
+		return delegate.getData(binary);
+	}
+
+	private void checkReadAllowed(Binary binary)
+	{
+		final String entityId = binary.getIdElement().getIdPart();
+		final String entityVersion = binary.getIdElement().getVersionIdPart();
+		final Optional<String> reasonReadAllowed = authorizationRule.reasonReadAllowed(getCurrentIdentity(), binary);
+
+		if (reasonReadAllowed.isEmpty())
+		{
+			audit.info("Read of {}/{}/_history/{} data denied for identity '{}'", resourceTypeName, entityId,
+					entityVersion, getCurrentIdentity().getName());
+			throw new WebApplicationException(forbidden("read"));
+		}
+		else
+			audit.info("Read of {}/{}/_history/{} data allowed for identity '{}', reason: {}", resourceTypeName,
+					entityId, entityVersion, getCurrentIdentity().getName(), reasonReadAllowed.get());
+	}
+}
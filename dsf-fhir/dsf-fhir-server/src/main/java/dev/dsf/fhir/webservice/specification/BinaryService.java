@@ -6,6 +6,7 @@ import org.hl7.fhir.r4.model.Binary;
 
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import jakarta.ws.rs.core.UriInfo;
 
 public interface BinaryService extends BasicResourceService<Binary>
@@ -13,4 +14,33 @@ public interface BinaryService extends BasicResourceService<Binary>
 	Response create(InputStream in, UriInfo uri, HttpHeaders headers);
 
 	Response update(String id, InputStream in, UriInfo uri, HttpHeaders headers);
+
+	/**
+	 * Binary data of a resource version, read access is checked once per request by {@link #getData(Binary)}.
+	 */
+	interface BinaryData
+	{
+		/**
+		 * @return size of the binary data in bytes
+		 */
+		long getSize();
+
+		/**
+		 * @param offset
+		 *            &gt;= 0, zero based offset of the first byte to write
+		 * @param length
+		 *            &gt;= 0, number of bytes to write
+		 * @return stream output writing the requested binary data
+		 */
+		StreamingOutput write(long offset, long length);
+	}
+
+	/**
+	 * @param binary
+	 *            not <code>null</code>, resource version returned by read or vread, may have no data
+	 * @return binary data of the given resource version
+	 * @throws jakarta.ws.rs.WebApplicationException
+	 *             if reading the binary data is not allowed or database access errors occur
+	 */
+	BinaryData getData(Binary binary);
 }
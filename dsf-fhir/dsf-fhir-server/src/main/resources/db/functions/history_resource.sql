@@ -0,0 +1,33 @@
+CREATE OR REPLACE FUNCTION history_resource(resource_type text, resource_id uuid, resource_version bigint) RETURNS jsonb AS $$
+BEGIN
+	-- resource of a POST or PUT history entry, resources are not copied to the history_entries table
+	CASE resource_type
+		WHEN 'ActivityDefinition' THEN RETURN (SELECT activity_definition FROM activity_definitions WHERE activity_definition_id = resource_id AND version = resource_version);
+		WHEN 'Binary' THEN RETURN (SELECT binary_json FROM binaries WHERE binary_id = resource_id AND version = resource_version);
+		WHEN 'Bundle' THEN RETURN (SELECT bundle FROM bundles WHERE bundle_id = resource_id AND version = resource_version);
+		WHEN 'CodeSystem' THEN RETURN (SELECT code_system FROM code_systems WHERE code_system_id = resource_id AND version = resource_version);
+		WHEN 'Endpoint' THEN RETURN (SELECT endpoint FROM endpoints WHERE endpoint_id = resource_id AND version = resource_version);
+		WHEN 'Group' THEN RETURN (SELECT group_json FROM groups WHERE group_id = resource_id AND version = resource_version);
+		WHEN 'HealthcareService' THEN RETURN (SELECT healthcare_service FROM healthcare_services WHERE healthcare_service_id = resource_id AND version = resource_version);
+		WHEN 'Library' THEN RETURN (SELECT library FROM libraries WHERE library_id = resource_id AND version = resource_version);
+		WHEN 'Location' THEN RETURN (SELECT location FROM locations WHERE location_id = resource_id AND version = resource_version);
+		WHEN 'Measure' THEN RETURN (SELECT measure FROM measures WHERE measure_id = resource_id AND version = resource_version);
+		WHEN 'MeasureReport' THEN RETURN (SELECT measure_report FROM measure_reports WHERE measure_report_id = resource_id AND version = resource_version);
+		WHEN 'NamingSystem' THEN RETURN (SELECT naming_system FROM naming_systems WHERE naming_system_id = resource_id AND version = resource_version);
+		WHEN 'Organization' THEN RETURN (SELECT organization FROM organizations WHERE organization_id = resource_id AND version = resource_version);
+		WHEN 'OrganizationAffiliation' THEN RETURN (SELECT organization_affiliation FROM organization_affiliations WHERE organization_affiliation_id = resource_id AND version = resource_version);
+		WHEN 'Patient' THEN RETURN (SELECT patient FROM patients WHERE patient_id = resource_id AND version = resource_version);
+		WHEN 'Practitioner' THEN RETURN (SELECT practitioner FROM practitioners WHERE practitioner_id = resource_id AND version = resource_version);
+		WHEN 'PractitionerRole' THEN RETURN (SELECT practitioner_role FROM practitioner_roles WHERE practitioner_role_id = resource_id AND version = resource_version);
+		WHEN 'Provenance' THEN RETURN (SELECT provenance FROM provenances WHERE provenance_id = resource_id AND version = resource_version);
+		WHEN 'Questionnaire' THEN RETURN (SELECT questionnaire FROM questionnaires WHERE questionnaire_id = resource_id AND version = resource_version);
+		WHEN 'QuestionnaireResponse' THEN RETURN (SELECT questionnaire_response FROM questionnaire_responses WHERE questionnaire_response_id = resource_id AND version = resource_version);
+		WHEN 'ResearchStudy' THEN RETURN (SELECT research_study FROM research_studies WHERE research_study_id = resource_id AND version = resource_version);
+		WHEN 'StructureDefinition' THEN RETURN (SELECT structure_definition FROM structure_definitions WHERE structure_definition_id = resource_id AND version = resource_version);
+		WHEN 'Subscription' THEN RETURN (SELECT subscription FROM subscriptions WHERE subscription_id = resource_id AND version = resource_version);
+		WHEN 'Task' THEN RETURN (SELECT task FROM tasks WHERE task_id = resource_id AND version = resource_version);
+		WHEN 'ValueSet' THEN RETURN (SELECT value_set FROM value_sets WHERE value_set_id = resource_id AND version = resource_version);
+		ELSE RETURN NULL;
+	END CASE;
+END;
+$$ LANGUAGE PLPGSQL STABLE
\ No newline at end of file
@@ -0,0 +1,4 @@
+CREATE OR REPLACE FUNCTION text_to_timestamp(value text) RETURNS timestamp AS $$
+	-- immutable variant of value::timestamp for ISO 8601 values, usable in expression indexes
+	SELECT value::timestamp
+$$ LANGUAGE SQL IMMUTABLE STRICT PARALLEL SAFE
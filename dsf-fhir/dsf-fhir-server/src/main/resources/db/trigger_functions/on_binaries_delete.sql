@@ -1,6 +1,7 @@
 CREATE OR REPLACE FUNCTION on_binaries_delete() RETURNS TRIGGER AS $$
 BEGIN
 	PERFORM on_resources_delete(OLD.binary_id);
+	DELETE FROM binary_security_context WHERE binary_id = OLD.binary_id;
 	RETURN OLD;
 END;
 $$ LANGUAGE PLPGSQL
\ No newline at end of file
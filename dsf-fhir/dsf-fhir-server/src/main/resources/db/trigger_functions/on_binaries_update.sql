@@ -1,6 +1,11 @@
 CREATE OR REPLACE FUNCTION on_binaries_update() RETURNS TRIGGER AS $$
 BEGIN
 	PERFORM on_resources_update(NEW.deleted, NEW.binary_id, NEW.version, NEW.binary_json);
+
+	IF (NEW.deleted IS NOT NULL) THEN
+		DELETE FROM binary_security_context WHERE binary_id = NEW.binary_id;
+	END IF;
+
 	RETURN NEW;
 END;
 $$ LANGUAGE PLPGSQL
\ No newline at end of file
@@ -1,6 +1,7 @@
 CREATE OR REPLACE FUNCTION on_organization_affiliations_delete() RETURNS TRIGGER AS $$
 BEGIN
 	PERFORM on_resources_delete(OLD.organization_affiliation_id);
+	DELETE FROM organization_affiliation_roles WHERE organization_affiliation_id = OLD.organization_affiliation_id;
 	RETURN OLD;
 END;
 $$ LANGUAGE PLPGSQL
\ No newline at end of file
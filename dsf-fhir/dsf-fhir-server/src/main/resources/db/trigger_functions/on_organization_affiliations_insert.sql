@@ -15,6 +15,22 @@ BEGIN
 
 	GET DIAGNOSTICS delete_count = ROW_COUNT;
 	RAISE NOTICE 'Existing rows deleted from read_access for created/updated organization-affiliation: %', delete_count;
+
+	DELETE FROM organization_affiliation_roles
+	WHERE organization_affiliation_id = NEW.organization_affiliation_id;
+
+	IF (NEW.organization_affiliation->>'active' = 'true') THEN
+		INSERT INTO organization_affiliation_roles
+			SELECT DISTINCT NEW.organization_affiliation_id
+				, (regexp_match(NEW.organization_affiliation->'organization'->>'reference', reference_regex))[5]::uuid
+				, (regexp_match(NEW.organization_affiliation->'participatingOrganization'->>'reference', reference_regex))[5]::uuid
+				, coding->>'system'
+				, coding->>'code'
+			FROM jsonb_array_elements(NEW.organization_affiliation->'code') AS codes, jsonb_array_elements(codes->'coding') AS coding
+			WHERE NEW.organization_affiliation->'organization'->>'reference' IS NOT NULL
+			AND NEW.organization_affiliation->'participatingOrganization'->>'reference' IS NOT NULL
+			AND coding->>'system' IS NOT NULL AND coding->>'code' IS NOT NULL;
+	END IF;
 	
 	RAISE NOTICE 'NEW.organization_affiliation->>''active'' = ''%''', NEW.organization_affiliation->>'active';
 	IF (NEW.organization_affiliation->>'active' = 'true') THEN
@@ -56,12 +72,12 @@ BEGIN
 			RAISE NOTICE 'Rows inserted into read_access: %', insert_count;
 
 			INSERT INTO read_access
-				SELECT binary_id, version, access_type, organization_id, organization_affiliation_id
-				FROM read_access, current_binaries
+				SELECT binary_id, binary_version, access_type, organization_id, organization_affiliation_id
+				FROM read_access, binary_security_context
 				WHERE organization_id = member_organization_id
 				AND organization_affiliation_id = NEW.organization_affiliation_id
 				AND access_type = 'ROLE'
-				AND resource_id = (regexp_match(binary_json->'securityContext'->>'reference', reference_regex))[5]::uuid;
+				AND resource_id = security_context_id;
 
 			GET DIAGNOSTICS binary_insert_count = ROW_COUNT;
 			RAISE NOTICE 'Rows inserted into read_access based on Binary.securityContext: %', binary_insert_count;
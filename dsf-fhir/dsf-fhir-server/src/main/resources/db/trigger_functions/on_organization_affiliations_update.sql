@@ -6,6 +6,9 @@ BEGIN
 		DELETE FROM read_access
 		WHERE access_type = 'ROLE'
 		AND organization_affiliation_id = NEW.organization_affiliation_id;
+
+		DELETE FROM organization_affiliation_roles
+		WHERE organization_affiliation_id = NEW.organization_affiliation_id;
 	END IF;
 	
 	RETURN NEW;
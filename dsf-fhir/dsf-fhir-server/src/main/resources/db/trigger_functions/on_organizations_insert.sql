@@ -1,6 +1,5 @@
 CREATE OR REPLACE FUNCTION on_organizations_insert() RETURNS TRIGGER AS $$
 DECLARE
-	reference_regex TEXT := '((http|https):\/\/([A-Za-z0-9\-\\\.\:\%\$]*\/)+)?(Account|ActivityDefinition|AdverseEvent|AllergyIntolerance|Appointment|AppointmentResponse|AuditEvent|Basic|Binary|BiologicallyDerivedProduct|BodyStructure|Bundle|CapabilityStatement|CarePlan|CareTeam|CatalogEntry|ChargeItem|ChargeItemDefinition|Claim|ClaimResponse|ClinicalImpression|CodeSystem|Communication|CommunicationRequest|CompartmentDefinition|Composition|ConceptMap|Condition|Consent|Contract|Coverage|CoverageEligibilityRequest|CoverageEligibilityResponse|DetectedIssue|Device|DeviceDefinition|DeviceMetric|DeviceRequest|DeviceUseStatement|DiagnosticReport|DocumentManifest|DocumentReference|EffectEvidenceSynthesis|Encounter|Endpoint|EnrollmentRequest|EnrollmentResponse|EpisodeOfCare|EventDefinition|Evidence|EvidenceVariable|ExampleScenario|ExplanationOfBenefit|FamilyMemberHistory|Flag|Goal|GraphDefinition|Group|GuidanceResponse|HealthcareService|ImagingStudy|Immunization|ImmunizationEvaluation|ImmunizationRecommendation|ImplementationGuide|InsurancePlan|Invoice|Library|Linkage|List|Location|Measure|MeasureReport|Media|Medication|MedicationAdministration|MedicationDispense|MedicationKnowledge|MedicationRequest|MedicationStatement|MedicinalProduct|MedicinalProductAuthorization|MedicinalProductContraindication|MedicinalProductIndication|MedicinalProductIngredient|MedicinalProductInteraction|MedicinalProductManufactured|MedicinalProductPackaged|MedicinalProductPharmaceutical|MedicinalProductUndesirableEffect|MessageDefinition|MessageHeader|MolecularSequence|NamingSystem|NutritionOrder|Observation|ObservationDefinition|OperationDefinition|OperationOutcome|Organization|OrganizationAffiliation|Patient|PaymentNotice|PaymentReconciliation|Person|PlanDefinition|Practitioner|PractitionerRole|Procedure|Provenance|Questionnaire|QuestionnaireResponse|RelatedPerson|RequestGroup|ResearchDefinition|ResearchElementDefinition|ResearchStudy|ResearchSubject|RiskAssessment|RiskEvidenceSynthesis|Schedule|SearchParameter|ServiceRequest|Slot|Specimen|SpecimenDefinition|StructureDefinition|StructureMap|Subscription|Substance|SubstanceNucleicAcid|SubstancePolymer|SubstanceProtein|SubstanceReferenceInformation|SubstanceSourceMaterial|SubstanceSpecification|SupplyDelivery|SupplyRequest|Task|TerminologyCapabilities|TestReport|TestScript|ValueSet|VerificationResult|VisionPrescription)\/([A-Za-z0-9\-\.]{1,64})(\/_history\/([A-Za-z0-9\-\.]{1,64}))?';
 	organization_identifier TEXT := jsonb_path_query(NEW.organization, '$.identifier[*]?(@.system == "http://dsf.dev/sid/organization-identifier")')->>'value';
 	organization_insert_count INT;
 	role_ids UUID[];
@@ -20,10 +19,10 @@ BEGIN
 	DELETE FROM read_access
 	WHERE access_type = 'ROLE'
 	AND organization_affiliation_id IN (
-		SELECT organization_affiliation_id FROM current_organization_affiliations 
-		WHERE NEW.organization_id = (regexp_match(organization_affiliation->'participatingOrganization'->>'reference', reference_regex))[5]::uuid
-		OR NEW.organization_id = (regexp_match(organization_affiliation->'organization'->>'reference', reference_regex))[5]::uuid
-	); 
+		SELECT organization_affiliation_id FROM organization_affiliation_roles
+		WHERE parent_organization_id = NEW.organization_id
+		OR member_organization_id = NEW.organization_id
+	);
 
 	GET DIAGNOSTICS roles_delete_count = ROW_COUNT;
 	RAISE NOTICE 'Existing rows deleted from read_access for created/updated organization, ROLE Tag: %', roles_delete_count;
@@ -47,29 +46,24 @@ BEGIN
 				 	, parent_organization_identifier
 				 	, parent_organization_organization_id
 				 	, member_organization_id
-				 	, coding->>'system' AS coding_system
-				 	, coding->>'code' AS coding_code
+				 	, coding_system
+				 	, coding_code
 				FROM (
 					SELECT
-						organization_affiliation_id
-						, (SELECT jsonb_path_query(organization, '$.identifier[*]?(@.system == "http://dsf.dev/sid/organization-identifier")')->>'value' FROM current_organizations WHERE 
-						   organization_id = (regexp_match(organization_affiliation->'organization'->>'reference', reference_regex))[5]::uuid
-						  ) AS parent_organization_identifier
-					 	, (regexp_match(organization_affiliation->'organization'->>'reference', reference_regex))[5]::uuid
-					 		AS parent_organization_organization_id
-					 	, (regexp_match(organization_affiliation->'participatingOrganization'->>'reference', reference_regex))[5]::uuid
-					 		AS member_organization_id
-						, jsonb_array_elements(jsonb_array_elements(organization_affiliation->'code')->'coding') AS coding
-						FROM current_organization_affiliations
-						WHERE organization_affiliation->>'active' = 'true'
-						AND (
-							SELECT count(*) FROM current_organizations
-							WHERE organization->>'active' = 'true'
-							AND (organization_id = (regexp_match(organization_affiliation->'organization'->>'reference', reference_regex))[5]::uuid
-							OR organization_id = (regexp_match(organization_affiliation->'participatingOrganization'->>'reference', reference_regex))[5]::uuid)
-						) = 2
-					) AS oa1
-				WHERE parent_organization_organization_id = NEW.organization_id OR member_organization_id = NEW.organization_id
+						oar.organization_affiliation_id
+						, jsonb_path_query(p.organization, '$.identifier[*]?(@.system == "http://dsf.dev/sid/organization-identifier")')->>'value'
+							AS parent_organization_identifier
+						, oar.parent_organization_id AS parent_organization_organization_id
+						, oar.member_organization_id
+						, oar.role_system AS coding_system
+						, oar.role_code AS coding_code
+					FROM organization_affiliation_roles AS oar
+					JOIN current_organizations AS p
+					ON p.organization_id = oar.parent_organization_id AND p.organization->>'active' = 'true'
+					JOIN current_organizations AS m
+					ON m.organization_id = oar.member_organization_id AND m.organization->>'active' = 'true'
+					WHERE oar.parent_organization_id = NEW.organization_id OR oar.member_organization_id = NEW.organization_id
+				) AS oa1
 				) AS oa
 				LEFT JOIN (
 					SELECT id, version, resource FROM all_resources
@@ -87,17 +81,17 @@ BEGIN
 		RAISE NOTICE 'Rows inserted into read_acces for created/updated active organization: %', organization_insert_count + array_length(role_ids, 1);
 
 		INSERT INTO read_access
-			SELECT binary_id, version, access_type, organization_id, NULL
-			FROM read_access, current_binaries
+			SELECT binary_id, binary_version, access_type, organization_id, NULL
+			FROM read_access, binary_security_context
 			WHERE access_type = 'ORGANIZATION'
 			AND organization_id = NEW.organization_id
-			AND resource_id = (regexp_match(binary_json->'securityContext'->>'reference', reference_regex))[5]::uuid
+			AND resource_id = security_context_id
 			UNION
-			SELECT binary_id, version, access_type, organization_id, organization_affiliation_id
-			FROM read_access, current_binaries
+			SELECT binary_id, binary_version, access_type, organization_id, organization_affiliation_id
+			FROM read_access, binary_security_context
 			WHERE access_type = 'ROLE'
 			AND resource_id = ANY(role_ids)
-			AND resource_id = (regexp_match(binary_json->'securityContext'->>'reference', reference_regex))[5]::uuid;
+			AND resource_id = security_context_id;
 
 		GET DIAGNOSTICS binary_insert_count = ROW_COUNT;
 		RAISE NOTICE 'Rows inserted into read_access based on Binary.securityContext: %', binary_insert_count;
@@ -0,0 +1,14 @@
+CREATE OR REPLACE FUNCTION on_resources_before_insert() RETURNS TRIGGER AS $$
+DECLARE
+	previous_count INT;
+BEGIN
+	-- TG_ARGV[0]: name of the resource id column, marks the previous version of the resource as not current
+	EXECUTE format('UPDATE %I SET is_current = FALSE WHERE %I = ($1).%I AND is_current', TG_TABLE_NAME, TG_ARGV[0], TG_ARGV[0]) USING NEW;
+
+	GET DIAGNOSTICS previous_count = ROW_COUNT;
+	RAISE NOTICE 'Rows marked as not current in %: %', TG_TABLE_NAME, previous_count;
+
+	NEW.is_current := TRUE;
+	RETURN NEW;
+END;
+$$ LANGUAGE PLPGSQL
\ No newline at end of file
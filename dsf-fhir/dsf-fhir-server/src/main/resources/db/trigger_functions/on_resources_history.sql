@@ -0,0 +1,36 @@
+CREATE OR REPLACE FUNCTION on_resources_history() RETURNS TRIGGER AS $$
+DECLARE
+	resource_id uuid;
+	resource_last_updated timestamp;
+	old_resource_last_updated timestamp;
+BEGIN
+	-- TG_ARGV[0]: resource type, TG_ARGV[1]: name of the resource id column, TG_ARGV[2]: name of the resource column
+	IF (TG_OP = 'DELETE') THEN
+		EXECUTE format('SELECT ($1).%I', TG_ARGV[1]) INTO resource_id USING OLD;
+		DELETE FROM history_entries WHERE id = resource_id AND type = TG_ARGV[0];
+		RETURN OLD;
+	END IF;
+
+	EXECUTE format('SELECT ($1).%I, (($1).%I->''meta''->>''lastUpdated'')::TIMESTAMP', TG_ARGV[1], TG_ARGV[2])
+		INTO resource_id, resource_last_updated USING NEW;
+
+	IF (TG_OP = 'INSERT') THEN
+		INSERT INTO history_entries (id, version, type, method, last_updated)
+		VALUES (resource_id, NEW.version, TG_ARGV[0], CASE WHEN NEW.version = 1 THEN 'POST' ELSE 'PUT' END, resource_last_updated);
+	ELSE
+		IF (OLD.deleted IS NULL AND NEW.deleted IS NOT NULL) THEN
+			INSERT INTO history_entries (id, version, type, method, last_updated)
+			VALUES (resource_id, NEW.version + 1, TG_ARGV[0], 'DELETE', NEW.deleted);
+		END IF;
+
+		-- resource updated without creating a new version
+		EXECUTE format('SELECT (($1).%I->''meta''->>''lastUpdated'')::TIMESTAMP', TG_ARGV[2]) INTO old_resource_last_updated USING OLD;
+		IF (old_resource_last_updated IS DISTINCT FROM resource_last_updated) THEN
+			UPDATE history_entries SET last_updated = resource_last_updated
+			WHERE id = resource_id AND version = NEW.version AND type = TG_ARGV[0] AND method <> 'DELETE';
+		END IF;
+	END IF;
+
+	RETURN NEW;
+END;
+$$ LANGUAGE PLPGSQL
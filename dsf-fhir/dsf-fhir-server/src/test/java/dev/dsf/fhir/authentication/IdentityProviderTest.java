@@ -2,7 +2,9 @@ package dev.dsf.fhir.authentication;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -26,6 +28,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.apache.commons.codec.binary.Hex;
@@ -34,6 +37,7 @@ import org.bouncycastle.operator.OperatorCreationException;
 import org.bouncycastle.pkcs.jcajce.JcaPKCS10CertificationRequest;
 import org.hl7.fhir.r4.model.Coding;
 import org.hl7.fhir.r4.model.Organization;
+import org.hl7.fhir.r4.model.Task;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -49,6 +53,8 @@ import dev.dsf.common.auth.conf.OrganizationIdentity;
 import dev.dsf.common.auth.conf.PractitionerIdentity;
 import dev.dsf.common.auth.conf.RoleConfig;
 import dev.dsf.common.auth.conf.RoleConfig.Mapping;
+import dev.dsf.fhir.event.ResourceCreatedEvent;
+import dev.dsf.fhir.event.ResourceUpdatedEvent;
 
 public class IdentityProviderTest
 {
@@ -494,4 +500,34 @@ public class IdentityProviderTest
 
 		verify(organizationProvider).getLocalOrganization();
 	}
+
+	@Test
+	public void testGetOrganizationIdentityByX509CertificateCachedUntilOrganizationEvent() throws Exception
+	{
+		IdentityProviderImpl provider = (IdentityProviderImpl) createIdentityProvider(List.of());
+
+		when(organizationProvider.getOrganization(REMOTE_ORGANIZATION_CERTIFICATE))
+				.thenReturn(Optional.of(REMOTE_ORGANIZATION));
+
+		Identity i1 = provider.getIdentity(new X509Certificate[] { REMOTE_ORGANIZATION_CERTIFICATE });
+		Identity i2 = provider.getIdentity(new X509Certificate[] { REMOTE_ORGANIZATION_CERTIFICATE });
+		assertNotNull(i1);
+		assertSame(i1, i2);
+
+		verify(organizationProvider, times(1)).getOrganization(REMOTE_ORGANIZATION_CERTIFICATE);
+
+		provider.handleEvent(new ResourceCreatedEvent(Task.class, new Task().setId(UUID.randomUUID().toString())));
+		Identity i3 = provider.getIdentity(new X509Certificate[] { REMOTE_ORGANIZATION_CERTIFICATE });
+		assertSame(i1, i3);
+
+		verify(organizationProvider, times(1)).getOrganization(REMOTE_ORGANIZATION_CERTIFICATE);
+
+		provider.handleEvent(new ResourceUpdatedEvent(Organization.class,
+				REMOTE_ORGANIZATION.copy().setId(UUID.randomUUID().toString())));
+		Identity i4 = provider.getIdentity(new X509Certificate[] { REMOTE_ORGANIZATION_CERTIFICATE });
+		assertNotNull(i4);
+		assertNotSame(i1, i4);
+
+		verify(organizationProvider, times(2)).getOrganization(REMOTE_ORGANIZATION_CERTIFICATE);
+	}
 }
@@ -0,0 +1,66 @@
+package dev.dsf.fhir.authorization;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hl7.fhir.r4.model.ActivityDefinition;
+import org.hl7.fhir.r4.model.Organization;
+import org.junit.Test;
+
+import dev.dsf.fhir.authorization.AuthorizationCache.Region;
+import dev.dsf.fhir.event.ResourceCreatedEvent;
+import dev.dsf.fhir.event.ResourceUpdatedEvent;
+
+public class AuthorizationCacheTest
+{
+	private static Connection connection(boolean autoCommit) throws Exception
+	{
+		Connection connection = mock(Connection.class);
+		when(connection.getAutoCommit()).thenReturn(autoCommit);
+		return connection;
+	}
+
+	@Test
+	public void testGetCachedUntilDependentResourceChanged() throws Exception
+	{
+		AuthorizationCacheImpl cache = new AuthorizationCacheImpl();
+		Connection connection = connection(true);
+		AtomicInteger loads = new AtomicInteger();
+
+		assertEquals(Integer.valueOf(1),
+				cache.get(connection, Region.AFFILIATION, "org.test", c -> loads.incrementAndGet()));
+		assertEquals(Integer.valueOf(1),
+				cache.get(connection, Region.AFFILIATION, "org.test", c -> loads.incrementAndGet()));
+
+		cache.handleEvent(new ResourceCreatedEvent(ActivityDefinition.class,
+				new ActivityDefinition().setId(UUID.randomUUID().toString())));
+		assertEquals(Integer.valueOf(1),
+				cache.get(connection, Region.AFFILIATION, "org.test", c -> loads.incrementAndGet()));
+
+		cache.handleEvent(
+				new ResourceUpdatedEvent(Organization.class, new Organization().setId(UUID.randomUUID().toString())));
+		assertEquals(Integer.valueOf(2),
+				cache.get(connection, Region.AFFILIATION, "org.test", c -> loads.incrementAndGet()));
+	}
+
+	@Test
+	public void testGetWithinTransactionNotCached() throws Exception
+	{
+		AuthorizationCacheImpl cache = new AuthorizationCacheImpl();
+		AtomicInteger loads = new AtomicInteger();
+
+		assertEquals(Integer.valueOf(1), cache.get(connection(false), Region.ACTIVITY_DEFINITION, "http://test|1.0",
+				c -> loads.incrementAndGet()));
+		assertEquals(Integer.valueOf(2), cache.get(connection(false), Region.ACTIVITY_DEFINITION, "http://test|1.0",
+				c -> loads.incrementAndGet()));
+		assertEquals(Integer.valueOf(3), cache.get(connection(true), Region.ACTIVITY_DEFINITION, "http://test|1.0",
+				c -> loads.incrementAndGet()));
+		assertEquals(Integer.valueOf(3), cache.get(connection(true), Region.ACTIVITY_DEFINITION, "http://test|1.0",
+				c -> loads.incrementAndGet()));
+	}
+}
@@ -1078,4 +1078,56 @@ public abstract class AbstractReadAccessDaoTest<D extends Resource, C extends Re
 		testSearchWithUserFilterAfterReadAccessTrigger(READ_ACCESS_TAG_VALUE_LOCAL, readAccessHelper::addLocal,
 				TestOrganizationIdentity::remote, 0);
 	}
+
+	private void testSearchPlanWithUserFilter(Function<Organization, Identity> userCreator) throws Exception
+	{
+		Organization org = new Organization();
+		org.setActive(true);
+		org.addIdentifier().setSystem(ORGANIZATION_IDENTIFIER_SYSTEM).setValue("org.com");
+		Organization createdOrg = new OrganizationDaoJdbc(defaultDataSource, permanentDeleteDataSource, fhirContext)
+				.create(org);
+
+		for (int i = 0; i < 10; i++)
+		{
+			D d = createResource();
+			readAccessHelper.addOrganization(d, createdOrg);
+			getDao().create(d);
+		}
+
+		SearchQuery<D> query = getDao().createSearchQuery(userCreator.apply(createdOrg), PageAndCount.from(1, 20))
+				.configureParameters(Collections.emptyMap());
+
+		try (Connection connection = defaultDataSource.getConnection();
+				PreparedStatement statement = connection
+						.prepareStatement("EXPLAIN (ANALYZE, FORMAT JSON) " + query.getSearchSql()))
+		{
+			query.modifySearchStatement(statement, connection::createArrayOf);
+
+			try (ResultSet result = statement.executeQuery())
+			{
+				assertTrue(result.next());
+				String plan = result.getString(1);
+				getLogger().info("Search plan: {}", plan);
+
+				// read_access rows must not be aggregated per resource, identity filter uses EXISTS
+				assertFalse(plan.contains("\"Node Type\": \"Aggregate\""));
+			}
+		}
+
+		PartialResult<D> searchResult = getDao().search(query);
+		assertEquals(10, searchResult.getTotal());
+		assertEquals(10, searchResult.getPartialResult().size());
+	}
+
+	@Test
+	public void testSearchPlanWithUserFilterLocalUser() throws Exception
+	{
+		testSearchPlanWithUserFilter(TestOrganizationIdentity::local);
+	}
+
+	@Test
+	public void testSearchPlanWithUserFilterRemoteUser() throws Exception
+	{
+		testSearchPlanWithUserFilter(TestOrganizationIdentity::remote);
+	}
 }
@@ -6,13 +6,16 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.sql.Connection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.sql.DataSource;
 
 import org.apache.commons.dbcp2.BasicDataSource;
+import org.hl7.fhir.r4.model.IdType;
 import org.hl7.fhir.r4.model.Resource;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -27,6 +30,7 @@ import org.testcontainers.utility.DockerImageName;
 import ca.uhn.fhir.context.FhirContext;
 import de.hsheilbronn.mi.utils.test.PostgreSqlContainerLiquibaseTemplateClassRule;
 import de.hsheilbronn.mi.utils.test.PostgresTemplateRule;
+import dev.dsf.fhir.adapter.RawJson;
 import dev.dsf.fhir.dao.exception.ResourceDeletedException;
 import dev.dsf.fhir.dao.exception.ResourceNotFoundException;
 import dev.dsf.fhir.dao.exception.ResourceNotMarkedDeletedException;
@@ -147,6 +151,41 @@ public abstract class AbstractResourceDaoTest<D extends Resource, C extends Reso
 		assertEquals("1", read.get().getMeta().getVersionId());
 	}
 
+	@Test
+	public void testCreateWithTransactionAndIds() throws Exception
+	{
+		List<D> newResources = List.of(createResource(), createResource(), createResource());
+		List<UUID> uuids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+		List<D> createdResources;
+		try (Connection connection = defaultDataSource.getConnection())
+		{
+			connection.setReadOnly(false);
+			connection.setAutoCommit(false);
+
+			createdResources = dao.createWithTransactionAndIds(connection, newResources, uuids);
+
+			connection.commit();
+		}
+
+		assertNotNull(createdResources);
+		assertEquals(newResources.size(), createdResources.size());
+
+		for (int i = 0; i < createdResources.size(); i++)
+		{
+			D createdResource = createdResources.get(i);
+			assertEquals(uuids.get(i).toString(), createdResource.getIdElement().getIdPart());
+			assertEquals("1", createdResource.getIdElement().getVersionIdPart());
+			assertEquals("1", createdResource.getMeta().getVersionId());
+			assertNotNull(createdResource.getMeta().getLastUpdated());
+
+			Optional<D> read = dao.read(uuids.get(i));
+			assertTrue(read.isPresent());
+			assertEquals("1", read.get().getMeta().getVersionId());
+			checkCreated(read.get());
+		}
+	}
+
 	protected abstract void checkCreated(D resource);
 
 	protected abstract D updateResource(D resource);
@@ -463,6 +502,32 @@ public abstract class AbstractResourceDaoTest<D extends Resource, C extends Reso
 		assertEquals(String.valueOf(ResourceDao.FIRST_VERSION + 1), all.get(0).getMeta().getVersionId());
 	}
 
+	@Test
+	public void testReadAllDeletedAndUpdated() throws Exception
+	{
+		D createdResource = dao.create(createResource());
+		assertNotNull(createdResource);
+		assertEquals(ResourceDao.FIRST_VERSION_STRING, createdResource.getIdElement().getVersionIdPart());
+
+		boolean deleted = dao.delete(UUID.fromString(createdResource.getIdElement().getIdPart()));
+		assertTrue(deleted);
+
+		List<D> allAfterDelete = dao.readAll();
+		assertNotNull(allAfterDelete);
+		assertTrue(allAfterDelete.isEmpty());
+
+		D updatedResource = dao.update(updateResource(createdResource), ResourceDao.FIRST_VERSION + 1L);
+		assertNotNull(updatedResource);
+		assertEquals(String.valueOf(ResourceDao.FIRST_VERSION + 2), updatedResource.getIdElement().getVersionIdPart());
+
+		List<D> allAfterUpdate = dao.readAll();
+		assertNotNull(allAfterUpdate);
+		assertEquals(1, allAfterUpdate.size());
+		assertEquals(updatedResource.getIdElement().getIdPart(), allAfterUpdate.get(0).getIdElement().getIdPart());
+		assertEquals(String.valueOf(ResourceDao.FIRST_VERSION + 2),
+				allAfterUpdate.get(0).getIdElement().getVersionIdPart());
+	}
+
 	@Test
 	public void testReadLatest() throws Exception
 	{
@@ -502,6 +567,58 @@ public abstract class AbstractResourceDaoTest<D extends Resource, C extends Reso
 		assertEquals("3", read.get().getIdElement().getVersionIdPart());
 	}
 
+	@Test
+	public void testReadVersionInfo() throws Exception
+	{
+		D createdResource = dao.create(createResource());
+		D updatedResource = dao.update(createdResource, null);
+		UUID uuid = UUID.fromString(updatedResource.getIdElement().getIdPart());
+
+		Optional<ResourceVersionInfo> latest = dao.readVersionInfo(uuid);
+		assertTrue(latest.isPresent());
+		assertEquals(2L, latest.get().version());
+		assertEquals(updatedResource.getMeta().getLastUpdated(), latest.get().lastUpdated());
+		assertFalse(latest.get().isDeleted());
+
+		Optional<ResourceVersionInfo> first = dao.readVersionInfo(uuid, ResourceDao.FIRST_VERSION);
+		assertTrue(first.isPresent());
+		assertEquals(ResourceDao.FIRST_VERSION, first.get().version());
+		assertEquals(createdResource.getMeta().getLastUpdated(), first.get().lastUpdated());
+
+		assertTrue(dao.readVersionInfo(uuid, 3L).isEmpty());
+		assertTrue(dao.readVersionInfo(UUID.randomUUID()).isEmpty());
+
+		dao.delete(uuid);
+
+		Optional<ResourceVersionInfo> deleted = dao.readVersionInfo(uuid);
+		assertTrue(deleted.isPresent());
+		assertTrue(deleted.get().isDeleted());
+	}
+
+	@Test
+	public void testReadRaw() throws Exception
+	{
+		D createdResource = dao.create(createResource());
+		UUID uuid = UUID.fromString(createdResource.getIdElement().getIdPart());
+
+		Optional<D> read = dao.readRaw(uuid);
+		assertTrue(read.isPresent());
+		assertEquals(createdResource.getIdElement().getIdPart(), read.get().getIdElement().getIdPart());
+		assertEquals(createdResource.getMeta().getVersionId(), read.get().getMeta().getVersionId());
+		assertEquals(createdResource.getMeta().getLastUpdated(), read.get().getMeta().getLastUpdated());
+
+		Optional<String> json = RawJson.get(read.get());
+		D readResource = json.isPresent() ? fhirContext.newJsonParser().parseResource(resouceClass, json.get())
+				: read.get();
+
+		String s1 = fhirContext.newXmlParser().setPrettyPrint(true).encodeResourceToString(createdResource);
+		String s2 = fhirContext.newXmlParser().setPrettyPrint(true).encodeResourceToString(readResource);
+		assertEquals(s1, s2);
+
+		assertTrue(dao.readVersionRaw(uuid, ResourceDao.FIRST_VERSION).isPresent());
+		assertTrue(dao.readVersionRaw(uuid, 2L).isEmpty());
+	}
+
 	@Test
 	public void testExistsNotDeletedNotExisting() throws Exception
 	{
@@ -537,4 +654,30 @@ public abstract class AbstractResourceDaoTest<D extends Resource, C extends Reso
 				createdResource.getIdElement().getVersionIdPart());
 		assertFalse(existsNotDeleted2);
 	}
+
+	@Test
+	public void testExistingNotDeletedWithTransaction() throws Exception
+	{
+		D created = dao.create(createResource());
+		D deleted = dao.create(createResource());
+		dao.delete(UUID.fromString(deleted.getIdElement().getIdPart()));
+
+		String resourceType = created.getResourceType().name();
+		IdType createdId = new IdType(resourceType, created.getIdElement().getIdPart());
+		IdType createdVersionId = new IdType(resourceType, created.getIdElement().getIdPart(),
+				created.getIdElement().getVersionIdPart());
+		IdType createdWrongVersionId = new IdType(resourceType, created.getIdElement().getIdPart(), "2");
+		IdType deletedId = new IdType(resourceType, deleted.getIdElement().getIdPart());
+		IdType notExistingId = new IdType(resourceType, UUID.randomUUID().toString());
+		IdType invalidId = new IdType(resourceType, "not-a-uuid");
+
+		try (Connection connection = defaultDataSource.getConnection())
+		{
+			Set<IdType> existing = dao.existingNotDeletedWithTransaction(connection,
+					List.of(createdId, createdVersionId, createdWrongVersionId, deletedId, notExistingId, invalidId));
+
+			assertEquals(Set.of(createdId, createdVersionId), existing);
+			assertTrue(dao.existingNotDeletedWithTransaction(connection, List.of()).isEmpty());
+		}
+	}
 }
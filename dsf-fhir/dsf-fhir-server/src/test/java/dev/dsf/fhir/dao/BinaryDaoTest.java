@@ -5,12 +5,15 @@ import static dev.dsf.fhir.authorization.read.ReadAccessHelper.READ_ACCESS_TAG_V
 import static dev.dsf.fhir.authorization.read.ReadAccessHelper.READ_ACCESS_TAG_VALUE_LOCAL;
 import static dev.dsf.fhir.authorization.read.ReadAccessHelper.READ_ACCESS_TAG_VALUE_ORGANIZATION;
 import static dev.dsf.fhir.authorization.read.ReadAccessHelper.READ_ACCESS_TAG_VALUE_ROLE;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -130,6 +133,74 @@ public class BinaryDaoTest extends AbstractReadAccessDaoTest<Binary, BinaryDao>
 		}
 	}
 
+	@Test
+	public void testReadDataInChunks() throws Exception
+	{
+		byte[] data = new byte[BinaryDaoJdbc.DATA_CHUNK_SIZE * 2 + 42];
+		for (int i = 0; i < data.length; i++)
+			data[i] = (byte) i;
+
+		Binary newResource = createResource();
+		newResource.setData(data);
+		Binary created = dao.create(newResource);
+		UUID uuid = UUID.fromString(created.getIdElement().getIdPart());
+
+		assertEquals(data.length, dao.getDataSize(uuid, 1));
+
+		ByteArrayOutputStream all = new ByteArrayOutputStream();
+		dao.readData(uuid, 1, 0, data.length, all);
+		assertArrayEquals(data, all.toByteArray());
+
+		// range across a chunk boundary
+		int offset = BinaryDaoJdbc.DATA_CHUNK_SIZE - 10;
+		ByteArrayOutputStream range = new ByteArrayOutputStream();
+		dao.readData(uuid, 1, offset, 20, range);
+		assertArrayEquals(Arrays.copyOfRange(data, offset, offset + 20), range.toByteArray());
+
+		// less bytes written if the data ends before
+		ByteArrayOutputStream end = new ByteArrayOutputStream();
+		dao.readData(uuid, 1, data.length - 2, 10, end);
+		assertArrayEquals(Arrays.copyOfRange(data, data.length - 2, data.length), end.toByteArray());
+	}
+
+	@Test
+	public void testCreateAndUpdateWithDataStream() throws Exception
+	{
+		byte[] data = new byte[BinaryDaoJdbc.DATA_CHUNK_SIZE + 42];
+		for (int i = 0; i < data.length; i++)
+			data[i] = (byte) i;
+
+		Binary created = dao
+				.create(BinaryDataStream.attach(createResource().setData(null), new ByteArrayInputStream(data)));
+		UUID uuid = UUID.fromString(created.getIdElement().getIdPart());
+
+		assertFalse(created.hasData());
+		assertEquals(data.length, dao.getDataSize(uuid, 1));
+
+		ByteArrayOutputStream createdData = new ByteArrayOutputStream();
+		dao.readData(uuid, 1, 0, data.length, createdData);
+		assertArrayEquals(data, createdData.toByteArray());
+
+		Binary updated = dao.update(BinaryDataStream.attach(created.setData(null), new ByteArrayInputStream(DATA2)),
+				null);
+
+		assertFalse(updated.hasData());
+		assertEquals(DATA2.length, dao.getDataSize(uuid, 2));
+
+		ByteArrayOutputStream updatedData = new ByteArrayOutputStream();
+		dao.readData(uuid, 2, 0, DATA2.length, updatedData);
+		assertArrayEquals(DATA2, updatedData.toByteArray());
+	}
+
+	@Test(expected = SQLException.class)
+	public void testReadDataVersionNotFound() throws Exception
+	{
+		Binary created = dao.create(createResource());
+		UUID uuid = UUID.fromString(created.getIdElement().getIdPart());
+
+		dao.readData(uuid, 2, 0, 10, new ByteArrayOutputStream());
+	}
+
 	@Test
 	public void testSearch() throws Exception
 	{
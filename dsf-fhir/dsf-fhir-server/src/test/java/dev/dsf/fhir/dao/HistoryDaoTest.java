@@ -2,6 +2,7 @@ package dev.dsf.fhir.dao;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 import java.util.Collections;
 import java.util.UUID;
@@ -9,7 +10,9 @@ import java.util.UUID;
 import javax.sql.DataSource;
 
 import org.apache.commons.dbcp2.BasicDataSource;
+import org.hl7.fhir.r4.model.IdType;
 import org.hl7.fhir.r4.model.Organization;
+import org.hl7.fhir.r4.model.Task;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.ClassRule;
@@ -23,6 +26,7 @@ import de.hsheilbronn.mi.utils.test.PostgresTemplateRule;
 import dev.dsf.fhir.dao.jdbc.BinaryDaoJdbc;
 import dev.dsf.fhir.dao.jdbc.HistroyDaoJdbc;
 import dev.dsf.fhir.dao.jdbc.OrganizationDaoJdbc;
+import dev.dsf.fhir.dao.jdbc.TaskDaoJdbc;
 import dev.dsf.fhir.history.AtParameter;
 import dev.dsf.fhir.history.History;
 import dev.dsf.fhir.history.SinceParameter;
@@ -65,6 +69,7 @@ public class HistoryDaoTest extends AbstractDbTest
 	private final FhirContext fhirContext = FhirContext.forR4();
 	private final OrganizationDao orgDao = new OrganizationDaoJdbc(defaultDataSource, permanentDeleteDataSource,
 			fhirContext);
+	private final TaskDao taskDao = new TaskDaoJdbc(defaultDataSource, permanentDeleteDataSource, fhirContext);
 	private final HistoryDao dao = new HistroyDaoJdbc(defaultDataSource, fhirContext,
 			new BinaryDaoJdbc(defaultDataSource, permanentDeleteDataSource, fhirContext));
 	private final HistoryIdentityFilterFactory filterFactory = new HistoryIdentityFilterFactoryImpl();
@@ -127,4 +132,124 @@ public class HistoryDaoTest extends AbstractDbTest
 		assertNotNull(history.getEntries());
 		assertEquals(1, history.getEntries().size());
 	}
+
+	@Test
+	public void testReadHistoryOrganizationCreateUpdate() throws Exception
+	{
+		Organization organization = new Organization();
+		organization.getMeta().addTag("http://dsf.dev/fhir/CodeSystem/read-access-tag", "ALL", null);
+		organization.setName("Test Organization");
+		organization.addIdentifier().setSystem("http://dsf.dev/sid/organization-identifier").setValue("test.org");
+		Organization createdOrganization = orgDao.create(organization);
+
+		createdOrganization.setName("Test Organization Updated");
+		Organization updatedOrganization = orgDao.update(createdOrganization);
+		UUID id = UUID.fromString(updatedOrganization.getIdElement().getIdPart());
+
+		History history = dao.readHistory(
+				filterFactory.getIdentityFilter(TestOrganizationIdentity.local(createdOrganization),
+						Organization.class),
+				PageAndCount.from(1, 1000), Collections.singletonList(new AtParameter()), new SinceParameter(),
+				Organization.class, id);
+
+		assertNotNull(history);
+		assertEquals(2, history.getTotal());
+		assertNotNull(history.getEntries());
+		assertEquals(2, history.getEntries().size());
+
+		assertEquals("POST", history.getEntries().get(0).getMethod());
+		assertEquals("1", history.getEntries().get(0).getVersion());
+		assertNotNull(history.getEntries().get(0).getResource());
+		assertEquals("PUT", history.getEntries().get(1).getMethod());
+		assertEquals("2", history.getEntries().get(1).getVersion());
+		assertEquals("Test Organization Updated", ((Organization) history.getEntries().get(1).getResource()).getName());
+	}
+
+	private Organization createOrganization() throws Exception
+	{
+		Organization organization = new Organization();
+		organization.getMeta().addTag("http://dsf.dev/fhir/CodeSystem/read-access-tag", "ALL", null);
+		organization.setName("Test Organization");
+		organization.addIdentifier().setSystem("http://dsf.dev/sid/organization-identifier").setValue("test.org");
+		return orgDao.create(organization);
+	}
+
+	@Test
+	public void testReadHistoryOrganizationDelete() throws Exception
+	{
+		Organization createdOrganization = createOrganization();
+		UUID id = UUID.fromString(createdOrganization.getIdElement().getIdPart());
+		orgDao.delete(id);
+
+		History history = dao.readHistory(Collections.emptyList(), PageAndCount.from(1, 1000),
+				Collections.singletonList(new AtParameter()), new SinceParameter());
+
+		assertNotNull(history);
+		assertEquals(2, history.getTotal());
+		assertNotNull(history.getEntries());
+		assertEquals(2, history.getEntries().size());
+
+		assertEquals("POST", history.getEntries().get(0).getMethod());
+		assertEquals("1", history.getEntries().get(0).getVersion());
+		assertNotNull(history.getEntries().get(0).getResource());
+		assertEquals("DELETE", history.getEntries().get(1).getMethod());
+		assertEquals("2", history.getEntries().get(1).getVersion());
+		assertEquals(id, history.getEntries().get(1).getId());
+		assertNull(history.getEntries().get(1).getResource());
+	}
+
+	@Test
+	public void testReadHistoryOrganizationDeletePermanently() throws Exception
+	{
+		Organization createdOrganization = createOrganization();
+		UUID id = UUID.fromString(createdOrganization.getIdElement().getIdPart());
+		orgDao.delete(id);
+		orgDao.deletePermanently(id);
+
+		History history = dao.readHistory(Collections.emptyList(), PageAndCount.from(1, 1000),
+				Collections.singletonList(new AtParameter()), new SinceParameter());
+
+		assertNotNull(history);
+		assertEquals(0, history.getTotal());
+		assertNotNull(history.getEntries());
+		assertEquals(0, history.getEntries().size());
+	}
+
+	@Test
+	public void testReadHistoryTaskIdentityFilter() throws Exception
+	{
+		Organization createdOrganization = createOrganization();
+
+		Task task = new Task();
+		task.getRequester().setReference(createdOrganization.getIdElement().toVersionless().getValue());
+		Task createdTask = taskDao.create(task);
+		createdTask.setDescription("Updated");
+		taskDao.update(createdTask);
+		taskDao.delete(UUID.fromString(createdTask.getIdElement().getIdPart()));
+
+		Organization otherOrganization = new Organization();
+		otherOrganization.setIdElement(new IdType("Organization", UUID.randomUUID().toString(), "1"));
+
+		History requesterHistory = dao.readHistory(
+				filterFactory.getIdentityFilter(TestOrganizationIdentity.remote(createdOrganization), Task.class),
+				PageAndCount.from(1, 1000), Collections.singletonList(new AtParameter()), new SinceParameter(),
+				Task.class);
+
+		// delete entries without task version not visible to non admin users
+		assertNotNull(requesterHistory);
+		assertEquals(2, requesterHistory.getTotal());
+		assertEquals(2, requesterHistory.getEntries().size());
+		assertEquals("POST", requesterHistory.getEntries().get(0).getMethod());
+		assertEquals("PUT", requesterHistory.getEntries().get(1).getMethod());
+		assertEquals("Updated", ((Task) requesterHistory.getEntries().get(1).getResource()).getDescription());
+
+		History otherHistory = dao.readHistory(
+				filterFactory.getIdentityFilter(TestOrganizationIdentity.remote(otherOrganization), Task.class),
+				PageAndCount.from(1, 1000), Collections.singletonList(new AtParameter()), new SinceParameter(),
+				Task.class);
+
+		assertNotNull(otherHistory);
+		assertEquals(0, otherHistory.getTotal());
+		assertEquals(0, otherHistory.getEntries().size());
+	}
 }
@@ -1,9 +1,18 @@
 package dev.dsf.fhir.dao;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
 
 import org.hl7.fhir.r4.model.QuestionnaireResponse;
 import org.hl7.fhir.r4.model.QuestionnaireResponse.QuestionnaireResponseStatus;
+import org.junit.Test;
 
 import dev.dsf.fhir.dao.jdbc.QuestionnaireResponseDaoJdbc;
 
@@ -41,4 +50,52 @@ public class QuestionnaireResponseDaoTest
 	{
 		assertEquals(QuestionnaireResponseStatus.COMPLETED, resource.getStatus());
 	}
+
+	@Test
+	public void testCreateThroughputSingleVsBatch() throws Exception
+	{
+		final int count = 5000;
+
+		long singleMillis;
+		try (Connection connection = defaultDataSource.getConnection())
+		{
+			connection.setReadOnly(false);
+			connection.setAutoCommit(false);
+
+			long start = System.currentTimeMillis();
+			for (int i = 0; i < count; i++)
+				dao.createWithTransactionAndId(connection, createResource(), UUID.randomUUID());
+			connection.commit();
+			singleMillis = System.currentTimeMillis() - start;
+		}
+
+		long batchMillis;
+		try (Connection connection = defaultDataSource.getConnection())
+		{
+			connection.setReadOnly(false);
+			connection.setAutoCommit(false);
+
+			List<QuestionnaireResponse> resources = IntStream.range(0, count).mapToObj(i -> createResource()).toList();
+			List<UUID> uuids = IntStream.range(0, count).mapToObj(i -> UUID.randomUUID()).toList();
+
+			long start = System.currentTimeMillis();
+			dao.createWithTransactionAndIds(connection, resources, uuids);
+			connection.commit();
+			batchMillis = System.currentTimeMillis() - start;
+		}
+
+		getLogger().info(
+				"Created {} QuestionnaireResponse resources: single statements {} ms ({} / s), batch {} ms ({} / s)",
+				count, singleMillis, count * 1000 / Math.max(1, singleMillis), batchMillis,
+				count * 1000 / Math.max(1, batchMillis));
+
+		try (Connection connection = defaultDataSource.getConnection();
+				PreparedStatement statement = connection
+						.prepareStatement("SELECT count(*) FROM questionnaire_responses");
+				ResultSet result = statement.executeQuery())
+		{
+			assertTrue(result.next());
+			assertEquals(2 * count, result.getInt(1));
+		}
+	}
 }
@@ -0,0 +1,86 @@
+package dev.dsf.fhir.dao.command;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class AbstractCommandListTest
+{
+	@SuppressWarnings("unchecked")
+	static CreateCommand<?, ?> createCommand(int index, String resourceTypeName, boolean batchable)
+	{
+		CreateCommand<?, ?> command = mock(CreateCommand.class);
+		when(command.getIndex()).thenReturn(index);
+		when(command.getTransactionPriority()).thenReturn(2);
+		when(command.getResourceTypeName()).thenReturn(resourceTypeName);
+		when(command.isBatchable()).thenReturn(batchable);
+		return command;
+	}
+
+	static Command otherCommand(int index, String resourceTypeName)
+	{
+		Command command = mock(Command.class);
+		when(command.getIndex()).thenReturn(index);
+		when(command.getTransactionPriority()).thenReturn(2);
+		when(command.getResourceTypeName()).thenReturn(resourceTypeName);
+		return command;
+	}
+
+	@Test
+	public void testGetCreateBatchConsecutiveSameResourceType() throws Exception
+	{
+		CreateCommand<?, ?> c0 = createCommand(0, "QuestionnaireResponse", true);
+		CreateCommand<?, ?> c1 = createCommand(1, "QuestionnaireResponse", true);
+		CreateCommand<?, ?> c2 = createCommand(2, "QuestionnaireResponse", true);
+		CreateCommand<?, ?> c3 = createCommand(3, "Patient", true);
+		CreateCommand<?, ?> c4 = createCommand(4, "Patient", true);
+
+		AbstractCommandList list = new AbstractCommandList(null, null, List.of(c0, c1, c2, c3, c4));
+
+		assertEquals(List.of(c0, c1, c2), list.getCreateBatch(0));
+		assertEquals(List.of(c1, c2), list.getCreateBatch(1));
+		assertTrue(list.getCreateBatch(2).isEmpty());
+		assertEquals(List.of(c3, c4), list.getCreateBatch(3));
+		assertTrue(list.getCreateBatch(4).isEmpty());
+	}
+
+	@Test
+	public void testGetCreateBatchStopsAtNotBatchableOrOtherCommand() throws Exception
+	{
+		CreateCommand<?, ?> c0 = createCommand(0, "QuestionnaireResponse", true);
+		CreateCommand<?, ?> c1 = createCommand(1, "QuestionnaireResponse", true);
+		CreateCommand<?, ?> c2 = createCommand(2, "QuestionnaireResponse", false);
+		CreateCommand<?, ?> c3 = createCommand(3, "QuestionnaireResponse", true);
+		Command c4 = otherCommand(4, "QuestionnaireResponse");
+		CreateCommand<?, ?> c5 = createCommand(5, "QuestionnaireResponse", true);
+
+		AbstractCommandList list = new AbstractCommandList(null, null, List.of(c0, c1, c2, c3, c4, c5));
+
+		assertEquals(List.of(c0, c1), list.getCreateBatch(0));
+		assertTrue(list.getCreateBatch(2).isEmpty());
+		assertTrue(list.getCreateBatch(3).isEmpty());
+		assertTrue(list.getCreateBatch(4).isEmpty());
+		assertTrue(list.getCreateBatch(5).isEmpty());
+	}
+
+	@Test
+	public void testGetCreateBatchMaxSize() throws Exception
+	{
+		List<CreateCommand<?, ?>> commands = new ArrayList<>();
+		IntStream.range(0, AbstractCommandList.CREATE_BATCH_MAX_SIZE + 2)
+				.forEach(i -> commands.add(createCommand(i, "QuestionnaireResponse", true)));
+
+		AbstractCommandList list = new AbstractCommandList(null, null, commands);
+
+		assertEquals(commands.subList(0, AbstractCommandList.CREATE_BATCH_MAX_SIZE), list.getCreateBatch(0));
+		assertEquals(commands.subList(AbstractCommandList.CREATE_BATCH_MAX_SIZE, commands.size()),
+				list.getCreateBatch(AbstractCommandList.CREATE_BATCH_MAX_SIZE));
+	}
+}
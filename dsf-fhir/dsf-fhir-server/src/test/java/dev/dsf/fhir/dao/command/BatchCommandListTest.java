@@ -0,0 +1,159 @@
+package dev.dsf.fhir.dao.command;
+
+import static dev.dsf.fhir.dao.command.AbstractCommandListTest.otherCommand;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Bundle.BundleEntryComponent;
+import org.hl7.fhir.r4.model.OperationOutcome;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+import dev.dsf.common.auth.conf.Identity;
+import dev.dsf.fhir.event.EventHandler;
+import dev.dsf.fhir.help.ExceptionHandler;
+import dev.dsf.fhir.validation.SnapshotGenerator;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.Status;
+
+public class BatchCommandListTest
+{
+	private final DataSource dataSource = mock(DataSource.class);
+	private final Connection connection = mock(Connection.class);
+	private final ExceptionHandler exceptionHandler = mock(ExceptionHandler.class);
+	private final ValidationHelper validationHelper = mock(ValidationHelper.class);
+	private final SnapshotGenerator snapshotGenerator = mock(SnapshotGenerator.class);
+	private final EventHandler eventHandler = mock(EventHandler.class);
+	private final PreValidationHelper preValidationHelper = mock(PreValidationHelper.class);
+	private final Identity identity = mock(Identity.class);
+
+	@Before
+	public void before() throws Exception
+	{
+		when(dataSource.getConnection()).thenReturn(connection);
+		when(validationHelper.withPreValidationResults(any())).thenReturn(validationHelper);
+		when(exceptionHandler.internalServerErrorBundleBatch(any())).thenReturn(new WebApplicationException(
+				Response.status(Status.INTERNAL_SERVER_ERROR).entity(new OperationOutcome()).build()));
+	}
+
+	private CreateCommand<?, ?> createCommand(int index, String status)
+	{
+		CreateCommand<?, ?> command = AbstractCommandListTest.createCommand(index, "QuestionnaireResponse", true);
+		when(command.getIdentity()).thenReturn(identity);
+
+		BundleEntryComponent result = new BundleEntryComponent();
+		result.getResponse().setStatus(status);
+		when(command.postExecute(eq(connection), any())).thenReturn(Optional.of(result));
+
+		return command;
+	}
+
+	private BatchCommandList createList(List<? extends Command> commands)
+	{
+		return new BatchCommandList(dataSource, exceptionHandler, commands, validationHelper, snapshotGenerator,
+				eventHandler, preValidationHelper);
+	}
+
+	@Test
+	public void testCreateBatch() throws Exception
+	{
+		CreateCommand<?, ?> c0 = createCommand(0, "201 Created");
+		CreateCommand<?, ?> c1 = createCommand(1, "201 Created");
+		Command c2 = otherCommand(2, "Task");
+
+		try (MockedStatic<CreateCommand> createCommand = mockStatic(CreateCommand.class))
+		{
+			Bundle result = createList(List.of(c0, c1, c2)).execute();
+
+			createCommand.verify(() -> CreateCommand.executeCreateBatch(eq(List.of(c0, c1)), anyMap(), eq(connection)),
+					times(1));
+
+			verify(c0).executeWithoutCreate(anyMap(), eq(connection), eq(validationHelper), eq(snapshotGenerator));
+			verify(c1).executeWithoutCreate(anyMap(), eq(connection), eq(validationHelper), eq(snapshotGenerator));
+			verify(c0, never()).execute(anyMap(), any(), any(), any());
+			verify(c1, never()).execute(anyMap(), any(), any(), any());
+			verify(c0, never()).executeCreate(anyMap(), any());
+			verify(c1, never()).executeCreate(anyMap(), any());
+			verify(c2).execute(anyMap(), eq(connection), eq(validationHelper), eq(snapshotGenerator));
+			verify(connection, never()).rollback();
+
+			assertEquals(2, result.getEntry().size());
+			assertEquals("201 Created", result.getEntry().get(0).getResponse().getStatus());
+			assertEquals("201 Created", result.getEntry().get(1).getResponse().getStatus());
+		}
+	}
+
+	@Test
+	public void testCreateBatchFailedFallbackRowByRow() throws Exception
+	{
+		CreateCommand<?, ?> c0 = createCommand(0, "201 Created");
+		CreateCommand<?, ?> c1 = createCommand(1, "201 Created");
+		CreateCommand<?, ?> c2 = createCommand(2, "201 Created");
+
+		// second resource can't be written, fails the batch and the single insert
+		doThrow(new SQLException("test")).when(c1).executeCreate(anyMap(), eq(connection));
+
+		try (MockedStatic<CreateCommand> createCommand = mockStatic(CreateCommand.class))
+		{
+			createCommand.when(() -> CreateCommand.executeCreateBatch(anyList(), anyMap(), any()))
+					.thenThrow(new SQLException("test"));
+
+			Bundle result = createList(List.of(c0, c1, c2)).execute();
+
+			verify(c0).executeCreate(anyMap(), eq(connection));
+			verify(c1).executeCreate(anyMap(), eq(connection));
+			verify(c2).executeCreate(anyMap(), eq(connection));
+
+			// batch and failed single insert rolled back
+			verify(connection, times(2)).rollback();
+
+			assertEquals(3, result.getEntry().size());
+			assertEquals("201 Created", result.getEntry().get(0).getResponse().getStatus());
+			assertEquals("500 Internal Server Error", result.getEntry().get(1).getResponse().getStatus());
+			assertEquals("201 Created", result.getEntry().get(2).getResponse().getStatus());
+		}
+	}
+
+	@Test
+	public void testCreateBatchSkipsFailedExecuteWithoutCreate() throws Exception
+	{
+		CreateCommand<?, ?> c0 = createCommand(0, "201 Created");
+		CreateCommand<?, ?> c1 = createCommand(1, "201 Created");
+
+		doThrow(new WebApplicationException(Response.status(Status.FORBIDDEN).entity(new OperationOutcome()).build()))
+				.when(c0).executeWithoutCreate(anyMap(), eq(connection), eq(validationHelper), eq(snapshotGenerator));
+
+		try (MockedStatic<CreateCommand> createCommand = mockStatic(CreateCommand.class))
+		{
+			Bundle result = createList(List.of(c0, c1)).execute();
+
+			// failed command not written, remaining commands still written as batch
+			createCommand.verify(() -> CreateCommand.executeCreateBatch(eq(List.of(c0, c1)), anyMap(), eq(connection)),
+					times(1));
+
+			assertEquals(2, result.getEntry().size());
+			assertEquals("403 Forbidden", result.getEntry().get(0).getResponse().getStatus());
+			assertEquals("201 Created", result.getEntry().get(1).getResponse().getStatus());
+		}
+	}
+}
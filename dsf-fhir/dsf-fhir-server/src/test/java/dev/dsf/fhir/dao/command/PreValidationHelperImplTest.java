@@ -0,0 +1,213 @@
+package dev.dsf.fhir.dao.command;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Resource;
+import org.junit.After;
+import org.junit.Test;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.validation.ValidationResult;
+import dev.dsf.fhir.validation.ResourceValidator;
+
+public class PreValidationHelperImplTest
+{
+	private static final FhirContext fhirContext = FhirContext.forR4();
+
+	private final List<PreValidationHelperImpl> helpers = new ArrayList<>();
+
+	@After
+	public void after() throws Exception
+	{
+		for (PreValidationHelperImpl helper : helpers)
+			helper.destroy();
+	}
+
+	private PreValidationHelperImpl createHelper(ResourceValidator resourceValidator, int threads) throws Exception
+	{
+		PreValidationHelperImpl helper = new PreValidationHelperImpl(resourceValidator, threads);
+		helper.afterPropertiesSet();
+		helpers.add(helper);
+		return helper;
+	}
+
+	private static Patient patient(int i)
+	{
+		Patient patient = new Patient();
+		patient.setId("Patient/" + i);
+		patient.setActive(true);
+		return patient;
+	}
+
+	private static Command command(Resource resource)
+	{
+		Command command = mock(ModifyingCommand.class);
+		when(command.getResourceTypeName()).thenReturn(resource.fhirType());
+		when(command.getPreValidationCandidate(anyMap()))
+				.thenReturn(Optional.of(new PreValidationHelper.Candidate(resource, resource.copy())));
+		return command;
+	}
+
+	private static ValidationResult result()
+	{
+		return new ValidationResult(fhirContext, Collections.emptyList());
+	}
+
+	@Test
+	public void testPreValidateInParallel() throws Exception
+	{
+		final int count = 4;
+		CountDownLatch allStarted = new CountDownLatch(count);
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+
+		// every validation waits for all others to start, only completes if validated in parallel
+		ResourceValidator resourceValidator = resource ->
+		{
+			threads.add(Thread.currentThread().getName());
+			allStarted.countDown();
+
+			try
+			{
+				if (!allStarted.await(10, TimeUnit.SECONDS))
+					throw new IllegalStateException("Not validated in parallel");
+			}
+			catch (InterruptedException e)
+			{
+				throw new RuntimeException(e);
+			}
+
+			return result();
+		};
+
+		List<Patient> patients = List.of(patient(0), patient(1), patient(2), patient(3));
+		PreValidationResults results = createHelper(resourceValidator, count)
+				.preValidate(patients.stream().map(PreValidationHelperImplTest::command).toList(), new HashMap<>());
+
+		assertEquals(count, threads.size());
+		for (Patient patient : patients)
+			assertTrue(results.get(patient).isPresent());
+	}
+
+	@Test
+	public void testPreValidateResultsMatchedToEntries() throws Exception
+	{
+		List<Patient> patients = List.of(patient(0), patient(1), patient(2), patient(3));
+		Map<String, ValidationResult> resultsById = new HashMap<>();
+		patients.forEach(p -> resultsById.put(p.getIdElement().getIdPart(), result()));
+
+		// first entries finish last
+		ResourceValidator resourceValidator = resource ->
+		{
+			String id = resource.getIdElement().getIdPart();
+			try
+			{
+				Thread.sleep(50L * (patients.size() - Integer.parseInt(id)));
+			}
+			catch (InterruptedException e)
+			{
+				throw new RuntimeException(e);
+			}
+
+			return resultsById.get(id);
+		};
+
+		PreValidationResults results = createHelper(resourceValidator, patients.size())
+				.preValidate(patients.stream().map(PreValidationHelperImplTest::command).toList(), new HashMap<>());
+
+		for (Patient patient : patients)
+			assertSame(resultsById.get(patient.getIdElement().getIdPart()), results.get(patient).get());
+	}
+
+	@Test
+	public void testPreValidateErrorNotPropagated() throws Exception
+	{
+		ValidationResult result = result();
+		ResourceValidator resourceValidator = resource ->
+		{
+			if ("1".equals(resource.getIdElement().getIdPart()))
+				throw new RuntimeException("test");
+			else
+				return result;
+		};
+
+		Patient p0 = patient(0);
+		Patient p1 = patient(1);
+		Patient p2 = patient(2);
+
+		PreValidationResults results = createHelper(resourceValidator, 2)
+				.preValidate(List.of(command(p0), command(p1), command(p2)), new HashMap<>());
+
+		// failed resource validated again during execute, error reported for the corresponding entry
+		assertSame(result, results.get(p0).get());
+		assertFalse(results.get(p1).isPresent());
+		assertSame(result, results.get(p2).get());
+	}
+
+	@Test
+	public void testPreValidateSkipped() throws Exception
+	{
+		ResourceValidator resourceValidator = mock(ResourceValidator.class);
+		when(resourceValidator.validate(any())).thenReturn(result());
+
+		// disabled
+		assertTrue(createHelper(resourceValidator, 0)
+				.preValidate(List.of(command(patient(0)), command(patient(1))), new HashMap<>()).isEmpty());
+
+		// less than two candidates
+		assertTrue(createHelper(resourceValidator, 2).preValidate(List.of(command(patient(0))), new HashMap<>())
+				.isEmpty());
+
+		// bundle modifies resources used by the validator
+		Command structureDefinition = mock(ModifyingCommand.class);
+		when(structureDefinition.getResourceTypeName()).thenReturn("StructureDefinition");
+		assertTrue(createHelper(resourceValidator, 2)
+				.preValidate(List.of(command(patient(0)), command(patient(1)), structureDefinition), new HashMap<>())
+				.isEmpty());
+
+		verify(resourceValidator, never()).validate(any());
+	}
+
+	@Test
+	public void testPreValidationResultModifiedResource() throws Exception
+	{
+		ValidationResult result = result();
+		Patient patient = patient(0);
+
+		PreValidationResults results = new PreValidationResults();
+		results.add(new PreValidationHelper.Candidate(patient, patient.copy()), result);
+
+		assertFalse(results.isEmpty());
+		assertSame(result, results.get(patient).get());
+
+		// equal resource, but not the pre-validated instance
+		assertFalse(results.get(patient.copy()).isPresent());
+
+		// modified after the validated copy was created
+		patient.setActive(false);
+		assertFalse(results.get(patient).isPresent());
+
+		assertTrue(PreValidationResults.empty().isEmpty());
+		assertFalse(PreValidationResults.empty().get(patient).isPresent());
+	}
+}
@@ -0,0 +1,142 @@
+package dev.dsf.fhir.dao.command;
+
+import static dev.dsf.fhir.dao.command.AbstractCommandListTest.createCommand;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+import dev.dsf.common.auth.conf.Identity;
+import dev.dsf.fhir.event.EventHandler;
+import dev.dsf.fhir.help.ExceptionHandler;
+import dev.dsf.fhir.validation.SnapshotGenerator;
+import jakarta.ws.rs.WebApplicationException;
+
+public class TransactionCommandListTest
+{
+	private final DataSource dataSource = mock(DataSource.class);
+	private final Connection connection = mock(Connection.class);
+	private final ExceptionHandler exceptionHandler = mock(ExceptionHandler.class);
+	private final ValidationHelper validationHelper = mock(ValidationHelper.class);
+	private final SnapshotGenerator snapshotGenerator = mock(SnapshotGenerator.class);
+	private final PreValidationHelper preValidationHelper = mock(PreValidationHelper.class);
+	private final Identity identity = mock(Identity.class);
+
+	@Before
+	public void before() throws Exception
+	{
+		when(dataSource.getConnection()).thenReturn(connection);
+		when(validationHelper.withPreValidationResults(any())).thenReturn(validationHelper);
+	}
+
+	private TransactionCommandList createList(List<? extends Command> commands)
+	{
+		TransactionEventHandler eventHandler = new TransactionEventHandler(mock(EventHandler.class),
+				mock(EventHandler.class));
+
+		commands.forEach(c -> when(c.getIdentity()).thenReturn(identity));
+
+		return new TransactionCommandList(dataSource, exceptionHandler, commands,
+				(connection, modifiesConformanceResources) -> new TransactionResources(validationHelper,
+						snapshotGenerator, eventHandler),
+				preValidationHelper);
+	}
+
+	@Test
+	public void testCreateBatch() throws Exception
+	{
+		CreateCommand<?, ?> c0 = createCommand(0, "QuestionnaireResponse", true);
+		CreateCommand<?, ?> c1 = createCommand(1, "QuestionnaireResponse", true);
+		CreateCommand<?, ?> c2 = createCommand(2, "Task", true);
+
+		try (MockedStatic<CreateCommand> createCommand = mockStatic(CreateCommand.class))
+		{
+			createList(List.of(c0, c1, c2)).execute();
+
+			createCommand.verify(() -> CreateCommand.executeCreateBatch(eq(List.of(c0, c1)), anyMap(), eq(connection)),
+					times(1));
+
+			verify(c0).executeWithoutCreate(anyMap(), eq(connection), eq(validationHelper), eq(snapshotGenerator));
+			verify(c1).executeWithoutCreate(anyMap(), eq(connection), eq(validationHelper), eq(snapshotGenerator));
+			verify(c0, never()).execute(anyMap(), any(), any(), any());
+			verify(c1, never()).execute(anyMap(), any(), any(), any());
+
+			// single create of a different resource type not batched
+			verify(c2).execute(anyMap(), eq(connection), eq(validationHelper), eq(snapshotGenerator));
+
+			verify(connection).commit();
+			verify(connection, never()).rollback();
+		}
+	}
+
+	@Test
+	public void testCreateBatchFailedRollsBackTransaction() throws Exception
+	{
+		CreateCommand<?, ?> c0 = createCommand(0, "QuestionnaireResponse", true);
+		CreateCommand<?, ?> c1 = createCommand(1, "QuestionnaireResponse", true);
+		CreateCommand<?, ?> c2 = createCommand(2, "Task", true);
+
+		SQLException batchException = new SQLException("test");
+		WebApplicationException transactionException = new WebApplicationException();
+		when(exceptionHandler.internalServerErrorBundleTransaction(batchException)).thenReturn(transactionException);
+
+		try (MockedStatic<CreateCommand> createCommand = mockStatic(CreateCommand.class))
+		{
+			createCommand.when(() -> CreateCommand.executeCreateBatch(anyList(), anyMap(), any()))
+					.thenThrow(batchException);
+
+			try
+			{
+				createList(List.of(c0, c1, c2)).execute();
+				fail("WebApplicationException expected");
+			}
+			catch (WebApplicationException e)
+			{
+				assertSame(transactionException, e);
+			}
+
+			// no row by row fallback for transactions, the whole bundle fails
+			verify(c0, never()).executeCreate(anyMap(), any());
+			verify(c1, never()).executeCreate(anyMap(), any());
+			verify(c2, never()).execute(anyMap(), any(), any(), any());
+
+			verify(connection).rollback();
+			verify(connection, never()).commit();
+		}
+	}
+
+	@Test
+	public void testCreateBatchNotUsedForSingleCreate() throws Exception
+	{
+		CreateCommand<?, ?> c0 = createCommand(0, "QuestionnaireResponse", true);
+		CreateCommand<?, ?> c1 = createCommand(1, "QuestionnaireResponse", false);
+
+		try (MockedStatic<CreateCommand> createCommand = mockStatic(CreateCommand.class))
+		{
+			createList(List.of(c0, c1)).execute();
+
+			createCommand.verify(() -> CreateCommand.executeCreateBatch(anyList(), anyMap(), any()), never());
+
+			verify(c0).execute(anyMap(), eq(connection), eq(validationHelper), eq(snapshotGenerator));
+			verify(c1).execute(anyMap(), eq(connection), eq(validationHelper), eq(snapshotGenerator));
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package dev.dsf.fhir.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Task;
+import org.junit.Test;
+
+public class EventDispatcherTest
+{
+	private static Event createEvent(String id)
+	{
+		return new ResourceCreatedEvent(Task.class, new Task().setIdElement(new IdType(id)));
+	}
+
+	@Test
+	public void testEventsDispatchedInOrder() throws Exception
+	{
+		List<String> handled = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch done = new CountDownLatch(4);
+
+		EventHandler delegate = new EventHandler()
+		{
+			@Override
+			public void handleEvent(Event event)
+			{
+				handled.add(event.getResource().getIdElement().getIdPart());
+				done.countDown();
+			}
+		};
+
+		EventDispatcher dispatcher = new EventDispatcher(delegate, events -> fail("No events dropped expected"), "test",
+				10, 0);
+		try
+		{
+			dispatcher.afterPropertiesSet();
+
+			dispatcher.handleEvent(createEvent("1"));
+			dispatcher.handleEvents(List.of(createEvent("2"), createEvent("3")));
+			dispatcher.handleEvent(createEvent("4"));
+
+			assertTrue(done.await(10, TimeUnit.SECONDS));
+			assertEquals(List.of("1", "2", "3", "4"), handled);
+			assertEquals(0, dispatcher.getDroppedCount());
+		}
+		finally
+		{
+			dispatcher.destroy();
+		}
+	}
+
+	@Test
+	public void testEventsDroppedIfBufferFull() throws Exception
+	{
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		EventHandler delegate = new EventHandler()
+		{
+			@Override
+			public void handleEvent(Event event)
+			{
+				started.countDown();
+
+				try
+				{
+					release.await(10, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+
+		List<String> droppedIds = Collections.synchronizedList(new ArrayList<>());
+		EventDispatcher dispatcher = new EventDispatcher(delegate,
+				events -> events.forEach(e -> droppedIds.add(e.getResource().getIdElement().getIdPart())), "test", 2,
+				10);
+		try
+		{
+			dispatcher.afterPropertiesSet();
+
+			// first event blocks the dispatch thread
+			dispatcher.handleEvent(createEvent("1"));
+			assertTrue(started.await(10, TimeUnit.SECONDS));
+
+			dispatcher.handleEvent(createEvent("2"));
+			dispatcher.handleEvent(createEvent("3"));
+			dispatcher.handleEvents(List.of(createEvent("4"), createEvent("5")));
+
+			assertEquals(2, dispatcher.getQueueDepth());
+			assertEquals(2, dispatcher.getDroppedCount());
+
+			// dropped events handed to the handler on the producer thread, e.g. to close affected subscriptions
+			assertEquals(List.of("4", "5"), droppedIds);
+		}
+		finally
+		{
+			release.countDown();
+			dispatcher.destroy();
+		}
+	}
+}
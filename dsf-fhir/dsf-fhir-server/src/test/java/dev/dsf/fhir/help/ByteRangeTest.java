@@ -0,0 +1,87 @@
+package dev.dsf.fhir.help;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+public class ByteRangeTest
+{
+	@Test
+	public void testFromHeaderFirstAndLast() throws Exception
+	{
+		Optional<ByteRange> range = ByteRange.fromHeader("bytes=10-19");
+		assertNotNull(range);
+		assertTrue(range.isPresent());
+
+		assertTrue(range.get().isSatisfiable(100));
+		assertEquals(10, range.get().getStart(100));
+		assertEquals(19, range.get().getEnd(100));
+		assertEquals(10, range.get().getLength(100));
+		assertEquals("bytes 10-19/100", range.get().toContentRange(100));
+
+		assertTrue(range.get().isSatisfiable(15));
+		assertEquals(14, range.get().getEnd(15));
+		assertEquals(5, range.get().getLength(15));
+
+		assertFalse(range.get().isSatisfiable(10));
+	}
+
+	@Test
+	public void testFromHeaderOpen() throws Exception
+	{
+		Optional<ByteRange> range = ByteRange.fromHeader("bytes=90-");
+		assertTrue(range.isPresent());
+
+		assertTrue(range.get().isSatisfiable(100));
+		assertEquals(90, range.get().getStart(100));
+		assertEquals(99, range.get().getEnd(100));
+		assertEquals(10, range.get().getLength(100));
+		assertEquals("bytes 90-99/100", range.get().toContentRange(100));
+
+		assertFalse(range.get().isSatisfiable(90));
+	}
+
+	@Test
+	public void testFromHeaderSuffix() throws Exception
+	{
+		Optional<ByteRange> range = ByteRange.fromHeader("bytes=-20");
+		assertTrue(range.isPresent());
+
+		assertTrue(range.get().isSatisfiable(100));
+		assertEquals(80, range.get().getStart(100));
+		assertEquals(99, range.get().getEnd(100));
+		assertEquals(20, range.get().getLength(100));
+
+		assertTrue(range.get().isSatisfiable(5));
+		assertEquals(0, range.get().getStart(5));
+		assertEquals(5, range.get().getLength(5));
+
+		assertFalse(range.get().isSatisfiable(0));
+		assertFalse(ByteRange.fromHeader("bytes=-0").get().isSatisfiable(100));
+	}
+
+	@Test
+	public void testFromHeaderInvalid() throws Exception
+	{
+		assertTrue(ByteRange.fromHeader(null).isEmpty());
+		assertTrue(ByteRange.fromHeader("").isEmpty());
+		assertTrue(ByteRange.fromHeader("bytes=").isEmpty());
+		assertTrue(ByteRange.fromHeader("bytes=-").isEmpty());
+		assertTrue(ByteRange.fromHeader("bytes=20-10").isEmpty());
+		assertTrue(ByteRange.fromHeader("bytes=0-10,20-30").isEmpty());
+		assertTrue(ByteRange.fromHeader("items=0-10").isEmpty());
+		assertTrue(ByteRange.fromHeader("bytes=a-b").isEmpty());
+		assertTrue(ByteRange.fromHeader("bytes=99999999999999999999-").isEmpty());
+	}
+
+	@Test
+	public void testToUnsatisfiedContentRange() throws Exception
+	{
+		assertEquals("bytes */100", ByteRange.toUnsatisfiedContentRange(100));
+	}
+}
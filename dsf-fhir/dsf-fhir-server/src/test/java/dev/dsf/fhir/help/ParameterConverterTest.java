@@ -0,0 +1,70 @@
+package dev.dsf.fhir.help;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+import org.junit.Test;
+
+import ca.uhn.fhir.rest.api.Constants;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+
+public class ParameterConverterTest
+{
+	private static final ZonedDateTime LAST_UPDATED = ZonedDateTime.of(2024, 1, 2, 10, 20, 30, 500_000_000,
+			ZoneOffset.UTC);
+
+	private final ParameterConverter parameterConverter = new ParameterConverter(null);
+
+	private static HttpHeaders headers(String ifNoneMatch, ZonedDateTime ifModifiedSince)
+	{
+		HttpHeaders headers = mock(HttpHeaders.class);
+		when(headers.getHeaderString(Constants.HEADER_IF_NONE_MATCH)).thenReturn(ifNoneMatch);
+		when(headers.getHeaderString(Constants.HEADER_IF_MODIFIED_SINCE)).thenReturn(
+				ifModifiedSince == null ? null : DateTimeFormatter.RFC_1123_DATE_TIME.format(ifModifiedSince));
+		return headers;
+	}
+
+	private boolean isNotModified(HttpHeaders headers, String version)
+	{
+		return parameterConverter.isNotModified(headers, new EntityTag(version, true),
+				Date.from(LAST_UPDATED.toInstant()));
+	}
+
+	@Test
+	public void testHasNotModifiedHeaders() throws Exception
+	{
+		assertFalse(parameterConverter.hasNotModifiedHeaders(headers(null, null)));
+		assertTrue(parameterConverter.hasNotModifiedHeaders(headers("W/\"1\"", null)));
+		assertTrue(parameterConverter.hasNotModifiedHeaders(headers(null, LAST_UPDATED)));
+	}
+
+	@Test
+	public void testIsNotModifiedIfNoneMatch() throws Exception
+	{
+		assertTrue(isNotModified(headers("W/\"2\"", null), "2"));
+		assertFalse(isNotModified(headers("W/\"1\"", null), "2"));
+		assertFalse(isNotModified(headers(null, null), "2"));
+	}
+
+	@Test
+	public void testIsNotModifiedIfModifiedSince() throws Exception
+	{
+		assertTrue(isNotModified(headers(null, LAST_UPDATED), "2"));
+		assertTrue(isNotModified(headers(null, LAST_UPDATED.plusMinutes(1)), "2"));
+		assertFalse(isNotModified(headers(null, LAST_UPDATED.minusSeconds(1)), "2"));
+	}
+
+	@Test
+	public void testIsNotModifiedIfModifiedSinceIgnoredWithIfNoneMatch() throws Exception
+	{
+		assertFalse(isNotModified(headers("W/\"1\"", LAST_UPDATED), "2"));
+	}
+}
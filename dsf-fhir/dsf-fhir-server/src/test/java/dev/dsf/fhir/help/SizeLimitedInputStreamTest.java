@@ -0,0 +1,60 @@
+package dev.dsf.fhir.help;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+public class SizeLimitedInputStreamTest
+{
+	private static final byte[] DATA = { 1, 2, 3, 4, 5 };
+
+	@Test
+	public void testReadMaxSize() throws Exception
+	{
+		try (SizeLimitedInputStream in = new SizeLimitedInputStream(new ByteArrayInputStream(DATA), DATA.length))
+		{
+			assertArrayEquals(DATA, in.readAllBytes());
+			assertFalse(in.isMaxSizeExceeded());
+		}
+	}
+
+	@Test
+	public void testReadMaxSizeExceeded() throws Exception
+	{
+		try (SizeLimitedInputStream in = new SizeLimitedInputStream(new ByteArrayInputStream(DATA), DATA.length - 1))
+		{
+			in.readAllBytes();
+			fail("IOException expected");
+		}
+		catch (IOException e)
+		{
+			// expected
+		}
+	}
+
+	@Test
+	public void testReadSingleBytesMaxSizeExceeded() throws Exception
+	{
+		SizeLimitedInputStream in = new SizeLimitedInputStream(new ByteArrayInputStream(DATA), 2);
+
+		in.read();
+		in.read();
+		assertFalse(in.isMaxSizeExceeded());
+
+		try
+		{
+			in.read();
+			fail("IOException expected");
+		}
+		catch (IOException e)
+		{
+			assertTrue(in.isMaxSizeExceeded());
+		}
+	}
+}
@@ -227,6 +227,39 @@ public class PageAndCountTest
 		assertPageAndCount(pC_1_s, 2, DEFAULT_PAGE_COUNT);
 	}
 
+	@Test
+	public void testFromTotal() throws Exception
+	{
+		PageAndCount pC_default = PageAndCount.from(Map.of(), DEFAULT_PAGE_COUNT);
+		assertEquals(TotalMode.ACCURATE, pC_default.getTotalMode());
+		assertTrue(pC_default.isTotalAccurate());
+
+		PageAndCount pC_accurate = PageAndCount.from(Map.of("_total", List.of("accurate")), DEFAULT_PAGE_COUNT);
+		assertEquals(TotalMode.ACCURATE, pC_accurate.getTotalMode());
+
+		PageAndCount pC_foo = PageAndCount.from(Map.of("_total", List.of("foo")), DEFAULT_PAGE_COUNT);
+		assertEquals(TotalMode.ACCURATE, pC_foo.getTotalMode());
+
+		PageAndCount pC_estimate = PageAndCount.from(Map.of("_total", List.of("estimate")), DEFAULT_PAGE_COUNT);
+		assertEquals(TotalMode.ESTIMATE, pC_estimate.getTotalMode());
+		assertFalse(pC_estimate.isTotalAccurate());
+
+		PageAndCount pC_none = PageAndCount.from(
+				Map.of("_page", List.of("3"), "_count", List.of("10"), "_total", List.of("none")), DEFAULT_PAGE_COUNT);
+		assertPageAndCount(pC_none, 3, 10);
+		assertEquals(TotalMode.NONE, pC_none.getTotalMode());
+		assertFalse(pC_none.isTotalAccurate());
+		assertFalse(pC_none.isCountOnly());
+		assertEquals(" LIMIT 10 OFFSET 20", pC_none.getSql());
+		assertEquals(" LIMIT 11 OFFSET 20", pC_none.getSql(true, true));
+		assertEquals(" LIMIT 11", pC_none.getSql(true, false));
+		assertEquals(" LIMIT 10", pC_none.getSql(false, false));
+
+		assertEquals(TotalMode.ACCURATE, PageAndCount.single().getTotalMode());
+		assertEquals(TotalMode.ACCURATE, PageAndCount.exists().getTotalMode());
+		assertTrue(PageAndCount.exists().isCountOnly());
+	}
+
 	private void assertPageAndCount(PageAndCount pC, int expectedPage, int expectedCount)
 	{
 		assertNotNull(pC);
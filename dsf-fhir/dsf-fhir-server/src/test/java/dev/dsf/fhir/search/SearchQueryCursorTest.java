@@ -0,0 +1,69 @@
+package dev.dsf.fhir.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Task;
+import org.junit.Test;
+
+public class SearchQueryCursorTest
+{
+	@Test
+	public void testFromResourceToTokenFromToken() throws Exception
+	{
+		UUID id = UUID.randomUUID();
+		Task task = new Task();
+		task.setIdElement(new IdType("Task", id.toString(), "42"));
+
+		Optional<SearchQueryCursor> cursor = SearchQueryCursor.fromResource(task);
+		assertTrue(cursor.isPresent());
+		assertEquals(id, cursor.get().getId());
+		assertEquals(42L, cursor.get().getVersion());
+
+		String token = cursor.get().toToken();
+		assertFalse(token.contains(id.toString()));
+
+		Optional<SearchQueryCursor> fromToken = SearchQueryCursor.fromToken(token);
+		assertTrue(fromToken.isPresent());
+		assertEquals(id, fromToken.get().getId());
+		assertEquals(42L, fromToken.get().getVersion());
+	}
+
+	@Test
+	public void testFromResourceVersionFromMeta() throws Exception
+	{
+		UUID id = UUID.randomUUID();
+		Task task = new Task();
+		task.setId(id.toString());
+		task.getMeta().setVersionId("3");
+
+		Optional<SearchQueryCursor> cursor = SearchQueryCursor.fromResource(task);
+		assertTrue(cursor.isPresent());
+		assertEquals(3L, cursor.get().getVersion());
+	}
+
+	@Test
+	public void testFromResourceInvalid() throws Exception
+	{
+		assertFalse(SearchQueryCursor.fromResource(null).isPresent());
+		assertFalse(SearchQueryCursor.fromResource(new Task()).isPresent());
+
+		Task task = new Task();
+		task.setId(UUID.randomUUID().toString());
+		assertFalse(SearchQueryCursor.fromResource(task).isPresent());
+	}
+
+	@Test
+	public void testFromTokenInvalid() throws Exception
+	{
+		assertFalse(SearchQueryCursor.fromToken(null).isPresent());
+		assertFalse(SearchQueryCursor.fromToken("").isPresent());
+		assertFalse(SearchQueryCursor.fromToken("not a token!").isPresent());
+		assertFalse(SearchQueryCursor.fromToken("Zm9v").isPresent());
+	}
+}
@@ -0,0 +1,143 @@
+package dev.dsf.fhir.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.hl7.fhir.r4.model.Binary;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Questionnaire;
+import org.junit.Test;
+
+import ca.uhn.fhir.context.FhirContext;
+import dev.dsf.fhir.help.SummaryMode;
+
+public class SearchQueryProjectionTest
+{
+	private static final FhirContext fhirContext = FhirContext.forR4();
+
+	private final SearchQueryProjection questionnaire = SearchQueryProjection.forResourceType(fhirContext,
+			Questionnaire.class);
+
+	@Test
+	public void testIsElement() throws Exception
+	{
+		assertTrue(questionnaire.isElement("id"));
+		assertTrue(questionnaire.isElement("meta"));
+		assertTrue(questionnaire.isElement("item"));
+		assertTrue(questionnaire.isElement("extension"));
+		assertFalse(questionnaire.isElement("item.linkId"));
+		assertFalse(questionnaire.isElement("foo"));
+		assertFalse(questionnaire.isElement(null));
+	}
+
+	@Test
+	public void testSummaryFilter() throws Exception
+	{
+		Predicate<String> summaryTrue = questionnaire.getSummaryFilter(SummaryMode.TRUE);
+		assertTrue(summaryTrue.test("id"));
+		assertTrue(summaryTrue.test("meta"));
+		assertTrue(summaryTrue.test("url"));
+		assertTrue(summaryTrue.test("status"));
+		assertFalse(summaryTrue.test("item"));
+		assertFalse(summaryTrue.test("text"));
+
+		Predicate<String> summaryText = questionnaire.getSummaryFilter(SummaryMode.TEXT);
+		assertTrue(summaryText.test("text"));
+		assertTrue(summaryText.test("status"));
+		assertFalse(summaryText.test("url"));
+
+		Predicate<String> summaryData = questionnaire.getSummaryFilter(SummaryMode.DATA);
+		assertFalse(summaryData.test("text"));
+		assertTrue(summaryData.test("item"));
+
+		assertTrue(questionnaire.getSummaryFilter(SummaryMode.FALSE).test("item"));
+		assertTrue(questionnaire.getSummaryFilter(null).test("item"));
+	}
+
+	@Test
+	public void testElementsFilter() throws Exception
+	{
+		Predicate<String> filter = questionnaire.getElementsFilter(Set.of("url"));
+		assertTrue(filter.test("id"));
+		assertTrue(filter.test("meta"));
+		assertTrue(filter.test("url"));
+		assertTrue(filter.test("status"));
+		assertFalse(filter.test("item"));
+		assertFalse(filter.test("version"));
+	}
+
+	@Test
+	public void testSql() throws Exception
+	{
+		assertEquals(Optional.empty(), questionnaire.getSql("questionnaire", name -> true));
+
+		Optional<String> sql = questionnaire.getSql("questionnaire", questionnaire.getSummaryFilter(SummaryMode.DATA));
+		assertEquals(Optional.of("(questionnaire - '{_text,text}'::text[])"), sql);
+
+		Set<String> excluded = excluded(
+				questionnaire.getSql("questionnaire", questionnaire.getElementsFilter(Set.of("url"))), "questionnaire");
+		assertTrue(excluded.contains("item"));
+		assertTrue(excluded.contains("version"));
+		assertTrue(excluded.contains("_version"));
+		assertFalse(excluded.contains("url"));
+		assertFalse(excluded.contains("status"));
+		assertFalse(excluded.contains("meta"));
+		assertFalse(excluded.contains("id"));
+	}
+
+	@Test
+	public void testSubsettedSql() throws Exception
+	{
+		assertEquals(Optional.empty(), questionnaire.getSubsettedSql("questionnaire", name -> true));
+
+		Predicate<String> filter = questionnaire.getElementsFilter(Set.of("url"));
+		Optional<String> sql = questionnaire.getSubsettedSql("questionnaire", filter);
+
+		assertTrue(sql.isPresent());
+		assertEquals("jsonb_set(" + questionnaire.getSql("questionnaire", filter).get()
+				+ ", '{meta,tag}', COALESCE(questionnaire->'meta'->'tag', '[]'::jsonb) || "
+				+ "'[{\"system\":\"http://terminology.hl7.org/CodeSystem/v3-ObservationValue\","
+				+ "\"code\":\"SUBSETTED\"}]'::jsonb)", sql.get());
+	}
+
+	private static Set<String> excluded(Optional<String> sql, String resourceColumn)
+	{
+		assertTrue(sql.isPresent());
+		assertTrue(sql.get().startsWith("(" + resourceColumn + " - '{"));
+		assertTrue(sql.get().endsWith("}'::text[])"));
+
+		String array = sql.get().substring(resourceColumn.length() + 5, sql.get().length() - 11);
+		return Set.of(array.split(","));
+	}
+
+	@Test
+	public void testSqlChoiceType() throws Exception
+	{
+		SearchQueryProjection observation = SearchQueryProjection.forResourceType(fhirContext, Observation.class);
+		Set<String> excluded = excluded(
+				observation.getSql("observation", observation.getElementsFilter(Set.of("status"))), "observation");
+
+		assertTrue(excluded.contains("valueQuantity"));
+		assertTrue(excluded.contains("_valueString"));
+		assertFalse(excluded.contains("status"));
+	}
+
+	@Test
+	public void testBinaryDataNotSummary() throws Exception
+	{
+		SearchQueryProjection binary = SearchQueryProjection.forResourceType(fhirContext, Binary.class);
+
+		for (Map.Entry<SummaryMode, Boolean> e : Map.of(SummaryMode.TRUE, false, SummaryMode.DATA, true).entrySet())
+			assertEquals(e.getValue(), binary.getSummaryFilter(e.getKey()).test("data"));
+
+		assertTrue(
+				List.of("contentType", "securityContext").stream().allMatch(binary.getSummaryFilter(SummaryMode.TRUE)));
+	}
+}
@@ -0,0 +1,136 @@
+package dev.dsf.fhir.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Organization;
+import org.hl7.fhir.r4.model.Task;
+import org.junit.Test;
+
+import dev.dsf.common.auth.conf.Identity;
+import dev.dsf.fhir.authentication.FhirServerRole;
+import dev.dsf.fhir.search.SearchQuery.SearchQueryBuilder;
+import dev.dsf.fhir.search.filter.TaskIdentityFilter;
+import dev.dsf.fhir.search.parameters.TaskRequester;
+
+public class SearchQueryTest
+{
+	private static final String REQUESTER_SQL = "task->'requester'->>'reference'";
+
+	private static Identity identity()
+	{
+		Organization organization = new Organization();
+		organization.setIdElement(new IdType("Organization", UUID.randomUUID().toString()));
+
+		Identity identity = mock(Identity.class);
+		when(identity.hasDsfRole(FhirServerRole.READ)).thenReturn(true);
+		when(identity.getOrganization()).thenReturn(organization);
+		return identity;
+	}
+
+	private static SearchQuery<Task> createQuery(PageAndCount pageAndCount, Identity identity)
+	{
+		var builder = SearchQueryBuilder.create(Task.class, "tasks", "task_id", "task", pageAndCount)
+				.with(new SearchQueryParameterFactory<>(TaskRequester.PARAMETER_NAME, TaskRequester::new));
+
+		if (identity != null)
+			builder = builder.with(new TaskIdentityFilter(identity));
+
+		return builder.build();
+	}
+
+	private static String cursorToken()
+	{
+		Task task = new Task();
+		task.setIdElement(new IdType("Task", UUID.randomUUID().toString(), "2"));
+		return SearchQueryCursor.fromResource(task).get().toToken();
+	}
+
+	@Test
+	public void testSortDescendingWithCursor() throws Exception
+	{
+		// TaskRequester ignores the direction modifier given to getSortSql
+		SearchQuery<Task> query = createQuery(PageAndCount.from(1, 20), null)
+				.configureParameters(Map.of(SearchQuery.PARAMETER_SORT, List.of("-requester"),
+						SearchQuery.PARAMETER_CURSOR, List.of(cursorToken())));
+
+		String sql = query.getSearchSql();
+		assertTrue(sql, sql.contains(" ORDER BY " + REQUESTER_SQL + " DESC, task_id LIMIT 20"));
+		assertTrue(sql, sql.contains("((" + REQUESTER_SQL + ") < (SELECT " + REQUESTER_SQL));
+		assertFalse(sql, sql.contains("((" + REQUESTER_SQL + ") > "));
+		assertTrue(sql, sql.contains("task_id > (SELECT task_id"));
+		assertFalse(sql, sql.contains("OFFSET"));
+	}
+
+	@Test
+	public void testSortAscendingWithCursor() throws Exception
+	{
+		SearchQuery<Task> query = createQuery(PageAndCount.from(1, 20), null)
+				.configureParameters(Map.of(SearchQuery.PARAMETER_SORT, List.of("requester"),
+						SearchQuery.PARAMETER_CURSOR, List.of(cursorToken())));
+
+		String sql = query.getSearchSql();
+		assertTrue(sql, sql.contains(" ORDER BY " + REQUESTER_SQL + ", task_id LIMIT 20"));
+		assertTrue(sql, sql.contains("((" + REQUESTER_SQL + ") > (SELECT " + REQUESTER_SQL));
+		assertFalse(sql, sql.contains("((" + REQUESTER_SQL + ") < "));
+	}
+
+	@Test
+	public void testCursorSubqueryWithIdentityFilter() throws Exception
+	{
+		SearchQuery<Task> query = createQuery(PageAndCount.from(1, 20), identity())
+				.configureParameters(Map.of(SearchQuery.PARAMETER_SORT, List.of("-requester"),
+						SearchQuery.PARAMETER_CURSOR, List.of(cursorToken())));
+
+		String sql = query.getSearchSql();
+		assertTrue(sql, sql.contains("(SELECT " + REQUESTER_SQL + " FROM tasks AS current_tasks"
+				+ " WHERE current_tasks.task_id = ? AND current_tasks.version = ? AND ((" + REQUESTER_SQL + " = ?"));
+
+		// 4 identity filter parameters, 4 cursor sub queries with 2 cursor and 4 identity filter parameters each
+		PreparedStatement statement = mock(PreparedStatement.class);
+		query.modifySearchStatement(statement, (t, a) -> null);
+
+		verify(statement, times(4)).setObject(anyInt(), any());
+		verify(statement, times(4)).setLong(anyInt(), anyLong());
+		verify(statement, times(4 + 4 * 4)).setString(anyInt(), anyString());
+		verify(statement).setObject(eq(23), any());
+		verify(statement).setLong(24, 2L);
+		verify(statement).setString(eq(28), anyString());
+	}
+
+	@Test
+	public void testNoIdSortKeyIfNotPaging() throws Exception
+	{
+		assertFalse(createQuery(PageAndCount.exists(), null).configureParameters(Map.of()).getSearchSql()
+				.contains("ORDER BY"));
+		assertFalse(createQuery(PageAndCount.single(), null).configureParameters(Map.of()).getSearchSql()
+				.contains("ORDER BY"));
+		assertFalse(createQuery(PageAndCount.from(1, 0), null).configureParameters(Map.of()).getSearchSql()
+				.contains("ORDER BY"));
+
+		String sql = createQuery(PageAndCount.single(), null)
+				.configureParameters(Map.of(SearchQuery.PARAMETER_SORT, List.of("-requester"))).getSearchSql();
+		assertTrue(sql, sql.endsWith(" ORDER BY " + REQUESTER_SQL + " DESC LIMIT 1"));
+
+		assertTrue(createQuery(PageAndCount.from(1, 20), null).configureParameters(Map.of()).getSearchSql()
+				.endsWith(" ORDER BY task_id LIMIT 20"));
+		assertEquals(" ORDER BY task_id LIMIT 20 OFFSET 20", createQuery(PageAndCount.from(2, 20), null)
+				.configureParameters(Map.of()).getSearchSql().replaceFirst("^.* FROM current_tasks", ""));
+	}
+}
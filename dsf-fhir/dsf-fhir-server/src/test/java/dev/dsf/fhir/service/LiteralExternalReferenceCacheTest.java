@@ -0,0 +1,78 @@
+package dev.dsf.fhir.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hl7.fhir.r4.model.Organization;
+import org.junit.Test;
+
+import dev.dsf.fhir.service.LiteralExternalReferenceCache.Result;
+import dev.dsf.fhir.service.LiteralExternalReferenceCache.Status;
+
+public class LiteralExternalReferenceCacheTest
+{
+	private static final String URL = "https://remote.test/fhir/Organization/1";
+	private static final String URL_VERSION = URL + "/_history/2";
+
+	private final AtomicLong now = new AtomicLong(1000);
+	private final LiteralExternalReferenceCache cache = new LiteralExternalReferenceCache(60_000, now::get);
+
+	@Test
+	public void testPutGet() throws Exception
+	{
+		assertTrue(cache.get(URL).isEmpty());
+
+		cache.put(URL, Result.exists());
+		cache.put(URL_VERSION, Result.notFound());
+
+		assertEquals(Optional.of(Status.EXISTS), cache.get(URL).map(Result::status));
+		assertEquals(Optional.of(Status.NOT_FOUND), cache.get(URL_VERSION).map(Result::status));
+
+		now.addAndGet(60_000);
+
+		assertTrue(cache.get(URL).isEmpty());
+		assertTrue(cache.get(URL_VERSION).isEmpty());
+	}
+
+	@Test
+	public void testErrorTimeToLive() throws Exception
+	{
+		cache.put(URL, Result.error());
+		assertEquals(Optional.of(Status.ERROR), cache.get(URL).map(Result::status));
+
+		now.addAndGet(10_000);
+		assertTrue(cache.get(URL).isEmpty());
+	}
+
+	@Test
+	public void testResourceCopied() throws Exception
+	{
+		Organization organization = new Organization().setName("Test");
+		cache.put(URL, Result.exists(organization));
+		organization.setName("Modified");
+
+		Optional<Result> cached = cache.get(URL);
+		assertTrue(cached.flatMap(Result::resource).isPresent());
+		assertEquals("Test", ((Organization) cached.get().resource().get()).getName());
+		assertNotSame(cached.get().resource().get(), cache.get(URL).get().resource().get());
+
+		cache.put(URL, Result.exists());
+		assertTrue(cache.get(URL).flatMap(Result::resource).isPresent());
+
+		cache.put(URL, Result.notFound());
+		assertEquals(Optional.of(Status.NOT_FOUND), cache.get(URL).map(Result::status));
+	}
+
+	@Test
+	public void testDisabled() throws Exception
+	{
+		LiteralExternalReferenceCache disabled = new LiteralExternalReferenceCache(0, now::get);
+		disabled.put(URL, Result.exists());
+
+		assertTrue(disabled.get(URL).isEmpty());
+	}
+}
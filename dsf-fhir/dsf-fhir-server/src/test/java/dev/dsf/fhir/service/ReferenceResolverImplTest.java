@@ -0,0 +1,151 @@
+package dev.dsf.fhir.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Organization;
+import org.hl7.fhir.r4.model.Reference;
+import org.junit.After;
+import org.junit.Test;
+
+import dev.dsf.fhir.client.ClientProvider;
+import dev.dsf.fhir.client.FhirWebserviceClient;
+import dev.dsf.fhir.dao.provider.DaoProvider;
+import dev.dsf.fhir.help.ExceptionHandler;
+import dev.dsf.fhir.help.ParameterConverter;
+import dev.dsf.fhir.help.ResponseGenerator;
+import dev.dsf.fhir.service.LiteralExternalReferenceCache.Result;
+import dev.dsf.fhir.service.LiteralExternalReferenceCache.Status;
+
+public class ReferenceResolverImplTest
+{
+	private static final String SERVER_BASE = "https://local.test/fhir";
+	private static final String REMOTE_1 = "https://remote1.test/fhir";
+	private static final String REMOTE_2 = "https://remote2.test/fhir";
+
+	private final ClientProvider clientProvider = mock(ClientProvider.class);
+	private final FhirWebserviceClient client1 = mock(FhirWebserviceClient.class);
+	private final FhirWebserviceClient client2 = mock(FhirWebserviceClient.class);
+	private final LiteralExternalReferenceCache cache = new LiteralExternalReferenceCache(60_000);
+
+	private final List<ReferenceResolverImpl> resolvers = new ArrayList<>();
+
+	@After
+	public void after() throws Exception
+	{
+		for (ReferenceResolverImpl resolver : resolvers)
+			resolver.destroy();
+	}
+
+	private ReferenceResolverImpl createResolver(int threads, long timeoutMillis) throws Exception
+	{
+		when(clientProvider.getClient(REMOTE_1)).thenReturn(Optional.of(client1));
+		when(clientProvider.getClient(REMOTE_2)).thenReturn(Optional.of(client2));
+
+		ReferenceResolverImpl resolver = new ReferenceResolverImpl(SERVER_BASE, mock(DaoProvider.class),
+				mock(ResponseGenerator.class), mock(ExceptionHandler.class), clientProvider,
+				mock(ParameterConverter.class), cache, threads, timeoutMillis);
+		resolver.afterPropertiesSet();
+		resolvers.add(resolver);
+		return resolver;
+	}
+
+	private static ResourceReference reference(String remoteServerBase)
+	{
+		return new ResourceReference("Task.requester",
+				new Reference(remoteServerBase + "/Organization/" + UUID.randomUUID().toString()), Organization.class);
+	}
+
+	private Optional<Status> cached(ResourceReference reference)
+	{
+		return cache.get(reference.getValue()).map(Result::status);
+	}
+
+	@Test
+	public void testPrefetch() throws Exception
+	{
+		ResourceReference exists = reference(REMOTE_1);
+		ResourceReference notFound = reference(REMOTE_1);
+		ResourceReference error = reference(REMOTE_2);
+
+		when(client1.exists(argThat((IdType id) -> id != null && exists.getValue().equals(id.getValue()))))
+				.thenReturn(true);
+		when(client1.exists(argThat((IdType id) -> id != null && notFound.getValue().equals(id.getValue()))))
+				.thenReturn(false);
+		when(client2.exists(any(IdType.class))).thenThrow(new RuntimeException("test"));
+
+		createResolver(2, 10_000).prefetchLiteralExternalReferences(List.of(exists, notFound, error));
+
+		assertEquals(Optional.of(Status.EXISTS), cached(exists));
+		assertEquals(Optional.of(Status.NOT_FOUND), cached(notFound));
+		assertEquals(Optional.of(Status.ERROR), cached(error));
+	}
+
+	@Test
+	public void testPrefetchThreadsPerRemoteServer() throws Exception
+	{
+		ResourceReference reference1 = reference(REMOTE_1);
+		ResourceReference reference2 = reference(REMOTE_2);
+
+		// check at the first server waits for the second, only completes with separate threads per server
+		CountDownLatch remote2Called = new CountDownLatch(1);
+		when(client1.exists(any(IdType.class))).thenAnswer(i -> remote2Called.await(10, TimeUnit.SECONDS));
+		when(client2.exists(any(IdType.class))).thenAnswer(i ->
+		{
+			remote2Called.countDown();
+			return true;
+		});
+
+		createResolver(1, 10_000).prefetchLiteralExternalReferences(List.of(reference1, reference2));
+
+		assertEquals(Optional.of(Status.EXISTS), cached(reference1));
+		assertEquals(Optional.of(Status.EXISTS), cached(reference2));
+	}
+
+	@Test
+	public void testPrefetchTimeoutNotCached() throws Exception
+	{
+		ResourceReference slow = reference(REMOTE_1);
+		ResourceReference fast = reference(REMOTE_2);
+
+		CountDownLatch blocked = new CountDownLatch(1);
+		when(client1.exists(any(IdType.class))).thenAnswer(i -> blocked.await(10, TimeUnit.SECONDS));
+		when(client2.exists(any(IdType.class))).thenReturn(true);
+
+		long start = System.currentTimeMillis();
+		createResolver(1, 200).prefetchLiteralExternalReferences(List.of(slow, fast));
+
+		assertTrue(System.currentTimeMillis() - start < 5_000);
+
+		// timed out check interrupted, not cached as error, checked again while executing the request
+		assertTrue(cached(slow).isEmpty());
+		assertEquals(Optional.of(Status.EXISTS), cached(fast));
+	}
+
+	@Test
+	public void testPrefetchCachedAndDisabled() throws Exception
+	{
+		ResourceReference cachedReference = reference(REMOTE_1);
+		cache.put(cachedReference.getValue(), Result.notFound());
+
+		createResolver(1, 10_000).prefetchLiteralExternalReferences(List.of(cachedReference));
+		createResolver(0, 10_000).prefetchLiteralExternalReferences(List.of(reference(REMOTE_2)));
+
+		verify(client1, never()).exists(any(IdType.class));
+		verify(client2, never()).exists(any(IdType.class));
+	}
+}
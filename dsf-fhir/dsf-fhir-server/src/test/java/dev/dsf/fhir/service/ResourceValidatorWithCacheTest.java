@@ -0,0 +1,119 @@
+package dev.dsf.fhir.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hl7.fhir.r4.model.Narrative.NarrativeStatus;
+import org.hl7.fhir.r4.model.Organization;
+import org.hl7.fhir.r4.model.StructureDefinition;
+import org.junit.Test;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.validation.ValidationResult;
+import dev.dsf.fhir.event.ResourceCreatedEvent;
+import dev.dsf.fhir.event.ResourceUpdatedEvent;
+
+public class ResourceValidatorWithCacheTest
+{
+	private static final FhirContext FHIR_CONTEXT = FhirContext.forR4();
+
+	private final AtomicInteger validations = new AtomicInteger();
+
+	private ResourceValidatorWithCache createValidator(int maxSize)
+	{
+		return new ResourceValidatorWithCache(resource ->
+		{
+			validations.incrementAndGet();
+			return new ValidationResult(FHIR_CONTEXT, List.of());
+		}, maxSize);
+	}
+
+	private static Organization organization(String name)
+	{
+		Organization organization = new Organization();
+		organization.setName(name);
+		return organization;
+	}
+
+	@Test
+	public void testValidateIdenticalResource() throws Exception
+	{
+		ResourceValidatorWithCache validator = createValidator(10);
+
+		ValidationResult r1 = validator.validate(organization("Test"));
+		ValidationResult r2 = validator.validate(organization("Test"));
+		validator.validate(organization("Other"));
+
+		assertSame(r1, r2);
+		assertEquals(2, validations.get());
+	}
+
+	@Test
+	public void testValidateResourceWithDifferentNarrative() throws Exception
+	{
+		ResourceValidatorWithCache validator = createValidator(10);
+
+		Organization o1 = organization("Test");
+		o1.getText().setStatus(NarrativeStatus.GENERATED)
+				.setDivAsString("<div xmlns=\"http://www.w3.org/1999/xhtml\">Test</div>");
+		Organization o2 = organization("Test");
+		o2.getText().setStatus(NarrativeStatus.GENERATED)
+				.setDivAsString("<div xmlns=\"http://www.w3.org/1999/xhtml\">Other</div>");
+
+		validator.validate(o1);
+		validator.validate(o2);
+		validator.validate(o1.copy());
+
+		assertEquals(2, validations.get());
+	}
+
+	@Test
+	public void testValidateResourceWithDifferentReferencedResource() throws Exception
+	{
+		ResourceValidatorWithCache validator = createValidator(10);
+
+		Organization o1 = organization("Test");
+		o1.getPartOf().setResource(organization("Parent"));
+		Organization o2 = organization("Test");
+		o2.getPartOf().setResource(organization("Other"));
+
+		validator.validate(o1);
+		validator.validate(o2);
+		validator.validate(organization("Test"));
+
+		assertEquals(3, validations.get());
+	}
+
+	@Test
+	public void testInvalidateOnValidationResourceEvent() throws Exception
+	{
+		ResourceValidatorWithCache validator = createValidator(10);
+
+		validator.validate(organization("Test"));
+		Organization o = organization("Other");
+		o.setId(UUID.randomUUID().toString());
+		validator.handleEvent(new ResourceCreatedEvent(Organization.class, o));
+		validator.validate(organization("Test"));
+		assertEquals(1, validations.get());
+
+		StructureDefinition s = new StructureDefinition();
+		s.setId(UUID.randomUUID().toString());
+		validator.handleEvent(new ResourceUpdatedEvent(StructureDefinition.class, s));
+		validator.validate(organization("Test"));
+		assertEquals(2, validations.get());
+	}
+
+	@Test
+	public void testCacheDisabled() throws Exception
+	{
+		ResourceValidatorWithCache validator = createValidator(0);
+
+		validator.validate(organization("Test"));
+		validator.validate(organization("Test"));
+		assertEquals(2, validations.get());
+	}
+}
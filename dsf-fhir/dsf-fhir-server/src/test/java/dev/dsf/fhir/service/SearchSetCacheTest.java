@@ -0,0 +1,155 @@
+package dev.dsf.fhir.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Bundle.BundleEntryComponent;
+import org.hl7.fhir.r4.model.Bundle.BundleType;
+import org.hl7.fhir.r4.model.Endpoint;
+import org.hl7.fhir.r4.model.Organization;
+import org.hl7.fhir.r4.model.OrganizationAffiliation;
+import org.hl7.fhir.r4.model.StructureDefinition;
+import org.hl7.fhir.r4.model.Task;
+import org.junit.Test;
+
+import dev.dsf.common.auth.conf.Identity;
+import dev.dsf.fhir.authentication.FhirServerRole;
+import dev.dsf.fhir.event.ResourceCreatedEvent;
+import dev.dsf.fhir.event.ResourceUpdatedEvent;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+
+public class SearchSetCacheTest
+{
+	private final AtomicInteger searches = new AtomicInteger();
+
+	private Bundle search()
+	{
+		searches.incrementAndGet();
+
+		Bundle bundle = new Bundle();
+		bundle.setTimestamp(new Date(0));
+		bundle.setType(BundleType.SEARCHSET);
+		bundle.setTotal(1);
+		bundle.addEntry().setFullUrl("http://test.com/fhir/StructureDefinition/" + UUID.randomUUID().toString());
+		return bundle;
+	}
+
+	private static BundleEntryComponent entry(Bundle bundle)
+	{
+		return bundle.getEntry().get(0);
+	}
+
+	private static Identity identity(boolean local)
+	{
+		Organization organization = new Organization();
+		organization.setId(UUID.randomUUID().toString());
+
+		Identity identity = mock(Identity.class);
+		when(identity.isLocalIdentity()).thenReturn(local);
+		when(identity.hasDsfRole(FhirServerRole.READ)).thenReturn(true);
+		when(identity.getOrganization()).thenReturn(organization);
+		return identity;
+	}
+
+	private static MultivaluedMap<String, String> query(String... nameAndValues)
+	{
+		MultivaluedMap<String, String> query = new MultivaluedHashMap<>();
+		for (int i = 0; i < nameAndValues.length; i += 2)
+			query.add(nameAndValues[i], nameAndValues[i + 1]);
+		return query;
+	}
+
+	@Test
+	public void testSearchSetCached() throws Exception
+	{
+		SearchSetCache cache = new SearchSetCache(10);
+		Identity identity = identity(false);
+
+		Bundle b1 = cache.getSearchSet(StructureDefinition.class, identity, query("url", "a", "_count", "10"), false,
+				this::search);
+		Bundle b2 = cache.getSearchSet(StructureDefinition.class, identity, query("_count", "10", "url", "a"), false,
+				this::search);
+
+		assertEquals(1, searches.get());
+
+		// shallow copy with new timestamp, entries shared
+		assertNotSame(b1, b2);
+		assertSame(entry(b1), entry(b2));
+		assertEquals(BundleType.SEARCHSET, b2.getType());
+		assertEquals(1, b2.getTotal());
+		assertTrue(b2.getTimestamp().after(b1.getTimestamp()));
+
+		// modifying a returned search set does not modify the cached search set
+		b2.addEntry();
+		Bundle b3 = cache.getSearchSet(StructureDefinition.class, identity, query("url", "a", "_count", "10"), false,
+				this::search);
+		assertEquals(1, b3.getEntry().size());
+		assertEquals(1, searches.get());
+
+		cache.getSearchSet(StructureDefinition.class, identity(false), query("url", "a", "_count", "10"), false,
+				this::search);
+		cache.getSearchSet(StructureDefinition.class, identity, query("url", "a", "_count", "10"), true, this::search);
+		assertEquals(3, searches.get());
+	}
+
+	@Test
+	public void testSearchSetNotCached() throws Exception
+	{
+		SearchSetCache cache = new SearchSetCache(10);
+		Identity identity = identity(true);
+
+		cache.getSearchSet(Task.class, identity, query("status", "requested"), false, this::search);
+		cache.getSearchSet(Task.class, identity, query("status", "requested"), false, this::search);
+		assertEquals(2, searches.get());
+
+		cache.getSearchSet(Endpoint.class, identity, query("_include", "Endpoint:organization"), false, this::search);
+		cache.getSearchSet(Endpoint.class, identity, query("_include", "Endpoint:organization"), false, this::search);
+		assertEquals(4, searches.get());
+	}
+
+	@Test
+	public void testInvalidateOnResourceEvent() throws Exception
+	{
+		SearchSetCache cache = new SearchSetCache(10);
+		Identity identity = identity(true);
+
+		Bundle s1 = cache.getSearchSet(StructureDefinition.class, identity, query(), false, this::search);
+		Bundle e1 = cache.getSearchSet(Endpoint.class, identity, query(), false, this::search);
+
+		StructureDefinition s = new StructureDefinition();
+		s.setId(UUID.randomUUID().toString());
+		cache.handleEvent(new ResourceUpdatedEvent(StructureDefinition.class, s));
+
+		assertNotSame(entry(s1),
+				entry(cache.getSearchSet(StructureDefinition.class, identity, query(), false, this::search)));
+		assertSame(entry(e1), entry(cache.getSearchSet(Endpoint.class, identity, query(), false, this::search)));
+
+		OrganizationAffiliation a = new OrganizationAffiliation();
+		a.setId(UUID.randomUUID().toString());
+		cache.handleEvent(new ResourceCreatedEvent(OrganizationAffiliation.class, a));
+
+		assertNotSame(entry(e1), entry(cache.getSearchSet(Endpoint.class, identity, query(), false, this::search)));
+		assertEquals(4, searches.get());
+	}
+
+	@Test
+	public void testCacheDisabled() throws Exception
+	{
+		SearchSetCache cache = new SearchSetCache(0);
+		Identity identity = identity(true);
+
+		cache.getSearchSet(StructureDefinition.class, identity, query(), false, this::search);
+		cache.getSearchSet(StructureDefinition.class, identity, query(), false, this::search);
+		assertEquals(2, searches.get());
+	}
+}
@@ -0,0 +1,139 @@
+package dev.dsf.fhir.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Measure;
+import org.hl7.fhir.r4.model.Questionnaire;
+import org.hl7.fhir.r4.model.StructureDefinition;
+import org.junit.Test;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.support.IValidationSupport;
+import dev.dsf.fhir.event.ResourceCreatedEvent;
+import dev.dsf.fhir.event.ResourceDeletedEvent;
+import dev.dsf.fhir.event.ResourceUpdatedEvent;
+
+public class ValidationSupportWithTransactionTest
+{
+	private static final String URL = "http://test.com/fhir/StructureDefinition/test";
+	private static final String QUESTIONNAIRE_URL = "http://test.com/fhir/Questionnaire/test";
+	private static final String MEASURE_URL = "http://test.com/fhir/Measure/test";
+
+	private final IValidationSupport shared = mock(IValidationSupport.class);
+	private final IValidationSupport transaction = mock(IValidationSupport.class);
+	private final ValidationSupportWithTransaction validationSupport = new ValidationSupportWithTransaction(
+			mock(FhirContext.class), shared, transaction);
+
+	private static StructureDefinition structureDefinition(String id, String version)
+	{
+		StructureDefinition s = new StructureDefinition();
+		s.setId(id);
+		s.setUrl(URL);
+		s.setVersion(version);
+		return s;
+	}
+
+	@Test
+	public void testFetchFromShared() throws Exception
+	{
+		StructureDefinition s = structureDefinition(UUID.randomUUID().toString(), "1.0");
+		when(shared.fetchStructureDefinition(URL)).thenReturn(s);
+
+		assertSame(s, validationSupport.fetchStructureDefinition(URL));
+		verify(transaction, never()).fetchStructureDefinition(URL);
+	}
+
+	@Test
+	public void testFetchWithinTransaction() throws Exception
+	{
+		StructureDefinition s = structureDefinition(UUID.randomUUID().toString(), "1.0");
+		when(transaction.fetchStructureDefinition(URL)).thenReturn(s);
+
+		assertSame(s, validationSupport.fetchStructureDefinition(URL));
+	}
+
+	@Test
+	public void testFetchUpdatedWithinTransaction() throws Exception
+	{
+		String id = UUID.randomUUID().toString();
+		StructureDefinition s1 = structureDefinition(id, "1.0");
+		StructureDefinition s2 = structureDefinition(id, "1.0");
+		when(shared.fetchStructureDefinition(URL)).thenReturn(s1);
+		when(shared.fetchAllStructureDefinitions()).thenReturn(List.of(s1));
+
+		validationSupport.handleEvent(new ResourceUpdatedEvent(StructureDefinition.class, s2));
+
+		assertSame(s2, validationSupport.fetchStructureDefinition(URL));
+		assertSame(s2, validationSupport.fetchStructureDefinition(URL + "|1.0"));
+
+		List<IBaseResource> all = validationSupport.fetchAllStructureDefinitions();
+		assertEquals(1, all.size());
+		assertSame(s2, all.get(0));
+	}
+
+	@Test
+	public void testFetchDeletedWithinTransaction() throws Exception
+	{
+		String id = UUID.randomUUID().toString();
+		StructureDefinition s = structureDefinition(id, "1.0");
+		when(shared.fetchStructureDefinition(URL)).thenReturn(s);
+		when(shared.fetchAllStructureDefinitions()).thenReturn(List.of(s));
+
+		validationSupport.handleEvent(new ResourceDeletedEvent(StructureDefinition.class, id));
+
+		assertNull(validationSupport.fetchStructureDefinition(URL));
+		assertEquals(0, validationSupport.fetchAllStructureDefinitions().size());
+	}
+
+	@Test
+	public void testFetchQuestionnaireCreatedWithinTransaction() throws Exception
+	{
+		Questionnaire q = new Questionnaire();
+		q.setId(UUID.randomUUID().toString());
+		q.setUrl(QUESTIONNAIRE_URL);
+		q.setVersion("1.0");
+
+		validationSupport.handleEvent(new ResourceCreatedEvent(Questionnaire.class, q));
+
+		assertSame(q, validationSupport.fetchResource(Questionnaire.class, QUESTIONNAIRE_URL + "|1.0"));
+		verify(shared, never()).fetchResource(Questionnaire.class, QUESTIONNAIRE_URL + "|1.0");
+		verify(transaction, never()).fetchResource(Questionnaire.class, QUESTIONNAIRE_URL + "|1.0");
+	}
+
+	@Test
+	public void testFetchQuestionnaireDeletedWithinTransaction() throws Exception
+	{
+		String id = UUID.randomUUID().toString();
+		Questionnaire q = new Questionnaire();
+		q.setId(id);
+		q.setUrl(QUESTIONNAIRE_URL);
+		when(shared.fetchResource(Questionnaire.class, QUESTIONNAIRE_URL)).thenReturn(q);
+
+		validationSupport.handleEvent(new ResourceDeletedEvent(Questionnaire.class, id));
+
+		assertNull(validationSupport.fetchResource(Questionnaire.class, QUESTIONNAIRE_URL));
+	}
+
+	@Test
+	public void testFetchMeasureWithinTransaction() throws Exception
+	{
+		Measure m = new Measure();
+		m.setId(UUID.randomUUID().toString());
+		m.setUrl(MEASURE_URL);
+		when(transaction.fetchResource(Measure.class, MEASURE_URL)).thenReturn(m);
+
+		// not known to the shared validation support, read using the transaction's DB connection
+		assertSame(m, validationSupport.fetchResource(Measure.class, MEASURE_URL));
+		verify(shared).fetchResource(Measure.class, MEASURE_URL);
+	}
+}
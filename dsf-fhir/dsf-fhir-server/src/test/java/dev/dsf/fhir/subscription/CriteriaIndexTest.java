@@ -0,0 +1,75 @@
+package dev.dsf.fhir.subscription;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.hl7.fhir.r4.model.Organization;
+import org.hl7.fhir.r4.model.Task;
+import org.hl7.fhir.r4.model.Task.TaskStatus;
+import org.junit.Test;
+
+public class CriteriaIndexTest
+{
+	private static final String PROFILE_A = "http://dsf.dev/fhir/StructureDefinition/task-a|1.0";
+	private static final String PROFILE_B = "http://dsf.dev/fhir/StructureDefinition/task-b|1.0";
+
+	private static CriteriaIndex<String> createIndex()
+	{
+		CriteriaIndex<String> index = new CriteriaIndex<>();
+		index.add("requested-a", "Task?status=requested&_profile=" + PROFILE_A, true);
+		index.add("requested-b", "Task?status=requested&_profile=" + PROFILE_B, true);
+		index.add("completed", "Task?status=completed", true);
+		index.add("all", "Task", true);
+		index.add("identifier", "Task?identifier=http://foo|bar", true);
+		index.add("requester", "Task?requester=Organization/1", true);
+		index.add("not-indexable", "Task?status=unknown", false);
+		index.add("status-with-system", "Task?status=http://foo|requested", true);
+		return index;
+	}
+
+	@Test
+	public void testGetCandidatesByProfileAndStatus() throws Exception
+	{
+		CriteriaIndex<String> index = createIndex();
+		assertEquals(8, index.size());
+
+		Task task = new Task().setStatus(TaskStatus.REQUESTED);
+		task.getMeta().addProfile(PROFILE_B);
+
+		assertEquals(List.of("requested-b", "all", "not-indexable", "status-with-system"), index.getCandidates(task));
+	}
+
+	@Test
+	public void testGetCandidatesByStatus() throws Exception
+	{
+		CriteriaIndex<String> index = createIndex();
+
+		Task task = new Task().setStatus(TaskStatus.COMPLETED);
+
+		assertEquals(List.of("completed", "all", "not-indexable", "status-with-system"), index.getCandidates(task));
+	}
+
+	@Test
+	public void testGetCandidatesByIdentifierAndRequester() throws Exception
+	{
+		CriteriaIndex<String> index = createIndex();
+
+		Task task = new Task().setStatus(TaskStatus.DRAFT);
+		task.addIdentifier().setSystem("http://foo").setValue("bar");
+		task.getRequester().setReference("Organization/1");
+
+		assertEquals(List.of("all", "identifier", "requester", "not-indexable", "status-with-system"),
+				index.getCandidates(task));
+	}
+
+	@Test
+	public void testGetCandidatesResourceWithoutIndexedElements() throws Exception
+	{
+		CriteriaIndex<String> index = new CriteriaIndex<>();
+		index.add("requester", "Organization?requester=Organization/1", true);
+		index.add("identifier", "Organization?identifier=http://foo|bar", true);
+
+		assertEquals(List.of("requester"), index.getCandidates(new Organization()));
+	}
+}
@@ -0,0 +1,128 @@
+package dev.dsf.fhir.subscription;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.QuestionnaireResponse;
+import org.hl7.fhir.r4.model.Resource;
+import org.hl7.fhir.r4.model.Subscription;
+import org.hl7.fhir.r4.model.Subscription.SubscriptionStatus;
+import org.hl7.fhir.r4.model.Task;
+import org.junit.Test;
+import org.mockito.ArgumentMatcher;
+
+import ca.uhn.fhir.context.FhirContext;
+import dev.dsf.common.auth.conf.Identity;
+import dev.dsf.fhir.authorization.AuthorizationRuleProvider;
+import dev.dsf.fhir.dao.SubscriptionDao;
+import dev.dsf.fhir.dao.provider.DaoProvider;
+import dev.dsf.fhir.event.ResourceCreatedEvent;
+import dev.dsf.fhir.help.ExceptionHandler;
+import dev.dsf.fhir.search.Matcher;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.CloseReason.CloseCodes;
+import jakarta.websocket.RemoteEndpoint.Async;
+import jakarta.websocket.Session;
+
+public class WebSocketSubscriptionManagerImplTest
+{
+	private final DaoProvider daoProvider = mock(DaoProvider.class);
+	private final SubscriptionDao subscriptionDao = mock(SubscriptionDao.class);
+	private final MatcherFactory matcherFactory = mock(MatcherFactory.class);
+
+	private static Subscription subscription(String criteria)
+	{
+		Subscription subscription = new Subscription();
+		subscription.setIdElement(new IdType("Subscription", UUID.randomUUID().toString()));
+		subscription.setStatus(SubscriptionStatus.ACTIVE);
+		subscription.setCriteria(criteria);
+		return subscription;
+	}
+
+	private Matcher matcher(String criteria, Class<? extends Resource> resourceType)
+	{
+		Matcher matcher = mock(Matcher.class);
+		doReturn(resourceType).when(matcher).getResourceType();
+		when(matcher.getUnsupportedQueryParameters()).thenReturn(List.of());
+		when(matcherFactory.createMatcher(criteria)).thenReturn(Optional.of(matcher));
+		return matcher;
+	}
+
+	private static Session session()
+	{
+		Session session = mock(Session.class);
+		when(session.getId()).thenReturn(UUID.randomUUID().toString());
+		when(session.getAsyncRemote()).thenReturn(mock(Async.class));
+		return session;
+	}
+
+	private static Task task(String status)
+	{
+		Task task = new Task();
+		task.setIdElement(new IdType("Task", UUID.randomUUID().toString()));
+		task.getStatusElement().setValueAsString(status);
+		return task;
+	}
+
+	@Test
+	public void testCloseSessionsMissingEvents() throws Exception
+	{
+		Subscription requestedTasks = subscription("Task?status=requested");
+		Subscription completedTasks = subscription("Task?status=completed");
+		Subscription questionnaireResponses = subscription("QuestionnaireResponse?status=completed");
+
+		matcher(requestedTasks.getCriteria(), Task.class);
+		matcher(completedTasks.getCriteria(), Task.class);
+		matcher(questionnaireResponses.getCriteria(), QuestionnaireResponse.class);
+
+		when(daoProvider.getSubscriptionDao()).thenReturn(subscriptionDao);
+		when(subscriptionDao.readByStatus(SubscriptionStatus.ACTIVE))
+				.thenReturn(List.of(requestedTasks, completedTasks, questionnaireResponses));
+
+		WebSocketSubscriptionManagerImpl manager = new WebSocketSubscriptionManagerImpl(daoProvider,
+				mock(ExceptionHandler.class), matcherFactory, FhirContext.forR4(),
+				mock(AuthorizationRuleProvider.class), 10);
+		manager.afterPropertiesSet();
+
+		Session requestedSession1 = session();
+		Session requestedSession2 = session();
+		Session completedSession = session();
+		Session questionnaireResponseSession = session();
+
+		Identity identity = mock(Identity.class);
+		manager.bind(identity, requestedSession1, requestedTasks.getIdElement().getIdPart());
+		manager.bind(identity, requestedSession2, requestedTasks.getIdElement().getIdPart());
+		manager.bind(identity, completedSession, completedTasks.getIdElement().getIdPart());
+		manager.bind(identity, questionnaireResponseSession, questionnaireResponses.getIdElement().getIdPart());
+
+		Task task = task("requested");
+		Patient patient = new Patient();
+		patient.setIdElement(new IdType("Patient", UUID.randomUUID().toString()));
+
+		manager.closeSessionsMissingEvents(List.of(new ResourceCreatedEvent(Task.class, task),
+				new ResourceCreatedEvent(Task.class, task), new ResourceCreatedEvent(Patient.class, patient)));
+
+		// only sessions of subscriptions that may match the dropped events are closed, each once
+		verify(requestedSession1, times(1)).close(argThat(tryAgainLater()));
+		verify(requestedSession2, times(1)).close(argThat(tryAgainLater()));
+		verify(completedSession, never()).close(any());
+		verify(questionnaireResponseSession, never()).close(any());
+	}
+
+	private static ArgumentMatcher<CloseReason> tryAgainLater()
+	{
+		return r -> r != null && CloseCodes.TRY_AGAIN_LATER.equals(r.getCloseCode());
+	}
+}
@@ -0,0 +1,496 @@
+package dev.dsf.fhir.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.hl7.fhir.r4.model.Base;
+import org.hl7.fhir.r4.model.CanonicalType;
+import org.hl7.fhir.r4.model.DomainResource;
+import org.hl7.fhir.r4.model.ElementDefinition;
+import org.hl7.fhir.r4.model.ElementDefinition.ConstraintSeverity;
+import org.hl7.fhir.r4.model.ElementDefinition.DiscriminatorType;
+import org.hl7.fhir.r4.model.ElementDefinition.ElementDefinitionBindingComponent;
+import org.hl7.fhir.r4.model.ElementDefinition.ElementDefinitionConstraintComponent;
+import org.hl7.fhir.r4.model.ElementDefinition.ElementDefinitionSlicingComponent;
+import org.hl7.fhir.r4.model.ElementDefinition.ElementDefinitionSlicingDiscriminatorComponent;
+import org.hl7.fhir.r4.model.ElementDefinition.SlicingRules;
+import org.hl7.fhir.r4.model.ElementDefinition.TypeRefComponent;
+import org.hl7.fhir.r4.model.Enumerations.BindingStrength;
+import org.hl7.fhir.r4.model.ExpressionNode;
+import org.hl7.fhir.r4.model.Extension;
+import org.hl7.fhir.r4.model.Property;
+import org.hl7.fhir.r4.model.Resource;
+import org.hl7.fhir.r4.model.StructureDefinition;
+import org.hl7.fhir.r4.model.StructureDefinition.ExtensionContextType;
+import org.hl7.fhir.r4.model.StructureDefinition.StructureDefinitionContextComponent;
+import org.hl7.fhir.r4.model.StructureDefinition.StructureDefinitionKind;
+import org.hl7.fhir.r4.model.UriType;
+import org.hl7.fhir.r4.utils.FHIRPathEngine;
+
+/**
+ * {@link StructureDefinition} snapshot compiled into a tree of {@link Element}s. Elements, slices and discriminator
+ * values are resolved by element id once, FHIRPath constraints are parsed once. Content not supported by the compiled
+ * checks marks the profile or element as unsupported, resources using it are validated by the HAPI validator.
+ */
+final class CompiledProfile
+{
+	static final String SYSTEM_TYPE_PREFIX = "http://hl7.org/fhirpath/System.";
+
+	private static final String EXTENSION_REGEX = "http://hl7.org/fhir/StructureDefinition/regex";
+	private static final String EXTENSION_FHIR_TYPE = "http://hl7.org/fhir/StructureDefinition/structuredefinition-fhir-type";
+	private static final String EXTENSION_MAX_VALUE_SET = "http://hl7.org/fhir/StructureDefinition/elementdefinition-maxValueSet";
+
+	private static final String ELE_1 = "hasValue() or (children().count() > id.count())";
+	private static final String EXT_1 = "extension.exists() != value.exists()";
+	private static final String REF_1 = "reference.startsWith('#').not() or (reference.substring(1).trace('url') in %rootResource.contained.id.trace('ids'))";
+
+	enum BuiltIn
+	{
+		ELE_1, EXT_1, REF_1
+	}
+
+	static final class Constraint
+	{
+		final String key;
+		final BuiltIn builtIn;
+		final ExpressionNode expression;
+
+		Constraint(String key, BuiltIn builtIn, ExpressionNode expression)
+		{
+			this.key = key;
+			this.builtIn = builtIn;
+			this.expression = expression;
+		}
+	}
+
+	static final class Type
+	{
+		final String code;
+		final String primitiveType;
+		final List<String> profiles;
+		final List<String> targetProfiles;
+
+		/**
+		 * Resource types allowed as reference targets, <code>null</code> if any, resolved on first use
+		 */
+		volatile Set<String> targetTypes;
+
+		Type(String code, String primitiveType, List<String> profiles, List<String> targetProfiles)
+		{
+			this.code = code;
+			this.primitiveType = primitiveType;
+			this.profiles = profiles;
+			this.targetProfiles = targetProfiles;
+		}
+
+		boolean isSystemType()
+		{
+			return code.startsWith(SYSTEM_TYPE_PREFIX);
+		}
+	}
+
+	static final class Discriminator
+	{
+		final DiscriminatorType type;
+
+		/**
+		 * <code>null</code> for <code>$this</code>
+		 */
+		final String[] path;
+
+		Discriminator(DiscriminatorType type, String[] path)
+		{
+			this.type = type;
+			this.path = path;
+		}
+	}
+
+	/**
+	 * Value a slice expects at the path of a {@link Discriminator}
+	 */
+	static final class DiscriminatorValue
+	{
+		/**
+		 * Slice without fixed value, pattern or required binding at the discriminator path, discriminator not evaluated
+		 * for the slice
+		 */
+		static final DiscriminatorValue NONE = new DiscriminatorValue(null, null, false);
+
+		final Base value;
+		final String type;
+		final boolean exact;
+
+		DiscriminatorValue(Base value, String type, boolean exact)
+		{
+			this.value = value;
+			this.type = type;
+			this.exact = exact;
+		}
+	}
+
+	static final class Element
+	{
+		final String id;
+		final int min;
+		final int max;
+		final List<Type> types = new ArrayList<>();
+		final Base fixed;
+		final Base pattern;
+		final String requiredValueSet;
+		final boolean maxValueSet;
+		final int maxLength;
+		final Pattern regex;
+		final List<Constraint> constraints = new ArrayList<>();
+		final String contentReference;
+
+		final Map<String, Element> children = new LinkedHashMap<>();
+
+		final SlicingRules slicingRules;
+		final boolean slicingOrdered;
+		final List<Discriminator> discriminators = new ArrayList<>();
+		final List<Element> slices = new ArrayList<>();
+		final List<DiscriminatorValue> discriminatorValues = new ArrayList<>();
+
+		/**
+		 * Model classes with property names matching {@link #children}
+		 */
+		final Set<Class<?>> verifiedClasses = ConcurrentHashMap.newKeySet();
+
+		Element reference;
+		boolean unsupported;
+
+		Element(ElementDefinition definition, FHIRPathEngine engine)
+		{
+			id = definition.getId();
+			min = definition.getMin();
+			max = definition.getMax() == null || "*".equals(definition.getMax()) ? Integer.MAX_VALUE
+					: Integer.parseInt(definition.getMax());
+
+			Pattern regex = null;
+			for (TypeRefComponent type : definition.getType())
+			{
+				types.add(new Type(type.getCode(), primitiveType(type),
+						type.getProfile().stream().map(CanonicalType::getValue).filter(Objects::nonNull).toList(),
+						type.getTargetProfile().stream().map(CanonicalType::getValue).filter(Objects::nonNull)
+								.toList()));
+
+				if (type.hasExtension(EXTENSION_REGEX))
+					regex = compile(type.getExtensionByUrl(EXTENSION_REGEX).getValue().primitiveValue());
+			}
+			this.regex = regex;
+
+			fixed = definition.hasFixed() ? definition.getFixed() : null;
+			pattern = definition.hasPattern() ? definition.getPattern() : null;
+
+			ElementDefinitionBindingComponent binding = definition.hasBinding() ? definition.getBinding() : null;
+			maxValueSet = binding != null && binding.hasExtension(EXTENSION_MAX_VALUE_SET);
+			requiredValueSet = binding != null && BindingStrength.REQUIRED.equals(binding.getStrength())
+					? binding.getValueSet()
+					: null;
+
+			maxLength = definition.hasMaxLength() ? definition.getMaxLength() : 0;
+			contentReference = definition.hasContentReference() ? definition.getContentReference() : null;
+
+			for (ElementDefinitionConstraintComponent constraint : definition.getConstraint())
+			{
+				if (ConstraintSeverity.ERROR.equals(constraint.getSeverity()))
+					constraints.add(compile(constraint, engine));
+			}
+
+			if (definition.hasSlicing())
+			{
+				ElementDefinitionSlicingComponent slicing = definition.getSlicing();
+				slicingRules = slicing.getRules();
+				slicingOrdered = slicing.getOrdered();
+
+				for (ElementDefinitionSlicingDiscriminatorComponent discriminator : slicing.getDiscriminator())
+					discriminators.add(compile(discriminator));
+
+				unsupported |= discriminators.isEmpty() || discriminators.contains(null);
+			}
+			else
+			{
+				slicingRules = null;
+				slicingOrdered = false;
+			}
+
+			unsupported |= (binding != null && BindingStrength.REQUIRED.equals(binding.getStrength())
+					&& requiredValueSet == null) || definition.hasMinValue() || definition.hasMaxValue()
+					|| (!types.isEmpty() && types.stream().anyMatch(t -> t.code == null));
+		}
+
+		private static String primitiveType(TypeRefComponent type)
+		{
+			if (type.hasExtension(EXTENSION_FHIR_TYPE))
+				return type.getExtensionByUrl(EXTENSION_FHIR_TYPE).getValue().primitiveValue();
+			else
+				return type.getCode();
+		}
+
+		private Pattern compile(String regex)
+		{
+			try
+			{
+				return Pattern.compile(regex);
+			}
+			catch (PatternSyntaxException e)
+			{
+				unsupported = true;
+				return null;
+			}
+		}
+
+		private Constraint compile(ElementDefinitionConstraintComponent constraint, FHIRPathEngine engine)
+		{
+			String expression = constraint.getExpression();
+
+			if (ELE_1.equals(expression))
+				return new Constraint(constraint.getKey(), BuiltIn.ELE_1, null);
+			else if (EXT_1.equals(expression))
+				return new Constraint(constraint.getKey(), BuiltIn.EXT_1, null);
+			else if (REF_1.equals(expression))
+				return new Constraint(constraint.getKey(), BuiltIn.REF_1, null);
+
+			try
+			{
+				if (expression == null || expression.isBlank())
+					unsupported = true;
+				else
+					return new Constraint(constraint.getKey(), null, engine.parse(expression));
+			}
+			catch (RuntimeException e)
+			{
+				unsupported = true;
+			}
+
+			return new Constraint(constraint.getKey(), null, null);
+		}
+
+		private static Discriminator compile(ElementDefinitionSlicingDiscriminatorComponent discriminator)
+		{
+			DiscriminatorType type = discriminator.getType();
+			String path = discriminator.getPath();
+
+			if (path == null || !(DiscriminatorType.VALUE.equals(type) || DiscriminatorType.PATTERN.equals(type)
+					|| DiscriminatorType.TYPE.equals(type)))
+				return null;
+			else if ("$this".equals(path))
+				return new Discriminator(type, null);
+			else if (DiscriminatorType.TYPE.equals(type) || !path.matches("[A-Za-z]+(\\.[A-Za-z]+)*"))
+				return null;
+			else
+				return new Discriminator(type, path.split("\\."));
+		}
+
+		boolean isSliced()
+		{
+			return slicingRules != null;
+		}
+
+		/**
+		 * @return element defining children, {@link #reference} for elements with a content reference
+		 */
+		Element structure()
+		{
+			return reference != null ? reference : this;
+		}
+	}
+
+	final String url;
+	final String type;
+	final StructureDefinitionKind kind;
+	final Element root;
+	final Set<String> elementContexts;
+	final Set<String> extensionContexts;
+
+	private CompiledProfile(String url, String type, StructureDefinitionKind kind, Element root,
+			Set<String> elementContexts, Set<String> extensionContexts)
+	{
+		this.url = url;
+		this.type = type;
+		this.kind = kind;
+		this.root = root;
+		this.elementContexts = elementContexts;
+		this.extensionContexts = extensionContexts;
+	}
+
+	/**
+	 * @param structureDefinition
+	 *            not <code>null</code>
+	 * @param engine
+	 *            not <code>null</code>, used to parse FHIRPath constraints
+	 * @return <code>null</code> if the given {@link StructureDefinition} has no snapshot or uses features not supported
+	 *         by the compiled checks
+	 */
+	static CompiledProfile compile(StructureDefinition structureDefinition, FHIRPathEngine engine)
+	{
+		if (!structureDefinition.hasSnapshot() || !structureDefinition.hasType()
+				|| structureDefinition.hasContextInvariant())
+			return null;
+
+		Map<String, Element> elementsById = new HashMap<>();
+		Element root = null;
+
+		for (ElementDefinition definition : structureDefinition.getSnapshot().getElement())
+		{
+			String id = definition.getId();
+			if (id == null || id.contains("/"))
+				return null;
+
+			Element element = new Element(definition, engine);
+
+			int dot = id.lastIndexOf('.');
+			if (dot < 0)
+			{
+				if (root != null)
+					return null;
+
+				root = element;
+			}
+			else
+			{
+				Element parent = elementsById.get(id.substring(0, dot));
+				if (parent == null)
+					return null;
+
+				String name = id.substring(dot + 1);
+				int colon = name.indexOf(':');
+
+				if (colon < 0)
+					parent.children.put(name, element);
+				else
+				{
+					Element sliced = parent.children.get(name.substring(0, colon));
+					if (sliced == null || !sliced.isSliced())
+						return null;
+
+					sliced.slices.add(element);
+				}
+			}
+
+			elementsById.put(id, element);
+		}
+
+		if (root == null)
+			return null;
+
+		for (Element element : elementsById.values())
+		{
+			if (element.contentReference != null)
+			{
+				element.reference = element.contentReference.startsWith("#")
+						? elementsById.get(element.contentReference.substring(1))
+						: null;
+				element.unsupported |= element.reference == null;
+			}
+
+			for (Element slice : element.slices)
+			{
+				for (Discriminator discriminator : element.discriminators)
+				{
+					DiscriminatorValue value = discriminator == null ? null : discriminatorValue(slice, discriminator);
+					if (value == null)
+						element.unsupported = true;
+
+					slice.discriminatorValues.add(value);
+				}
+
+				element.unsupported |= slice.discriminatorValues.stream().allMatch(v -> v == DiscriminatorValue.NONE);
+			}
+		}
+
+		Set<String> elementContexts = new HashSet<>();
+		Set<String> extensionContexts = new HashSet<>();
+		for (StructureDefinitionContextComponent context : structureDefinition.getContext())
+		{
+			if (ExtensionContextType.ELEMENT.equals(context.getType()))
+				elementContexts.add(context.getExpression());
+			else if (ExtensionContextType.EXTENSION.equals(context.getType()))
+				extensionContexts.add(context.getExpression());
+		}
+
+		return new CompiledProfile(structureDefinition.getUrl(), structureDefinition.getType(),
+				structureDefinition.getKind(), root, Collections.unmodifiableSet(elementContexts),
+				Collections.unmodifiableSet(extensionContexts));
+	}
+
+	private static DiscriminatorValue discriminatorValue(Element slice, Discriminator discriminator)
+	{
+		if (DiscriminatorType.TYPE.equals(discriminator.type))
+			return slice.types.size() == 1 ? new DiscriminatorValue(null, slice.types.get(0).code, true) : null;
+
+		Element element = slice;
+		int i = 0;
+
+		if (discriminator.path != null)
+		{
+			for (; i < discriminator.path.length && element.fixed == null && element.pattern == null; i++)
+			{
+				Element child = element.children.get(discriminator.path[i]);
+
+				// extension slices without url child element, url given by type profile
+				if (child == null && "url".equals(discriminator.path[i]) && i == discriminator.path.length - 1
+						&& element.types.size() == 1 && "Extension".equals(element.types.get(0).code)
+						&& element.types.get(0).profiles.size() == 1)
+					return new DiscriminatorValue(new UriType(element.types.get(0).profiles.get(0)), null, true);
+				else if (child == null)
+					return null;
+
+				element = child;
+			}
+		}
+
+		Base value = element.fixed != null ? element.fixed : element.pattern;
+		if (value == null)
+		{
+			// discriminators using required bindings not supported
+			return element.requiredValueSet == null && (discriminator.path == null || i == discriminator.path.length)
+					? DiscriminatorValue.NONE
+					: null;
+		}
+
+		for (; discriminator.path != null && i < discriminator.path.length; i++)
+		{
+			Property property = value.getNamedProperty(discriminator.path[i]);
+			if (property == null || property.getValues().size() != 1)
+				return null;
+
+			value = property.getValues().get(0);
+		}
+
+		return new DiscriminatorValue(value, null, element.fixed != null);
+	}
+
+	boolean isExtension()
+	{
+		return "Extension".equals(type);
+	}
+
+	/**
+	 * @param parent
+	 *            not <code>null</code>
+	 * @return <code>true</code> if this extension profile may be used on the given parent element
+	 */
+	boolean isContextAllowed(Base parent)
+	{
+		if (elementContexts.contains("Element") || elementContexts.contains(parent.fhirType()))
+			return true;
+		else if (parent instanceof Resource)
+			return elementContexts.contains("Resource")
+					|| (parent instanceof DomainResource && elementContexts.contains("DomainResource"));
+		else if (parent instanceof Extension e)
+			return elementContexts.contains("Extension") || extensionContexts.contains(e.getUrl());
+		else
+			return false;
+	}
+}
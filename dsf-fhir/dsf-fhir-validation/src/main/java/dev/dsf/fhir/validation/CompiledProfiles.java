@@ -0,0 +1,804 @@
+package dev.dsf.fhir.validation;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+import org.hl7.fhir.r4.hapi.ctx.HapiWorkerContext;
+import org.hl7.fhir.r4.model.BackboneElement;
+import org.hl7.fhir.r4.model.Base;
+import org.hl7.fhir.r4.model.CanonicalType;
+import org.hl7.fhir.r4.model.CodeSystem;
+import org.hl7.fhir.r4.model.CodeSystem.CodeSystemContentMode;
+import org.hl7.fhir.r4.model.CodeSystem.ConceptDefinitionComponent;
+import org.hl7.fhir.r4.model.CodeableConcept;
+import org.hl7.fhir.r4.model.Coding;
+import org.hl7.fhir.r4.model.DomainResource;
+import org.hl7.fhir.r4.model.ElementDefinition.DiscriminatorType;
+import org.hl7.fhir.r4.model.ElementDefinition.SlicingRules;
+import org.hl7.fhir.r4.model.Extension;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Property;
+import org.hl7.fhir.r4.model.Reference;
+import org.hl7.fhir.r4.model.Resource;
+import org.hl7.fhir.r4.model.ResourceType;
+import org.hl7.fhir.r4.model.StructureDefinition;
+import org.hl7.fhir.r4.model.StructureDefinition.StructureDefinitionKind;
+import org.hl7.fhir.r4.model.ValueSet;
+import org.hl7.fhir.r4.model.ValueSet.ConceptReferenceComponent;
+import org.hl7.fhir.r4.model.ValueSet.ConceptSetComponent;
+import org.hl7.fhir.r4.model.ValueSet.ValueSetExpansionContainsComponent;
+import org.hl7.fhir.r4.utils.FHIRPathEngine;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.support.IValidationSupport;
+import ca.uhn.fhir.context.support.ValidationSupportContext;
+import dev.dsf.fhir.validation.CompiledProfile.Constraint;
+import dev.dsf.fhir.validation.CompiledProfile.Discriminator;
+import dev.dsf.fhir.validation.CompiledProfile.DiscriminatorValue;
+import dev.dsf.fhir.validation.CompiledProfile.Element;
+import dev.dsf.fhir.validation.CompiledProfile.Type;
+
+/**
+ * Checks resources against {@link CompiledProfile}s. Profiles, core type definitions, value sets and code systems are
+ * compiled on first use and cached until {@link ResourceValidatorWithCompiledProfiles#clear()} replaces this instance.
+ * <p>
+ * The checks only accept resources: {@link #isValid(Resource)} returns <code>false</code> for invalid resources and for
+ * resources using content not supported by the compiled checks, these resources have to be validated by the HAPI
+ * validator.
+ */
+final class CompiledProfiles
+{
+	private static final String CORE_PROFILE_PREFIX = "http://hl7.org/fhir/StructureDefinition/";
+
+	/**
+	 * The HAPI validator runs additional rules for these resource types
+	 */
+	private static final Set<String> UNSUPPORTED_RESOURCE_TYPES = Set.of(ResourceType.Bundle.name(),
+			ResourceType.CapabilityStatement.name(), ResourceType.CodeSystem.name(), ResourceType.Measure.name(),
+			ResourceType.MeasureReport.name(), ResourceType.Observation.name(), ResourceType.Questionnaire.name(),
+			ResourceType.QuestionnaireResponse.name(), ResourceType.SearchParameter.name(),
+			ResourceType.StructureDefinition.name(), ResourceType.ValueSet.name());
+
+	private static final Pattern ID_PATTERN = Pattern.compile("[A-Za-z0-9\\-\\.]{1,64}");
+	private static final int MAX_STRING_LENGTH = 1024 * 1024;
+
+	private static final Type ROOT_TYPE = new Type(null, null, List.of(), List.of());
+
+	private record CodeSystemCodes(boolean found, String version, Set<String> codes)
+	{
+	}
+
+	private record ValueSetCodes(Set<String> codes, Set<String> systemAndCodes)
+	{
+	}
+
+	private final IValidationSupport validationSupport;
+	private final ValidationSupportContext validationSupportContext;
+	private final ThreadLocal<FHIRPathEngine> engines;
+
+	private final ConcurrentMap<String, Optional<CompiledProfile>> profiles = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, CodeSystemCodes> codeSystems = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Optional<ValueSetCodes>> valueSets = new ConcurrentHashMap<>();
+
+	CompiledProfiles(FhirContext fhirContext, IValidationSupport validationSupport)
+	{
+		this.validationSupport = validationSupport;
+
+		validationSupportContext = new ValidationSupportContext(validationSupport);
+
+		HapiWorkerContext workerContext = new HapiWorkerContext(fhirContext, validationSupport);
+		// FHIRPathEngine not thread safe, parsed expressions can be shared
+		engines = ThreadLocal.withInitial(() -> new FHIRPathEngine(workerContext));
+	}
+
+	/**
+	 * @param resource
+	 *            not <code>null</code>
+	 * @return <code>true</code> if the given resource is valid against all profiles listed in
+	 *         <code>Resource.meta.profile</code>, <code>false</code> if the resource is not valid or can not be checked
+	 */
+	boolean isValid(Resource resource)
+	{
+		if (!resource.getMeta().hasProfile() || UNSUPPORTED_RESOURCE_TYPES.contains(resource.fhirType()))
+			return false;
+
+		if (resource instanceof DomainResource d && (!d.getText().isEmpty() || d.hasContained()))
+			return false;
+
+		if (resource.hasIdElement() && resource.getIdElement().hasIdPart()
+				&& !ID_PATTERN.matcher(resource.getIdElement().getIdPart()).matches())
+			return false;
+
+		for (CanonicalType profileUrl : resource.getMeta().getProfile())
+		{
+			CompiledProfile profile = profileUrl.hasValue() ? getProfile(profileUrl.getValue()) : null;
+
+			if (profile == null || !StructureDefinitionKind.RESOURCE.equals(profile.kind)
+					|| !resource.fhirType().equals(profile.type) || !checkValue(resource, resource, profile.root))
+				return false;
+		}
+
+		return true;
+	}
+
+	private CompiledProfile getProfile(String url)
+	{
+		Optional<CompiledProfile> profile = profiles.get(url);
+		if (profile == null)
+		{
+			// not using computeIfAbsent, profiles compiled while checking values may need other profiles
+			profile = Optional.ofNullable(compileProfile(url));
+			Optional<CompiledProfile> existing = profiles.putIfAbsent(url, profile);
+			if (existing != null)
+				profile = existing;
+		}
+
+		return profile.orElse(null);
+	}
+
+	private CompiledProfile compileProfile(String url)
+	{
+		if (validationSupport.fetchStructureDefinition(url) instanceof StructureDefinition structureDefinition)
+			return CompiledProfile.compile(structureDefinition, engines.get());
+		else
+			return null;
+	}
+
+	private Element getTypeRoot(String type)
+	{
+		CompiledProfile profile = getProfile(CORE_PROFILE_PREFIX + type);
+		return profile != null && type.equals(profile.type) ? profile.root : null;
+	}
+
+	private boolean checkValue(Resource root, Base value, Element definition)
+	{
+		if (definition.unsupported)
+			return false;
+
+		Type type = getType(definition, value);
+		if (type == null)
+			return false;
+
+		if (definition.fixed != null && !matches(definition.fixed, value, true))
+			return false;
+
+		if (definition.pattern != null && !matches(definition.pattern, value, false))
+			return false;
+
+		if (!checkBinding(definition, value) || !checkConstraints(root, value, definition.constraints))
+			return false;
+
+		String primitiveType = type.code == null ? value.fhirType() : type.primitiveType;
+		if (value.isPrimitive() && !checkPrimitive(value, primitiveType, definition))
+			return false;
+
+		if (value instanceof Coding c && !checkCoding(c))
+			return false;
+
+		if (value instanceof Reference r && !checkReference(r, type))
+			return false;
+
+		Element structure = definition.structure();
+		if (!structure.children.isEmpty())
+		{
+			if (!checkChildren(root, value, structure))
+				return false;
+		}
+		else if (type.code != null && type.isSystemType())
+		{
+			if (hasChildren(value))
+				return false;
+		}
+		else
+		{
+			Element typeRoot = getTypeRoot(type.code == null ? value.fhirType() : type.code);
+			if (typeRoot == null || !checkConstraints(root, value, typeRoot.constraints)
+					|| !checkChildren(root, value, typeRoot))
+				return false;
+		}
+
+		for (String profileUrl : type.profiles)
+		{
+			CompiledProfile profile = getProfile(profileUrl);
+			if (profile != null && value.fhirType().equals(profile.type) && checkValue(root, value, profile.root))
+				return true;
+		}
+
+		return type.profiles.isEmpty();
+	}
+
+	private static Type getType(Element definition, Base value)
+	{
+		if (definition.types.isEmpty())
+			return ROOT_TYPE;
+
+		String fhirType = value.fhirType();
+		for (Type type : definition.types)
+		{
+			if (type.code.equals(fhirType) || (type.isSystemType() && value.isPrimitive())
+					|| ("BackboneElement".equals(type.code) && value instanceof BackboneElement)
+					|| ("Element".equals(type.code) && value instanceof org.hl7.fhir.r4.model.Element
+							&& fhirType.indexOf('.') > 0))
+				return type;
+		}
+
+		return null;
+	}
+
+	private static boolean hasChildren(Base value)
+	{
+		return value.children().stream().anyMatch(p -> !nonEmpty(p.getValues()).isEmpty());
+	}
+
+	private static List<Base> nonEmpty(List<Base> values)
+	{
+		for (Base value : values)
+		{
+			if (value == null || value.isEmpty())
+				return values.stream().filter(v -> v != null && !v.isEmpty()).toList();
+		}
+
+		return values;
+	}
+
+	private boolean checkChildren(Resource root, Base value, Element structure)
+	{
+		List<Property> properties = value.children();
+
+		if (!structure.verifiedClasses.contains(value.getClass()))
+		{
+			Set<String> names = new HashSet<>();
+			properties.forEach(p -> names.add(p.getName()));
+
+			// snapshot element names not matching model property names, e.g. type specific value[x] elements
+			for (String name : structure.children.keySet())
+			{
+				if (!names.contains(name) && !(value.isPrimitive() && "value".equals(name)))
+					return false;
+			}
+
+			structure.verifiedClasses.add(value.getClass());
+		}
+
+		for (Property property : properties)
+		{
+			Element child = structure.children.get(property.getName());
+			List<Base> values = nonEmpty(property.getValues());
+
+			if (child == null)
+			{
+				if (!values.isEmpty())
+					return false;
+			}
+			else if ("modifierExtension".equals(property.getName()) && !values.isEmpty())
+				return false;
+			else if (!checkElement(root, value, values, child))
+				return false;
+		}
+
+		return true;
+	}
+
+	private boolean checkElement(Resource root, Base parent, List<Base> values, Element definition)
+	{
+		if (values.isEmpty())
+			return definition.min == 0 && definition.slices.stream().allMatch(s -> s.min == 0);
+
+		if (definition.unsupported || values.size() < definition.min || values.size() > definition.max)
+			return false;
+
+		if (!definition.isSliced())
+		{
+			for (Base value : values)
+			{
+				if (!checkValue(root, value, definition) || !checkExtension(root, parent, value, false))
+					return false;
+			}
+
+			return true;
+		}
+
+		int[] counts = new int[definition.slices.size()];
+		int lastSlice = -1;
+		boolean unmatched = false;
+
+		for (Base value : values)
+		{
+			int slice = -1;
+			for (int s = 0; s < definition.slices.size(); s++)
+			{
+				Boolean matches = matchesSlice(definition, definition.slices.get(s), value);
+				if (matches == null || (matches && slice >= 0))
+					return false;
+				else if (matches)
+					slice = s;
+			}
+
+			if (slice < 0)
+			{
+				if (SlicingRules.CLOSED.equals(definition.slicingRules))
+					return false;
+
+				unmatched = true;
+
+				if (!checkValue(root, value, definition) || !checkExtension(root, parent, value, false))
+					return false;
+			}
+			else
+			{
+				if ((SlicingRules.OPENATEND.equals(definition.slicingRules) && unmatched)
+						|| (definition.slicingOrdered && slice < lastSlice))
+					return false;
+
+				lastSlice = slice;
+				counts[slice]++;
+
+				Element sliceDefinition = definition.slices.get(slice);
+				if (!checkValue(root, value, sliceDefinition) || !checkExtension(root, parent, value, true))
+					return false;
+
+				// slices without child elements in the snapshot, base element children still apply
+				if (sliceDefinition.structure().children.isEmpty() && !definition.structure().children.isEmpty()
+						&& !checkValue(root, value, definition))
+					return false;
+			}
+		}
+
+		for (int s = 0; s < counts.length; s++)
+		{
+			Element slice = definition.slices.get(s);
+			if (counts[s] < slice.min || counts[s] > slice.max)
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return <code>null</code> if the discriminators can not be evaluated unambiguously
+	 */
+	private static Boolean matchesSlice(Element sliced, Element slice, Base value)
+	{
+		for (int d = 0; d < sliced.discriminators.size(); d++)
+		{
+			Discriminator discriminator = sliced.discriminators.get(d);
+			DiscriminatorValue expected = slice.discriminatorValues.get(d);
+
+			if (expected == DiscriminatorValue.NONE)
+				continue;
+			else if (DiscriminatorType.TYPE.equals(discriminator.type))
+			{
+				if (!expected.type.equals(value.fhirType()))
+					return false;
+
+				continue;
+			}
+
+			List<Base> actual = discriminator.path == null ? List.of(value) : evaluate(value, discriminator.path);
+			if (actual.size() > 1)
+				return null;
+			else if (actual.isEmpty() || !matches(expected.value, actual.get(0), expected.exact))
+				return false;
+		}
+
+		return true;
+	}
+
+	private static List<Base> evaluate(Base value, String[] path)
+	{
+		List<Base> values = List.of(value);
+
+		for (String name : path)
+		{
+			List<Base> next = new ArrayList<>();
+			for (Base v : values)
+			{
+				Property property = v.getNamedProperty(name);
+				if (property != null)
+					next.addAll(nonEmpty(property.getValues()));
+			}
+
+			values = next;
+		}
+
+		return values;
+	}
+
+	/**
+	 * @param exact
+	 *            <code>true</code> for fixed values, <code>false</code> for patterns
+	 */
+	private static boolean matches(Base expected, Base actual, boolean exact)
+	{
+		if (expected.isPrimitive() || actual.isPrimitive())
+		{
+			if (!expected.isPrimitive() || !actual.isPrimitive())
+				return false;
+
+			if (expected.hasPrimitiveValue() ? !expected.primitiveValue().equals(actual.primitiveValue())
+					: exact && actual.hasPrimitiveValue())
+				return false;
+		}
+		else if (!expected.fhirType().equals(actual.fhirType()))
+			return false;
+
+		for (Property expectedProperty : expected.children())
+		{
+			List<Base> expectedValues = nonEmpty(expectedProperty.getValues());
+			Property actualProperty = actual.getNamedProperty(expectedProperty.getName());
+			List<Base> actualValues = actualProperty == null ? List.of() : nonEmpty(actualProperty.getValues());
+
+			if (exact)
+			{
+				if (expectedValues.size() != actualValues.size())
+					return false;
+
+				for (int i = 0; i < expectedValues.size(); i++)
+				{
+					if (!matches(expectedValues.get(i), actualValues.get(i), true))
+						return false;
+				}
+			}
+			else
+			{
+				for (Base expectedValue : expectedValues)
+				{
+					if (actualValues.stream().noneMatch(a -> matches(expectedValue, a, false)))
+						return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	private boolean checkBinding(Element definition, Base value)
+	{
+		if (definition.maxValueSet)
+			return false;
+		else if (definition.requiredValueSet == null)
+			return true;
+
+		ValueSetCodes codes = getValueSet(definition.requiredValueSet).orElse(null);
+		if (codes == null)
+			return false;
+		else if (value instanceof Coding coding)
+			return contains(codes, coding);
+		else if (value instanceof CodeableConcept concept)
+			return concept.getCoding().stream().anyMatch(coding -> contains(codes, coding));
+		else if (value.isPrimitive())
+			return codes.codes().contains(value.primitiveValue());
+		else
+			return false;
+	}
+
+	private static boolean contains(ValueSetCodes codes, Coding coding)
+	{
+		return coding.hasSystem() && coding.hasCode() && !coding.hasVersion()
+				&& codes.systemAndCodes().contains(coding.getSystem() + "|" + coding.getCode());
+	}
+
+	private boolean checkConstraints(Resource root, Base value, List<Constraint> constraints)
+	{
+		for (Constraint constraint : constraints)
+		{
+			if (!test(root, value, constraint))
+				return false;
+		}
+
+		return true;
+	}
+
+	private boolean test(Resource root, Base value, Constraint constraint)
+	{
+		if (constraint.builtIn != null)
+		{
+			return switch (constraint.builtIn)
+			{
+				case ELE_1 -> value.hasPrimitiveValue() || value.children().stream()
+						.anyMatch(p -> !"id".equals(p.getName()) && !nonEmpty(p.getValues()).isEmpty());
+				case EXT_1 -> value instanceof Extension e
+						&& !nonEmpty(new ArrayList<>(e.getExtension())).isEmpty() != e.hasValue();
+				case REF_1 -> value instanceof Reference r && !(r.hasReference() && r.getReference().startsWith("#"));
+			};
+		}
+		else if (constraint.expression == null)
+			return false;
+
+		FHIRPathEngine engine = engines.get();
+		try
+		{
+			return engine.evaluateToBoolean(root, root, value, constraint.expression);
+		}
+		finally
+		{
+			if (engine.hasLog())
+				engine.takeLog();
+		}
+	}
+
+	private boolean checkPrimitive(Base value, String type, Element definition)
+	{
+		if (!value.hasPrimitiveValue())
+			return true;
+
+		String v = value instanceof IdType id ? id.getIdPart() : value.primitiveValue();
+		if (v == null || v.isEmpty())
+			return false;
+
+		if ("base64Binary".equals(type))
+			return true;
+
+		if (v.length() > MAX_STRING_LENGTH || (definition.maxLength > 0 && v.length() > definition.maxLength))
+			return false;
+
+		if (definition.regex != null && !definition.regex.matcher(v).matches())
+			return false;
+
+		Pattern regex = getPrimitiveRegex(type);
+		if (regex == null || !regex.matcher(v).matches())
+			return false;
+
+		return switch (type)
+		{
+			case "uri", "url", "canonical" -> checkUri(v, type);
+			case "date", "dateTime", "instant" -> checkYear(v);
+			default -> true;
+		};
+	}
+
+	private Pattern getPrimitiveRegex(String type)
+	{
+		Element typeRoot = getTypeRoot(type);
+		Element value = typeRoot == null ? null : typeRoot.children.get("value");
+		return value == null ? null : value.regex;
+	}
+
+	private boolean checkUri(String value, String type)
+	{
+		if (value.startsWith("urn:oid:"))
+			return !"url".equals(type) && getPrimitiveRegex("oid").matcher(value).matches();
+		else if (value.startsWith("urn:uuid:"))
+			return !"url".equals(type) && getPrimitiveRegex("uuid").matcher(value).matches();
+		else
+			return !"url".equals(type) || !value.startsWith("urn:");
+	}
+
+	private static boolean checkYear(String value)
+	{
+		try
+		{
+			int year = Integer.parseInt(value.substring(0, 4));
+			return year >= 1800 && year <= 2100;
+		}
+		catch (RuntimeException e)
+		{
+			return false;
+		}
+	}
+
+	private boolean checkCoding(Coding coding)
+	{
+		if (!coding.hasSystem())
+			return true;
+		else if (coding.hasVersion())
+			return false;
+		else if (!coding.hasCode())
+			return true;
+
+		CodeSystemCodes codes = getCodeSystem(coding.getSystem());
+		if (codes.found())
+			return codes.codes() != null && codes.codes().contains(coding.getCode());
+		else
+			return !isTerminologySystem(coding.getSystem());
+	}
+
+	private boolean isTerminologySystem(String system)
+	{
+		return system.startsWith("http://hl7.org/fhir/") || system.startsWith("http://terminology.hl7.org/")
+				|| system.startsWith("urn:") || system.startsWith("http://snomed.info/")
+				|| system.startsWith("http://loinc.org") || system.startsWith("http://unitsofmeasure.org")
+				|| validationSupport.isCodeSystemSupported(validationSupportContext, system);
+	}
+
+	private boolean checkReference(Reference reference, Type type)
+	{
+		Set<String> targetTypes = getTargetTypes(type);
+		if (targetTypes == null)
+			return false;
+
+		if (reference.hasReference())
+		{
+			String literal = reference.getReference();
+			if (literal.startsWith("#") || literal.contains("?"))
+				return false;
+
+			IdType id = new IdType(literal);
+			if (!id.hasResourceType() || !id.hasIdPart() || !isAllowed(targetTypes, id.getResourceType()))
+				return false;
+
+			// target profiles other than core resource types would need the referenced resource
+			if (type.targetProfiles.stream().anyMatch(p -> !p.startsWith(CORE_PROFILE_PREFIX)))
+				return false;
+		}
+
+		return !reference.hasType() || isAllowed(targetTypes, reference.getType());
+	}
+
+	private static boolean isAllowed(Set<String> targetTypes, String resourceType)
+	{
+		return targetTypes.isEmpty() || targetTypes.contains("Resource") || targetTypes.contains(resourceType);
+	}
+
+	/**
+	 * @return <code>null</code> if a target profile is not supported, empty if any resource type is allowed
+	 */
+	private Set<String> getTargetTypes(Type type)
+	{
+		Set<String> targetTypes = type.targetTypes;
+		if (targetTypes != null)
+			return targetTypes;
+
+		targetTypes = new HashSet<>();
+		for (String targetProfile : type.targetProfiles)
+		{
+			String url = targetProfile.contains("|") ? targetProfile.substring(0, targetProfile.indexOf('|'))
+					: targetProfile;
+
+			if (url.startsWith(CORE_PROFILE_PREFIX))
+				targetTypes.add(url.substring(CORE_PROFILE_PREFIX.length()));
+			else
+			{
+				CompiledProfile profile = getProfile(targetProfile);
+				if (profile == null)
+					return null;
+
+				targetTypes.add(profile.type);
+			}
+		}
+
+		return type.targetTypes = Set.copyOf(targetTypes);
+	}
+
+	private boolean checkExtension(Resource root, Base parent, Base value, boolean matchedSlice)
+	{
+		if (!(value instanceof Extension extension))
+			return true;
+		else if (!extension.hasUrl())
+			return false;
+
+		// sub-extensions with relative url, defined by the parent extension's profile
+		if (!extension.getUrl().contains(":"))
+			return matchedSlice && parent instanceof Extension;
+
+		CompiledProfile profile = getProfile(extension.getUrl());
+		return profile != null && profile.isExtension() && profile.isContextAllowed(parent)
+				&& checkValue(root, extension, profile.root);
+	}
+
+	private CodeSystemCodes getCodeSystem(String url)
+	{
+		CodeSystemCodes codes = codeSystems.get(url);
+		if (codes == null)
+		{
+			codes = loadCodeSystem(url);
+			CodeSystemCodes existing = codeSystems.putIfAbsent(url, codes);
+			if (existing != null)
+				codes = existing;
+		}
+
+		return codes;
+	}
+
+	private CodeSystemCodes loadCodeSystem(String url)
+	{
+		if (!(validationSupport.fetchCodeSystem(url) instanceof CodeSystem codeSystem))
+			return new CodeSystemCodes(false, null, null);
+		else if (!CodeSystemContentMode.COMPLETE.equals(codeSystem.getContent()))
+			return new CodeSystemCodes(true, codeSystem.getVersion(), null);
+
+		Set<String> codes = new HashSet<>();
+		addCodes(codes, codeSystem.getConcept());
+
+		return new CodeSystemCodes(true, codeSystem.getVersion(), Set.copyOf(codes));
+	}
+
+	private static void addCodes(Set<String> codes, List<ConceptDefinitionComponent> concepts)
+	{
+		for (ConceptDefinitionComponent concept : concepts)
+		{
+			if (concept.hasCode())
+				codes.add(concept.getCode());
+
+			addCodes(codes, concept.getConcept());
+		}
+	}
+
+	private Optional<ValueSetCodes> getValueSet(String url)
+	{
+		Optional<ValueSetCodes> codes = valueSets.get(url);
+		if (codes == null)
+		{
+			// not using computeIfAbsent, code systems loaded while expanding
+			codes = Optional.ofNullable(loadValueSet(url));
+			Optional<ValueSetCodes> existing = valueSets.putIfAbsent(url, codes);
+			if (existing != null)
+				codes = existing;
+		}
+
+		return codes;
+	}
+
+	private ValueSetCodes loadValueSet(String url)
+	{
+		if (!(validationSupport.fetchValueSet(url) instanceof ValueSet valueSet))
+			return null;
+
+		Set<String> codes = new HashSet<>();
+		Set<String> systemAndCodes = new HashSet<>();
+
+		if (valueSet.hasCompose())
+		{
+			if (valueSet.getCompose().hasExclude())
+				return null;
+
+			for (ConceptSetComponent include : valueSet.getCompose().getInclude())
+			{
+				if (include.hasValueSet() || include.hasFilter() || !include.hasSystem())
+					return null;
+
+				CodeSystemCodes codeSystem = getCodeSystem(include.getSystem());
+				if (!codeSystem.found() || codeSystem.codes() == null
+						|| (include.hasVersion() && !include.getVersion().equals(codeSystem.version())))
+					return null;
+
+				for (String code : include.hasConcept()
+						? include.getConcept().stream().map(ConceptReferenceComponent::getCode).toList()
+						: codeSystem.codes())
+				{
+					if (!codeSystem.codes().contains(code))
+						return null;
+
+					codes.add(code);
+					systemAndCodes.add(include.getSystem() + "|" + code);
+				}
+			}
+		}
+		else if (valueSet.hasExpansion())
+		{
+			if (!addCodes(codes, systemAndCodes, valueSet.getExpansion().getContains()))
+				return null;
+		}
+		else
+			return null;
+
+		return new ValueSetCodes(Set.copyOf(codes), Set.copyOf(systemAndCodes));
+	}
+
+	private static boolean addCodes(Set<String> codes, Set<String> systemAndCodes,
+			List<ValueSetExpansionContainsComponent> contains)
+	{
+		for (ValueSetExpansionContainsComponent c : contains)
+		{
+			if (c.hasCode())
+			{
+				if (!c.hasSystem() || c.hasVersion())
+					return false;
+
+				codes.add(c.getCode());
+				systemAndCodes.add(c.getSystem() + "|" + c.getCode());
+			}
+
+			if (!addCodes(codes, systemAndCodes, c.getContains()))
+				return false;
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,109 @@
+package dev.dsf.fhir.validation;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.hl7.fhir.r4.model.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.support.IValidationSupport;
+import ca.uhn.fhir.validation.ValidationResult;
+
+/**
+ * {@link ResourceValidator} checking resources against precompiled profiles. StructureDefinition snapshots listed in
+ * <code>Resource.meta.profile</code> are compiled once into element trees with resolved slices, fixed values, pattern
+ * values, required bindings and parsed FHIRPath constraints.
+ * <p>
+ * The compiled checks only accept resources. Resources failing the checks or using content not supported by the checks
+ * (e.g. contained resources, narratives, modifier extensions, unknown terminologies) are validated by the delegate, the
+ * full HAPI validator, so validation errors are always reported by the delegate. QuestionnaireResponse, Bundle and
+ * other resources with resource type specific rules in the HAPI validator are always validated by the delegate.
+ */
+public class ResourceValidatorWithCompiledProfiles implements ResourceValidator
+{
+	private static final Logger logger = LoggerFactory.getLogger(ResourceValidatorWithCompiledProfiles.class);
+
+	private final FhirContext fhirContext;
+	private final IValidationSupport validationSupport;
+	private final ResourceValidator delegate;
+
+	private volatile CompiledProfiles compiledProfiles;
+
+	private final LongAdder compiledValidations = new LongAdder();
+	private final LongAdder delegateValidations = new LongAdder();
+
+	/**
+	 * @param fhirContext
+	 *            not <code>null</code>
+	 * @param validationSupport
+	 *            not <code>null</code>
+	 * @param delegate
+	 *            not <code>null</code>, validates resources not accepted by the compiled checks
+	 */
+	public ResourceValidatorWithCompiledProfiles(FhirContext fhirContext, IValidationSupport validationSupport,
+			ResourceValidator delegate)
+	{
+		this.fhirContext = Objects.requireNonNull(fhirContext, "fhirContext");
+		this.validationSupport = Objects.requireNonNull(validationSupport, "validationSupport");
+		this.delegate = Objects.requireNonNull(delegate, "delegate");
+
+		compiledProfiles = new CompiledProfiles(fhirContext, validationSupport);
+	}
+
+	@Override
+	public ValidationResult validate(Resource resource)
+	{
+		if (resource != null && isValid(resource))
+		{
+			compiledValidations.increment();
+			return new ValidationResult(fhirContext, List.of());
+		}
+
+		delegateValidations.increment();
+		return delegate.validate(resource);
+	}
+
+	private boolean isValid(Resource resource)
+	{
+		try
+		{
+			return compiledProfiles.isValid(resource);
+		}
+		catch (RuntimeException e)
+		{
+			logger.debug("Unable to check {} with compiled profiles, using full validation", resource.fhirType(), e);
+			logger.warn("Unable to check {} with compiled profiles, using full validation: {} - {}",
+					resource.fhirType(), e.getClass().getName(), e.getMessage());
+
+			return false;
+		}
+	}
+
+	/**
+	 * Removes all compiled profiles, value sets and code systems. Needs to be called if StructureDefinition, ValueSet
+	 * or CodeSystem resources provided by the {@link IValidationSupport} change.
+	 */
+	public void clear()
+	{
+		compiledProfiles = new CompiledProfiles(fhirContext, validationSupport);
+	}
+
+	/**
+	 * @return number of resources accepted by the compiled checks
+	 */
+	public long getCompiledValidations()
+	{
+		return compiledValidations.sum();
+	}
+
+	/**
+	 * @return number of resources validated by the delegate
+	 */
+	public long getDelegateValidations()
+	{
+		return delegateValidations.sum();
+	}
+}
@@ -0,0 +1,252 @@
+package dev.dsf.fhir.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import org.hl7.fhir.r4.model.Coding;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.IntegerType;
+import org.hl7.fhir.r4.model.Narrative.NarrativeStatus;
+import org.hl7.fhir.r4.model.Organization;
+import org.hl7.fhir.r4.model.QuestionnaireResponse;
+import org.hl7.fhir.r4.model.QuestionnaireResponse.QuestionnaireResponseStatus;
+import org.hl7.fhir.r4.model.Resource;
+import org.hl7.fhir.r4.model.ResourceType;
+import org.hl7.fhir.r4.model.StringType;
+import org.hl7.fhir.r4.model.Task;
+import org.hl7.fhir.r4.model.Task.TaskIntent;
+import org.hl7.fhir.r4.model.Task.TaskStatus;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ca.uhn.fhir.validation.ResultSeverityEnum;
+import ca.uhn.fhir.validation.ValidationResult;
+
+public class ResourceValidatorWithCompiledProfilesTest
+{
+	private static final Logger logger = LoggerFactory.getLogger(ResourceValidatorWithCompiledProfilesTest.class);
+
+	@ClassRule
+	public static final ValidationSupportRule validationRule = new ValidationSupportRule(
+			List.of("dsf-task-base-1.0.0.xml", "dsf-organization-1.0.0.xml", "dsf-organization-parent-1.0.0.xml",
+					"dsf-extension-certificate-thumbprint-1.0.0.xml", "dsf-endpoint-1.0.0.xml",
+					"dsf-extension-read-access-parent-organization-role-1.0.0.xml",
+					"dsf-extension-read-access-organization-1.0.0.xml"),
+			List.of("dsf-bpmn-message-1.0.0.xml", "dsf-read-access-tag-1.0.0.xml"),
+			List.of("dsf-bpmn-message-1.0.0.xml", "dsf-read-access-tag-1.0.0.xml"));
+
+	private final ResourceValidator fullValidator = new ResourceValidatorImpl(validationRule.getFhirContext(),
+			validationRule.getValidationSupport());
+
+	private final ResourceValidatorWithCompiledProfiles validator = new ResourceValidatorWithCompiledProfiles(
+			validationRule.getFhirContext(), validationRule.getValidationSupport(), fullValidator);
+
+	private static Task createTask(TaskStatus status)
+	{
+		Task task = new Task();
+		task.getMeta().addProfile("http://dsf.dev/fhir/StructureDefinition/task-base");
+		task.getMeta().addTag().setSystem("http://dsf.dev/fhir/CodeSystem/read-access-tag").setCode("ALL");
+		task.setInstantiatesCanonical("http://dsf.dev/bpe/Process/foo|0.1.0");
+		task.setStatus(status);
+		task.setIntent(TaskIntent.ORDER);
+		task.setAuthoredOn(new Date());
+		task.getRequester().setType(ResourceType.Organization.name()).getIdentifier()
+				.setSystem("http://dsf.dev/sid/organization-identifier").setValue("Test_DIC");
+		task.getRestriction().addRecipient().setType(ResourceType.Organization.name()).getIdentifier()
+				.setSystem("http://dsf.dev/sid/organization-identifier").setValue("Test_DIC");
+
+		task.addInput().setValue(new StringType("message")).getType().addCoding()
+				.setSystem("http://dsf.dev/fhir/CodeSystem/bpmn-message").setCode("message-name");
+
+		return task;
+	}
+
+	private static Task createTaskWithBusinessKey(TaskStatus status)
+	{
+		Task task = createTask(status);
+		task.addInput().setValue(new StringType(UUID.randomUUID().toString())).getType().addCoding()
+				.setSystem("http://dsf.dev/fhir/CodeSystem/bpmn-message").setCode("business-key");
+
+		return task;
+	}
+
+	private static Task createTask(Consumer<Task> modifier)
+	{
+		Task task = createTaskWithBusinessKey(TaskStatus.INPROGRESS);
+		modifier.accept(task);
+		return task;
+	}
+
+	private static long errors(ValidationResult result)
+	{
+		return result.getMessages().stream().filter(m -> ResultSeverityEnum.ERROR.equals(m.getSeverity())
+				|| ResultSeverityEnum.FATAL.equals(m.getSeverity())).count();
+	}
+
+	/**
+	 * @return <code>true</code> if the resource was accepted by the compiled checks
+	 */
+	private boolean validate(Resource resource)
+	{
+		long compiledValidations = validator.getCompiledValidations();
+		ValidationResult result = validator.validate(resource);
+		boolean compiled = validator.getCompiledValidations() > compiledValidations;
+
+		ValidationResult fullResult = fullValidator.validate(resource);
+		ValidationSupportRule.logValidationMessages(logger, fullResult);
+
+		// resources accepted by the compiled checks must be valid
+		if (compiled)
+		{
+			assertEquals(0, errors(result));
+			assertEquals(0, errors(fullResult));
+		}
+		else
+			assertEquals(errors(fullResult), errors(result));
+
+		return compiled;
+	}
+
+	private void testValid(Resource resource)
+	{
+		assertTrue(validate(resource));
+	}
+
+	private void testInvalid(Resource resource)
+	{
+		assertFalse(validate(resource));
+		assertTrue(errors(validator.validate(resource)) > 0);
+	}
+
+	private void testNotSupported(Resource resource)
+	{
+		assertFalse(validate(resource));
+	}
+
+	@Test
+	public void testTaskValid() throws Exception
+	{
+		testValid(createTask(TaskStatus.REQUESTED));
+		testValid(createTaskWithBusinessKey(TaskStatus.REQUESTED));
+		testValid(createTaskWithBusinessKey(TaskStatus.INPROGRESS));
+		testValid(createTaskWithBusinessKey(TaskStatus.COMPLETED));
+		testValid(createTask(
+				t -> t.setIdElement(new org.hl7.fhir.r4.model.IdType("Task", UUID.randomUUID().toString(), "1"))));
+		testValid(createTask(t -> t.addInput().setValue(new StringType(UUID.randomUUID().toString())).getType()
+				.addCoding().setSystem("http://dsf.dev/fhir/CodeSystem/bpmn-message").setCode("correlation-key")));
+		testValid(createTask(t -> t.addInput().setValue(new StringType("other")).getType().addCoding()
+				.setSystem("http://example.org/fhir/CodeSystem/other").setCode("other")));
+		testValid(createTask(t -> t.addOutput().setValue(new StringType("error")).getType().addCoding()
+				.setSystem("http://dsf.dev/fhir/CodeSystem/bpmn-message").setCode("error")));
+		testValid(createTask(t -> t.getMeta().getTagFirstRep().setCode("ORGANIZATION").addExtension(
+				"http://dsf.dev/fhir/StructureDefinition/extension-read-access-organization",
+				new Identifier().setSystem("http://dsf.dev/sid/organization-identifier").setValue("Test_DIC"))));
+	}
+
+	@Test
+	public void testTaskInvalid() throws Exception
+	{
+		testInvalid(createTask(TaskStatus.INPROGRESS));
+		testInvalid(createTask(TaskStatus.COMPLETED));
+		testInvalid(createTask(TaskStatus.FAILED));
+		testInvalid(createTask(t -> t.getInput().remove(0)));
+		testInvalid(createTask(t -> t.getInput().add(t.getInput().get(0).copy())));
+		testInvalid(createTask(t -> t.getInputFirstRep().setValue(new IntegerType(1))));
+		testInvalid(createTask(t -> t.getInputFirstRep().getType().getCodingFirstRep().setCode("unknown")));
+		testInvalid(createTask(t -> t.getRequester().getIdentifier().setSystem("http://example.org/sid/other")));
+		testInvalid(createTask(t -> t.getRequester().setReference("Organization/" + UUID.randomUUID())));
+		testInvalid(createTask(t -> t.getRestriction().getRecipient().clear()));
+		testInvalid(createTask(t -> t.setIntent(TaskIntent.PLAN)));
+		testInvalid(createTask(t -> t.setAuthoredOn(null)));
+		testInvalid(createTask(t -> t.setInstantiatesCanonical(null)));
+		testInvalid(createTask(t -> t.getMeta().getTagFirstRep().setCode("UNKNOWN")));
+		testInvalid(createTask(t -> t.getInputFirstRep().getType().addCoding()
+				.setSystem("http://dsf.dev/fhir/CodeSystem/bpmn-message").setCode("business-key")));
+	}
+
+	@Test
+	public void testTaskNotSupported() throws Exception
+	{
+		testNotSupported(createTask(t -> t.getText().setStatus(NarrativeStatus.GENERATED)
+				.setDivAsString("<div xmlns=\"http://www.w3.org/1999/xhtml\">Task</div>")));
+		testNotSupported(createTask(t -> t.addContained(new Organization().setName("Test").setId("org"))));
+		testNotSupported(createTask(t -> t.getMeta().getProfile().clear()));
+		testNotSupported(createTask(
+				t -> t.addModifierExtension().setUrl("http://example.org/fhir/ext").setValue(new StringType("value"))));
+		testNotSupported(createTask(t -> t.addInput().setValue(new StringType("loinc")).getType().addCoding()
+				.setSystem("http://loinc.org").setCode("1234-5")));
+
+		// unknown extension and logical reference type not matching the target profile, not errors for the HAPI
+		// validator
+		testNotSupported(createTask(t -> t.addExtension().setUrl("http://dsf.dev/fhir/StructureDefinition/unknown")
+				.setValue(new StringType("value"))));
+		testNotSupported(createTask(t -> t.getRequester().setType(ResourceType.Patient.name())));
+	}
+
+	@Test
+	public void testOrganizationValid() throws Exception
+	{
+		Organization organization = new Organization();
+		organization.getMeta().addProfile("http://dsf.dev/fhir/StructureDefinition/organization-parent");
+		organization.getMeta().addTag().setSystem("http://dsf.dev/fhir/CodeSystem/read-access-tag").setCode("ALL");
+		organization.addIdentifier().setSystem("http://dsf.dev/sid/organization-identifier").setValue("parent.org");
+		organization.setActive(true);
+
+		testValid(organization);
+	}
+
+	@Test
+	public void testQuestionnaireResponseNotSupported() throws Exception
+	{
+		QuestionnaireResponse questionnaireResponse = new QuestionnaireResponse();
+		questionnaireResponse.getMeta().addProfile("http://dsf.dev/fhir/StructureDefinition/questionnaire-response");
+		questionnaireResponse.setStatus(QuestionnaireResponseStatus.INPROGRESS);
+
+		testNotSupported(questionnaireResponse);
+	}
+
+	@Test
+	public void testClear() throws Exception
+	{
+		testValid(createTask(TaskStatus.REQUESTED));
+		validator.clear();
+		testValid(createTask(TaskStatus.REQUESTED));
+	}
+
+	@Test
+	public void testValidateThroughputCompiledVsFull() throws Exception
+	{
+		final int count = 500;
+
+		List<Task> tasks = IntStream.range(0, count).mapToObj(i -> createTaskWithBusinessKey(TaskStatus.INPROGRESS))
+				.toList();
+
+		// warm up, compiles profiles and initializes HAPI validator
+		tasks.stream().limit(50).forEach(validator::validate);
+		tasks.stream().limit(50).forEach(fullValidator::validate);
+
+		long start = System.currentTimeMillis();
+		tasks.forEach(t -> assertEquals(0, errors(validator.validate(t))));
+		long compiledMillis = System.currentTimeMillis() - start;
+
+		start = System.currentTimeMillis();
+		tasks.forEach(t -> assertEquals(0, errors(fullValidator.validate(t))));
+		long fullMillis = System.currentTimeMillis() - start;
+
+		logger.info("Validated {} Task resources: compiled profiles {} ms ({} / s), full validation {} ms ({} / s)",
+				count, compiledMillis, count * 1000 / Math.max(1, compiledMillis), fullMillis,
+				count * 1000 / Math.max(1, fullMillis));
+
+		assertEquals(count + 50, validator.getCompiledValidations());
+		assertEquals(0, validator.getDelegateValidations());
+	}
+}